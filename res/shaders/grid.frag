@@ -13,7 +13,15 @@ uniform vec3 uColor;
 uniform sampler2D uTexture;
 uniform bool uEnableLighting;
 uniform sampler2D uShadowMap;
-uniform bool uEnableShadows;
+
+// camera and light state of the render pass, app.solid.FrameUniforms
+layout(std140) uniform Frame {
+    mat4 uViewMat;
+    mat4 uProjMat;
+    mat4 uLightVPMat;
+    vec3 uLightPosition;
+    bool uEnableShadows;
+};
 
 const vec3 AMBIENT_COLOR = vec3(0.4);
 const vec3 DIFFUSE_COLOR = vec3(0.6);
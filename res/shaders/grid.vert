@@ -9,12 +9,19 @@ out vec3 fragPos;
 out vec4 shadowPos;
 
 uniform mat4 uModelMat;
-uniform mat4 uViewMat;
-uniform mat4 uProjMat;
+// normal matrix of the model transformation, the view is rigid
+uniform mat3 uNormalMat;
 uniform int uFuncType;
 uniform float uTime;
-uniform vec3 uLightPosition;
-uniform mat4 uLightVPMat;
+
+// camera and light state of the render pass, app.solid.FrameUniforms
+layout(std140) uniform Frame {
+    mat4 uViewMat;
+    mat4 uProjMat;
+    mat4 uLightVPMat;
+    vec3 uLightPosition;
+    bool uEnableShadows;
+};
 
 const float PI = radians(180);
 const vec3 LIGHT = vec3(1.5, 0.0, 1);
@@ -87,11 +94,38 @@ vec3 calcPosition(vec2 position) {
     return pos;
 }
 
-vec3 calcNormal(vec3 pos, vec2 inPos) {
-    vec3 dx = calcPosition(inPos + vec2(0.1, 0)) - pos;
-    vec3 dy = calcPosition(inPos + vec2(0, 0.1)) - pos;
+// cross product of the partial derivatives of calcPosition up to a positive factor,
+// app.solid.Surfaces computes the same normals on the CPU
+vec3 calcNormal(vec2 position) {
+    float azimuth = position.x * 2*PI;
+    float zenith = position.y * PI;
+    float x = position.x*2 - 1;
+    float y = position.y*2 - 1;
+    float z = (1 - position.y)*2 - 1;
+    float a = 3*(x + (uTime/10000));
+    float b = 5*(y + (uTime/5000));
+
+    switch(uFuncType) {
+        case WAVE:
+        return vec3(0.6*sin(a)*sin(b), -cos(a)*cos(b), 1);
+
+        case SPHERE:
+        return vec3(sin(zenith)*sin(azimuth), sin(zenith)*cos(azimuth), cos(zenith));
+
+        case CYLINDER:
+        return vec3(sin(azimuth), cos(azimuth), 0);
+
+        case HOURGLASS:
+        return z*vec3(sin(azimuth), cos(azimuth), -1);
+
+        case SPHERICAL_HOURGLASS:
+        return cos(zenith)*vec3(sin(azimuth)*sin(zenith), cos(azimuth)*sin(zenith), cos(2*zenith));
+
+        case TENT:
+        return vec3(sign(x)*(1 - abs(y)), sign(y)*(1 - abs(x)), 1);
+    }
 
-    return cross(dx, dy);
+    return vec3(0, 0, 1);
 }
 
 void main() {
@@ -104,7 +138,7 @@ void main() {
 
     fragPos = mvPos3;
     lightVector = vec3(uViewMat * vec4(uLightPosition, 1)) - mvPos3;
-    normalVector = transpose(inverse(mat3(mvMat))) * calcNormal(pos, inPosition);
+    normalVector = mat3(uViewMat) * (uNormalMat * calcNormal(inPosition));
     shadowPos = uLightVPMat * uModelMat * vec4(pos, 1);
 
     gl_Position = uProjMat * mvPos;
@@ -0,0 +1,40 @@
+#version 330
+
+// grid.vert for surfaces baked into the vertex buffer, used with grid.frag
+in vec3 inPosition;
+in vec3 inNormal;
+in vec2 inTexCoord;
+
+out vec2 texturePos;
+out vec3 lightVector;
+out vec3 normalVector;
+out vec3 fragPos;
+out vec4 shadowPos;
+
+uniform mat4 uModelMat;
+// normal matrix of the model transformation, the view is rigid
+uniform mat3 uNormalMat;
+
+// camera and light state of the render pass, app.solid.FrameUniforms
+layout(std140) uniform Frame {
+    mat4 uViewMat;
+    mat4 uProjMat;
+    mat4 uLightVPMat;
+    vec3 uLightPosition;
+    bool uEnableShadows;
+};
+
+void main() {
+    texturePos = inTexCoord;
+
+    mat4 mvMat = uViewMat * uModelMat;
+    vec4 mvPos = mvMat * vec4(inPosition, 1);
+    vec3 mvPos3 = mvPos.xyz/mvPos.w;
+
+    fragPos = mvPos3;
+    lightVector = vec3(uViewMat * vec4(uLightPosition, 1)) - mvPos3;
+    normalVector = mat3(uViewMat) * (uNormalMat * inNormal);
+    shadowPos = uLightVPMat * uModelMat * vec4(inPosition, 1);
+
+    gl_Position = uProjMat * mvPos;
+}
@@ -7,6 +7,7 @@ import org.lwjgl.glfw.*;
 
 import java.nio.DoubleBuffer;
 
+import static lwjglutils.OGL.gl;
 import static org.lwjgl.glfw.GLFW.*;
 import static org.lwjgl.opengl.GL11.*;
 
@@ -29,21 +30,21 @@ public abstract class AbstractRenderer {
 		OGLUtils.printJAVAparameters();
 		OGLUtils.shaderCheck();
 		// Set the clear color
-		glClearColor(0.0f, 0.0f, 0.0f, 0.0f);
+		gl().glClearColor(0.0f, 0.0f, 0.0f, 0.0f);
 		textRenderer = new OGLTextRenderer(width, height);	
 	}
 	
 	public void display() {
-		glViewport(0, 0, width, height);
+		gl().glViewport(0, 0, width, height);
 		String text = new String(this.getClass().getName() + ": look at console and try keys, mouse, wheel and window interaction " );
 		
 		pass++;
 		// Set the clear color
-		glClearColor((float)(Math.sin(pass/100.)/2+0.5), 
+		gl().glClearColor((float)(Math.sin(pass/100.)/2+0.5), 
 				(float)(Math.cos(pass/200.)/2+0.5),
 				(float)(Math.sin(pass/300.)/2+0.5), 0.0f);
 		// clear the framebuffer
-		glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT); 
+		gl().glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT); 
 		
 		//create and draw text
 		textRenderer.clear();
@@ -53,6 +54,33 @@ public abstract class AbstractRenderer {
 		textRenderer.draw();
 	}
 
+	/**
+	 * Advances the simulation by one fixed time step. Called by the window
+	 * loop zero or more times before each frame, the simulation should depend
+	 * only on the tick sequence and the input sampled here, not on frame
+	 * timing.
+	 *
+	 * @param window
+	 *            GLFW window handle for sampling the input state
+	 * @param tick
+	 *            number of this tick, counted from 0
+	 * @param dt
+	 *            time step in seconds
+	 */
+	public void update(long window, long tick, double dt) {
+	}
+
+	/**
+	 * Renders a frame of the state between the last two ticks
+	 *
+	 * @param alpha
+	 *            interpolation parameter in [0, 1), the fraction of a time step
+	 *            elapsed since the last tick
+	 */
+	public void display(double alpha) {
+		display();
+	}
+
 	protected GLFWKeyCallback keyCallback = new GLFWKeyCallback() {
 		@Override
 		public void invoke(long window, int key, int scancode, int action, int mods) {
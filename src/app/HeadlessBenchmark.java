@@ -0,0 +1,65 @@
+package app;
+
+import app.solid.Grid;
+import lwjglutils.OGL;
+import lwjglutils.OGLBackendHeadless;
+import lwjglutils.OGLBackendStateCache;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+import static org.lwjgl.system.MemoryUtil.NULL;
+
+/**
+ * Runs {@link Renderer} without a window or GPU on the headless GL backend and
+ * reports its CPU cost per frame together with the GL work it issued. The
+ * state cache of the windowed application is installed in front of it.
+ * Arguments: number of measured frames (default 1000) and number of warm-up
+ * frames (default a tenth of them). Every frame runs one simulation tick
+ * first, so runs replay the same workload.
+ */
+public class HeadlessBenchmark {
+
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int warmup = args.length > 1 ? Integer.parseInt(args[1]) : frames / 10;
+        System.setProperty("java.awt.headless", "true");
+
+        OGLBackendHeadless gl = new OGLBackendHeadless();
+        OGLBackendStateCache cache = new OGLBackendStateCache(gl);
+        OGL.setBackend(cache);
+        Renderer renderer = new Renderer();
+        renderer.getWsCallback().invoke(0, LwjglWindow.WIDTH, LwjglWindow.HEIGHT);
+        renderer.init();
+        System.out.println("init: " + gl);
+
+        double dt = 1.0 / LwjglWindow.TICKS_PER_SECOND;
+        long tick = 0;
+        for (int i = 0; i < warmup; i++) {
+            renderer.update(NULL, tick++, dt);
+            renderer.display();
+        }
+        gl.resetCounters();
+        cache.resetCounters();
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        long wallStart = System.nanoTime();
+        for (int i = 0; i < frames; i++) {
+            renderer.update(NULL, tick++, dt);
+            renderer.display();
+        }
+        double cpu = (threads.getCurrentThreadCpuTime() - cpuStart) / 1e6 / frames;
+        double wall = (System.nanoTime() - wallStart) / 1e6 / frames;
+
+        System.out.println(String.format(Locale.US,
+                "%d frames: %.3f ms CPU, %.3f ms wall, %.1f draw calls, %.1f uniform uploads,"
+                        + " %.1f state changes (%.1f dropped), %.1f GL calls per frame",
+                frames, cpu, wall, (double) gl.getDrawCalls() / frames, (double) gl.getUniformUploads() / frames,
+                (double) gl.getStateChanges() / frames, (double) cache.getSkippedStateChanges() / frames,
+                (double) gl.getCalls() / frames));
+        System.out.println(Grid.getGeometryCache());
+        renderer.dispose();
+    }
+}
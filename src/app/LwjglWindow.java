@@ -1,5 +1,8 @@
 package app;
 
+import lwjglutils.OGL;
+import lwjglutils.OGLBackendLwjgl;
+import lwjglutils.OGLBackendStateCache;
 import org.lwjgl.glfw.GLFWErrorCallback;
 import org.lwjgl.glfw.GLFWVidMode;
 import org.lwjgl.opengl.GL;
@@ -19,9 +22,15 @@ public class LwjglWindow {
 	public static int WIDTH = 1280;
     public static int HEIGHT = 720;
 
+    // fixed simulation rate; frames longer than MAX_FRAME_TIME slow the simulation down instead of
+    // running an ever growing number of ticks
+    public static final int TICKS_PER_SECOND = 60;
+    public static final double MAX_FRAME_TIME = 0.25;
+
     // The window handle
 	private long window;
 	private AbstractRenderer renderer;
+	private long tick;
 	
     private static boolean DEBUG = false;
 
@@ -186,23 +195,45 @@ public class LwjglWindow {
 		if (DEBUG)
 			GLUtil.setupDebugMessageCallback();
 
+		// the context is new, every state change is tracked from here on
+		OGL.setBackend(new OGLBackendStateCache(new OGLBackendLwjgl()));
+
 		renderer.getWsCallback().invoke(window, WIDTH, HEIGHT);
 
 		renderer.init();
 
 
-		// Run the rendering loop until the user has attempted to close
+		// Run the loop until the user has attempted to close
 		// the window or has pressed the ESCAPE key.
+		// The simulation advances in fixed steps, as many as the elapsed time
+		// allows, and the frame is rendered between the last two of them.
+		final double dt = 1.0 / TICKS_PER_SECOND;
+		double accumulator = 0;
+		double previous = glfwGetTime();
 		while ( !glfwWindowShouldClose(window) ) {
-			
-			renderer.display();
-			
-			glfwSwapBuffers(window); // swap the color buffers
-
 			// Poll for window events. The key callback above will only be
 			// invoked during this call.
 			glfwPollEvents();
+
+			double now = glfwGetTime();
+			accumulator += Math.min(now - previous, MAX_FRAME_TIME);
+			previous = now;
+			while (accumulator >= dt) {
+				renderer.update(window, tick++, dt);
+				accumulator -= dt;
+			}
+
+			renderer.display(accumulator / dt);
+
+			glfwSwapBuffers(window); // swap the color buffers
 		}
 	}
 
+	/**
+	 * Returns the number of simulation ticks run so far
+	 */
+	public long getTick() {
+		return tick;
+	}
+
 }
\ No newline at end of file
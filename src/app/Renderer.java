@@ -1,6 +1,10 @@
 package app;
 
+import app.scene.SceneNode;
+import app.solid.BoundingVolumeHierarchy;
+import app.solid.FrameUniforms;
 import app.solid.Grid;
+import lwjglutils.OGLBackendStateCache;
 import lwjglutils.OGLRenderTarget;
 import lwjglutils.OGLTextRenderer;
 import lwjglutils.OGLTexture;
@@ -15,15 +19,19 @@ import java.net.URL;
 import java.nio.DoubleBuffer;
 import java.util.*;
 
+import static lwjglutils.OGL.gl;
 import static org.lwjgl.glfw.GLFW.glfwGetCursorPos;
+import static org.lwjgl.glfw.GLFW.glfwGetKey;
 import static org.lwjgl.opengl.GL11.*;
 import static org.lwjgl.opengl.GL30.GL_FRAMEBUFFER;
-import static org.lwjgl.opengl.GL30.glBindFramebuffer;
 import static org.lwjgl.opengl.GL31.GL_PRIMITIVE_RESTART;
+import static org.lwjgl.system.MemoryUtil.NULL;
 
 public class Renderer extends AbstractRenderer {
 
     private final static String TEXTURE_PATH = "textures/";
+    // camera and light movement in units per second
+    private final static double MOVE_SPEED = 1.2;
 
     private enum PolygonMode {
         LINE(GL_LINE),
@@ -40,38 +48,60 @@ public class Renderer extends AbstractRenderer {
         }
     }
 
-    private Camera camera;
+    private CameraController camera;
+    // camera at the interpolated position, used for rendering while the camera moves
+    private final CameraController renderCamera = new CameraController();
+    private Vec3D cameraPrevious;
     private Mat4 projectionMatrix;
+    private Mat4f projectionMatrixF;
     private final Map<String, OGLTexture> textures = new HashMap<>();
     private final List<String> textureNames = new ArrayList<>();
     private int textureIndex;
     private final List<Grid> grids = new ArrayList<>();
+    private final BoundingVolumeHierarchy<Grid> sceneIndex = new BoundingVolumeHierarchy<>();
+    private final List<Grid> visibleGrids = new ArrayList<>();
     private Grid grid, light;
+    private final SceneNode scene = new SceneNode();
+    private SceneNode lightNode;
     private PolygonMode polygonMode = PolygonMode.FILL;
     private boolean isPerspectiveProjection = true;
     private boolean isMousePressed = false;
     private final double[] mouseOrigin = new double[2];
     private Vec3D lightPosition = new Vec3D(1.5, 0, 1.5);
+    // simulated light translation at the last two ticks, the light node is placed between them
+    private Vec3D lightTranslation = lightPosition, lightPrevious = lightPosition;
+    // simulation time in seconds at the last two ticks, grids animate between them
+    private double time, timePrevious;
     private final Vec3D lightDirection = new Vec3D(0, 0, -1);
     private Mat4 lightView = new Mat4ViewRH(lightPosition, lightDirection, new Vec3D(0, 0, 1));
     private final Mat4 lightProj = new Mat4OrthoRH(15, 15, 0.01, 100);
+    private final Mat4f lightProjF = new Mat4f(lightProj);
+    private Mat4f lightViewF;
+    private Mat4 lightVPMat;
+    private Mat4f lightVPMatF;
+    private Vec3f lightPositionF;
+    private Frustum lightFrustum;
     private OGLRenderTarget lightTarget;
     private OGLTexture2D.Viewer viewer;
     private boolean enableShadows = false;
+    private FrameUniforms frameUniforms;
 
     @Override
     public void init() {
         textRenderer = new OGLTextRenderer(width, height);
         lightTarget = new OGLRenderTarget(2048, 2048);
+        frameUniforms = new FrameUniforms();
         viewer = new OGLTexture2D.Viewer();
 
         loadTextures();
 
         Grid floor = new Grid();
-        floor.scale(new Vec3D(4));
+        floor.setBaked(true);
+        scene.addChild(new SceneNode(floor)).setScale(new Vec3D(4));
         grid = new Grid(100, 100, GL_TRIANGLES, Grid.FuncType.WAVE);
         grid.setColor(1, 1, 0);
-        grid.translate(new Vec3D(0, 0, 1));
+        grid.setBaked(true);
+        scene.addChild(new SceneNode(grid)).setTranslation(new Vec3D(0, 0, 1));
         setTexture(grid);
         grid.setColorMode(Grid.ColorMode.TEXTURE);
 
@@ -81,18 +111,25 @@ public class Renderer extends AbstractRenderer {
         light = new Grid(50, 50, GL_TRIANGLES, Grid.FuncType.SPHERE);
         light.setColor(1, 1, 1);
         light.setEnableLighting(false);
-        light.scale(new Vec3D(0.1));
-        light.translate(lightPosition);
+        light.setBaked(true);
+        lightNode = scene.addChild(new SceneNode()).setTranslation(lightPosition);
+        lightNode.addChild(new SceneNode(light)).setScale(new Vec3D(0.1));
 
-        camera = new Camera()
+        scene.update();
+        grids.forEach(sceneIndex::add);
+        sceneIndex.rebuild();
+        updateLight();
+
+        camera = new CameraController(new Camera()
                 .withPosition(new Vec3D(0, -3, 1))
                 .withAzimuth(Math.toRadians(90))
                 .withZenith(Math.toRadians(-15))
-                .withFirstPerson(true);
+                .withFirstPerson(true));
+        cameraPrevious = camera.getPosition();
         updateProjectionMatrix();
 
-        glEnable(GL_DEPTH_TEST);
-        glEnable(GL_PRIMITIVE_RESTART);
+        gl().glEnable(GL_DEPTH_TEST);
+        gl().glEnable(GL_PRIMITIVE_RESTART);
     }
 
     private void loadTextures() {
@@ -118,45 +155,76 @@ public class Renderer extends AbstractRenderer {
         grid.setTexture(textures.get(textureNames.get(textureIndex)));
     }
 
-    private void updateGrids(Mat4 projectionMatrix, Mat4 viewMatrix) {
-        if (light != null) {
-            light.setProjectionMatrix(projectionMatrix);
-            light.setViewMatrix(viewMatrix);
-        }
+    @Override
+    public void dispose() {
+        grids.forEach(Grid::dispose);
+        light.dispose();
+        frameUniforms.delete();
+    }
 
-        float[] lightPositionF = new float[] {
-                (float) lightPosition.getX(),
-                (float) lightPosition.getY(),
-                (float) lightPosition.getZ()
-        };
-
-        for (Grid grid : grids) {
-            grid.setEnableShadows(enableShadows);
-            grid.setLightPosition(lightPositionF);
-            grid.setLightVPMat(lightView.mul(lightProj));
-            grid.setProjectionMatrix(projectionMatrix);
-            grid.setViewMatrix(viewMatrix);
-        }
+    @Override
+    public void update(long window, long tick, double dt) {
+        double step = MOVE_SPEED * dt;
+        cameraPrevious = camera.getPosition();
+        moveCamera(window, step);
+        lightPrevious = lightTranslation;
+        moveLight(window, step);
+        timePrevious = time;
+        time = (tick + 1) * dt;
     }
 
     @Override
     public void display() {
-        glPolygonMode(GL_FRONT_AND_BACK, polygonMode.getValue());
+        display(1);
+    }
+
+    @Override
+    public void display(double alpha) {
+        Grid.beginFrame();
+        if (gl() instanceof OGLBackendStateCache cache) {
+            cache.resetCounters();
+        }
+        Vec3D lightNodePosition = lerp(lightPrevious, lightTranslation, alpha);
+        if (!lightNodePosition.equals(lightNode.getTranslation())) {
+            lightNode.setTranslation(lightNodePosition);
+        }
+        float timeMillis = (float) ((timePrevious + (time - timePrevious) * alpha) * 1000);
+        for (Grid g : grids) {
+            g.setTime(timeMillis);
+        }
+
+        gl().glPolygonMode(GL_FRONT_AND_BACK, polygonMode.getValue());
 
         lightTarget.bind();
-        glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
-        updateGrids(lightProj, lightView);
-        for (Grid grid : grids) {
+        gl().glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
+        if (scene.isDirty()) {
+            boolean lightMoved = lightNode.isDirty();
+            scene.update();
+            if (lightMoved) {
+                updateLight();
+            }
+        }
+        sceneIndex.rebuildIfDegraded();
+        frameUniforms.update(lightViewF, lightProjF, lightVPMatF, lightPositionF, enableShadows);
+        visibleGrids.clear();
+        sceneIndex.query(lightFrustum, visibleGrids::add);
+        for (Grid grid : visibleGrids) {
             grid.draw();
         }
 
-        glBindFramebuffer(GL_FRAMEBUFFER, 0);
-        glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
-        glViewport(0, 0, width, height);
+        gl().glBindFramebuffer(GL_FRAMEBUFFER, 0);
+        gl().glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
+        gl().glViewport(0, 0, width, height);
 
-        updateGrids(projectionMatrix, camera.getViewMatrix());
-        light.draw();
-        for (Grid grid : grids) {
+        Mat4 viewMatrix = getViewMatrix(alpha);
+        frameUniforms.update(new Mat4f(viewMatrix), projectionMatrixF, lightVPMatF, lightPositionF, enableShadows);
+        Frustum cameraFrustum = new Frustum(viewMatrix.mul(projectionMatrix));
+        if (cameraFrustum.testAabb(light.getBounds())) {
+            light.draw();
+        }
+        visibleGrids.clear();
+        sceneIndex.query(cameraFrustum, visibleGrids::add);
+        for (Grid grid : visibleGrids) {
             grid.setShadowMap(lightTarget.getDepthTexture());
             grid.draw();
         }
@@ -172,6 +240,12 @@ public class Renderer extends AbstractRenderer {
         textRenderer.addStr2D(5, 85, String.format("[P] Polygon mode: %s", polygonMode));
         textRenderer.addStr2D(5, 105, String.format("[T] Texture: %s", textureNames.get(textureIndex)));
         textRenderer.addStr2D(5, 125, String.format("[M] Shadow map: %s", enableShadows));
+        textRenderer.addStr2D(5, 145, String.format("Uniforms: %d uploaded, %d skipped",
+                Grid.getUniformUploads(), Grid.getSkippedUniformUploads()));
+        if (gl() instanceof OGLBackendStateCache cache) {
+            textRenderer.addStr2D(5, 165, String.format("State changes: %d, %d skipped",
+                    cache.getStateChanges(), cache.getSkippedStateChanges()));
+        }
     }
 
     private void changePolygonMode() {
@@ -183,6 +257,7 @@ public class Renderer extends AbstractRenderer {
         projectionMatrix = isPerspectiveProjection
                 ? new Mat4PerspRH(Math.toRadians(70), (double) height / (double) width, 0.01, 100)
                 : new Mat4OrthoRH(5 * ((double) width / height), 5, 0.01, 100);
+        projectionMatrixF = new Mat4f(projectionMatrix);
     }
 
     private void changeColorMode() {
@@ -223,35 +298,57 @@ public class Renderer extends AbstractRenderer {
         }
     }
 
-    private void moveCamera(int key) {
-        double speed = 0.02;
-        switch (key) {
-            case GLFW.GLFW_KEY_W -> camera = camera.forward(speed);
-            case GLFW.GLFW_KEY_S -> camera = camera.backward(speed);
-            case GLFW.GLFW_KEY_A -> camera = camera.left(speed);
-            case GLFW.GLFW_KEY_D -> camera = camera.right(speed);
-            case GLFW.GLFW_KEY_SPACE -> camera = camera.up(speed);
-            case GLFW.GLFW_KEY_X -> camera = camera.down(speed);
+    private Mat4 getViewMatrix(double alpha) {
+        Vec3D position = camera.getPosition();
+        if (position.equals(cameraPrevious)) {
+            return camera.getViewMatrix();
         }
+        return renderCamera.set(camera)
+                .setPosition(lerp(cameraPrevious, position, alpha))
+                .getViewMatrix();
     }
 
-    private void moveLight(int key) {
-        double speed = 0.02;
-        final Vec3D direction;
-        switch (key) {
-            case GLFW.GLFW_KEY_RIGHT -> direction = new Vec3D(speed, 0, 0);
-            case GLFW.GLFW_KEY_LEFT -> direction = new Vec3D(-speed, 0, 0);
-            case GLFW.GLFW_KEY_UP -> direction = new Vec3D(0, speed, 0);
-            case GLFW.GLFW_KEY_DOWN -> direction = new Vec3D(0, -speed, 0);
-            default -> direction  = new Vec3D(0, 0, 0);
+    private static Vec3D lerp(Vec3D a, Vec3D b, double t) {
+        return a.equals(b) ? b : a.add(b.sub(a).mul(t));
+    }
+
+    // no keys are down without a window, e.g. in HeadlessBenchmark
+    private static boolean isKeyDown(long window, int key) {
+        return window != NULL && glfwGetKey(window, key) == GLFW.GLFW_PRESS;
+    }
+
+    private void moveCamera(long window, double step) {
+        if (isKeyDown(window, GLFW.GLFW_KEY_W)) camera.forward(step);
+        if (isKeyDown(window, GLFW.GLFW_KEY_S)) camera.backward(step);
+        if (isKeyDown(window, GLFW.GLFW_KEY_A)) camera.left(step);
+        if (isKeyDown(window, GLFW.GLFW_KEY_D)) camera.right(step);
+        if (isKeyDown(window, GLFW.GLFW_KEY_SPACE)) camera.up(step);
+        if (isKeyDown(window, GLFW.GLFW_KEY_X)) camera.down(step);
+    }
+
+    private void moveLight(long window, double step) {
+        double dx = 0, dy = 0;
+        if (isKeyDown(window, GLFW.GLFW_KEY_RIGHT)) dx += step;
+        if (isKeyDown(window, GLFW.GLFW_KEY_LEFT)) dx -= step;
+        if (isKeyDown(window, GLFW.GLFW_KEY_UP)) dy += step;
+        if (isKeyDown(window, GLFW.GLFW_KEY_DOWN)) dy -= step;
+        if (dx != 0 || dy != 0) {
+            lightTranslation = lightTranslation.add(new Vec3D(dx, dy, 0));
         }
-        light.translate(direction);
-        lightPosition = lightPosition.add(direction);
+    }
+
+    private void updateLight() {
+        lightPosition = lightNode.getWorldPosition();
         lightView = new Mat4ViewRH(lightPosition, lightDirection, new Vec3D(0, 0, 1));
+        lightViewF = new Mat4f(lightView);
+        lightVPMat = lightView.mul(lightProj);
+        lightVPMatF = new Mat4f(lightVPMat);
+        lightFrustum = new Frustum(lightVPMat);
+        lightPositionF = new Vec3f(lightPosition);
     }
 
     private void rotateCamera(double x, double y) {
-        camera = camera.addAzimuth(Math.PI * (mouseOrigin[0] - x) / width)
+        camera.addAzimuth(Math.PI * (mouseOrigin[0] - x) / width)
                 .addZenith(Math.PI * (mouseOrigin[1] - y) / height);
         mouseOrigin[0] = x;
         mouseOrigin[1] = y;
@@ -263,11 +360,6 @@ public class Renderer extends AbstractRenderer {
             if (action == GLFW.GLFW_PRESS) {
                 onKeyPress(key);
             }
-
-            if (action == GLFW.GLFW_PRESS || action == GLFW.GLFW_REPEAT) {
-                moveCamera(key);
-                moveLight(key);
-            }
         }
     };
 
@@ -0,0 +1,145 @@
+package app;
+
+import app.solid.Grid;
+import app.solid.GridRasterizer;
+import lwjglutils.OGL;
+import lwjglutils.OGLBackendHeadless;
+import lwjglutils.OGLTexImageFloat;
+import lwjglutils.OGLTexture2D;
+import transforms.*;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.lwjgl.opengl.GL11.GL_TRIANGLES;
+
+/**
+ * Renders the scene of {@link Renderer} with {@link GridRasterizer} on the
+ * headless GL backend and writes it as a PNG, then times the frame with 1, 2,
+ * 4, ... threads up to the number of cores.
+ * Arguments: output file (default grid.png), width and height (default
+ * 1920x1080), color mode of the wave grid (default TEXTURE).
+ */
+public class SoftwareRender {
+
+    private static final int SHADOW_MAP_SIZE = 2048;
+
+    private final List<Grid> grids;
+    private final Grid light;
+    private final Mat4 lightView, lightProj, view, projection;
+    private final OGLTexture2D texture;
+    private final OGLTexImageFloat textureImage;
+
+    private SoftwareRender(int width, int height, Grid.ColorMode colorMode) throws IOException {
+        Grid floor = new Grid();
+        floor.setTransform(new Transform().withScale(new Vec3D(4)));
+        Grid grid = new Grid(100, 100, GL_TRIANGLES, Grid.FuncType.WAVE);
+        grid.setColor(1, 1, 0);
+        grid.setTransform(new Transform(new Vec3D(0, 0, 1)));
+        grid.setColorMode(colorMode);
+        grids = List.of(floor, grid);
+
+        Vec3D lightPosition = new Vec3D(1.5, 0, 1.5);
+        light = new Grid(50, 50, GL_TRIANGLES, Grid.FuncType.SPHERE);
+        light.setColor(1, 1, 1);
+        light.setEnableLighting(false);
+        light.setTransform(new Transform(lightPosition, new Quat(1, 0, 0, 0), new Vec3D(0.1)));
+
+        lightView = new Mat4ViewRH(lightPosition, new Vec3D(0, 0, -1), new Vec3D(0, 0, 1));
+        lightProj = new Mat4OrthoRH(15, 15, 0.01, 100);
+        Mat4 lightVP = lightView.mul(lightProj);
+        for (Grid g : grids) {
+            g.setEnableShadows(true);
+            g.setLightPosition(new Vec3f(lightPosition));
+            g.setLightVPMat(lightVP);
+        }
+
+        view = new CameraController(new Camera()
+                .withPosition(new Vec3D(0, -3, 1))
+                .withAzimuth(Math.toRadians(90))
+                .withZenith(Math.toRadians(-15))
+                .withFirstPerson(true)).getViewMatrix();
+        projection = new Mat4PerspRH(Math.toRadians(70), (double) height / width, 0.01, 100);
+
+        BufferedImage image = ImageIO.read(new File(Renderer.class.getResource("/textures/globe.jpg").getFile()));
+        textureImage = new OGLTexImageFloat(image.getWidth(), image.getHeight(), 4);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int argb = image.getRGB(x, y);
+                for (int i = 0; i < 4; i++) {
+                    textureImage.setPixel(x, y, i, (argb >> (i == 3 ? 24 : 16 - 8 * i) & 0xff) / 255f);
+                }
+            }
+        }
+        texture = new OGLTexture2D(textureImage);
+        grid.setTexture(texture);
+    }
+
+    private GridRasterizer render(int width, int height, ForkJoinPool pool) {
+        GridRasterizer shadowPass = new GridRasterizer(SHADOW_MAP_SIZE, SHADOW_MAP_SIZE, pool);
+        shadowPass.setTime(0);
+        shadowPass.setColorMask(false);
+        for (Grid grid : grids) {
+            grid.setProjectionMatrix(lightProj);
+            grid.setViewMatrix(lightView);
+            shadowPass.draw(grid);
+        }
+
+        GridRasterizer colorPass = new GridRasterizer(width, height, pool);
+        colorPass.setTime(0);
+        colorPass.setTextureImage(texture, textureImage);
+        colorPass.setShadowMap(shadowPass.getDepthImage());
+        light.setProjectionMatrix(projection);
+        light.setViewMatrix(view);
+        colorPass.draw(light);
+        for (Grid grid : grids) {
+            grid.setProjectionMatrix(projection);
+            grid.setViewMatrix(view);
+            colorPass.draw(grid);
+        }
+        colorPass.finish();
+        return colorPass;
+    }
+
+    public static void main(String[] args) throws IOException {
+        File output = new File(args.length > 0 ? args[0] : "grid.png");
+        int width = args.length > 2 ? Integer.parseInt(args[1]) : 1920;
+        int height = args.length > 2 ? Integer.parseInt(args[2]) : 1080;
+        Grid.ColorMode colorMode = args.length > 3 ? Grid.ColorMode.valueOf(args[3]) : Grid.ColorMode.TEXTURE;
+        System.setProperty("java.awt.headless", "true");
+        OGL.setBackend(new OGLBackendHeadless());
+
+        SoftwareRender scene = new SoftwareRender(width, height, colorMode);
+        scene.render(width, height, ForkJoinPool.commonPool()).writePng(output);
+        System.out.println("Written " + output);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        double single = 0;
+        for (int threads = 1; ; threads = Math.min(2 * threads, cores)) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            for (int i = 0; i < 3; i++) {
+                scene.render(width, height, pool);
+            }
+            int frames = 10;
+            long start = System.nanoTime();
+            for (int i = 0; i < frames; i++) {
+                scene.render(width, height, pool);
+            }
+            double ms = (System.nanoTime() - start) / 1e6 / frames;
+            pool.shutdown();
+            if (threads == 1) {
+                single = ms;
+            }
+            System.out.println(String.format(Locale.US, "%d threads: %.1f ms per frame, speedup %.2f",
+                    threads, ms, single / ms));
+            if (threads == cores) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package app.scene;
+
+import app.solid.Solid;
+import transforms.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Node of a transform hierarchy. Each node has a local translation, rotation
+ * and scale relative to its parent and optionally drives the model matrix of
+ * a solid. Changes only mark the node dirty; {@link #update()} recomputes the
+ * world matrices of changed subtrees, splitting subtrees of at least
+ * {@link #PARALLEL_THRESHOLD} nodes across the common ForkJoin pool.
+ * Structural and local changes must not run concurrently with an update.
+ */
+public class SceneNode {
+
+    public static final int PARALLEL_THRESHOLD = 1024;
+
+    private final Solid solid;
+    private SceneNode parent;
+    private final List<SceneNode> children = new ArrayList<>();
+    private int subtreeSize = 1;
+
+    private Transform local = new Transform();
+    private Mat4 worldMatrix = new Mat4Identity();
+    // local TRS or parent changed, this node and its subtree need new world matrices
+    private boolean dirty = true;
+    // some descendant is dirty
+    private boolean childrenDirty;
+
+    public SceneNode() {
+        this(null);
+    }
+
+    public SceneNode(Solid solid) {
+        this.solid = solid;
+    }
+
+    public Solid getSolid() {
+        return solid;
+    }
+
+    public SceneNode getParent() {
+        return parent;
+    }
+
+    public List<SceneNode> getChildren() {
+        return Collections.unmodifiableList(children);
+    }
+
+    public SceneNode addChild(SceneNode child) {
+        for (SceneNode n = this; n != null; n = n.parent) {
+            if (n == child) {
+                throw new IllegalArgumentException("Node cannot become its own descendant");
+            }
+        }
+        if (child.parent != null) {
+            child.parent.removeChild(child);
+        }
+        child.parent = this;
+        children.add(child);
+        addSubtreeSize(child.subtreeSize);
+        child.markDirty();
+        return child;
+    }
+
+    public boolean removeChild(SceneNode child) {
+        if (child.parent != this || !children.remove(child)) {
+            return false;
+        }
+        child.parent = null;
+        child.markDirty();
+        addSubtreeSize(-child.subtreeSize);
+        return true;
+    }
+
+    private void addSubtreeSize(int delta) {
+        for (SceneNode n = this; n != null; n = n.parent) {
+            n.subtreeSize += delta;
+        }
+    }
+
+    public Transform getLocalTransform() {
+        return local;
+    }
+
+    public SceneNode setLocalTransform(Transform local) {
+        this.local = local;
+        markDirty();
+        return this;
+    }
+
+    public Vec3D getTranslation() {
+        return local.getTranslation();
+    }
+
+    public SceneNode setTranslation(Vec3D translation) {
+        return setLocalTransform(local.withTranslation(translation));
+    }
+
+    public Quat getRotation() {
+        return local.getRotation();
+    }
+
+    public SceneNode setRotation(Quat rotation) {
+        return setLocalTransform(local.withRotation(rotation));
+    }
+
+    public Vec3D getScale() {
+        return local.getScale();
+    }
+
+    public SceneNode setScale(Vec3D scale) {
+        return setLocalTransform(local.withScale(scale));
+    }
+
+    public SceneNode translate(Vec3D translation) {
+        return setTranslation(local.getTranslation().add(translation));
+    }
+
+    public SceneNode rotate(double alpha, Vec3D axis) {
+        // rotation applied after the current one, about the node origin
+        return setRotation(Quat.fromEulerAngle(alpha, axis.normalized().orElse(new Vec3D(1, 0, 0)))
+                .mul(local.getRotation()));
+    }
+
+    public SceneNode scale(Vec3D scale) {
+        return setScale(local.getScale().mul(scale));
+    }
+
+    public Mat4 getLocalMatrix() {
+        return local.toMat4();
+    }
+
+    /**
+     * Returns the world matrix computed by the last {@link #update()} of this
+     * node or one of its ancestors.
+     */
+    public Mat4 getWorldMatrix() {
+        return worldMatrix;
+    }
+
+    public Vec3D getWorldPosition() {
+        return worldMatrix.getTranslate();
+    }
+
+    public boolean isDirty() {
+        return dirty || childrenDirty;
+    }
+
+    private void markDirty() {
+        dirty = true;
+        for (SceneNode n = parent; n != null && !n.childrenDirty; n = n.parent) {
+            n.childrenDirty = true;
+        }
+    }
+
+    /**
+     * Recomputes the world matrices of all dirty nodes in the subtree of this
+     * node and pushes them into the model matrices of their solids.
+     */
+    public void update() {
+        if (!isDirty()) {
+            return;
+        }
+        Mat4 parentWorld = parent == null ? null : parent.worldMatrix;
+        if (subtreeSize >= PARALLEL_THRESHOLD && !ForkJoinTask.inForkJoinPool()) {
+            ForkJoinPool.commonPool().invoke(new UpdateTask(this, parentWorld, false));
+        } else {
+            update(parentWorld, false);
+        }
+    }
+
+    private void update(Mat4 parentWorld, boolean parentChanged) {
+        boolean changed = parentChanged || dirty;
+        if (changed) {
+            Mat4 local = getLocalMatrix();
+            worldMatrix = parentWorld == null ? local : local.mul(parentWorld);
+            dirty = false;
+            if (solid != null) {
+                solid.setModelMatrix(worldMatrix);
+            }
+        } else if (!childrenDirty) {
+            return;
+        }
+        childrenDirty = false;
+
+        if (subtreeSize >= PARALLEL_THRESHOLD && children.size() > 1) {
+            List<UpdateTask> tasks = new ArrayList<>(children.size());
+            for (SceneNode child : children) {
+                if (changed || child.isDirty()) {
+                    tasks.add(new UpdateTask(child, worldMatrix, changed));
+                }
+            }
+            ForkJoinTask.invokeAll(tasks);
+        } else {
+            for (SceneNode child : children) {
+                child.update(worldMatrix, changed);
+            }
+        }
+    }
+
+    private static final class UpdateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final SceneNode node;
+        private final Mat4 parentWorld;
+        private final boolean parentChanged;
+
+        UpdateTask(SceneNode node, Mat4 parentWorld, boolean parentChanged) {
+            this.node = node;
+            this.parentWorld = parentWorld;
+            this.parentChanged = parentChanged;
+        }
+
+        @Override
+        protected void compute() {
+            node.update(parentWorld, parentChanged);
+        }
+    }
+}
@@ -0,0 +1,622 @@
+package app.solid;
+
+import transforms.BoundingBox;
+import transforms.BoundingSphere;
+import transforms.Frustum;
+import transforms.Vec3D;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Dynamic bounding volume hierarchy over the world-space bounds of solids.
+ * Leaves store the bounds of their solid enlarged by a margin, so that small
+ * movements reported by the solid do not touch the tree and larger ones only
+ * refit the ancestors of the leaf. Solids may report model matrix changes
+ * from several threads at once, the refits are queued and applied before the
+ * next query. Insertion descends to the sibling with the
+ * least surface area heuristic (SAH) cost increase, {@link #rebuild()} builds
+ * the whole tree top-down with binned SAH splits. Not thread-safe, queries
+ * must not be issued from within the action of another query.
+ */
+public class BoundingVolumeHierarchy<T extends Solid> {
+
+    public static final double DEFAULT_MARGIN = 0.1;
+    private static final int SAH_BINS = 16;
+    // rebuild once refits made the tree this much more expensive than right after the last build
+    private static final double DEGRADED_COST_RATIO = 1.5;
+
+    private static final class Node<T> {
+        double minX, minY, minZ, maxX, maxY, maxZ;
+        Node<T> parent, left, right;
+        T solid;
+        // set while the leaf is in pendingRefits, a leaf is queued once however often it moves
+        final AtomicBoolean queued = new AtomicBoolean();
+
+        boolean isLeaf() {
+            return solid != null;
+        }
+
+        double area() {
+            return area(maxX - minX, maxY - minY, maxZ - minZ);
+        }
+
+        double unionArea(Node<?> n) {
+            return area(Math.max(maxX, n.maxX) - Math.min(minX, n.minX),
+                    Math.max(maxY, n.maxY) - Math.min(minY, n.minY),
+                    Math.max(maxZ, n.maxZ) - Math.min(minZ, n.minZ));
+        }
+
+        void setUnion(Node<?> a, Node<?> b) {
+            minX = Math.min(a.minX, b.minX);
+            minY = Math.min(a.minY, b.minY);
+            minZ = Math.min(a.minZ, b.minZ);
+            maxX = Math.max(a.maxX, b.maxX);
+            maxY = Math.max(a.maxY, b.maxY);
+            maxZ = Math.max(a.maxZ, b.maxZ);
+        }
+
+        boolean contains(BoundingBox b) {
+            return b.getMinX() >= minX && b.getMinY() >= minY && b.getMinZ() >= minZ
+                    && b.getMaxX() <= maxX && b.getMaxY() <= maxY && b.getMaxZ() <= maxZ;
+        }
+
+        static double area(double dx, double dy, double dz) {
+            return 2 * (dx * dy + dy * dz + dz * dx);
+        }
+    }
+
+    private final double margin;
+    private final Map<T, Node<T>> leaves = new IdentityHashMap<>();
+    private final Queue<Node<T>> pendingRefits = new ConcurrentLinkedQueue<>();
+    private Node<T> root;
+    private Node<T>[] stack = newNodes(64);
+    private double builtCost;
+    private boolean changed;
+
+    public BoundingVolumeHierarchy() {
+        this(DEFAULT_MARGIN);
+    }
+
+    public BoundingVolumeHierarchy(double margin) {
+        if (margin < 0) {
+            throw new IllegalArgumentException("Margin must not be negative");
+        }
+        this.margin = margin;
+    }
+
+    public int size() {
+        return leaves.size();
+    }
+
+    public boolean contains(T solid) {
+        return leaves.containsKey(solid);
+    }
+
+    public void add(T solid) {
+        if (leaves.containsKey(solid)) {
+            throw new IllegalArgumentException("Solid is already in the hierarchy");
+        }
+        Node<T> leaf = new Node<>();
+        leaf.solid = solid;
+        setEnlarged(leaf, solid.getBounds());
+        leaves.put(solid, leaf);
+        solid.setBoundsListener(s -> {
+            if (leaf.queued.compareAndSet(false, true)) {
+                pendingRefits.add(leaf);
+            }
+        });
+        insertLeaf(leaf);
+        changed = true;
+    }
+
+    public boolean remove(T solid) {
+        Node<T> leaf = leaves.remove(solid);
+        if (leaf == null) {
+            return false;
+        }
+        solid.setBoundsListener(null);
+        removeLeaf(leaf);
+        changed = true;
+        return true;
+    }
+
+    /**
+     * Refits the leaf of the given solid to its current bounds, queued
+     * automatically when the model matrix of a contained solid changes.
+     */
+    public void update(T solid) {
+        refitPending();
+        Node<T> leaf = leaves.get(solid);
+        if (leaf != null) {
+            refit(leaf);
+        }
+    }
+
+    private void refitPending() {
+        Node<T> leaf;
+        while ((leaf = pendingRefits.poll()) != null) {
+            // cleared before the refit reads the bounds, later changes queue the leaf again
+            leaf.queued.set(false);
+            // skip leaves removed since the change was reported
+            if (leaves.get(leaf.solid) == leaf) {
+                refit(leaf);
+            }
+        }
+    }
+
+    private void refit(Node<T> leaf) {
+        BoundingBox bounds = leaf.solid.getBounds();
+        if (leaf.contains(bounds)) {
+            return;
+        }
+        setEnlarged(leaf, bounds);
+        for (Node<T> node = leaf.parent; node != null; node = node.parent) {
+            node.setUnion(node.left, node.right);
+        }
+        changed = true;
+    }
+
+    /**
+     * Returns the SAH cost of the tree, the summed surface areas of all nodes
+     * relative to the surface area of the root.
+     */
+    public double getCost() {
+        refitPending();
+        if (root == null || root.isLeaf()) {
+            return 0;
+        }
+        double sum = 0;
+        int top = push(0, root);
+        while (top > 0) {
+            Node<T> node = stack[--top];
+            sum += node.area();
+            if (!node.isLeaf()) {
+                top = push(top, node.left);
+                top = push(top, node.right);
+            }
+        }
+        double rootArea = root.area();
+        return rootArea > 0 ? sum / rootArea : 0;
+    }
+
+    /**
+     * Rebuilds the tree when insertions, removals and refits since the last
+     * rebuild have increased its SAH cost noticeably.
+     *
+     * @return true if the tree was rebuilt
+     */
+    public boolean rebuildIfDegraded() {
+        refitPending();
+        if (!changed) {
+            return false;
+        }
+        changed = false;
+        if (getCost() <= builtCost * DEGRADED_COST_RATIO) {
+            return false;
+        }
+        rebuild();
+        return true;
+    }
+
+    public void rebuild() {
+        pendingRefits.clear();
+        Node<T>[] nodes = leaves.values().toArray(newNodes(0));
+        for (Node<T> leaf : nodes) {
+            leaf.queued.set(false);
+            setEnlarged(leaf, leaf.solid.getBounds());
+        }
+        root = nodes.length == 0 ? null : build(nodes);
+        if (root != null) {
+            root.parent = null;
+        }
+        builtCost = getCost();
+        changed = false;
+    }
+
+    public void query(Frustum frustum, Consumer<? super T> action) {
+        refitPending();
+        int top = push(0, root);
+        while (top > 0) {
+            Node<T> node = stack[--top];
+            if (!frustum.testAabb(node.minX, node.minY, node.minZ, node.maxX, node.maxY, node.maxZ)) {
+                continue;
+            }
+            if (!node.isLeaf()) {
+                top = push(top, node.left);
+                top = push(top, node.right);
+            } else if (frustum.testAabb(node.solid.getBounds())) {
+                action.accept(node.solid);
+            }
+        }
+    }
+
+    public void query(BoundingBox box, Consumer<? super T> action) {
+        refitPending();
+        int top = push(0, root);
+        while (top > 0) {
+            Node<T> node = stack[--top];
+            if (box.getMinX() > node.maxX || box.getMaxX() < node.minX
+                    || box.getMinY() > node.maxY || box.getMaxY() < node.minY
+                    || box.getMinZ() > node.maxZ || box.getMaxZ() < node.minZ) {
+                continue;
+            }
+            if (!node.isLeaf()) {
+                top = push(top, node.left);
+                top = push(top, node.right);
+            } else if (box.intersects(node.solid.getBounds())) {
+                action.accept(node.solid);
+            }
+        }
+    }
+
+    public void query(BoundingSphere sphere, Consumer<? super T> action) {
+        refitPending();
+        double x = sphere.getX(), y = sphere.getY(), z = sphere.getZ(), r2 = sphere.getRadius() * sphere.getRadius();
+        int top = push(0, root);
+        while (top > 0) {
+            Node<T> node = stack[--top];
+            if (distance2(node.minX, node.minY, node.minZ, node.maxX, node.maxY, node.maxZ, x, y, z) > r2) {
+                continue;
+            }
+            if (!node.isLeaf()) {
+                top = push(top, node.left);
+                top = push(top, node.right);
+            } else {
+                BoundingBox b = node.solid.getBounds();
+                if (distance2(b.getMinX(), b.getMinY(), b.getMinZ(), b.getMaxX(), b.getMaxY(), b.getMaxZ(), x, y, z) <= r2) {
+                    action.accept(node.solid);
+                }
+            }
+        }
+    }
+
+    /**
+     * Visits all solids whose bounds are hit by the ray origin + t * direction
+     * for 0 <= t <= maxDistance, in no particular order.
+     */
+    public void queryRay(Vec3D origin, Vec3D direction, double maxDistance, Consumer<? super T> action) {
+        refitPending();
+        double ox = origin.getX(), oy = origin.getY(), oz = origin.getZ();
+        double ix = 1 / direction.getX(), iy = 1 / direction.getY(), iz = 1 / direction.getZ();
+        int top = push(0, root);
+        while (top > 0) {
+            Node<T> node = stack[--top];
+            if (rayEntry(node.minX, node.minY, node.minZ, node.maxX, node.maxY, node.maxZ,
+                    ox, oy, oz, ix, iy, iz, maxDistance) < 0) {
+                continue;
+            }
+            if (!node.isLeaf()) {
+                top = push(top, node.left);
+                top = push(top, node.right);
+            } else if (rayEntry(node.solid.getBounds(), ox, oy, oz, ix, iy, iz, maxDistance) >= 0) {
+                action.accept(node.solid);
+            }
+        }
+    }
+
+    /**
+     * Returns the solid whose bounds are entered first by the ray origin + t *
+     * direction for 0 <= t <= maxDistance, e.g. for picking.
+     */
+    public Optional<T> raycast(Vec3D origin, Vec3D direction, double maxDistance) {
+        refitPending();
+        double ox = origin.getX(), oy = origin.getY(), oz = origin.getZ();
+        double ix = 1 / direction.getX(), iy = 1 / direction.getY(), iz = 1 / direction.getZ();
+        T nearest = null;
+        double best = maxDistance;
+        int top = push(0, root);
+        while (top > 0) {
+            Node<T> node = stack[--top];
+            if (rayEntry(node.minX, node.minY, node.minZ, node.maxX, node.maxY, node.maxZ,
+                    ox, oy, oz, ix, iy, iz, best) < 0) {
+                continue;
+            }
+            if (!node.isLeaf()) {
+                top = push(top, node.left);
+                top = push(top, node.right);
+            } else {
+                double t = rayEntry(node.solid.getBounds(), ox, oy, oz, ix, iy, iz, best);
+                if (t >= 0) {
+                    best = t;
+                    nearest = node.solid;
+                }
+            }
+        }
+        return Optional.ofNullable(nearest);
+    }
+
+    private void setEnlarged(Node<T> leaf, BoundingBox b) {
+        leaf.minX = b.getMinX() - margin;
+        leaf.minY = b.getMinY() - margin;
+        leaf.minZ = b.getMinZ() - margin;
+        leaf.maxX = b.getMaxX() + margin;
+        leaf.maxY = b.getMaxY() + margin;
+        leaf.maxZ = b.getMaxZ() + margin;
+    }
+
+    private void insertLeaf(Node<T> leaf) {
+        if (root == null) {
+            root = leaf;
+            leaf.parent = null;
+            return;
+        }
+
+        // descend while the SAH cost of pushing the leaf below beats pairing it with the current node
+        Node<T> sibling = root;
+        while (!sibling.isLeaf()) {
+            double combined = sibling.unionArea(leaf);
+            double cost = 2 * combined;
+            double inheritance = 2 * (combined - sibling.area());
+            double costLeft = childCost(sibling.left, leaf) + inheritance;
+            double costRight = childCost(sibling.right, leaf) + inheritance;
+            if (cost < costLeft && cost < costRight) {
+                break;
+            }
+            sibling = costLeft < costRight ? sibling.left : sibling.right;
+        }
+
+        Node<T> oldParent = sibling.parent;
+        Node<T> parent = new Node<>();
+        parent.parent = oldParent;
+        parent.left = sibling;
+        parent.right = leaf;
+        sibling.parent = parent;
+        leaf.parent = parent;
+        if (oldParent == null) {
+            root = parent;
+        } else if (oldParent.left == sibling) {
+            oldParent.left = parent;
+        } else {
+            oldParent.right = parent;
+        }
+        for (Node<T> node = parent; node != null; node = node.parent) {
+            node.setUnion(node.left, node.right);
+        }
+    }
+
+    private static double childCost(Node<?> child, Node<?> leaf) {
+        double area = child.unionArea(leaf);
+        return child.isLeaf() ? area : area - child.area();
+    }
+
+    private void removeLeaf(Node<T> leaf) {
+        if (leaf == root) {
+            root = null;
+            return;
+        }
+        Node<T> parent = leaf.parent;
+        Node<T> sibling = parent.left == leaf ? parent.right : parent.left;
+        Node<T> grandParent = parent.parent;
+        sibling.parent = grandParent;
+        if (grandParent == null) {
+            root = sibling;
+            return;
+        }
+        if (grandParent.left == parent) {
+            grandParent.left = sibling;
+        } else {
+            grandParent.right = sibling;
+        }
+        for (Node<T> node = grandParent; node != null; node = node.parent) {
+            node.setUnion(node.left, node.right);
+        }
+    }
+
+    private Node<T> build(Node<T>[] leaves) {
+        // leaf boxes and doubled centroids copied into flat arrays, partitioned through an index permutation
+        int n = leaves.length;
+        double[] boxes = new double[6 * n];
+        double[] centroids = new double[3 * n];
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            Node<T> leaf = leaves[i];
+            boxes[6 * i] = leaf.minX;
+            boxes[6 * i + 1] = leaf.minY;
+            boxes[6 * i + 2] = leaf.minZ;
+            boxes[6 * i + 3] = leaf.maxX;
+            boxes[6 * i + 4] = leaf.maxY;
+            boxes[6 * i + 5] = leaf.maxZ;
+            centroids[3 * i] = leaf.minX + leaf.maxX;
+            centroids[3 * i + 1] = leaf.minY + leaf.maxY;
+            centroids[3 * i + 2] = leaf.minZ + leaf.maxZ;
+            order[i] = i;
+        }
+        return build(leaves, new SahBins(boxes, centroids, order), 0, n);
+    }
+
+    private Node<T> build(Node<T>[] leaves, SahBins bins, int from, int to) {
+        int[] order = bins.order;
+        if (to - from == 1) {
+            return leaves[order[from]];
+        }
+
+        // split along the axis of the largest centroid extent
+        double[] centroids = bins.centroids;
+        double loX = Double.POSITIVE_INFINITY, loY = loX, loZ = loX;
+        double hiX = Double.NEGATIVE_INFINITY, hiY = hiX, hiZ = hiX;
+        for (int i = from; i < to; i++) {
+            int c = 3 * order[i];
+            loX = Math.min(loX, centroids[c]);
+            loY = Math.min(loY, centroids[c + 1]);
+            loZ = Math.min(loZ, centroids[c + 2]);
+            hiX = Math.max(hiX, centroids[c]);
+            hiY = Math.max(hiY, centroids[c + 1]);
+            hiZ = Math.max(hiZ, centroids[c + 2]);
+        }
+        int axis = 0;
+        double lo = loX, extent = hiX - loX;
+        if (hiY - loY > extent) {
+            axis = 1;
+            lo = loY;
+            extent = hiY - loY;
+        }
+        if (hiZ - loZ > extent) {
+            axis = 2;
+            lo = loZ;
+            extent = hiZ - loZ;
+        }
+
+        int mid = (from + to) >>> 1;
+        if (extent > 0) {
+            int split = bins.findSplit(from, to, axis, lo, extent);
+            // partition by bin, bins below the split go left
+            int i = from, j = to - 1;
+            while (i <= j) {
+                if (SahBins.bin(centroids[3 * order[i] + axis], lo, extent) < split) {
+                    i++;
+                } else {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j--] = tmp;
+                }
+            }
+            if (i > from && i < to) {
+                mid = i;
+            }
+        }
+
+        Node<T> node = new Node<>();
+        node.left = build(leaves, bins, from, mid);
+        node.right = build(leaves, bins, mid, to);
+        node.left.parent = node;
+        node.right.parent = node;
+        node.setUnion(node.left, node.right);
+        return node;
+    }
+
+    private static final class SahBins {
+        final double[] boxes, centroids;
+        final int[] order;
+        // scratch space reused by every split, consumed before the recursion
+        final int[] counts = new int[SAH_BINS];
+        final double[] bounds = new double[6 * SAH_BINS];
+        final double[] rightArea = new double[SAH_BINS];
+        final int[] rightCount = new int[SAH_BINS];
+        final double[] acc = new double[6];
+
+        SahBins(double[] boxes, double[] centroids, int[] order) {
+            this.boxes = boxes;
+            this.centroids = centroids;
+            this.order = order;
+        }
+
+        int findSplit(int from, int to, int axis, double lo, double extent) {
+            Arrays.fill(counts, 0);
+            for (int b = 0; b < SAH_BINS; b++) {
+                reset(bounds, 6 * b);
+            }
+            for (int i = from; i < to; i++) {
+                int leaf = order[i];
+                int b = bin(centroids[3 * leaf + axis], lo, extent);
+                counts[b]++;
+                for (int k = 0, o = 6 * b, p = 6 * leaf; k < 3; k++) {
+                    bounds[o + k] = Math.min(bounds[o + k], boxes[p + k]);
+                    bounds[o + k + 3] = Math.max(bounds[o + k + 3], boxes[p + k + 3]);
+                }
+            }
+
+            // areas and counts of the bins right of each split, swept from the right
+            reset(acc, 0);
+            int count = 0;
+            for (int b = SAH_BINS - 1; b > 0; b--) {
+                count += counts[b];
+                merge(b);
+                rightCount[b] = count;
+                rightArea[b] = count > 0 ? area() : 0;
+            }
+
+            reset(acc, 0);
+            count = 0;
+            int best = SAH_BINS / 2;
+            double bestCost = Double.POSITIVE_INFINITY;
+            for (int b = 1; b < SAH_BINS; b++) {
+                count += counts[b - 1];
+                merge(b - 1);
+                if (count == 0 || rightCount[b] == 0) {
+                    continue;
+                }
+                double cost = area() * count + rightArea[b] * rightCount[b];
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    best = b;
+                }
+            }
+            return best;
+        }
+
+        static int bin(double centroid, double lo, double extent) {
+            return Math.min(SAH_BINS - 1, (int) ((centroid - lo) / extent * SAH_BINS));
+        }
+
+        private static void reset(double[] b, int offset) {
+            Arrays.fill(b, offset, offset + 3, Double.POSITIVE_INFINITY);
+            Arrays.fill(b, offset + 3, offset + 6, Double.NEGATIVE_INFINITY);
+        }
+
+        private void merge(int b) {
+            for (int k = 0, o = 6 * b; k < 3; k++) {
+                acc[k] = Math.min(acc[k], bounds[o + k]);
+                acc[k + 3] = Math.max(acc[k + 3], bounds[o + k + 3]);
+            }
+        }
+
+        private double area() {
+            return Node.area(acc[3] - acc[0], acc[4] - acc[1], acc[5] - acc[2]);
+        }
+    }
+
+    private static double distance2(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                                     double x, double y, double z) {
+        double dx = Math.max(0, Math.max(minX - x, x - maxX));
+        double dy = Math.max(0, Math.max(minY - y, y - maxY));
+        double dz = Math.max(0, Math.max(minZ - z, z - maxZ));
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static double rayEntry(BoundingBox b, double ox, double oy, double oz,
+                                   double ix, double iy, double iz, double maxDistance) {
+        return rayEntry(b.getMinX(), b.getMinY(), b.getMinZ(), b.getMaxX(), b.getMaxY(), b.getMaxZ(),
+                ox, oy, oz, ix, iy, iz, maxDistance);
+    }
+
+    // slab test, returns the entry distance clamped to 0 or -1 if the box is missed
+    private static double rayEntry(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                                   double ox, double oy, double oz, double ix, double iy, double iz,
+                                   double maxDistance) {
+        double t0 = (minX - ox) * ix, t1 = (maxX - ox) * ix;
+        double tMin = Math.min(t0, t1), tMax = Math.max(t0, t1);
+        t0 = (minY - oy) * iy;
+        t1 = (maxY - oy) * iy;
+        tMin = Math.max(tMin, Math.min(t0, t1));
+        tMax = Math.min(tMax, Math.max(t0, t1));
+        t0 = (minZ - oz) * iz;
+        t1 = (maxZ - oz) * iz;
+        tMin = Math.max(tMin, Math.min(t0, t1));
+        tMax = Math.min(tMax, Math.max(t0, t1));
+        tMin = Math.max(tMin, 0);
+        return tMin <= tMax && tMin <= maxDistance ? tMin : -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T>[] newNodes(int length) {
+        return (Node<T>[]) new Node<?>[length];
+    }
+
+    private int push(int top, Node<T> node) {
+        if (node == null) {
+            return top;
+        }
+        if (top == stack.length) {
+            stack = Arrays.copyOf(stack, 2 * top);
+        }
+        stack[top] = node;
+        return top + 1;
+    }
+}
@@ -0,0 +1,78 @@
+package app.solid;
+
+import lwjglutils.OGLProgram;
+import org.lwjgl.BufferUtils;
+import transforms.Mat4f;
+import transforms.Vec3f;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+import static lwjglutils.OGL.gl;
+import static org.lwjgl.opengl.GL31.*;
+
+/**
+ * Uniform buffer of the Frame block of the grid shaders, the camera and light
+ * state shared by all grids of a render pass. It is written once per pass and
+ * bound to {@link #BINDING}, from which every grid program reads it.
+ */
+public class FrameUniforms {
+
+    public static final String BLOCK_NAME = "Frame";
+    public static final int BINDING = 0;
+    // std140 offsets in floats: three mat4, then vec3 and bool in one vec4
+    private static final int VIEW_MAT = 0, PROJ_MAT = 16, LIGHT_VP_MAT = 32, LIGHT_POSITION = 48;
+    private static final int ENABLE_SHADOWS_BYTES = 51 * Float.BYTES;
+    private static final int SIZE_BYTES = 52 * Float.BYTES;
+
+    private final ByteBuffer data = BufferUtils.createByteBuffer(SIZE_BYTES);
+    private final FloatBuffer floats = data.asFloatBuffer();
+    private int buffer;
+
+    public FrameUniforms() {
+        buffer = gl().glGenBuffers();
+        gl().glBindBuffer(GL_UNIFORM_BUFFER, buffer);
+        gl().glBufferData(GL_UNIFORM_BUFFER, data, GL_DYNAMIC_DRAW);
+    }
+
+    /**
+     * Uploads the state of a render pass and binds the buffer to BINDING
+     *
+     * @param lightVPMat
+     *            light view-projection matrix of the shadow map, null if none
+     */
+    public void update(Mat4f viewMat, Mat4f projMat, Mat4f lightVPMat, Vec3f lightPosition, boolean enableShadows) {
+        viewMat.writeTo(floats, VIEW_MAT);
+        projMat.writeTo(floats, PROJ_MAT);
+        if (lightVPMat != null) {
+            lightVPMat.writeTo(floats, LIGHT_VP_MAT);
+        } else {
+            for (int i = 0; i < 16; i++) {
+                floats.put(LIGHT_VP_MAT + i, 0);
+            }
+        }
+        floats.put(LIGHT_POSITION, lightPosition.getX());
+        floats.put(LIGHT_POSITION + 1, lightPosition.getY());
+        floats.put(LIGHT_POSITION + 2, lightPosition.getZ());
+        data.putInt(ENABLE_SHADOWS_BYTES, enableShadows ? 1 : 0);
+
+        gl().glBindBuffer(GL_UNIFORM_BUFFER, buffer);
+        gl().glBufferData(GL_UNIFORM_BUFFER, data, GL_DYNAMIC_DRAW);
+        gl().glBindBufferBase(GL_UNIFORM_BUFFER, BINDING, buffer);
+    }
+
+    /**
+     * Makes the Frame block of the program read from BINDING, programs
+     * without the block are left alone
+     */
+    public static void bindBlock(OGLProgram shaderProgram) {
+        shaderProgram.bindUniformBlock(BLOCK_NAME, BINDING);
+    }
+
+    public void delete() {
+        if (buffer != 0) {
+            gl().glDeleteBuffers(buffer);
+            buffer = 0;
+        }
+    }
+}
@@ -1,29 +1,50 @@
 package app.solid;
 
 import lwjglutils.OGLBuffers;
+import lwjglutils.OGLProgram;
 import lwjglutils.OGLTexture;
 import lwjglutils.ShaderUtils;
+import org.lwjgl.BufferUtils;
+import transforms.BoundingBox;
+import transforms.BoundingSphere;
 import transforms.Mat4;
+import transforms.Parallel;
+import transforms.Vec3f;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.concurrent.ForkJoinPool;
 
+import static lwjglutils.OGL.gl;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
 import static org.lwjgl.opengl.GL11.GL_TRIANGLES;
 import static org.lwjgl.opengl.GL11.GL_TRIANGLE_STRIP;
 import static org.lwjgl.opengl.GL20.*;
-import static org.lwjgl.opengl.GL31.glPrimitiveRestartIndex;
 
 public class Grid extends Solid {
 
     public enum FuncType {
-        GRID,
-        WAVE,
-        SPHERE,
-        CYLINDER,
-        HOURGLASS,
-        SPHERICAL_HOURGLASS,
-        TENT
+        GRID(Surfaces::grid),
+        WAVE(Surfaces::wave),
+        SPHERE(Surfaces::sphere),
+        CYLINDER(Surfaces::cylinder),
+        HOURGLASS(Surfaces::hourglass),
+        SPHERICAL_HOURGLASS(Surfaces::sphericalHourglass),
+        TENT(Surfaces::tent);
+
+        private final SurfaceFunction surface;
+        FuncType(SurfaceFunction surface) {
+            this.surface = surface;
+        }
+
+        public SurfaceFunction getSurface() {
+            return surface;
+        }
+
+        // only the wave depends on uTime
+        public boolean isTimeInvariant() {
+            return this != WAVE;
+        }
     }
 
     public enum ColorMode {
@@ -36,24 +57,53 @@ public class Grid extends Solid {
         LIGHT_DIST
     }
 
-    private static final int GL_PRIMITIVE_RESTART_INDEX = 65535;
-    private static final Set<String> SHADER_UNIFORM_NAMES = Set.of(
-            "uModelMat", "uViewMat", "uProjMat", "uColor", "uFuncType", "uColorMode", "uTime", "uEnableLighting",
-            "uLightPosition", "uLightVPMat", "uEnableShadows"
-    );
-    private static final Map<String, Integer> shaderUniforms = new HashMap<>();
-    private static int shaderProgram;
+    // uniform slots of grid.vert, gridBaked.vert and grid.frag, the camera and light come from FrameUniforms
+    private static final int MODEL_MAT = 0, NORMAL_MAT = 1, TIME = 2, COLOR = 3, FUNC_TYPE = 4, COLOR_MODE = 5,
+            ENABLE_LIGHTING = 6, TEXTURE = 7, SHADOW_MAP = 8;
+    private static final String[] UNIFORM_NAMES = {
+            "uModelMat", "uNormalMat", "uTime", "uColor", "uFuncType", "uColorMode", "uEnableLighting",
+            "uTexture", "uShadowMap"
+    };
+    private static final int TEXTURE_UNIT = 0, SHADOW_MAP_UNIT = 1;
+    // local bounds of the surfaces computed in grid.vert, the wave amplitude is 0.2
+    private static final BoundingBox PLANE_BOUNDS = new BoundingBox(-1, -1, 0, 1, 1, 0);
+    private static final BoundingBox WAVE_BOUNDS = new BoundingBox(-1, -1, -0.2, 1, 1, 0.2);
+    private static final BoundingBox CUBE_BOUNDS = new BoundingBox(-1, -1, -1, 1, 1, 1);
+    private static final BoundingBox SPHERICAL_HOURGLASS_BOUNDS = new BoundingBox(-0.5, -0.5, -1, 0.5, 0.5, 1);
+    private static final BoundingBox TENT_BOUNDS = new BoundingBox(-1, -1, 0, 1, 1, 1);
+    private static final BoundingSphere UNIT_SPHERE = new BoundingSphere(0, 0, 0, 1);
+    private static final BoundingSphere CYLINDER_SPHERE = new BoundingSphere(0, 0, 0, Math.sqrt(2));
+    // baked vertex: position, normal and texture coordinates
+    private static final int BAKED_FLOATS_PER_VERTEX = 8;
+    private static final int BAKE_CHUNK = 1 << 14;
+    // vertices generated per parallel task of the parameter grid
+    private static final int GENERATE_CHUNK = 1 << 16;
+    private static UniformSlots shaderUniforms;
+    private static UniformSlots bakedShaderUniforms;
+    private static OGLProgram shaderProgram;
     private static boolean shaderLoaded = false;
+    private static final GridGeometryCache geometryCache = new GridGeometryCache();
+    private static OGLProgram bakedShaderProgram;
+    private static boolean bakedShaderLoaded = false;
 
+    // number of cells in a row and in a column
+    private final int width, height;
     private FuncType funcType;
     private ColorMode colorMode;
     private OGLTexture texture;
-    private final long start;
+    // uTime of grid.vert, simulation time in milliseconds
+    private float time;
     private boolean enableLighting = true;
-    private float[] lightPosition = new float[3];
     private OGLTexture shadowMap;
+    // light state of GridRasterizer, OpenGL draws read it from FrameUniforms
+    private Vec3f lightPosition = new Vec3f();
     private Mat4 lightVPMat;
     private boolean enableShadows = false;
+    private final FloatBuffer uniformBuffer = BufferUtils.createFloatBuffer(16);
+    private final FloatBuffer normalMatrixBuffer = BufferUtils.createFloatBuffer(9);
+    private boolean baked = false;
+    // surface evaluated into a vertex buffer, null unless baked with a time-invariant function
+    private OGLBuffers bakedBuffers;
 
     public Grid() {
         this(50, 50);
@@ -64,6 +114,8 @@ public class Grid extends Solid {
     }
 
     public Grid(int width, int height, int topology, FuncType funcType) {
+        this.width = width;
+        this.height = height;
         // convert number of edges into number of vertices
         width += 1;
         height += 1;
@@ -75,110 +127,291 @@ public class Grid extends Solid {
         this.topology = topology;
         this.funcType = funcType;
         this.colorMode = ColorMode.COLOR;
-        this.start = System.currentTimeMillis();
 
-        float[] vb = createVertexBuffer(width, height);
-        int[] ib = createIndexBuffer(width, height, topology);
-
-        OGLBuffers.Attrib[] attributes = {
-                new OGLBuffers.Attrib("inPosition", 2)
-        };
-        buffers = new OGLBuffers(vb, attributes, ib);
+        int columns = width, rows = height;
+        buffers = geometryCache.acquire(this.width, this.height, topology, null,
+                () -> createBuffers(columns, rows, topology));
         if (!shaderLoaded) {
-            shaderProgram = ShaderUtils.loadProgram("/shaders/grid");
-            loadShaderUniforms();
+            shaderProgram = ShaderUtils.loadReflectedProgram("/shaders/grid");
+            shaderUniforms = new UniformSlots(shaderProgram, UNIFORM_NAMES);
+            FrameUniforms.bindBlock(shaderProgram);
             shaderLoaded = true;
         }
     }
 
     @Override
     public void draw() {
-        glUseProgram(shaderProgram);
-        setShaderUniforms();
-        glPrimitiveRestartIndex(GL_PRIMITIVE_RESTART_INDEX);
-        buffers.draw(topology, shaderProgram);
+        if (bakedBuffers != null) {
+            draw(bakedBuffers, bakedShaderProgram, bakedShaderUniforms);
+        } else {
+            draw(buffers, shaderProgram, shaderUniforms);
+        }
     }
 
-    private void loadShaderUniforms() {
-        for (String name : SHADER_UNIFORM_NAMES) {
-             shaderUniforms.put(name, glGetUniformLocation(shaderProgram, name));
-        }
+    private void draw(OGLBuffers buffers, OGLProgram shaderProgram, UniformSlots shaderUniforms) {
+        shaderProgram.use();
+        setShaderUniforms(shaderUniforms);
+        gl().glPrimitiveRestartIndex(buffers.getPrimitiveRestartIndex());
+        buffers.draw(topology, shaderProgram.getId());
     }
 
-    private void setShaderUniforms() {
-        glUniformMatrix4fv(shaderUniforms.get("uModelMat"), false, modelMatrix.floatArray());
-        glUniformMatrix4fv(shaderUniforms.get("uViewMat"), false, viewMatrix.floatArray());
-        glUniformMatrix4fv(shaderUniforms.get("uProjMat"), false, projectionMatrix.floatArray());
-        glUniform1f(shaderUniforms.get("uTime"), (float) (System.currentTimeMillis() - start));
-        glUniform3fv(shaderUniforms.get("uColor"), color);
-        glUniform1i(shaderUniforms.get("uFuncType"), funcType.ordinal());
-        glUniform1i(shaderUniforms.get("uColorMode"), colorMode.ordinal());
+    private void setShaderUniforms(UniformSlots shaderUniforms) {
+        shaderUniforms.setMatrix4(MODEL_MAT, getModelMatrixF().writeTo(uniformBuffer, 0));
+        shaderUniforms.setMatrix3(NORMAL_MAT, getModelNormalMatrixF().writeTo(normalMatrixBuffer, 0));
+        shaderUniforms.set1f(TIME, getTime());
+        shaderUniforms.set3f(COLOR, color[0], color[1], color[2]);
+        shaderUniforms.set1i(FUNC_TYPE, funcType.ordinal());
+        shaderUniforms.set1i(COLOR_MODE, colorMode.ordinal());
+        shaderUniforms.set1i(TEXTURE, TEXTURE_UNIT);
         if (texture != null) {
-            texture.bind(shaderProgram, "uTexture", texture.getTextureId());
+            bindTexture(TEXTURE_UNIT, texture);
         }
-        glUniform1i(shaderUniforms.get("uEnableLighting"), enableLighting ? 1 : 0);
-        glUniform3fv(shaderUniforms.get("uLightPosition"), lightPosition);
+        shaderUniforms.set1i(ENABLE_LIGHTING, enableLighting ? 1 : 0);
+        shaderUniforms.set1i(SHADOW_MAP, SHADOW_MAP_UNIT);
         if (shadowMap != null) {
-            shadowMap.bind(shaderProgram, "uShadowMap", shadowMap.getTextureId());
-        }
-        if (lightVPMat != null) {
-            glUniformMatrix4fv(shaderUniforms.get("uLightVPMat"), false, lightVPMat.floatArray());
+            bindTexture(SHADOW_MAP_UNIT, shadowMap);
         }
-        glUniform1i(shaderUniforms.get("uEnableShadows"), enableShadows ? 1 : 0);
     }
 
-    private float[] createVertexBuffer(int width, int height) {
-        float[] vb = new float[2 * width * height];
+    // redundant binds are dropped by OGLBackendStateCache when installed
+    private static void bindTexture(int unit, OGLTexture texture) {
+        gl().glActiveTexture(GL_TEXTURE0 + unit);
+        gl().glBindTexture(GL_TEXTURE_2D, texture.getTextureId());
+    }
 
-        for (int i = 0, index = 0; i < height; i++) {
-            float yOffset = (float) i / (height - 1f);
-            for (int j = 0; j < width; j++) {
-                float xOffset = (float) j / (width - 1f);
-                vb[index++] = xOffset;
-                vb[index++] = yOffset;
-            }
+    /**
+     * Resets the uniform counters; call at the start of every frame
+     */
+    public static void beginFrame() {
+        UniformSlots.resetCounters();
+    }
+
+    /**
+     * Returns the number of uniforms uploaded by grids in this frame
+     */
+    public static long getUniformUploads() {
+        return UniformSlots.getUploads();
+    }
+
+    /**
+     * Returns the number of uniform uploads grids skipped in this frame
+     * because the program already held the value
+     */
+    public static long getSkippedUniformUploads() {
+        return UniformSlots.getSkippedUploads();
+    }
+
+    @Override
+    protected BoundingBox getLocalBounds() {
+        return switch (funcType) {
+            case GRID -> PLANE_BOUNDS;
+            case WAVE -> WAVE_BOUNDS;
+            case SPHERE, CYLINDER, HOURGLASS -> CUBE_BOUNDS;
+            case SPHERICAL_HOURGLASS -> SPHERICAL_HOURGLASS_BOUNDS;
+            case TENT -> TENT_BOUNDS;
+        };
+    }
+
+    @Override
+    protected BoundingSphere getLocalBoundingSphere() {
+        // x^2 + y^2 + z^2 = cos^2(zenith) (1 + sin^2(zenith)) <= 1 for the spherical hourglass
+        return switch (funcType) {
+            case SPHERE, SPHERICAL_HOURGLASS -> UNIT_SPHERE;
+            case CYLINDER, HOURGLASS -> CYLINDER_SPHERE;
+            default -> super.getLocalBoundingSphere();
+        };
+    }
+
+    private void updateBakedBuffers() {
+        if (bakedBuffers != null) {
+            geometryCache.release(bakedBuffers);
+            bakedBuffers = null;
+        }
+        if (!baked || !funcType.isTimeInvariant() || buffers == null) {
+            return;
         }
+        if (!bakedShaderLoaded) {
+            bakedShaderProgram = ShaderUtils.loadReflectedProgram("/shaders/gridBaked", "/shaders/grid", null, null, null, null);
+            bakedShaderUniforms = new UniformSlots(bakedShaderProgram, UNIFORM_NAMES);
+            FrameUniforms.bindBlock(bakedShaderProgram);
+            bakedShaderLoaded = true;
+        }
+        bakedBuffers = geometryCache.acquire(width, height, topology, funcType, () -> {
+            OGLBuffers.Attrib[] attributes = {
+                    new OGLBuffers.Attrib("inPosition", 3),
+                    new OGLBuffers.Attrib("inNormal", 3),
+                    new OGLBuffers.Attrib("inTexCoord", 2)
+            };
+            return new OGLBuffers(bakeVertexBuffer(width + 1, height + 1), BAKED_FLOATS_PER_VERTEX, attributes,
+                    createIndexBuffer(width + 1, height + 1, topology));
+        });
+    }
+
+    /**
+     * Releases the shared buffers of the grid, it must not be drawn afterwards
+     */
+    public void dispose() {
+        if (buffers == null) {
+            return;
+        }
+        if (bakedBuffers != null) {
+            geometryCache.release(bakedBuffers);
+            bakedBuffers = null;
+        }
+        geometryCache.release(buffers);
+        buffers = null;
+    }
+
+    public static GridGeometryCache getGeometryCache() {
+        return geometryCache;
+    }
+
+    private static OGLBuffers createBuffers(int width, int height, int topology) {
+        OGLBuffers.Attrib[] attributes = {
+                new OGLBuffers.Attrib("inPosition", 2)
+        };
+        return new OGLBuffers(createVertexBuffer(width, height), 2, attributes,
+                createIndexBuffer(width, height, topology));
+    }
 
+    // evaluates the surface by chunks written straight into the direct buffer
+    private FloatBuffer bakeVertexBuffer(int width, int height) {
+        int count = checkedSize((long) width * height);
+        FloatBuffer vb = BufferUtils.createFloatBuffer(checkedSize((long) count * BAKED_FLOATS_PER_VERTEX));
+        SurfaceFunction surface = funcType.getSurface();
+        Parallel.forRange(ForkJoinPool.commonPool(), (count + BAKE_CHUNK - 1) / BAKE_CHUNK, 1, (from, to) -> {
+            SurfaceSamples samples = new SurfaceSamples(BAKE_CHUNK);
+            for (int chunk = from; chunk < to; chunk++) {
+                int start = chunk * BAKE_CHUNK, size = Math.min(BAKE_CHUNK, count - start);
+                for (int i = 0; i < size; i++) {
+                    samples.u[i] = (float) ((start + i) % width) / (width - 1f);
+                    samples.v[i] = (float) ((start + i) / width) / (height - 1f);
+                }
+                surface.evaluate(samples, 0, 0, size);
+                for (int i = 0, index = start * BAKED_FLOATS_PER_VERTEX; i < size; i++) {
+                    vb.put(index++, samples.x[i]);
+                    vb.put(index++, samples.y[i]);
+                    vb.put(index++, samples.z[i]);
+                    vb.put(index++, samples.nx[i]);
+                    vb.put(index++, samples.ny[i]);
+                    vb.put(index++, samples.nz[i]);
+                    vb.put(index++, samples.u[i]);
+                    vb.put(index++, samples.v[i]);
+                }
+            }
+        });
         return vb;
     }
 
-    private int[] createIndexBuffer(int width, int height, int topology) {
-        int size = topology == GL_TRIANGLES ? 3 * 2 * (width - 1) * (height - 1) : 2 * (width + 1) * (height - 1);
-        int[] ib = new int[size];
+    // parameter coordinates generated by rows straight into a direct buffer
+    private static FloatBuffer createVertexBuffer(int width, int height) {
+        FloatBuffer vb = BufferUtils.createFloatBuffer(checkedSize(2L * width * height));
 
-        if (topology == GL_TRIANGLES) {
-            for (int i = 0, index = 0; i < height - 1; i++) {
-                int offset = i * width;
-                for (int j = 0; j < width - 1; j++) {
-                    ib[index++] = j + offset;
-                    ib[index++] = j + width + offset;
-                    ib[index++] = j + 1 + offset;
-
-                    ib[index++] = j + 1 + offset;
-                    ib[index++] = j + width + offset;
-                    ib[index++] = j + width + 1 + offset;
+        Parallel.forRange(ForkJoinPool.commonPool(), height, Math.max(1, GENERATE_CHUNK / width), (from, to) -> {
+            for (int i = from, index = 2 * from * width; i < to; i++) {
+                float yOffset = (float) i / (height - 1f);
+                for (int j = 0; j < width; j++) {
+                    float xOffset = (float) j / (width - 1f);
+                    vb.put(index++, xOffset);
+                    vb.put(index++, yOffset);
                 }
             }
-        } else {
-            for (int i = 0, index = 0; i < height - 1; i++) {
+        });
+
+        return vb;
+    }
+
+    // each row of cells writes its own index range, sizes are computed in long and must fit a buffer
+    private static IntBuffer createIndexBuffer(int width, int height, int topology) {
+        checkedSize((long) width * height);
+        int rowSize = topology == GL_TRIANGLES ? 3 * 2 * (width - 1) : 2 * width + 1;
+        IntBuffer ib = BufferUtils.createIntBuffer(checkedSize((long) rowSize * (height - 1)));
+
+        Parallel.forRange(ForkJoinPool.commonPool(), height - 1, Math.max(1, GENERATE_CHUNK / width), (from, to) -> {
+            for (int i = from, index = from * rowSize; i < to; i++) {
                 int offset = i * width;
-                for (int j = 0; j < width; j++) {
-                    ib[index++] = j + offset;
-                    ib[index++] = j + width + offset;
+                if (topology == GL_TRIANGLES) {
+                    for (int j = 0; j < width - 1; j++) {
+                        ib.put(index++, j + offset);
+                        ib.put(index++, j + width + offset);
+                        ib.put(index++, j + 1 + offset);
+
+                        ib.put(index++, j + 1 + offset);
+                        ib.put(index++, j + width + offset);
+                        ib.put(index++, j + width + 1 + offset);
+                    }
+                } else {
+                    for (int j = 0; j < width; j++) {
+                        ib.put(index++, j + offset);
+                        ib.put(index++, j + width + offset);
+                    }
+                    ib.put(index++, OGLBuffers.PRIMITIVE_RESTART_INDEX);
                 }
-                ib[index++] = GL_PRIMITIVE_RESTART_INDEX;
             }
-        }
+        });
 
         return ib;
     }
 
+    // direct buffers hold at most Integer.MAX_VALUE bytes, indices are 4 bytes
+    private static int checkedSize(long size) {
+        if (size > Integer.MAX_VALUE / 4) {
+            throw new IllegalArgumentException("Grid too large for a single buffer: " + size + " elements");
+        }
+        return (int) size;
+    }
+
+    float getTime() {
+        return time;
+    }
+
+    /**
+     * Sets the animation time of time-dependent surfaces in milliseconds,
+     * driven by the simulation instead of the wall clock
+     */
+    public void setTime(float time) {
+        this.time = time;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
     public FuncType getFuncType() {
         return funcType;
     }
 
     public void setFuncType(FuncType funcType) {
+        if (this.funcType == funcType) {
+            return;
+        }
         this.funcType = funcType;
+        invalidateBounds();
+        if (baked) {
+            updateBakedBuffers();
+        }
+    }
+
+    public boolean isBaked() {
+        return baked;
+    }
+
+    /**
+     * Draws time-invariant surfaces from a vertex buffer evaluated once on
+     * the CPU instead of evaluating them in every vertex shader run; the
+     * buffer is rebuilt when the function type changes, the wave is always
+     * evaluated on the GPU
+     */
+    public void setBaked(boolean baked) {
+        if (this.baked == baked) {
+            return;
+        }
+        this.baked = baked;
+        updateBakedBuffers();
     }
 
     public ColorMode getColorMode() {
@@ -205,14 +438,18 @@ public class Grid extends Solid {
         this.enableLighting = enableLighting;
     }
 
-    public float[] getLightPosition() {
+    public Vec3f getLightPosition() {
         return lightPosition;
     }
 
-    public void setLightPosition(float[] lightPosition) {
+    public void setLightPosition(Vec3f lightPosition) {
         this.lightPosition = lightPosition;
     }
 
+    public void setLightPosition(float[] lightPosition) {
+        this.lightPosition = new Vec3f(lightPosition);
+    }
+
     public OGLTexture getShadowMap() {
         return shadowMap;
     }
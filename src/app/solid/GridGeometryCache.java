@@ -0,0 +1,127 @@
+package app.solid;
+
+import lwjglutils.OGLBuffers;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Reference-counted buffers shared by grids of the same tessellation. The
+ * parameter grid is keyed by width, height and topology, baked meshes
+ * additionally by their function type. Buffers are deleted when the last
+ * user releases them. Used from the GL thread only.
+ */
+public class GridGeometryCache {
+
+    private record Key(int width, int height, int topology, Grid.FuncType baked) {
+    }
+
+    private static final class Entry {
+        final Key key;
+        final OGLBuffers buffers;
+        int references;
+
+        Entry(Key key, OGLBuffers buffers) {
+            this.key = key;
+            this.buffers = buffers;
+        }
+    }
+
+    private final Map<Key, Entry> entries = new HashMap<>();
+    private final Map<OGLBuffers, Entry> entriesByBuffers = new IdentityHashMap<>();
+    private long hits;
+    private long misses;
+    private long bytes;
+    private long savedBytes;
+
+    /**
+     * Returns the shared buffers of the tessellation, created by factory on a
+     * miss, and adds a reference to them
+     *
+     * @param baked
+     *            function type of a baked mesh, null for the parameter grid
+     */
+    public OGLBuffers acquire(int width, int height, int topology, Grid.FuncType baked, Supplier<OGLBuffers> factory) {
+        Key key = new Key(width, height, topology, baked);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            entry = new Entry(key, factory.get());
+            entries.put(key, entry);
+            entriesByBuffers.put(entry.buffers, entry);
+            bytes += entry.buffers.getByteSize();
+        } else {
+            hits++;
+            savedBytes += entry.buffers.getByteSize();
+        }
+        entry.references++;
+        return entry.buffers;
+    }
+
+    /**
+     * Drops a reference to buffers returned by acquire, the last one deletes
+     * them
+     */
+    public void release(OGLBuffers buffers) {
+        Entry entry = entriesByBuffers.get(buffers);
+        if (entry == null) {
+            throw new IllegalArgumentException("Buffers not owned by the cache");
+        }
+        if (--entry.references == 0) {
+            entries.remove(entry.key);
+            entriesByBuffers.remove(buffers);
+            bytes -= buffers.getByteSize();
+            buffers.delete();
+        }
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of cached buffers
+     */
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the size of the cached buffers in bytes
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the number of bytes hits did not upload again
+     */
+    public long getSavedBytes() {
+        return savedBytes;
+    }
+
+    /**
+     * Returns the index bytes the cached buffers save by narrower index types
+     */
+    public long getSavedIndexBytes() {
+        long saved = 0;
+        for (Entry entry : entries.values()) {
+            saved += entry.buffers.getSavedIndexBytes();
+        }
+        return saved;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "GridGeometryCache: %d entries, %d bytes, %d hits, %d misses, %d bytes saved, %d index bytes saved",
+                entries.size(), bytes, hits, misses, savedBytes, getSavedIndexBytes());
+    }
+}
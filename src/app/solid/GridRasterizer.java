@@ -0,0 +1,612 @@
+package app.solid;
+
+import lwjglutils.OGLTexImageByte;
+import lwjglutils.OGLTexImageFloat;
+import lwjglutils.OGLTexture;
+import lwjglutils.OGLTexture2D;
+import transforms.Mat3f;
+import transforms.Mat4;
+import transforms.Parallel;
+import transforms.Vec3f;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * CPU implementation of the grid shader program for machines without a GPU.
+ * {@link #draw(Grid)} runs grid.vert for all vertices, evaluating the surface
+ * by its {@link SurfaceFunction}, clips the triangles against the near plane
+ * and bins them into {@link #TILE_SIZE} square screen tiles; {@link #finish()} rasterizes the tiles in parallel, each tile taking
+ * the triangles in submission order with a less-than depth test and shading
+ * fragments like grid.frag. Only filled polygons are rasterized.
+ * Grid textures are sampled from CPU images, see
+ * {@link #setTextureImage(OGLTexture, OGLTexImageFloat)}, and the shadow map is
+ * the depth image of a rasterizer that rendered the scene from the light.
+ * Images are stored bottom row first, like glReadPixels returns them.
+ */
+public class GridRasterizer {
+
+    public static final int TILE_SIZE = 64;
+    // vertices shaded and triangles set up by one task
+    private static final int VERTEX_CHUNK = 4096;
+    private static final int TRIANGLE_CHUNK = 4096;
+
+    // shaded vertex: clip position followed by the grid.vert outputs
+    private static final int TEXTURE_POS = 4, LIGHT_VECTOR = 6, NORMAL = 9, FRAG_POS = 12, SHADOW_POS = 15;
+    private static final int VARYINGS = 15;
+    private static final int VERTEX_STRIDE = 4 + VARYINGS;
+    // triangle vertex after setup: window x, y and depth, 1/w and the outputs divided by w
+    private static final int INV_W = 3;
+    private static final int SCREEN_STRIDE = 4 + VARYINGS;
+    private static final int TRIANGLE_STRIDE = 3 * SCREEN_STRIDE;
+
+    private static final float AMBIENT = 0.4f, DIFFUSE = 0.6f, SPECULAR = 0.8f, SHININESS = 30;
+
+    private final int width, height;
+    private final int tilesX, tilesY;
+    private final ForkJoinPool pool;
+    private final byte[] color;
+    private final float[] depth;
+    private final float[] clearColor = new float[4];
+    private final List<DrawCall> draws = new ArrayList<>();
+    private final Map<OGLTexture, OGLTexImageFloat> textureImages = new HashMap<>();
+    private OGLTexImageFloat shadowMap;
+    private float time = Float.NaN;
+    private boolean colorMask = true;
+
+    public GridRasterizer(int width, int height) {
+        this(width, height, ForkJoinPool.commonPool());
+    }
+
+    public GridRasterizer(int width, int height, ForkJoinPool pool) {
+        this.width = width;
+        this.height = height;
+        this.pool = pool;
+        tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
+        tilesY = (height + TILE_SIZE - 1) / TILE_SIZE;
+        color = new byte[4 * width * height];
+        depth = new float[width * height];
+        Arrays.fill(depth, 1);
+    }
+
+    // state of one grid captured when it is drawn and its triangles binned by chunks
+    private static final class DrawCall {
+        Grid.ColorMode colorMode;
+        float[] color;
+        boolean enableLighting;
+        boolean colorMask;
+        OGLTexImageFloat texture;
+        OGLTexImageFloat shadowMap;
+        Chunk[] chunks;
+    }
+
+    private static final class Chunk {
+        float[] triangles = new float[64 * TRIANGLE_STRIDE];
+        int triangleCount;
+        // indices of the triangles overlapping each tile
+        final int[][] bins;
+        final int[] binSizes;
+
+        Chunk(int tiles) {
+            bins = new int[tiles][];
+            binSizes = new int[tiles];
+        }
+
+        int add() {
+            if ((triangleCount + 1) * TRIANGLE_STRIDE > triangles.length) {
+                triangles = Arrays.copyOf(triangles, 2 * triangles.length);
+            }
+            return triangleCount++;
+        }
+
+        void bin(int tile, int triangle) {
+            int[] bin = bins[tile];
+            if (bin == null) {
+                bin = bins[tile] = new int[16];
+            } else if (binSizes[tile] == bin.length) {
+                bin = bins[tile] = Arrays.copyOf(bin, 2 * bin.length);
+            }
+            bin[binSizes[tile]++] = triangle;
+        }
+    }
+
+    private void parallelFor(int count, int grain, Parallel.Range body) {
+        Parallel.forRange(pool, count, grain, body);
+    }
+
+    /**
+     * Sets a fixed uTime for all grids, NaN uses the clock of each grid
+     */
+    public void setTime(float time) {
+        this.time = time;
+    }
+
+    /**
+     * Sets the CPU copy of a grid texture, textures without one are read
+     * back from the GL texture on first use
+     */
+    public void setTextureImage(OGLTexture texture, OGLTexImageFloat image) {
+        textureImages.put(texture, image);
+    }
+
+    /**
+     * Sets the depth image sampled by grids with shadows enabled
+     */
+    public void setShadowMap(OGLTexImageFloat shadowMap) {
+        this.shadowMap = shadowMap;
+    }
+
+    /**
+     * Enables or disables color writes of the following draws, depth-only
+     * passes skip fragment shading
+     */
+    public void setColorMask(boolean colorMask) {
+        this.colorMask = colorMask;
+    }
+
+    public void setClearColor(float r, float g, float b, float a) {
+        clearColor[0] = r;
+        clearColor[1] = g;
+        clearColor[2] = b;
+        clearColor[3] = a;
+    }
+
+    public void clear() {
+        draws.clear();
+        byte[] pixel = {toByte(clearColor[0]), toByte(clearColor[1]), toByte(clearColor[2]), toByte(clearColor[3])};
+        for (int i = 0; i < color.length; i += 4) {
+            System.arraycopy(pixel, 0, color, i, 4);
+        }
+        Arrays.fill(depth, 1);
+    }
+
+    public void draw(Grid grid) {
+        DrawCall draw = new DrawCall();
+        draw.colorMode = grid.getColorMode();
+        draw.color = grid.getColor().clone();
+        draw.enableLighting = grid.isEnableLighting();
+        draw.colorMask = colorMask;
+        draw.texture = draw.colorMode == Grid.ColorMode.TEXTURE ? getTextureImage(grid.getTexture()) : null;
+        draw.shadowMap = grid.isEnableShadows() ? shadowMap : null;
+
+        int columns = grid.getWidth() + 1, rows = grid.getHeight() + 1;
+        float[] vertices = shadeVertices(grid, columns, rows);
+
+        int triangleCount = 2 * (columns - 1) * (rows - 1);
+        draw.chunks = new Chunk[(triangleCount + TRIANGLE_CHUNK - 1) / TRIANGLE_CHUNK];
+        parallelFor(draw.chunks.length, 1, (from, to) -> {
+            float[] polygon = new float[4 * VERTEX_STRIDE];
+            for (int c = from; c < to; c++) {
+                Chunk chunk = new Chunk(tilesX * tilesY);
+                int end = Math.min(triangleCount, (c + 1) * TRIANGLE_CHUNK);
+                for (int t = c * TRIANGLE_CHUNK; t < end; t++) {
+                    // two triangles per cell with the diagonal of the index buffer
+                    int cell = t >> 1;
+                    int a = cell / (columns - 1) * columns + cell % (columns - 1);
+                    if ((t & 1) == 0) {
+                        setupTriangle(chunk, vertices, a, a + columns, a + 1, polygon);
+                    } else {
+                        setupTriangle(chunk, vertices, a + 1, a + columns, a + columns + 1, polygon);
+                    }
+                }
+                draw.chunks[c] = chunk;
+            }
+        });
+        draws.add(draw);
+    }
+
+    /**
+     * Rasterizes the pending draws
+     */
+    public void finish() {
+        if (draws.isEmpty()) {
+            return;
+        }
+        parallelFor(tilesX * tilesY, 1, (from, to) -> {
+            float[] varyings = new float[VARYINGS];
+            for (int tile = from; tile < to; tile++) {
+                rasterizeTile(tile, varyings);
+            }
+        });
+        draws.clear();
+    }
+
+    /**
+     * Returns the RGBA color buffer, bottom row first
+     */
+    public OGLTexImageByte getImage() {
+        finish();
+        return new OGLTexImageByte(width, height, 4, color.clone());
+    }
+
+    /**
+     * Returns the depth buffer in [0, 1], bottom row first
+     */
+    public OGLTexImageFloat getDepthImage() {
+        finish();
+        return new OGLTexImageFloat(width, height, new OGLTexImageFloat.FormatDepth(), depth.clone());
+    }
+
+    public BufferedImage toBufferedImage() {
+        finish();
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0, i = 4 * (height - 1 - y) * width; x < width; x++, i += 4) {
+                image.setRGB(x, y, (color[i] & 0xff) << 16
+                        | (color[i + 1] & 0xff) << 8 | color[i + 2] & 0xff);
+            }
+        }
+        return image;
+    }
+
+    public void writePng(File file) throws IOException {
+        ImageIO.write(toBufferedImage(), "png", file);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    private OGLTexImageFloat getTextureImage(OGLTexture texture) {
+        if (texture == null) {
+            return null;
+        }
+        return textureImages.computeIfAbsent(texture, t -> t instanceof OGLTexture2D texture2D
+                ? texture2D.getTexImage(new OGLTexImageFloat.Format(4)) : null);
+    }
+
+    private float[] shadeVertices(Grid grid, int columns, int rows) {
+        float t = Float.isNaN(time) ? grid.getTime() : time;
+        Mat4 model = grid.getModelMatrix();
+        float[] mv = toArray(model.mul(grid.getViewMatrix()));
+        float[] proj = toArray(grid.getProjectionMatrix());
+        // a missing light matrix leaves the shadow position at zero, outside the light frustum
+        float[] lightMvp = grid.getLightVPMat() == null ? new float[16] : toArray(model.mul(grid.getLightVPMat()));
+        Mat3f normalMat = grid.getNormalMatrixF();
+        float[] n = new float[9];
+        for (int i = 0; i < 9; i++) {
+            n[i] = normalMat.get(i / 3, i % 3);
+        }
+        float[] view = toArray(grid.getViewMatrix());
+        Vec3f l = grid.getLightPosition();
+        float lx = l.getX() * view[0] + l.getY() * view[4] + l.getZ() * view[8] + view[12];
+        float ly = l.getX() * view[1] + l.getY() * view[5] + l.getZ() * view[9] + view[13];
+        float lz = l.getX() * view[2] + l.getY() * view[6] + l.getZ() * view[10] + view[14];
+
+        SurfaceFunction surface = grid.getFuncType().getSurface();
+        SurfaceSamples samples = SurfaceSamples.grid(columns, rows);
+        float[] vertices = new float[samples.size() * VERTEX_STRIDE];
+        parallelFor(samples.size(), VERTEX_CHUNK, (from, to) -> {
+            surface.evaluate(samples, t, from, to);
+            for (int i = from; i < to; i++) {
+                int o = i * VERTEX_STRIDE;
+                float x = samples.x[i], y = samples.y[i], z = samples.z[i];
+                float ex = transform(mv, x, y, z, 0), ey = transform(mv, x, y, z, 1);
+                float ez = transform(mv, x, y, z, 2), ew = transform(mv, x, y, z, 3);
+                for (int k = 0; k < 4; k++) {
+                    vertices[o + k] = ex * proj[k] + ey * proj[4 + k] + ez * proj[8 + k] + ew * proj[12 + k];
+                }
+                vertices[o + TEXTURE_POS] = samples.u[i];
+                vertices[o + TEXTURE_POS + 1] = samples.v[i];
+                vertices[o + FRAG_POS] = ex / ew;
+                vertices[o + FRAG_POS + 1] = ey / ew;
+                vertices[o + FRAG_POS + 2] = ez / ew;
+                vertices[o + LIGHT_VECTOR] = lx - ex / ew;
+                vertices[o + LIGHT_VECTOR + 1] = ly - ey / ew;
+                vertices[o + LIGHT_VECTOR + 2] = lz - ez / ew;
+                float nx = samples.nx[i], ny = samples.ny[i], nz = samples.nz[i];
+                for (int k = 0; k < 3; k++) {
+                    vertices[o + NORMAL + k] = nx * n[k] + ny * n[3 + k] + nz * n[6 + k];
+                }
+                for (int k = 0; k < 4; k++) {
+                    vertices[o + SHADOW_POS + k] = transform(lightMvp, x, y, z, k);
+                }
+            }
+        });
+        return vertices;
+    }
+
+    private static float[] toArray(Mat4 m) {
+        float[] a = new float[16];
+        for (int i = 0; i < 16; i++) {
+            a[i] = (float) m.get(i / 4, i % 4);
+        }
+        return a;
+    }
+
+    // column k of the row vector (x, y, z, 1) times m
+    private static float transform(float[] m, float x, float y, float z, int k) {
+        return x * m[k] + y * m[4 + k] + z * m[8 + k] + m[12 + k];
+    }
+
+    private void setupTriangle(Chunk chunk, float[] vertices, int a, int b, int c, float[] polygon) {
+        int ia = a * VERTEX_STRIDE, ib = b * VERTEX_STRIDE, ic = c * VERTEX_STRIDE;
+        boolean inA = vertices[ia + 2] >= -vertices[ia + 3];
+        boolean inB = vertices[ib + 2] >= -vertices[ib + 3];
+        boolean inC = vertices[ic + 2] >= -vertices[ic + 3];
+        if (inA && inB && inC) {
+            emitTriangle(chunk, vertices, ia, vertices, ib, vertices, ic);
+            return;
+        }
+        if (!inA && !inB && !inC) {
+            return;
+        }
+        // clip against the near plane z = -w, the polygon has three or four vertices
+        int[] offsets = {ia, ib, ic};
+        int count = 0;
+        for (int k = 0; k < 3; k++) {
+            int p = offsets[k], q = offsets[(k + 1) % 3];
+            float dp = vertices[p + 2] + vertices[p + 3], dq = vertices[q + 2] + vertices[q + 3];
+            if (dp >= 0) {
+                System.arraycopy(vertices, p, polygon, count++ * VERTEX_STRIDE, VERTEX_STRIDE);
+            }
+            if ((dp >= 0) != (dq >= 0)) {
+                float s = dp / (dp - dq);
+                int o = count++ * VERTEX_STRIDE;
+                for (int i = 0; i < VERTEX_STRIDE; i++) {
+                    polygon[o + i] = vertices[p + i] + s * (vertices[q + i] - vertices[p + i]);
+                }
+            }
+        }
+        for (int k = 2; k < count; k++) {
+            emitTriangle(chunk, polygon, 0, polygon, (k - 1) * VERTEX_STRIDE, polygon, k * VERTEX_STRIDE);
+        }
+    }
+
+    private void emitTriangle(Chunk chunk, float[] va, int a, float[] vb, int b, float[] vc, int c) {
+        int triangle = chunk.add();
+        float[] t = chunk.triangles;
+        int o = triangle * TRIANGLE_STRIDE;
+        toWindow(va, a, t, o);
+        toWindow(vb, b, t, o + SCREEN_STRIDE);
+        toWindow(vc, c, t, o + 2 * SCREEN_STRIDE);
+
+        float minX = Math.min(t[o], Math.min(t[o + SCREEN_STRIDE], t[o + 2 * SCREEN_STRIDE]));
+        float maxX = Math.max(t[o], Math.max(t[o + SCREEN_STRIDE], t[o + 2 * SCREEN_STRIDE]));
+        float minY = Math.min(t[o + 1], Math.min(t[o + SCREEN_STRIDE + 1], t[o + 2 * SCREEN_STRIDE + 1]));
+        float maxY = Math.max(t[o + 1], Math.max(t[o + SCREEN_STRIDE + 1], t[o + 2 * SCREEN_STRIDE + 1]));
+        float area = (t[o + SCREEN_STRIDE] - t[o]) * (t[o + 2 * SCREEN_STRIDE + 1] - t[o + 1])
+                - (t[o + SCREEN_STRIDE + 1] - t[o + 1]) * (t[o + 2 * SCREEN_STRIDE] - t[o]);
+        // pixel centers covered by the bounding box
+        int x0 = (int) Math.max(0, Math.ceil(minX - 0.5f)), x1 = (int) Math.min(width - 1, Math.floor(maxX - 0.5f));
+        int y0 = (int) Math.max(0, Math.ceil(minY - 0.5f)), y1 = (int) Math.min(height - 1, Math.floor(maxY - 0.5f));
+        if (area == 0 || Float.isNaN(area) || x0 > x1 || y0 > y1) {
+            chunk.triangleCount--;
+            return;
+        }
+        for (int ty = y0 / TILE_SIZE; ty <= y1 / TILE_SIZE; ty++) {
+            for (int tx = x0 / TILE_SIZE; tx <= x1 / TILE_SIZE; tx++) {
+                chunk.bin(ty * tilesX + tx, triangle);
+            }
+        }
+    }
+
+    private void toWindow(float[] v, int i, float[] t, int o) {
+        float invW = 1 / v[i + 3];
+        t[o] = (v[i] * invW + 1) * 0.5f * width;
+        t[o + 1] = (v[i + 1] * invW + 1) * 0.5f * height;
+        t[o + 2] = (v[i + 2] * invW + 1) * 0.5f;
+        t[o + INV_W] = invW;
+        for (int k = 0; k < VARYINGS; k++) {
+            t[o + 4 + k] = v[i + 4 + k] * invW;
+        }
+    }
+
+    private void rasterizeTile(int tile, float[] varyings) {
+        int x0 = tile % tilesX * TILE_SIZE, y0 = tile / tilesX * TILE_SIZE;
+        int x1 = Math.min(width, x0 + TILE_SIZE) - 1, y1 = Math.min(height, y0 + TILE_SIZE) - 1;
+        for (DrawCall draw : draws) {
+            for (Chunk chunk : draw.chunks) {
+                int[] bin = chunk.bins[tile];
+                for (int k = 0, size = chunk.binSizes[tile]; k < size; k++) {
+                    rasterizeTriangle(draw, chunk.triangles, bin[k] * TRIANGLE_STRIDE, x0, y0, x1, y1, varyings);
+                }
+            }
+        }
+    }
+
+    private void rasterizeTriangle(DrawCall draw, float[] t, int o, int tileX0, int tileY0, int tileX1, int tileY1,
+                                   float[] varyings) {
+        int a = o, b = o + SCREEN_STRIDE, c = o + 2 * SCREEN_STRIDE;
+        float area = (t[b] - t[a]) * (t[c + 1] - t[a + 1]) - (t[b + 1] - t[a + 1]) * (t[c] - t[a]);
+        if (area < 0) {
+            // no face culling, wind all triangles counterclockwise
+            b = c;
+            c = o + SCREEN_STRIDE;
+            area = -area;
+        }
+        float minX = Math.min(t[a], Math.min(t[b], t[c])), maxX = Math.max(t[a], Math.max(t[b], t[c]));
+        float minY = Math.min(t[a + 1], Math.min(t[b + 1], t[c + 1]));
+        float maxY = Math.max(t[a + 1], Math.max(t[b + 1], t[c + 1]));
+        int x0 = (int) Math.max(tileX0, Math.ceil(minX - 0.5f)), x1 = (int) Math.min(tileX1, Math.floor(maxX - 0.5f));
+        int y0 = (int) Math.max(tileY0, Math.ceil(minY - 0.5f)), y1 = (int) Math.min(tileY1, Math.floor(maxY - 0.5f));
+
+        // edge functions opposite to a, b and c, positive inside, ties go to top and left edges
+        float e0x = t[c] - t[b], e0y = t[c + 1] - t[b + 1];
+        float e1x = t[a] - t[c], e1y = t[a + 1] - t[c + 1];
+        float e2x = t[b] - t[a], e2y = t[b + 1] - t[a + 1];
+        boolean topLeft0 = e0y < 0 || e0y == 0 && e0x < 0;
+        boolean topLeft1 = e1y < 0 || e1y == 0 && e1x < 0;
+        boolean topLeft2 = e2y < 0 || e2y == 0 && e2x < 0;
+        float invArea = 1 / area;
+
+        for (int y = y0; y <= y1; y++) {
+            float py = y + 0.5f;
+            for (int x = x0; x <= x1; x++) {
+                float px = x + 0.5f;
+                float w0 = e0x * (py - t[b + 1]) - e0y * (px - t[b]);
+                float w1 = e1x * (py - t[c + 1]) - e1y * (px - t[c]);
+                float w2 = e2x * (py - t[a + 1]) - e2y * (px - t[a]);
+                if (w0 < 0 || w1 < 0 || w2 < 0 || w0 == 0 && !topLeft0 || w1 == 0 && !topLeft1
+                        || w2 == 0 && !topLeft2) {
+                    continue;
+                }
+                w0 *= invArea;
+                w1 *= invArea;
+                w2 *= invArea;
+                float z = w0 * t[a + 2] + w1 * t[b + 2] + w2 * t[c + 2];
+                int pixel = y * width + x;
+                // fragments beyond the far plane are clipped
+                if (z < 0 || z > 1 || z >= depth[pixel]) {
+                    continue;
+                }
+                depth[pixel] = z;
+                if (!draw.colorMask) {
+                    continue;
+                }
+                float w = 1 / (w0 * t[a + INV_W] + w1 * t[b + INV_W] + w2 * t[c + INV_W]);
+                for (int k = 0; k < VARYINGS; k++) {
+                    varyings[k] = (w0 * t[a + 4 + k] + w1 * t[b + 4 + k] + w2 * t[c + 4 + k]) * w;
+                }
+                shadeFragment(draw, varyings, z * w, pixel);
+            }
+        }
+    }
+
+    // main of grid.frag, the varyings are indexed from the texture position
+    private void shadeFragment(DrawCall draw, float[] v, float viewDepth, int pixel) {
+        final int light = LIGHT_VECTOR - 4, normal = NORMAL - 4, fragPos = FRAG_POS - 4, shadowPos = SHADOW_POS - 4;
+        float lightDist = length(v[light], v[light + 1], v[light + 2]);
+        float ldx = v[light] / lightDist, ldy = v[light + 1] / lightDist, ldz = v[light + 2] / lightDist;
+        float normalLength = length(v[normal], v[normal + 1], v[normal + 2]);
+        float ndx = v[normal] / normalLength, ndy = v[normal + 1] / normalLength, ndz = v[normal + 2] / normalLength;
+        float ndl = Math.max(ndx * ldx + ndy * ldy + ndz * ldz, 0);
+        float attenuation = Math.min(1, 1 / (lightDist * lightDist));
+        float fragLength = length(v[fragPos], v[fragPos + 1], v[fragPos + 2]);
+        float hdx = ldx - v[fragPos] / fragLength, hdy = ldy - v[fragPos + 1] / fragLength;
+        float hdz = ldz - v[fragPos + 2] / fragLength;
+        float halfLength = length(hdx, hdy, hdz);
+        float hdn = Math.max((hdx * ndx + hdy * ndy + hdz * ndz) / halfLength, 0);
+        float u = 1 - v[0], t = v[1];
+
+        float r, g, b;
+        switch (draw.colorMode) {
+            case COLOR -> {
+                r = draw.color[0];
+                g = draw.color[1];
+                b = draw.color[2];
+            }
+            case TEXTURE -> {
+                OGLTexImageFloat texture = draw.texture;
+                if (texture == null) {
+                    r = g = b = 0;
+                } else {
+                    r = sample(texture, 0, u, t);
+                    g = sample(texture, 1, u, t);
+                    b = sample(texture, 2, u, t);
+                }
+            }
+            case VIEW_NORMAL -> {
+                r = ndx;
+                g = ndy;
+                b = ndz;
+            }
+            case UV -> {
+                r = u;
+                g = t;
+                b = 0;
+            }
+            case DEPTH -> r = g = b = 1 / viewDepth;
+            case FRAG_POS -> {
+                r = v[fragPos];
+                g = v[fragPos + 1];
+                b = v[fragPos + 2];
+            }
+            default -> r = g = b = 1 / lightDist;
+        }
+
+        if (draw.enableLighting) {
+            float shadow = draw.shadowMap == null ? 0 : shadow(draw.shadowMap, v, shadowPos, ndl, lightDist);
+            float diffuse = ndl * DIFFUSE;
+            float specular = (float) Math.pow(hdn, 4 * SHININESS) * SPECULAR;
+            float intensity = AMBIENT + (1 - shadow) * attenuation * (diffuse + specular);
+            r *= intensity;
+            g *= intensity;
+            b *= intensity;
+        }
+        int i = 4 * pixel;
+        color[i] = toByte(r);
+        color[i + 1] = toByte(g);
+        color[i + 2] = toByte(b);
+        color[i + 3] = (byte) 255;
+    }
+
+    // 5x5 percentage closer filtering of grid.frag
+    private static float shadow(OGLTexImageFloat shadowMap, float[] v, int shadowPos, float ndl, float lightDist) {
+        float w = v[shadowPos + 3];
+        float sx = (v[shadowPos] / w + 1) / 2, sy = (v[shadowPos + 1] / w + 1) / 2, sz = (v[shadowPos + 2] / w + 1) / 2;
+        if (!(sx >= 0 && sx <= 1 && sy >= 0 && sy <= 1 && sz >= 0 && sz <= 1)) {
+            return 0;
+        }
+        float scale = Math.abs(ndl) * 0.75f + 0.25f;
+        float texelX = scale / shadowMap.getWidth(), texelY = scale / shadowMap.getHeight();
+        float bias = 1e-5f;
+        if (Math.abs(w - 1) > bias) {
+            bias *= (float) Math.pow(10, Math.log(lightDist));
+            bias += (float) Math.min(5e-3 / Math.pow(18, Math.log(ndl)), 5e-4);
+        }
+        float[] depths = shadowMap.getData();
+        int width = shadowMap.getWidth(), height = shadowMap.getHeight();
+        int shadow = 0;
+        for (int x = -2; x <= 2; x++) {
+            for (int y = -2; y <= 2; y++) {
+                if (sampleDepth(depths, width, height, sx + texelX * x, sy + texelY * y) < sz - bias) {
+                    shadow++;
+                }
+            }
+        }
+        return shadow / 25f;
+    }
+
+    // bilinear filtering with clamping to the edge
+    private static float sample(OGLTexImageFloat image, int component, float s, float t) {
+        int w = image.getWidth(), h = image.getHeight();
+        int components = image.getFormat().getComponentCount();
+        if (component >= components) {
+            return 0;
+        }
+        float[] data = image.getData();
+        float x = s * w - 0.5f, y = t * h - 0.5f;
+        int x0 = (int) Math.floor(x), y0 = (int) Math.floor(y);
+        float fx = x - x0, fy = y - y0;
+        int xa = clamp(x0, w), xb = clamp(x0 + 1, w), ya = clamp(y0, h), yb = clamp(y0 + 1, h);
+        float c00 = data[(ya * w + xa) * components + component], c10 = data[(ya * w + xb) * components + component];
+        float c01 = data[(yb * w + xa) * components + component], c11 = data[(yb * w + xb) * components + component];
+        return (c00 * (1 - fx) + c10 * fx) * (1 - fy) + (c01 * (1 - fx) + c11 * fx) * fy;
+    }
+
+    // sample of a single-component image, the depth map lookup of the PCF loop
+    private static float sampleDepth(float[] data, int w, int h, float s, float t) {
+        float x = s * w - 0.5f, y = t * h - 0.5f;
+        int x0 = (int) Math.floor(x), y0 = (int) Math.floor(y);
+        float fx = x - x0, fy = y - y0;
+        int xa = clamp(x0, w), xb = clamp(x0 + 1, w);
+        int ya = clamp(y0, h) * w, yb = clamp(y0 + 1, h) * w;
+        return (data[ya + xa] * (1 - fx) + data[ya + xb] * fx) * (1 - fy) + (data[yb + xa] * (1 - fx) + data[yb + xb] * fx) * fy;
+    }
+
+    private static int clamp(int i, int size) {
+        return i < 0 ? 0 : Math.min(i, size - 1);
+    }
+
+    private static float length(float x, float y, float z) {
+        return (float) Math.sqrt(x * x + y * y + z * z);
+    }
+
+    private static byte toByte(float value) {
+        // NaN from degenerate normals ends up black like on most GPUs
+        return (byte) (int) (Math.max(0, Math.min(1, value)) * 255 + 0.5f);
+    }
+}
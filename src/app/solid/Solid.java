@@ -3,15 +3,34 @@ package app.solid;
 import lwjglutils.OGLBuffers;
 import transforms.*;
 
+import java.util.Optional;
+import java.util.function.Consumer;
+
 public abstract class Solid {
     public static final float[] DEFAULT_COLOR = new float[]{1.0f, 1.0f, 0};
 
     protected OGLBuffers buffers;
     protected int topology;
-    protected Mat4 modelMatrix = new Mat4Identity();
+    // decomposed model transformation, null until decomposed after setModelMatrix, empty if it has shear
+    private Optional<Transform> transform = Optional.of(new Transform());
+    // model matrix and its single-precision copy, null until built after the transformation changes
+    private Mat4 modelMatrix = new Mat4Identity();
+    private Mat4f modelMatrixF;
     protected Mat4 viewMatrix = new Mat4Identity();
     protected Mat4 projectionMatrix = new Mat4Identity();
+    // single-precision copies kept in sync by the setters, uploaded as uniforms
+    protected Mat4f viewMatrixF = new Mat4f(viewMatrix);
+    protected Mat4f projectionMatrixF = new Mat4f(projectionMatrix);
+    // normal matrix of the model-view transformation, recomputed on demand after either matrix changes
+    private Mat3f normalMatrixF;
+    // normal matrix of the model transformation alone, null until built after it changes
+    private Mat3f modelNormalMatrixF;
+    // world-space bounds, recomputed on demand after the model matrix or the local bounds change
+    private BoundingBox bounds;
+    private BoundingSphere boundingSphere;
+    private Consumer<Solid> boundsListener;
     protected float[] color = DEFAULT_COLOR.clone();
+    private final Mat4Mutable modelWorkspace = new Mat4Mutable();
 
     public OGLBuffers getBuffers() {
         return buffers;
@@ -22,11 +41,43 @@ public abstract class Solid {
     }
 
     public Mat4 getModelMatrix() {
+        if (modelMatrix == null) {
+            modelMatrix = transform.orElseThrow().toMat4();
+        }
         return modelMatrix;
     }
 
+    protected Mat4f getModelMatrixF() {
+        if (modelMatrixF == null) {
+            modelMatrixF = new Mat4f(getModelMatrix());
+        }
+        return modelMatrixF;
+    }
+
     public void setModelMatrix(Mat4 modelMatrix) {
+        this.transform = null;
         this.modelMatrix = modelMatrix;
+        modelChanged();
+    }
+
+    public Optional<Transform> getTransform() {
+        if (transform == null) {
+            transform = Transform.fromMat4(modelMatrix);
+        }
+        return transform;
+    }
+
+    public void setTransform(Transform transform) {
+        this.transform = Optional.of(transform);
+        this.modelMatrix = null;
+        modelChanged();
+    }
+
+    private void modelChanged() {
+        this.modelMatrixF = null;
+        this.normalMatrixF = null;
+        this.modelNormalMatrixF = null;
+        invalidateBounds();
     }
 
     public Mat4 getViewMatrix() {
@@ -34,7 +85,26 @@ public abstract class Solid {
     }
 
     public void setViewMatrix(Mat4 viewMatrix) {
+        if (this.viewMatrix == viewMatrix) {
+            return;
+        }
         this.viewMatrix = viewMatrix;
+        this.viewMatrixF = new Mat4f(viewMatrix);
+        this.normalMatrixF = null;
+    }
+
+    public Mat3f getNormalMatrixF() {
+        if (normalMatrixF == null) {
+            normalMatrixF = new Mat3f(getModelMatrix().mul(viewMatrix).normalMatrix());
+        }
+        return normalMatrixF;
+    }
+
+    protected Mat3f getModelNormalMatrixF() {
+        if (modelNormalMatrixF == null) {
+            modelNormalMatrixF = new Mat3f(getModelMatrix().normalMatrix());
+        }
+        return modelNormalMatrixF;
     }
 
     public Mat4 getProjectionMatrix() {
@@ -43,6 +113,42 @@ public abstract class Solid {
 
     public void setProjectionMatrix(Mat4 projectionMatrix) {
         this.projectionMatrix = projectionMatrix;
+        this.projectionMatrixF = new Mat4f(projectionMatrix);
+    }
+
+    public BoundingBox getBounds() {
+        if (bounds == null) {
+            bounds = getLocalBounds().mul(getModelMatrix());
+        }
+        return bounds;
+    }
+
+    public BoundingSphere getBoundingSphere() {
+        if (boundingSphere == null) {
+            boundingSphere = getLocalBoundingSphere().mul(getModelMatrix());
+        }
+        return boundingSphere;
+    }
+
+    protected abstract BoundingBox getLocalBounds();
+
+    protected BoundingSphere getLocalBoundingSphere() {
+        return getLocalBounds().getBoundingSphere();
+    }
+
+    protected void invalidateBounds() {
+        bounds = null;
+        boundingSphere = null;
+        if (boundsListener != null) {
+            boundsListener.accept(this);
+        }
+    }
+
+    void setBoundsListener(Consumer<Solid> boundsListener) {
+        if (boundsListener != null && this.boundsListener != null) {
+            throw new IllegalStateException("Solid is already in a bounding volume hierarchy");
+        }
+        this.boundsListener = boundsListener;
     }
 
     public float[] getColor() {
@@ -60,15 +166,38 @@ public abstract class Solid {
     }
 
     public void translate(Vec3D translation) {
-        this.modelMatrix = modelMatrix.mul(new Mat4Transl(translation));
+        Optional<Transform> trs = getTransform();
+        if (trs.isPresent()) {
+            setTransform(trs.get().translate(translation));
+        } else {
+            setModelMatrix(modelWorkspace.set(getModelMatrix())
+                    .translate(translation.getX(), translation.getY(), translation.getZ())
+                    .toMat4());
+        }
     }
 
     public void rotate(double alpha, Vec3D axis) {
-        this.modelMatrix = modelMatrix.mul(new Mat4Rot(alpha, axis));
+        Optional<Transform> trs = getTransform();
+        if (trs.isPresent()) {
+            setTransform(trs.get().rotate(alpha, axis));
+        } else {
+            setModelMatrix(modelWorkspace.set(getModelMatrix())
+                    .rotate(alpha, axis.getX(), axis.getY(), axis.getZ())
+                    .toMat4());
+        }
     }
 
     public void scale(Vec3D scale) {
-        this.modelMatrix = modelMatrix.mul(new Mat4Scale(scale));
+        Optional<Transform> trs = getTransform();
+        boolean uniform = scale.getX() == scale.getY() && scale.getY() == scale.getZ();
+        // non-uniform scaling after a rotation shears, which only the matrix can hold
+        if (trs.isPresent() && (uniform || !trs.get().hasRotation())) {
+            setTransform(trs.get().scale(scale));
+        } else {
+            setModelMatrix(modelWorkspace.set(getModelMatrix())
+                    .scale(scale.getX(), scale.getY(), scale.getZ())
+                    .toMat4());
+        }
     }
 
     public abstract void draw();
@@ -0,0 +1,35 @@
+package app.solid;
+
+import transforms.Parallel;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parametric surface of a {@link Grid.FuncType}, the CPU counterpart of
+ * calcPosition and calcNormal in grid.vert. Normals are the cross product of
+ * the partial derivatives dP/du x dP/dv up to a positive factor, they are
+ * not normalized and vanish where the parametrization degenerates.
+ * Time is in milliseconds like the uTime uniform.
+ */
+@FunctionalInterface
+public interface SurfaceFunction {
+
+    /**
+     * Minimal number of samples evaluated in parallel
+     */
+    int PARALLEL_THRESHOLD = 1 << 14;
+
+    /**
+     * Evaluates positions and normals of the samples in [from, to)
+     */
+    void evaluate(SurfaceSamples samples, float time, int from, int to);
+
+    /**
+     * Evaluates all samples, splitting large sets across the common ForkJoin
+     * pool
+     */
+    default void evaluate(SurfaceSamples samples, float time) {
+        Parallel.forRange(ForkJoinPool.commonPool(), samples.size(), PARALLEL_THRESHOLD,
+                (from, to) -> evaluate(samples, time, from, to));
+    }
+}
@@ -0,0 +1,43 @@
+package app.solid;
+
+/**
+ * Structure-of-arrays set of surface samples: parameters u and v in [0, 1]
+ * and the positions and normals a {@link SurfaceFunction} computes for them.
+ */
+public final class SurfaceSamples {
+
+    public final float[] u, v;
+    public final float[] x, y, z;
+    public final float[] nx, ny, nz;
+
+    public SurfaceSamples(int count) {
+        u = new float[count];
+        v = new float[count];
+        x = new float[count];
+        y = new float[count];
+        z = new float[count];
+        nx = new float[count];
+        ny = new float[count];
+        nz = new float[count];
+    }
+
+    /**
+     * Creates the samples of a grid of columns x rows vertices with the
+     * parameters of the {@link Grid} vertex buffer, row by row
+     */
+    public static SurfaceSamples grid(int columns, int rows) {
+        SurfaceSamples samples = new SurfaceSamples(columns * rows);
+        for (int i = 0, index = 0; i < rows; i++) {
+            float v = (float) i / (rows - 1f);
+            for (int j = 0; j < columns; j++, index++) {
+                samples.u[index] = (float) j / (columns - 1f);
+                samples.v[index] = v;
+            }
+        }
+        return samples;
+    }
+
+    public int size() {
+        return u.length;
+    }
+}
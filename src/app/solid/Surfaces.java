@@ -0,0 +1,104 @@
+package app.solid;
+
+/**
+ * The {@link SurfaceFunction}s of the {@link Grid.FuncType}s. Positions follow
+ * calcPosition of grid.vert in single precision, normals are derived from
+ * its partial derivatives with positive factors dropped.
+ */
+final class Surfaces {
+
+    private static final float PI = (float) Math.PI;
+
+    private Surfaces() {
+    }
+
+    static void grid(SurfaceSamples s, float time, int from, int to) {
+        for (int i = from; i < to; i++) {
+            s.x[i] = s.u[i] * 2 - 1;
+            s.y[i] = s.v[i] * 2 - 1;
+            s.z[i] = 0;
+            s.nx[i] = 0;
+            s.ny[i] = 0;
+            s.nz[i] = 1;
+        }
+    }
+
+    // z = 0.2 cos(3 (x + t/10000)) sin(5 (y + t/5000)), normal (-dz/dx, -dz/dy, 1)
+    static void wave(SurfaceSamples s, float time, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float x = s.u[i] * 2 - 1, y = s.v[i] * 2 - 1;
+            double a = 3 * (x + time / 10000), b = 5 * (y + time / 5000);
+            double sinA = Math.sin(a), cosA = Math.cos(a), sinB = Math.sin(b), cosB = Math.cos(b);
+            s.x[i] = x;
+            s.y[i] = y;
+            s.z[i] = 0.2f * (float) (cosA * sinB);
+            s.nx[i] = (float) (0.6 * sinA * sinB);
+            s.ny[i] = (float) (-cosA * cosB);
+            s.nz[i] = 1;
+        }
+    }
+
+    // the normal is the position, the factor sin(zenith) vanishing at the poles is dropped
+    static void sphere(SurfaceSamples s, float time, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float azimuth = s.u[i] * 2 * PI, zenith = s.v[i] * PI;
+            double sinZenith = Math.sin(zenith);
+            s.x[i] = s.nx[i] = (float) (sinZenith * Math.sin(azimuth));
+            s.y[i] = s.ny[i] = (float) (sinZenith * Math.cos(azimuth));
+            s.z[i] = s.nz[i] = (float) Math.cos(zenith);
+        }
+    }
+
+    static void cylinder(SurfaceSamples s, float time, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float azimuth = s.u[i] * 2 * PI;
+            s.x[i] = s.nx[i] = (float) Math.sin(azimuth);
+            s.y[i] = s.ny[i] = (float) Math.cos(azimuth);
+            s.z[i] = (1 - s.v[i]) * 2 - 1;
+            s.nz[i] = 0;
+        }
+    }
+
+    // normal z (sin, cos, -1), the factor z changes sign at the waist and is kept
+    static void hourglass(SurfaceSamples s, float time, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float azimuth = s.u[i] * 2 * PI;
+            float z = (1 - s.v[i]) * 2 - 1;
+            float sin = (float) Math.sin(azimuth), cos = (float) Math.cos(azimuth);
+            s.x[i] = sin * z;
+            s.y[i] = cos * z;
+            s.z[i] = z;
+            s.nx[i] = z * sin;
+            s.ny[i] = z * cos;
+            s.nz[i] = -z;
+        }
+    }
+
+    // normal cos(zenith) (sin(azimuth) sin(zenith), cos(azimuth) sin(zenith), cos(2 zenith))
+    static void sphericalHourglass(SurfaceSamples s, float time, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float azimuth = s.u[i] * 2 * PI, zenith = s.v[i] * PI;
+            double sinAzimuth = Math.sin(azimuth), cosAzimuth = Math.cos(azimuth);
+            double sinZenith = Math.sin(zenith), cosZenith = Math.cos(zenith);
+            s.x[i] = (float) (sinZenith * sinAzimuth * cosZenith);
+            s.y[i] = (float) (sinZenith * cosAzimuth * cosZenith);
+            s.z[i] = (float) cosZenith;
+            s.nx[i] = (float) (cosZenith * sinAzimuth * sinZenith);
+            s.ny[i] = (float) (cosZenith * cosAzimuth * sinZenith);
+            s.nz[i] = (float) (cosZenith * Math.cos(2 * zenith));
+        }
+    }
+
+    // z = (1 - |x|) (1 - |y|), normal (-dz/dx, -dz/dy, 1), zero slope across the ridges
+    static void tent(SurfaceSamples s, float time, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float x = s.u[i] * 2 - 1, y = s.v[i] * 2 - 1;
+            s.x[i] = x;
+            s.y[i] = y;
+            s.z[i] = (1 - Math.abs(x)) * (1 - Math.abs(y));
+            s.nx[i] = Math.signum(x) * (1 - Math.abs(y));
+            s.ny[i] = Math.signum(y) * (1 - Math.abs(x));
+            s.nz[i] = 1;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package app.solid;
+
+import lwjglutils.OGLProgram;
+
+import java.nio.FloatBuffer;
+
+import static lwjglutils.OGL.gl;
+
+/**
+ * Uniform locations of a shader program indexed by slot, with the values last
+ * uploaded to each slot. Programs keep their uniform values, so a value equal
+ * to the cached one is not uploaded again as long as only this table sets the
+ * uniforms of the program. Slots missing in the program are never uploaded
+ * and not counted.
+ */
+final class UniformSlots {
+
+    private static long uploads;
+    private static long skippedUploads;
+
+    private final int[] locations;
+    // raw bits of the last uploaded values, null until the first upload
+    private final int[][] values;
+
+    UniformSlots(OGLProgram shaderProgram, String[] names) {
+        locations = new int[names.length];
+        values = new int[names.length][];
+        for (int slot = 0; slot < names.length; slot++) {
+            locations[slot] = shaderProgram.getUniformLocation(shaderProgram.getUniform(names[slot]));
+        }
+    }
+
+    void setMatrix4(int slot, FloatBuffer data) {
+        if (changed(slot, data, 16)) {
+            gl().glUniformMatrix4fv(locations[slot], false, data);
+        }
+    }
+
+    void setMatrix3(int slot, FloatBuffer data) {
+        if (changed(slot, data, 9)) {
+            gl().glUniformMatrix3fv(locations[slot], false, data);
+        }
+    }
+
+    void set1f(int slot, float x) {
+        if (changed(slot, 1, Float.floatToRawIntBits(x), 0, 0)) {
+            gl().glUniform1f(locations[slot], x);
+        }
+    }
+
+    void set3f(int slot, float x, float y, float z) {
+        if (changed(slot, 3, Float.floatToRawIntBits(x), Float.floatToRawIntBits(y), Float.floatToRawIntBits(z))) {
+            gl().glUniform3f(locations[slot], x, y, z);
+        }
+    }
+
+    void set1i(int slot, int x) {
+        if (changed(slot, 1, x, 0, 0)) {
+            gl().glUniform1i(locations[slot], x);
+        }
+    }
+
+    private boolean changed(int slot, FloatBuffer data, int count) {
+        if (locations[slot] < 0) {
+            return false;
+        }
+        int[] previous = values[slot];
+        int position = data.position();
+        if (previous != null) {
+            int i = 0;
+            while (i < count && previous[i] == Float.floatToRawIntBits(data.get(position + i))) {
+                i++;
+            }
+            if (i == count) {
+                skippedUploads++;
+                return false;
+            }
+        } else {
+            previous = values[slot] = new int[count];
+        }
+        for (int i = 0; i < count; i++) {
+            previous[i] = Float.floatToRawIntBits(data.get(position + i));
+        }
+        uploads++;
+        return true;
+    }
+
+    // count of 1 compares x only, 3 compares x, y and z
+    private boolean changed(int slot, int count, int x, int y, int z) {
+        if (locations[slot] < 0) {
+            return false;
+        }
+        int[] previous = values[slot];
+        if (previous == null) {
+            previous = values[slot] = new int[3];
+        } else if (previous[0] == x && (count == 1 || previous[1] == y && previous[2] == z)) {
+            skippedUploads++;
+            return false;
+        }
+        previous[0] = x;
+        previous[1] = y;
+        previous[2] = z;
+        uploads++;
+        return true;
+    }
+
+    /**
+     * Returns the number of uniform uploads since the last reset
+     */
+    static long getUploads() {
+        return uploads;
+    }
+
+    /**
+     * Returns the number of uniform uploads skipped since the last reset
+     * because the program already held the value
+     */
+    static long getSkippedUploads() {
+        return skippedUploads;
+    }
+
+    static void resetCounters() {
+        uploads = skippedUploads = 0;
+    }
+}
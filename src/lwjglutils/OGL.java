@@ -0,0 +1,22 @@
+package lwjglutils;
+
+/**
+ * Holder of the current {@link OGLBackend}, usually statically imported as
+ * {@code import static lwjglutils.OGL.gl;} and used as
+ * {@code gl().glBindTexture(...)}. The backend must be set before any GL
+ * object is created and is not meant to change while objects are alive.
+ */
+public final class OGL {
+	private static OGLBackend backend = new OGLBackendLwjgl();
+
+	private OGL() {
+	}
+
+	public static OGLBackend gl() {
+		return backend;
+	}
+
+	public static void setBackend(OGLBackend backend) {
+		OGL.backend = backend;
+	}
+}
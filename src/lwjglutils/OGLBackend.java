@@ -0,0 +1,208 @@
+package lwjglutils;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * OpenGL entry points used by the utilities and the application, with the
+ * signatures of the LWJGL static functions of the same names. All GL calls go
+ * through the backend returned by {@link OGL#gl()}, which is
+ * {@link OGLBackendLwjgl} unless replaced, e.g. by {@link OGLBackendHeadless}
+ * to run the renderer without a GPU.
+ */
+public interface OGLBackend {
+
+	// state
+
+	void glEnable(int target);
+
+	void glDisable(int target);
+
+	void glViewport(int x, int y, int width, int height);
+
+	void glClearColor(float red, float green, float blue, float alpha);
+
+	void glClear(int mask);
+
+	void glPolygonMode(int face, int mode);
+
+	void glBlendFunc(int sfactor, int dfactor);
+
+	void glPixelStorei(int pname, int param);
+
+	void glPrimitiveRestartIndex(int index);
+
+	void glPushAttrib(int mask);
+
+	void glPopAttrib();
+
+	void glGetIntegerv(int pname, int[] params);
+
+	String glGetString(int name);
+
+	String glGetStringi(int name, int index);
+
+	int glGetError();
+
+	// buffers and drawing
+
+	int glGenBuffers();
+
+	void glBindBuffer(int target, int buffer);
+
+	void glBufferData(int target, FloatBuffer data, int usage);
+
+	void glBufferData(int target, IntBuffer data, int usage);
+
+	void glBufferData(int target, ShortBuffer data, int usage);
+
+	void glBufferData(int target, ByteBuffer data, int usage);
+
+	void glDeleteBuffers(int buffer);
+
+	void glBindBufferBase(int target, int index, int buffer);
+
+	int glGenVertexArrays();
+
+	void glBindVertexArray(int array);
+
+	void glDeleteVertexArrays(int array);
+
+	void glEnableVertexAttribArray(int index);
+
+	void glDisableVertexAttribArray(int index);
+
+	void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer);
+
+	void glDrawArrays(int mode, int first, int count);
+
+	void glDrawElements(int mode, int count, int type, long indices);
+
+	// textures
+
+	int glGenTextures();
+
+	void glBindTexture(int target, int texture);
+
+	void glActiveTexture(int texture);
+
+	boolean glIsTexture(int texture);
+
+	void glDeleteTextures(int texture);
+
+	void glTexParameteri(int target, int pname, int param);
+
+	void glTexImage2D(int target, int level, int internalformat, int width, int height, int border,
+			int format, int type, ByteBuffer pixels);
+
+	void glTexImage2D(int target, int level, int internalformat, int width, int height, int border,
+			int format, int type, FloatBuffer pixels);
+
+	void glTexSubImage2D(int target, int level, int xoffset, int yoffset, int width, int height,
+			int format, int type, ByteBuffer pixels);
+
+	void glTexSubImage2D(int target, int level, int xoffset, int yoffset, int width, int height,
+			int format, int type, FloatBuffer pixels);
+
+	void glTexSubImage2D(int target, int level, int xoffset, int yoffset, int width, int height,
+			int format, int type, int[] pixels);
+
+	void glTexImage3D(int target, int level, int internalformat, int width, int height, int depth,
+			int border, int format, int type, ByteBuffer pixels);
+
+	void glTexImage3D(int target, int level, int internalformat, int width, int height, int depth,
+			int border, int format, int type, FloatBuffer pixels);
+
+	void glTexSubImage3D(int target, int level, int xoffset, int yoffset, int zoffset, int width,
+			int height, int depth, int format, int type, ByteBuffer pixels);
+
+	void glGetTexImage(int tex, int level, int format, int type, ByteBuffer pixels);
+
+	void glGetTexImage(int tex, int level, int format, int type, FloatBuffer pixels);
+
+	void glGenerateMipmap(int target);
+
+	// framebuffers
+
+	int glGenFramebuffers();
+
+	void glBindFramebuffer(int target, int framebuffer);
+
+	boolean glIsFramebuffer(int framebuffer);
+
+	void glDeleteFramebuffers(int framebuffer);
+
+	void glFramebufferTexture2D(int target, int attachment, int textarget, int texture, int level);
+
+	int glCheckFramebufferStatus(int target);
+
+	void glDrawBuffers(int[] bufs);
+
+	// shaders and programs
+
+	int glCreateShader(int type);
+
+	void glShaderSource(int shader, CharSequence string);
+
+	void glCompileShader(int shader);
+
+	boolean glIsShader(int shader);
+
+	void glDeleteShader(int shader);
+
+	void glGetShaderiv(int shader, int pname, int[] params);
+
+	String glGetShaderInfoLog(int shader, int maxLength);
+
+	int glCreateProgram();
+
+	void glAttachShader(int program, int shader);
+
+	void glDetachShader(int program, int shader);
+
+	void glLinkProgram(int program);
+
+	boolean glIsProgram(int program);
+
+	void glDeleteProgram(int program);
+
+	void glGetProgramiv(int program, int pname, int[] params);
+
+	String glGetProgramInfoLog(int program, int maxLength);
+
+	String glGetActiveUniform(int program, int index, int[] size, int[] type);
+
+	String glGetActiveAttrib(int program, int index, int[] size, int[] type);
+
+	String glGetActiveUniformBlockName(int program, int uniformBlockIndex);
+
+	int glGetActiveUniformBlocki(int program, int uniformBlockIndex, int pname);
+
+	void glUseProgram(int program);
+
+	int glGetUniformLocation(int program, CharSequence name);
+
+	int glGetUniformBlockIndex(int program, CharSequence uniformBlockName);
+
+	void glUniformBlockBinding(int program, int uniformBlockIndex, int uniformBlockBinding);
+
+	int glGetAttribLocation(int program, CharSequence name);
+
+	// uniforms
+
+	void glUniform1i(int location, int v0);
+
+	void glUniform1f(int location, float v0);
+
+	void glUniform3f(int location, float v0, float v1, float v2);
+
+	void glUniform3fv(int location, float[] value);
+
+	void glUniformMatrix3fv(int location, boolean transpose, FloatBuffer value);
+
+	void glUniformMatrix4fv(int location, boolean transpose, FloatBuffer value);
+
+	void glUniformMatrix4fv(int location, boolean transpose, float[] value);
+}
@@ -0,0 +1,611 @@
+package lwjglutils;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL43.*;
+
+/**
+ * Backend without any OpenGL context. Calls are not executed, only counted:
+ * object names are handed out sequentially, shaders always compile and link,
+ * uniform and attribute locations and uniform block indices are assigned per
+ * program on first query and textures read back keep their buffers untouched.
+ * Lets the CPU side of the renderer run and be measured in a plain JVM.
+ */
+public class OGLBackendHeadless implements OGLBackend {
+	private int nextName = 1;
+	private int currentProgram;
+	private final Map<Integer, Map<String, Integer>> uniformLocations = new HashMap<>();
+	private final Map<Integer, Map<String, Integer>> attribLocations = new HashMap<>();
+	private final Map<Integer, Map<String, Integer>> uniformBlockIndices = new HashMap<>();
+
+	private long calls;
+	private long drawCalls;
+	private long drawnElements;
+	private long uniformUploads;
+	private long stateChanges;
+	private long uploadedBytes;
+
+	/**
+	 * Returns the number of GL calls since the last reset
+	 */
+	public long getCalls() {
+		return calls;
+	}
+
+	/**
+	 * Returns the number of glDrawArrays and glDrawElements calls since the
+	 * last reset
+	 */
+	public long getDrawCalls() {
+		return drawCalls;
+	}
+
+	/**
+	 * Returns the number of vertices or indices drawn since the last reset
+	 */
+	public long getDrawnElements() {
+		return drawnElements;
+	}
+
+	/**
+	 * Returns the number of glUniform* calls since the last reset
+	 */
+	public long getUniformUploads() {
+		return uniformUploads;
+	}
+
+	/**
+	 * Returns the number of calls changing the context state (bindings,
+	 * enables, viewport, modes) since the last reset
+	 */
+	public long getStateChanges() {
+		return stateChanges;
+	}
+
+	/**
+	 * Returns the number of bytes passed to buffer and texture uploads since
+	 * the last reset
+	 */
+	public long getUploadedBytes() {
+		return uploadedBytes;
+	}
+
+	/**
+	 * Zeroes all counters, the emulated objects stay
+	 */
+	public void resetCounters() {
+		calls = drawCalls = drawnElements = uniformUploads = stateChanges = uploadedBytes = 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.US,
+				"%d calls, %d draw calls (%d elements), %d uniform uploads, %d state changes, %d bytes uploaded",
+				calls, drawCalls, drawnElements, uniformUploads, stateChanges, uploadedBytes);
+	}
+
+	private void state() {
+		calls++;
+		stateChanges++;
+	}
+
+	private void uniform() {
+		calls++;
+		uniformUploads++;
+	}
+
+	private void upload(Buffer data, int bytesPerElement) {
+		calls++;
+		if (data != null)
+			uploadedBytes += (long) data.remaining() * bytesPerElement;
+	}
+
+	private int name() {
+		calls++;
+		return nextName++;
+	}
+
+	private boolean isName(int name) {
+		calls++;
+		return name > 0 && name < nextName;
+	}
+
+	private static int location(Map<Integer, Map<String, Integer>> locations, int program, CharSequence name) {
+		Map<String, Integer> programLocations = locations.computeIfAbsent(program, p -> new HashMap<>());
+		return programLocations.computeIfAbsent(name.toString(), n -> programLocations.size());
+	}
+
+	// state
+
+	@Override
+	public void glEnable(int target) {
+		state();
+	}
+
+	@Override
+	public void glDisable(int target) {
+		state();
+	}
+
+	@Override
+	public void glViewport(int x, int y, int width, int height) {
+		state();
+	}
+
+	@Override
+	public void glClearColor(float red, float green, float blue, float alpha) {
+		state();
+	}
+
+	@Override
+	public void glClear(int mask) {
+		calls++;
+	}
+
+	@Override
+	public void glPolygonMode(int face, int mode) {
+		state();
+	}
+
+	@Override
+	public void glBlendFunc(int sfactor, int dfactor) {
+		state();
+	}
+
+	@Override
+	public void glPixelStorei(int pname, int param) {
+		state();
+	}
+
+	@Override
+	public void glPrimitiveRestartIndex(int index) {
+		state();
+	}
+
+	@Override
+	public void glPushAttrib(int mask) {
+		calls++;
+	}
+
+	@Override
+	public void glPopAttrib() {
+		state();
+	}
+
+	@Override
+	public void glGetIntegerv(int pname, int[] params) {
+		calls++;
+		params[0] = pname == GL_CURRENT_PROGRAM ? currentProgram : 0;
+	}
+
+	@Override
+	public String glGetString(int name) {
+		calls++;
+		return switch (name) {
+			case GL_VERSION -> "4.6.0 headless";
+			case GL_SHADING_LANGUAGE_VERSION -> "4.60 headless";
+			case GL_EXTENSIONS -> "";
+			default -> "headless";
+		};
+	}
+
+	@Override
+	public String glGetStringi(int name, int index) {
+		calls++;
+		return "";
+	}
+
+	@Override
+	public int glGetError() {
+		calls++;
+		return GL_NO_ERROR;
+	}
+
+	// buffers and drawing
+
+	@Override
+	public int glGenBuffers() {
+		return name();
+	}
+
+	@Override
+	public void glBindBuffer(int target, int buffer) {
+		state();
+	}
+
+	@Override
+	public void glBufferData(int target, FloatBuffer data, int usage) {
+		upload(data, Float.BYTES);
+	}
+
+	@Override
+	public void glBufferData(int target, IntBuffer data, int usage) {
+		upload(data, Integer.BYTES);
+	}
+
+	@Override
+	public void glBufferData(int target, ShortBuffer data, int usage) {
+		upload(data, Short.BYTES);
+	}
+
+	@Override
+	public void glBufferData(int target, ByteBuffer data, int usage) {
+		upload(data, 1);
+	}
+
+	@Override
+	public void glDeleteBuffers(int buffer) {
+		calls++;
+	}
+
+	@Override
+	public void glBindBufferBase(int target, int index, int buffer) {
+		state();
+	}
+
+	@Override
+	public int glGenVertexArrays() {
+		return name();
+	}
+
+	@Override
+	public void glBindVertexArray(int array) {
+		state();
+	}
+
+	@Override
+	public void glDeleteVertexArrays(int array) {
+		calls++;
+	}
+
+	@Override
+	public void glEnableVertexAttribArray(int index) {
+		state();
+	}
+
+	@Override
+	public void glDisableVertexAttribArray(int index) {
+		state();
+	}
+
+	@Override
+	public void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer) {
+		state();
+	}
+
+	@Override
+	public void glDrawArrays(int mode, int first, int count) {
+		calls++;
+		drawCalls++;
+		drawnElements += count;
+	}
+
+	@Override
+	public void glDrawElements(int mode, int count, int type, long indices) {
+		calls++;
+		drawCalls++;
+		drawnElements += count;
+	}
+
+	// textures
+
+	@Override
+	public int glGenTextures() {
+		return name();
+	}
+
+	@Override
+	public void glBindTexture(int target, int texture) {
+		state();
+	}
+
+	@Override
+	public void glActiveTexture(int texture) {
+		state();
+	}
+
+	@Override
+	public boolean glIsTexture(int texture) {
+		return isName(texture);
+	}
+
+	@Override
+	public void glDeleteTextures(int texture) {
+		calls++;
+	}
+
+	@Override
+	public void glTexParameteri(int target, int pname, int param) {
+		state();
+	}
+
+	@Override
+	public void glTexImage2D(int target, int level, int internalformat, int width, int height, int border,
+			int format, int type, ByteBuffer pixels) {
+		upload(pixels, 1);
+	}
+
+	@Override
+	public void glTexImage2D(int target, int level, int internalformat, int width, int height, int border,
+			int format, int type, FloatBuffer pixels) {
+		upload(pixels, Float.BYTES);
+	}
+
+	@Override
+	public void glTexSubImage2D(int target, int level, int xoffset, int yoffset, int width, int height,
+			int format, int type, ByteBuffer pixels) {
+		upload(pixels, 1);
+	}
+
+	@Override
+	public void glTexSubImage2D(int target, int level, int xoffset, int yoffset, int width, int height,
+			int format, int type, FloatBuffer pixels) {
+		upload(pixels, Float.BYTES);
+	}
+
+	@Override
+	public void glTexSubImage2D(int target, int level, int xoffset, int yoffset, int width, int height,
+			int format, int type, int[] pixels) {
+		calls++;
+		uploadedBytes += (long) pixels.length * Integer.BYTES;
+	}
+
+	@Override
+	public void glTexImage3D(int target, int level, int internalformat, int width, int height, int depth,
+			int border, int format, int type, ByteBuffer pixels) {
+		upload(pixels, 1);
+	}
+
+	@Override
+	public void glTexImage3D(int target, int level, int internalformat, int width, int height, int depth,
+			int border, int format, int type, FloatBuffer pixels) {
+		upload(pixels, Float.BYTES);
+	}
+
+	@Override
+	public void glTexSubImage3D(int target, int level, int xoffset, int yoffset, int zoffset, int width,
+			int height, int depth, int format, int type, ByteBuffer pixels) {
+		upload(pixels, 1);
+	}
+
+	@Override
+	public void glGetTexImage(int tex, int level, int format, int type, ByteBuffer pixels) {
+		calls++;
+	}
+
+	@Override
+	public void glGetTexImage(int tex, int level, int format, int type, FloatBuffer pixels) {
+		calls++;
+	}
+
+	@Override
+	public void glGenerateMipmap(int target) {
+		calls++;
+	}
+
+	// framebuffers
+
+	@Override
+	public int glGenFramebuffers() {
+		return name();
+	}
+
+	@Override
+	public void glBindFramebuffer(int target, int framebuffer) {
+		state();
+	}
+
+	@Override
+	public boolean glIsFramebuffer(int framebuffer) {
+		return isName(framebuffer);
+	}
+
+	@Override
+	public void glDeleteFramebuffers(int framebuffer) {
+		calls++;
+	}
+
+	@Override
+	public void glFramebufferTexture2D(int target, int attachment, int textarget, int texture, int level) {
+		calls++;
+	}
+
+	@Override
+	public int glCheckFramebufferStatus(int target) {
+		calls++;
+		return GL_FRAMEBUFFER_COMPLETE;
+	}
+
+	@Override
+	public void glDrawBuffers(int[] bufs) {
+		state();
+	}
+
+	// shaders and programs
+
+	@Override
+	public int glCreateShader(int type) {
+		return name();
+	}
+
+	@Override
+	public void glShaderSource(int shader, CharSequence string) {
+		calls++;
+	}
+
+	@Override
+	public void glCompileShader(int shader) {
+		calls++;
+	}
+
+	@Override
+	public boolean glIsShader(int shader) {
+		return isName(shader);
+	}
+
+	@Override
+	public void glDeleteShader(int shader) {
+		calls++;
+	}
+
+	@Override
+	public void glGetShaderiv(int shader, int pname, int[] params) {
+		calls++;
+		params[0] = pname == GL_INFO_LOG_LENGTH ? 0 : GL_TRUE;
+	}
+
+	@Override
+	public String glGetShaderInfoLog(int shader, int maxLength) {
+		calls++;
+		return "";
+	}
+
+	@Override
+	public int glCreateProgram() {
+		return name();
+	}
+
+	@Override
+	public void glAttachShader(int program, int shader) {
+		calls++;
+	}
+
+	@Override
+	public void glDetachShader(int program, int shader) {
+		calls++;
+	}
+
+	@Override
+	public void glLinkProgram(int program) {
+		calls++;
+	}
+
+	@Override
+	public boolean glIsProgram(int program) {
+		return isName(program);
+	}
+
+	@Override
+	public void glDeleteProgram(int program) {
+		calls++;
+	}
+
+	@Override
+	public void glGetProgramiv(int program, int pname, int[] params) {
+		calls++;
+		switch (pname) {
+		case GL_INFO_LOG_LENGTH:
+		case GL_ACTIVE_UNIFORMS:
+		case GL_ACTIVE_ATTRIBUTES:
+		case GL_ACTIVE_UNIFORM_BLOCKS:
+			// nothing to reflect, names are resolved by location queries
+			params[0] = 0;
+			break;
+		default:
+			params[0] = GL_TRUE;
+		}
+	}
+
+	@Override
+	public String glGetProgramInfoLog(int program, int maxLength) {
+		calls++;
+		return "";
+	}
+
+	@Override
+	public String glGetActiveUniform(int program, int index, int[] size, int[] type) {
+		calls++;
+		return "";
+	}
+
+	@Override
+	public String glGetActiveAttrib(int program, int index, int[] size, int[] type) {
+		calls++;
+		return "";
+	}
+
+	@Override
+	public String glGetActiveUniformBlockName(int program, int uniformBlockIndex) {
+		calls++;
+		return "";
+	}
+
+	@Override
+	public int glGetActiveUniformBlocki(int program, int uniformBlockIndex, int pname) {
+		calls++;
+		return 0;
+	}
+
+	@Override
+	public void glUseProgram(int program) {
+		state();
+		currentProgram = program;
+	}
+
+	@Override
+	public int glGetUniformLocation(int program, CharSequence name) {
+		calls++;
+		return location(uniformLocations, program, name);
+	}
+
+	@Override
+	public int glGetAttribLocation(int program, CharSequence name) {
+		calls++;
+		return location(attribLocations, program, name);
+	}
+
+	@Override
+	public int glGetUniformBlockIndex(int program, CharSequence uniformBlockName) {
+		calls++;
+		return location(uniformBlockIndices, program, uniformBlockName);
+	}
+
+	@Override
+	public void glUniformBlockBinding(int program, int uniformBlockIndex, int uniformBlockBinding) {
+		calls++;
+	}
+
+	// uniforms
+
+	@Override
+	public void glUniform1i(int location, int v0) {
+		uniform();
+	}
+
+	@Override
+	public void glUniform1f(int location, float v0) {
+		uniform();
+	}
+
+	@Override
+	public void glUniform3f(int location, float v0, float v1, float v2) {
+		uniform();
+	}
+
+	@Override
+	public void glUniform3fv(int location, float[] value) {
+		uniform();
+	}
+
+	@Override
+	public void glUniformMatrix3fv(int location, boolean transpose, FloatBuffer value) {
+		uniform();
+	}
+
+	@Override
+	public void glUniformMatrix4fv(int location, boolean transpose, FloatBuffer value) {
+		uniform();
+	}
+
+	@Override
+	public void glUniformMatrix4fv(int location, boolean transpose, float[] value) {
+		uniform();
+	}
+}
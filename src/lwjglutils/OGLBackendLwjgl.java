@@ -0,0 +1,454 @@
+package lwjglutils;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL43;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * Backend calling the LWJGL bindings of the OpenGL context current in the
+ * calling thread.
+ */
+public class OGLBackendLwjgl implements OGLBackend {
+
+	@Override
+	public void glEnable(int target) {
+		GL43.glEnable(target);
+	}
+
+	@Override
+	public void glDisable(int target) {
+		GL43.glDisable(target);
+	}
+
+	@Override
+	public void glViewport(int x, int y, int width, int height) {
+		GL43.glViewport(x, y, width, height);
+	}
+
+	@Override
+	public void glClearColor(float red, float green, float blue, float alpha) {
+		GL43.glClearColor(red, green, blue, alpha);
+	}
+
+	@Override
+	public void glClear(int mask) {
+		GL43.glClear(mask);
+	}
+
+	@Override
+	public void glPolygonMode(int face, int mode) {
+		GL43.glPolygonMode(face, mode);
+	}
+
+	@Override
+	public void glBlendFunc(int sfactor, int dfactor) {
+		GL43.glBlendFunc(sfactor, dfactor);
+	}
+
+	@Override
+	public void glPixelStorei(int pname, int param) {
+		GL43.glPixelStorei(pname, param);
+	}
+
+	@Override
+	public void glPrimitiveRestartIndex(int index) {
+		GL43.glPrimitiveRestartIndex(index);
+	}
+
+	@Override
+	public void glPushAttrib(int mask) {
+		GL43.glPushAttrib(mask);
+	}
+
+	@Override
+	public void glPopAttrib() {
+		GL43.glPopAttrib();
+	}
+
+	@Override
+	public void glGetIntegerv(int pname, int[] params) {
+		GL43.glGetIntegerv(pname, params);
+	}
+
+	@Override
+	public String glGetString(int name) {
+		return GL43.glGetString(name);
+	}
+
+	@Override
+	public String glGetStringi(int name, int index) {
+		return GL43.glGetStringi(name, index);
+	}
+
+	@Override
+	public int glGetError() {
+		return GL43.glGetError();
+	}
+
+	@Override
+	public int glGenBuffers() {
+		return GL43.glGenBuffers();
+	}
+
+	@Override
+	public void glBindBuffer(int target, int buffer) {
+		GL43.glBindBuffer(target, buffer);
+	}
+
+	@Override
+	public void glBufferData(int target, FloatBuffer data, int usage) {
+		GL43.glBufferData(target, data, usage);
+	}
+
+	@Override
+	public void glBufferData(int target, IntBuffer data, int usage) {
+		GL43.glBufferData(target, data, usage);
+	}
+
+	@Override
+	public void glBufferData(int target, ShortBuffer data, int usage) {
+		GL43.glBufferData(target, data, usage);
+	}
+
+	@Override
+	public void glBufferData(int target, ByteBuffer data, int usage) {
+		GL43.glBufferData(target, data, usage);
+	}
+
+	@Override
+	public void glDeleteBuffers(int buffer) {
+		GL43.glDeleteBuffers(buffer);
+	}
+
+	@Override
+	public void glBindBufferBase(int target, int index, int buffer) {
+		GL43.glBindBufferBase(target, index, buffer);
+	}
+
+	@Override
+	public int glGenVertexArrays() {
+		return GL43.glGenVertexArrays();
+	}
+
+	@Override
+	public void glBindVertexArray(int array) {
+		GL43.glBindVertexArray(array);
+	}
+
+	@Override
+	public void glDeleteVertexArrays(int array) {
+		GL43.glDeleteVertexArrays(array);
+	}
+
+	@Override
+	public void glEnableVertexAttribArray(int index) {
+		GL43.glEnableVertexAttribArray(index);
+	}
+
+	@Override
+	public void glDisableVertexAttribArray(int index) {
+		GL43.glDisableVertexAttribArray(index);
+	}
+
+	@Override
+	public void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer) {
+		GL43.glVertexAttribPointer(index, size, type, normalized, stride, pointer);
+	}
+
+	@Override
+	public void glDrawArrays(int mode, int first, int count) {
+		GL43.glDrawArrays(mode, first, count);
+	}
+
+	@Override
+	public void glDrawElements(int mode, int count, int type, long indices) {
+		GL43.glDrawElements(mode, count, type, indices);
+	}
+
+	@Override
+	public int glGenTextures() {
+		return GL43.glGenTextures();
+	}
+
+	@Override
+	public void glBindTexture(int target, int texture) {
+		GL43.glBindTexture(target, texture);
+	}
+
+	@Override
+	public void glActiveTexture(int texture) {
+		GL43.glActiveTexture(texture);
+	}
+
+	@Override
+	public boolean glIsTexture(int texture) {
+		return GL43.glIsTexture(texture);
+	}
+
+	@Override
+	public void glDeleteTextures(int texture) {
+		GL43.glDeleteTextures(texture);
+	}
+
+	@Override
+	public void glTexParameteri(int target, int pname, int param) {
+		GL43.glTexParameteri(target, pname, param);
+	}
+
+	@Override
+	public void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, ByteBuffer pixels) {
+		GL43.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+	}
+
+	@Override
+	public void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, FloatBuffer pixels) {
+		GL43.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+	}
+
+	@Override
+	public void glTexSubImage2D(int target, int level, int xoffset, int yoffset, int width, int height, int format, int type, ByteBuffer pixels) {
+		GL43.glTexSubImage2D(target, level, xoffset, yoffset, width, height, format, type, pixels);
+	}
+
+	@Override
+	public void glTexSubImage2D(int target, int level, int xoffset, int yoffset, int width, int height, int format, int type, FloatBuffer pixels) {
+		GL43.glTexSubImage2D(target, level, xoffset, yoffset, width, height, format, type, pixels);
+	}
+
+	@Override
+	public void glTexSubImage2D(int target, int level, int xoffset, int yoffset, int width, int height, int format, int type, int[] pixels) {
+		GL43.glTexSubImage2D(target, level, xoffset, yoffset, width, height, format, type, pixels);
+	}
+
+	@Override
+	public void glTexImage3D(int target, int level, int internalformat, int width, int height, int depth, int border, int format, int type, ByteBuffer pixels) {
+		GL43.glTexImage3D(target, level, internalformat, width, height, depth, border, format, type, pixels);
+	}
+
+	@Override
+	public void glTexImage3D(int target, int level, int internalformat, int width, int height, int depth, int border, int format, int type, FloatBuffer pixels) {
+		GL43.glTexImage3D(target, level, internalformat, width, height, depth, border, format, type, pixels);
+	}
+
+	@Override
+	public void glTexSubImage3D(int target, int level, int xoffset, int yoffset, int zoffset, int width, int height, int depth, int format, int type, ByteBuffer pixels) {
+		GL43.glTexSubImage3D(target, level, xoffset, yoffset, zoffset, width, height, depth, format, type, pixels);
+	}
+
+	@Override
+	public void glGetTexImage(int tex, int level, int format, int type, ByteBuffer pixels) {
+		GL43.glGetTexImage(tex, level, format, type, pixels);
+	}
+
+	@Override
+	public void glGetTexImage(int tex, int level, int format, int type, FloatBuffer pixels) {
+		GL43.glGetTexImage(tex, level, format, type, pixels);
+	}
+
+	@Override
+	public void glGenerateMipmap(int target) {
+		GL43.glGenerateMipmap(target);
+	}
+
+	@Override
+	public int glGenFramebuffers() {
+		return GL43.glGenFramebuffers();
+	}
+
+	@Override
+	public void glBindFramebuffer(int target, int framebuffer) {
+		GL43.glBindFramebuffer(target, framebuffer);
+	}
+
+	@Override
+	public boolean glIsFramebuffer(int framebuffer) {
+		return GL43.glIsFramebuffer(framebuffer);
+	}
+
+	@Override
+	public void glDeleteFramebuffers(int framebuffer) {
+		GL43.glDeleteFramebuffers(framebuffer);
+	}
+
+	@Override
+	public void glFramebufferTexture2D(int target, int attachment, int textarget, int texture, int level) {
+		GL43.glFramebufferTexture2D(target, attachment, textarget, texture, level);
+	}
+
+	@Override
+	public int glCheckFramebufferStatus(int target) {
+		return GL43.glCheckFramebufferStatus(target);
+	}
+
+	@Override
+	public void glDrawBuffers(int[] bufs) {
+		GL43.glDrawBuffers(bufs);
+	}
+
+	@Override
+	public int glCreateShader(int type) {
+		return GL43.glCreateShader(type);
+	}
+
+	@Override
+	public void glShaderSource(int shader, CharSequence string) {
+		GL43.glShaderSource(shader, string);
+	}
+
+	@Override
+	public void glCompileShader(int shader) {
+		GL43.glCompileShader(shader);
+	}
+
+	@Override
+	public boolean glIsShader(int shader) {
+		return GL43.glIsShader(shader);
+	}
+
+	@Override
+	public void glDeleteShader(int shader) {
+		GL43.glDeleteShader(shader);
+	}
+
+	@Override
+	public void glGetShaderiv(int shader, int pname, int[] params) {
+		GL43.glGetShaderiv(shader, pname, params);
+	}
+
+	@Override
+	public String glGetShaderInfoLog(int shader, int maxLength) {
+		return GL43.glGetShaderInfoLog(shader, maxLength);
+	}
+
+	@Override
+	public int glCreateProgram() {
+		return GL43.glCreateProgram();
+	}
+
+	@Override
+	public void glAttachShader(int program, int shader) {
+		GL43.glAttachShader(program, shader);
+	}
+
+	@Override
+	public void glDetachShader(int program, int shader) {
+		GL43.glDetachShader(program, shader);
+	}
+
+	@Override
+	public void glLinkProgram(int program) {
+		GL43.glLinkProgram(program);
+	}
+
+	@Override
+	public boolean glIsProgram(int program) {
+		return GL43.glIsProgram(program);
+	}
+
+	@Override
+	public void glDeleteProgram(int program) {
+		GL43.glDeleteProgram(program);
+	}
+
+	@Override
+	public void glGetProgramiv(int program, int pname, int[] params) {
+		GL43.glGetProgramiv(program, pname, params);
+	}
+
+	@Override
+	public String glGetProgramInfoLog(int program, int maxLength) {
+		return GL43.glGetProgramInfoLog(program, maxLength);
+	}
+
+	@Override
+	public String glGetActiveUniform(int program, int index, int[] size, int[] type) {
+		IntBuffer sizeBuffer = BufferUtils.createIntBuffer(1), typeBuffer = BufferUtils.createIntBuffer(1);
+		String name = GL43.glGetActiveUniform(program, index, sizeBuffer, typeBuffer);
+		size[0] = sizeBuffer.get(0);
+		type[0] = typeBuffer.get(0);
+		return name;
+	}
+
+	@Override
+	public String glGetActiveAttrib(int program, int index, int[] size, int[] type) {
+		IntBuffer sizeBuffer = BufferUtils.createIntBuffer(1), typeBuffer = BufferUtils.createIntBuffer(1);
+		String name = GL43.glGetActiveAttrib(program, index, sizeBuffer, typeBuffer);
+		size[0] = sizeBuffer.get(0);
+		type[0] = typeBuffer.get(0);
+		return name;
+	}
+
+	@Override
+	public String glGetActiveUniformBlockName(int program, int uniformBlockIndex) {
+		return GL43.glGetActiveUniformBlockName(program, uniformBlockIndex);
+	}
+
+	@Override
+	public int glGetActiveUniformBlocki(int program, int uniformBlockIndex, int pname) {
+		return GL43.glGetActiveUniformBlocki(program, uniformBlockIndex, pname);
+	}
+
+	@Override
+	public void glUseProgram(int program) {
+		GL43.glUseProgram(program);
+	}
+
+	@Override
+	public int glGetUniformLocation(int program, CharSequence name) {
+		return GL43.glGetUniformLocation(program, name);
+	}
+
+	@Override
+	public int glGetUniformBlockIndex(int program, CharSequence uniformBlockName) {
+		return GL43.glGetUniformBlockIndex(program, uniformBlockName);
+	}
+
+	@Override
+	public void glUniformBlockBinding(int program, int uniformBlockIndex, int uniformBlockBinding) {
+		GL43.glUniformBlockBinding(program, uniformBlockIndex, uniformBlockBinding);
+	}
+
+	@Override
+	public int glGetAttribLocation(int program, CharSequence name) {
+		return GL43.glGetAttribLocation(program, name);
+	}
+
+	@Override
+	public void glUniform1i(int location, int v0) {
+		GL43.glUniform1i(location, v0);
+	}
+
+	@Override
+	public void glUniform1f(int location, float v0) {
+		GL43.glUniform1f(location, v0);
+	}
+
+	@Override
+	public void glUniform3f(int location, float v0, float v1, float v2) {
+		GL43.glUniform3f(location, v0, v1, v2);
+	}
+
+	@Override
+	public void glUniform3fv(int location, float[] value) {
+		GL43.glUniform3fv(location, value);
+	}
+
+	@Override
+	public void glUniformMatrix3fv(int location, boolean transpose, FloatBuffer value) {
+		GL43.glUniformMatrix3fv(location, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix4fv(int location, boolean transpose, FloatBuffer value) {
+		GL43.glUniformMatrix4fv(location, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix4fv(int location, boolean transpose, float[] value) {
+		GL43.glUniformMatrix4fv(location, transpose, value);
+	}
+}
@@ -0,0 +1,642 @@
+package lwjglutils;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.lwjgl.opengl.GL43.*;
+
+/**
+ * Backend in front of another one that shadows the state set through it and
+ * drops calls not changing it: the program, the vertex array, the active
+ * texture unit and the textures of each unit, the framebuffers, the viewport,
+ * the polygon mode, the primitive restart index and the enable bits. Other
+ * calls are forwarded unchanged. State is unknown until first set; call
+ * {@link #invalidate()} after changing GL state around the backend.
+ */
+public class OGLBackendStateCache implements OGLBackend {
+	private static final int UNKNOWN = Integer.MIN_VALUE;
+	private static final int TEXTURE_UNITS = 32;
+	private static final int[] TEXTURE_TARGETS = { GL_TEXTURE_1D, GL_TEXTURE_2D, GL_TEXTURE_3D, GL_TEXTURE_CUBE_MAP,
+			GL_TEXTURE_1D_ARRAY, GL_TEXTURE_2D_ARRAY, GL_TEXTURE_2D_MULTISAMPLE };
+	private static final int CAPABILITIES = 32;
+	private static final byte ENABLED = 1, DISABLED = 2;
+
+	private final OGLBackend backend;
+	private int program, vertexArray, activeUnit, drawFramebuffer, readFramebuffer;
+	private int frontPolygonMode, backPolygonMode, primitiveRestartIndex;
+	private final int[] viewport = new int[4];
+	// texture of each unit and target, unit-major
+	private final int[] textures = new int[TEXTURE_UNITS * TEXTURE_TARGETS.length];
+	// capabilities seen so far and their state, 0 while unknown
+	private final int[] capabilities = new int[CAPABILITIES];
+	private final byte[] capabilityStates = new byte[CAPABILITIES];
+	private int capabilityCount;
+	// masks of the glPushAttrib calls not popped yet
+	private final int[] attribMasks = new int[16];
+	private int attribDepth;
+
+	private long stateChanges;
+	private long skippedStateChanges;
+
+	public OGLBackendStateCache(OGLBackend backend) {
+		this.backend = backend;
+		invalidate();
+	}
+
+	public OGLBackend getBackend() {
+		return backend;
+	}
+
+	/**
+	 * Forgets the shadowed state, the next call of each kind is forwarded
+	 */
+	public void invalidate() {
+		program = vertexArray = activeUnit = drawFramebuffer = readFramebuffer = UNKNOWN;
+		frontPolygonMode = backPolygonMode = primitiveRestartIndex = UNKNOWN;
+		Arrays.fill(viewport, UNKNOWN);
+		Arrays.fill(textures, UNKNOWN);
+		capabilityCount = 0;
+	}
+
+	/**
+	 * Returns the number of state changes forwarded since the last reset
+	 */
+	public long getStateChanges() {
+		return stateChanges;
+	}
+
+	/**
+	 * Returns the number of state changes dropped since the last reset
+	 * because the state was already set
+	 */
+	public long getSkippedStateChanges() {
+		return skippedStateChanges;
+	}
+
+	public void resetCounters() {
+		stateChanges = skippedStateChanges = 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.US, "%d state changes, %d skipped", stateChanges, skippedStateChanges);
+	}
+
+	// records a state change, returns whether it is to be forwarded
+	private boolean change(boolean changed) {
+		if (changed)
+			stateChanges++;
+		else
+			skippedStateChanges++;
+		return changed;
+	}
+
+	// index of the texture bound to the active unit and target, -1 if not tracked
+	private int textureSlot(int target) {
+		if (activeUnit < 0 || activeUnit >= TEXTURE_UNITS)
+			return -1;
+		for (int i = 0; i < TEXTURE_TARGETS.length; i++)
+			if (TEXTURE_TARGETS[i] == target)
+				return activeUnit * TEXTURE_TARGETS.length + i;
+		return -1;
+	}
+
+	// index of the capability, added while there is room, -1 if not tracked
+	private int capability(int cap) {
+		for (int i = 0; i < capabilityCount; i++)
+			if (capabilities[i] == cap)
+				return i;
+		if (capabilityCount == CAPABILITIES)
+			return -1;
+		capabilities[capabilityCount] = cap;
+		capabilityStates[capabilityCount] = 0;
+		return capabilityCount++;
+	}
+
+	// state
+
+	@Override
+	public void glEnable(int target) {
+		int i = capability(target);
+		if (change(i < 0 || capabilityStates[i] != ENABLED)) {
+			if (i >= 0)
+				capabilityStates[i] = ENABLED;
+			backend.glEnable(target);
+		}
+	}
+
+	@Override
+	public void glDisable(int target) {
+		int i = capability(target);
+		if (change(i < 0 || capabilityStates[i] != DISABLED)) {
+			if (i >= 0)
+				capabilityStates[i] = DISABLED;
+			backend.glDisable(target);
+		}
+	}
+
+	@Override
+	public void glViewport(int x, int y, int width, int height) {
+		if (change(viewport[0] != x || viewport[1] != y || viewport[2] != width || viewport[3] != height)) {
+			viewport[0] = x;
+			viewport[1] = y;
+			viewport[2] = width;
+			viewport[3] = height;
+			backend.glViewport(x, y, width, height);
+		}
+	}
+
+	@Override
+	public void glClearColor(float red, float green, float blue, float alpha) {
+		backend.glClearColor(red, green, blue, alpha);
+	}
+
+	@Override
+	public void glClear(int mask) {
+		backend.glClear(mask);
+	}
+
+	@Override
+	public void glPolygonMode(int face, int mode) {
+		boolean front = face == GL_FRONT || face == GL_FRONT_AND_BACK;
+		boolean back = face == GL_BACK || face == GL_FRONT_AND_BACK;
+		if (change(front && frontPolygonMode != mode || back && backPolygonMode != mode)) {
+			if (front)
+				frontPolygonMode = mode;
+			if (back)
+				backPolygonMode = mode;
+			backend.glPolygonMode(face, mode);
+		}
+	}
+
+	@Override
+	public void glBlendFunc(int sfactor, int dfactor) {
+		backend.glBlendFunc(sfactor, dfactor);
+	}
+
+	@Override
+	public void glPixelStorei(int pname, int param) {
+		backend.glPixelStorei(pname, param);
+	}
+
+	@Override
+	public void glPrimitiveRestartIndex(int index) {
+		if (change(primitiveRestartIndex != index)) {
+			primitiveRestartIndex = index;
+			backend.glPrimitiveRestartIndex(index);
+		}
+	}
+
+	@Override
+	public void glPushAttrib(int mask) {
+		if (attribDepth < attribMasks.length)
+			attribMasks[attribDepth] = mask;
+		attribDepth++;
+		backend.glPushAttrib(mask);
+	}
+
+	// the pop restores state behind the cache, forget what it may have changed
+	@Override
+	public void glPopAttrib() {
+		backend.glPopAttrib();
+		if (attribDepth == 0) {
+			invalidate();
+			return;
+		}
+		attribDepth--;
+		int mask = attribDepth < attribMasks.length ? attribMasks[attribDepth] : GL_ALL_ATTRIB_BITS;
+		// enable bits are part of most attribute groups besides GL_ENABLE_BIT
+		capabilityCount = 0;
+		if ((mask & GL_VIEWPORT_BIT) != 0)
+			Arrays.fill(viewport, UNKNOWN);
+		if ((mask & GL_POLYGON_BIT) != 0)
+			frontPolygonMode = backPolygonMode = UNKNOWN;
+		if ((mask & GL_TEXTURE_BIT) != 0) {
+			activeUnit = UNKNOWN;
+			Arrays.fill(textures, UNKNOWN);
+		}
+	}
+
+	@Override
+	public void glGetIntegerv(int pname, int[] params) {
+		backend.glGetIntegerv(pname, params);
+	}
+
+	@Override
+	public String glGetString(int name) {
+		return backend.glGetString(name);
+	}
+
+	@Override
+	public String glGetStringi(int name, int index) {
+		return backend.glGetStringi(name, index);
+	}
+
+	@Override
+	public int glGetError() {
+		return backend.glGetError();
+	}
+
+	// buffers and drawing
+
+	@Override
+	public int glGenBuffers() {
+		return backend.glGenBuffers();
+	}
+
+	@Override
+	public void glBindBuffer(int target, int buffer) {
+		backend.glBindBuffer(target, buffer);
+	}
+
+	@Override
+	public void glBufferData(int target, FloatBuffer data, int usage) {
+		backend.glBufferData(target, data, usage);
+	}
+
+	@Override
+	public void glBufferData(int target, IntBuffer data, int usage) {
+		backend.glBufferData(target, data, usage);
+	}
+
+	@Override
+	public void glBufferData(int target, ShortBuffer data, int usage) {
+		backend.glBufferData(target, data, usage);
+	}
+
+	@Override
+	public void glBufferData(int target, ByteBuffer data, int usage) {
+		backend.glBufferData(target, data, usage);
+	}
+
+	@Override
+	public void glDeleteBuffers(int buffer) {
+		backend.glDeleteBuffers(buffer);
+	}
+
+	@Override
+	public void glBindBufferBase(int target, int index, int buffer) {
+		backend.glBindBufferBase(target, index, buffer);
+	}
+
+	@Override
+	public int glGenVertexArrays() {
+		return backend.glGenVertexArrays();
+	}
+
+	@Override
+	public void glBindVertexArray(int array) {
+		if (change(vertexArray != array)) {
+			vertexArray = array;
+			backend.glBindVertexArray(array);
+		}
+	}
+
+	@Override
+	public void glDeleteVertexArrays(int array) {
+		if (vertexArray == array)
+			vertexArray = 0;
+		backend.glDeleteVertexArrays(array);
+	}
+
+	@Override
+	public void glEnableVertexAttribArray(int index) {
+		backend.glEnableVertexAttribArray(index);
+	}
+
+	@Override
+	public void glDisableVertexAttribArray(int index) {
+		backend.glDisableVertexAttribArray(index);
+	}
+
+	@Override
+	public void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer) {
+		backend.glVertexAttribPointer(index, size, type, normalized, stride, pointer);
+	}
+
+	@Override
+	public void glDrawArrays(int mode, int first, int count) {
+		backend.glDrawArrays(mode, first, count);
+	}
+
+	@Override
+	public void glDrawElements(int mode, int count, int type, long indices) {
+		backend.glDrawElements(mode, count, type, indices);
+	}
+
+	// textures
+
+	@Override
+	public int glGenTextures() {
+		return backend.glGenTextures();
+	}
+
+	@Override
+	public void glBindTexture(int target, int texture) {
+		int slot = textureSlot(target);
+		if (change(slot < 0 || textures[slot] != texture)) {
+			if (slot >= 0)
+				textures[slot] = texture;
+			backend.glBindTexture(target, texture);
+		}
+	}
+
+	@Override
+	public void glActiveTexture(int texture) {
+		if (change(activeUnit != texture - GL_TEXTURE0)) {
+			activeUnit = texture - GL_TEXTURE0;
+			backend.glActiveTexture(texture);
+		}
+	}
+
+	@Override
+	public boolean glIsTexture(int texture) {
+		return backend.glIsTexture(texture);
+	}
+
+	@Override
+	public void glDeleteTextures(int texture) {
+		for (int i = 0; i < textures.length; i++)
+			if (textures[i] == texture)
+				textures[i] = 0;
+		backend.glDeleteTextures(texture);
+	}
+
+	@Override
+	public void glTexParameteri(int target, int pname, int param) {
+		backend.glTexParameteri(target, pname, param);
+	}
+
+	@Override
+	public void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, ByteBuffer pixels) {
+		backend.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+	}
+
+	@Override
+	public void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, FloatBuffer pixels) {
+		backend.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+	}
+
+	@Override
+	public void glTexSubImage2D(int target, int level, int xoffset, int yoffset, int width, int height, int format, int type, ByteBuffer pixels) {
+		backend.glTexSubImage2D(target, level, xoffset, yoffset, width, height, format, type, pixels);
+	}
+
+	@Override
+	public void glTexSubImage2D(int target, int level, int xoffset, int yoffset, int width, int height, int format, int type, FloatBuffer pixels) {
+		backend.glTexSubImage2D(target, level, xoffset, yoffset, width, height, format, type, pixels);
+	}
+
+	@Override
+	public void glTexSubImage2D(int target, int level, int xoffset, int yoffset, int width, int height, int format, int type, int[] pixels) {
+		backend.glTexSubImage2D(target, level, xoffset, yoffset, width, height, format, type, pixels);
+	}
+
+	@Override
+	public void glTexImage3D(int target, int level, int internalformat, int width, int height, int depth, int border, int format, int type, ByteBuffer pixels) {
+		backend.glTexImage3D(target, level, internalformat, width, height, depth, border, format, type, pixels);
+	}
+
+	@Override
+	public void glTexImage3D(int target, int level, int internalformat, int width, int height, int depth, int border, int format, int type, FloatBuffer pixels) {
+		backend.glTexImage3D(target, level, internalformat, width, height, depth, border, format, type, pixels);
+	}
+
+	@Override
+	public void glTexSubImage3D(int target, int level, int xoffset, int yoffset, int zoffset, int width, int height, int depth, int format, int type, ByteBuffer pixels) {
+		backend.glTexSubImage3D(target, level, xoffset, yoffset, zoffset, width, height, depth, format, type, pixels);
+	}
+
+	@Override
+	public void glGetTexImage(int tex, int level, int format, int type, ByteBuffer pixels) {
+		backend.glGetTexImage(tex, level, format, type, pixels);
+	}
+
+	@Override
+	public void glGetTexImage(int tex, int level, int format, int type, FloatBuffer pixels) {
+		backend.glGetTexImage(tex, level, format, type, pixels);
+	}
+
+	@Override
+	public void glGenerateMipmap(int target) {
+		backend.glGenerateMipmap(target);
+	}
+
+	// framebuffers
+
+	@Override
+	public int glGenFramebuffers() {
+		return backend.glGenFramebuffers();
+	}
+
+	@Override
+	public void glBindFramebuffer(int target, int framebuffer) {
+		boolean draw = target == GL_FRAMEBUFFER || target == GL_DRAW_FRAMEBUFFER;
+		boolean read = target == GL_FRAMEBUFFER || target == GL_READ_FRAMEBUFFER;
+		if (change(draw && drawFramebuffer != framebuffer || read && readFramebuffer != framebuffer)) {
+			if (draw)
+				drawFramebuffer = framebuffer;
+			if (read)
+				readFramebuffer = framebuffer;
+			backend.glBindFramebuffer(target, framebuffer);
+		}
+	}
+
+	@Override
+	public boolean glIsFramebuffer(int framebuffer) {
+		return backend.glIsFramebuffer(framebuffer);
+	}
+
+	@Override
+	public void glDeleteFramebuffers(int framebuffer) {
+		if (drawFramebuffer == framebuffer)
+			drawFramebuffer = 0;
+		if (readFramebuffer == framebuffer)
+			readFramebuffer = 0;
+		backend.glDeleteFramebuffers(framebuffer);
+	}
+
+	@Override
+	public void glFramebufferTexture2D(int target, int attachment, int textarget, int texture, int level) {
+		backend.glFramebufferTexture2D(target, attachment, textarget, texture, level);
+	}
+
+	@Override
+	public int glCheckFramebufferStatus(int target) {
+		return backend.glCheckFramebufferStatus(target);
+	}
+
+	@Override
+	public void glDrawBuffers(int[] bufs) {
+		backend.glDrawBuffers(bufs);
+	}
+
+	// shaders and programs
+
+	@Override
+	public int glCreateShader(int type) {
+		return backend.glCreateShader(type);
+	}
+
+	@Override
+	public void glShaderSource(int shader, CharSequence string) {
+		backend.glShaderSource(shader, string);
+	}
+
+	@Override
+	public void glCompileShader(int shader) {
+		backend.glCompileShader(shader);
+	}
+
+	@Override
+	public boolean glIsShader(int shader) {
+		return backend.glIsShader(shader);
+	}
+
+	@Override
+	public void glDeleteShader(int shader) {
+		backend.glDeleteShader(shader);
+	}
+
+	@Override
+	public void glGetShaderiv(int shader, int pname, int[] params) {
+		backend.glGetShaderiv(shader, pname, params);
+	}
+
+	@Override
+	public String glGetShaderInfoLog(int shader, int maxLength) {
+		return backend.glGetShaderInfoLog(shader, maxLength);
+	}
+
+	@Override
+	public int glCreateProgram() {
+		return backend.glCreateProgram();
+	}
+
+	@Override
+	public void glAttachShader(int program, int shader) {
+		backend.glAttachShader(program, shader);
+	}
+
+	@Override
+	public void glDetachShader(int program, int shader) {
+		backend.glDetachShader(program, shader);
+	}
+
+	@Override
+	public void glLinkProgram(int program) {
+		backend.glLinkProgram(program);
+	}
+
+	@Override
+	public boolean glIsProgram(int program) {
+		return backend.glIsProgram(program);
+	}
+
+	@Override
+	public void glDeleteProgram(int program) {
+		// names of deleted programs may be reused
+		if (this.program == program)
+			this.program = UNKNOWN;
+		backend.glDeleteProgram(program);
+	}
+
+	@Override
+	public void glGetProgramiv(int program, int pname, int[] params) {
+		backend.glGetProgramiv(program, pname, params);
+	}
+
+	@Override
+	public String glGetProgramInfoLog(int program, int maxLength) {
+		return backend.glGetProgramInfoLog(program, maxLength);
+	}
+
+	@Override
+	public String glGetActiveUniform(int program, int index, int[] size, int[] type) {
+		return backend.glGetActiveUniform(program, index, size, type);
+	}
+
+	@Override
+	public String glGetActiveAttrib(int program, int index, int[] size, int[] type) {
+		return backend.glGetActiveAttrib(program, index, size, type);
+	}
+
+	@Override
+	public String glGetActiveUniformBlockName(int program, int uniformBlockIndex) {
+		return backend.glGetActiveUniformBlockName(program, uniformBlockIndex);
+	}
+
+	@Override
+	public int glGetActiveUniformBlocki(int program, int uniformBlockIndex, int pname) {
+		return backend.glGetActiveUniformBlocki(program, uniformBlockIndex, pname);
+	}
+
+	@Override
+	public void glUseProgram(int program) {
+		if (change(this.program != program)) {
+			this.program = program;
+			backend.glUseProgram(program);
+		}
+	}
+
+	@Override
+	public int glGetUniformLocation(int program, CharSequence name) {
+		return backend.glGetUniformLocation(program, name);
+	}
+
+	@Override
+	public int glGetUniformBlockIndex(int program, CharSequence uniformBlockName) {
+		return backend.glGetUniformBlockIndex(program, uniformBlockName);
+	}
+
+	@Override
+	public void glUniformBlockBinding(int program, int uniformBlockIndex, int uniformBlockBinding) {
+		backend.glUniformBlockBinding(program, uniformBlockIndex, uniformBlockBinding);
+	}
+
+	@Override
+	public int glGetAttribLocation(int program, CharSequence name) {
+		return backend.glGetAttribLocation(program, name);
+	}
+
+	// uniforms
+
+	@Override
+	public void glUniform1i(int location, int v0) {
+		backend.glUniform1i(location, v0);
+	}
+
+	@Override
+	public void glUniform1f(int location, float v0) {
+		backend.glUniform1f(location, v0);
+	}
+
+	@Override
+	public void glUniform3f(int location, float v0, float v1, float v2) {
+		backend.glUniform3f(location, v0, v1, v2);
+	}
+
+	@Override
+	public void glUniform3fv(int location, float[] value) {
+		backend.glUniform3fv(location, value);
+	}
+
+	@Override
+	public void glUniformMatrix3fv(int location, boolean transpose, FloatBuffer value) {
+		backend.glUniformMatrix3fv(location, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix4fv(int location, boolean transpose, FloatBuffer value) {
+		backend.glUniformMatrix4fv(location, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix4fv(int location, boolean transpose, float[] value) {
+		backend.glUniformMatrix4fv(location, transpose, value);
+	}
+}
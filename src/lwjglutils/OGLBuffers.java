@@ -2,14 +2,25 @@ package lwjglutils;
 
 import org.lwjgl.BufferUtils;
 
+import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
+import static lwjglutils.OGL.gl;
 import static org.lwjgl.opengl.GL33.*;
 public class OGLBuffers {
+	/**
+	 * Primitive restart value of int index data, stored as the largest value
+	 * of the chosen index type
+	 */
+	public static final int PRIMITIVE_RESTART_INDEX = 0xFFFFFFFF;
+
 	static public class Attrib {
 		String name;
 		int dimension;
@@ -75,10 +86,14 @@ public class OGLBuffers {
 	}
 
 	protected List<VertexBuffer> vertexBuffers = new ArrayList<>();
-	protected List<Integer> attribArrays = null;
+	// vertex array object per shader program
+	protected Map<Integer, Integer> vertexArrays = new HashMap<>();
 	protected int indexBuffer;
 	protected int indexCount = -1;
+	protected int indexType = GL_UNSIGNED_INT;
+	protected long savedIndexBytes;
 	protected int vertexCount = -1;
+	protected long byteSize;
 
 	public OGLBuffers(float[] vertexData, Attrib[] attributes, int[] indexData) {
 		addVertexBuffer(vertexData, attributes);
@@ -92,6 +107,18 @@ public class OGLBuffers {
 			setIndexBuffer(indexData);
 	}
 
+	public OGLBuffers(FloatBuffer vertexData, int floatsPerVertex, Attrib[] attributes, int[] indexData) {
+		addVertexBuffer(vertexData, floatsPerVertex, attributes);
+		if (indexData != null)
+			setIndexBuffer(indexData);
+	}
+
+	public OGLBuffers(FloatBuffer vertexData, int floatsPerVertex, Attrib[] attributes, IntBuffer indexData) {
+		addVertexBuffer(vertexData, floatsPerVertex, attributes);
+		if (indexData != null)
+			setIndexBuffer(indexData);
+	}
+
 	public void addVertexBuffer(float[] data, Attrib[] attributes) {
 		if (attributes == null || attributes.length == 0)
 			return;
@@ -107,45 +134,121 @@ public class OGLBuffers {
 		
 		FloatBuffer buffer = (FloatBuffer) BufferUtils.createFloatBuffer(data.length)
 				.put(data).rewind();
-		int bufferID = glGenBuffers();
-		glBindBuffer(GL_ARRAY_BUFFER, bufferID);
-		glBufferData(GL_ARRAY_BUFFER, buffer, GL_STATIC_DRAW);
+		addVertexBuffer(buffer, floatsPerVertex, attributes);
+	}
+
+	/**
+	 * Uploads the remaining floats of a direct buffer, lets large vertex data
+	 * be generated in place without a Java array copy
+	 */
+	public void addVertexBuffer(FloatBuffer buffer, int floatsPerVertex, Attrib[] attributes) {
+		deleteVertexArrays();
+		int length = buffer.remaining();
+		byteSize += 4L * length;
+		int bufferID = gl().glGenBuffers();
+		gl().glBindBuffer(GL_ARRAY_BUFFER, bufferID);
+		gl().glBufferData(GL_ARRAY_BUFFER, buffer, GL_STATIC_DRAW);
 
-		if (data.length % floatsPerVertex != 0)
+		if (length % floatsPerVertex != 0)
 			throw new RuntimeException(
 					"The total number of floats is incongruent with the number of floats per vertex.");
 		if (vertexCount < 0)
-			vertexCount = data.length / floatsPerVertex;
-		else if (vertexCount != data.length / floatsPerVertex)
+			vertexCount = length / floatsPerVertex;
+		else if (vertexCount != length / floatsPerVertex)
 			System.out.println("Warning: GLBuffers.addVertexBuffer: vertex count differs from the first one.");
 
 		vertexBuffers.add(new VertexBuffer(bufferID, floatsPerVertex * 4, attributes));
 	}
 
 	public void setIndexBuffer(int[] data) {
-		indexCount = data.length;
-		IntBuffer indexBufferBuffer = (IntBuffer) BufferUtils.createIntBuffer(indexCount)
-				.put(data).rewind();
-		indexBuffer = glGenBuffers();
-		glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, indexBuffer);
-		glBufferData(GL_ELEMENT_ARRAY_BUFFER, indexBufferBuffer,
-				GL_STATIC_DRAW);
+		setIndexBuffer(IntBuffer.wrap(data));
+	}
+
+	/**
+	 * Uploads the remaining indices as unsigned bytes, shorts or ints, the
+	 * narrowest type holding the largest index below its restart value
+	 */
+	public void setIndexBuffer(IntBuffer data) {
+		int count = data.remaining(), position = data.position();
+		int maxIndex = 0;
+		for (int i = position; i < position + count; i++) {
+			int index = data.get(i);
+			if (index != PRIMITIVE_RESTART_INDEX && Integer.compareUnsigned(index, maxIndex) > 0)
+				maxIndex = index;
+		}
+
+		if (Integer.compareUnsigned(maxIndex, 0xFF) < 0) {
+			ByteBuffer narrow = BufferUtils.createByteBuffer(count);
+			for (int i = 0; i < count; i++)
+				narrow.put(i, (byte) data.get(position + i));
+			setIndexBuffer(narrow);
+		} else if (Integer.compareUnsigned(maxIndex, 0xFFFF) < 0) {
+			ShortBuffer narrow = BufferUtils.createShortBuffer(count);
+			for (int i = 0; i < count; i++)
+				narrow.put(i, (short) data.get(position + i));
+			setIndexBuffer(narrow);
+		} else {
+			if (!data.isDirect())
+				data = (IntBuffer) BufferUtils.createIntBuffer(count).put(data).rewind();
+			createIndexBuffer(GL_UNSIGNED_INT, count);
+			gl().glBufferData(GL_ELEMENT_ARRAY_BUFFER, data, GL_STATIC_DRAW);
+		}
+	}
+
+	/**
+	 * Uploads the remaining indices of a direct buffer as unsigned shorts
+	 */
+	public void setIndexBuffer(ShortBuffer data) {
+		createIndexBuffer(GL_UNSIGNED_SHORT, data.remaining());
+		gl().glBufferData(GL_ELEMENT_ARRAY_BUFFER, data, GL_STATIC_DRAW);
+	}
+
+	/**
+	 * Uploads the remaining indices of a direct buffer as unsigned bytes
+	 */
+	public void setIndexBuffer(ByteBuffer data) {
+		createIndexBuffer(GL_UNSIGNED_BYTE, data.remaining());
+		gl().glBufferData(GL_ELEMENT_ARRAY_BUFFER, data, GL_STATIC_DRAW);
+	}
+
+	private void createIndexBuffer(int type, int count) {
+		// a bound vertex array would capture the element buffer
+		deleteVertexArrays();
+		gl().glBindVertexArray(0);
+		indexType = type;
+		indexCount = count;
+		byteSize += (long) count * getIndexSize();
+		savedIndexBytes += (long) count * (Integer.BYTES - getIndexSize());
+		indexBuffer = gl().glGenBuffers();
+		gl().glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, indexBuffer);
 	}
 
+	/**
+	 * Binds the vertex array object of the shader program, created on the
+	 * first bind with the attribute locations of the program; it stays bound
+	 * until unbind or the next bind
+	 */
 	public void bind(int shaderProgram) {
-		if (attribArrays != null)
-			for (Integer attrib : attribArrays)
-				glDisableVertexAttribArray(attrib);
-		attribArrays = new ArrayList<>();
+		Integer vertexArray = vertexArrays.get(shaderProgram);
+		if (vertexArray == null) {
+			vertexArray = createVertexArray(shaderProgram);
+			vertexArrays.put(shaderProgram, vertexArray);
+		} else {
+			gl().glBindVertexArray(vertexArray);
+		}
+	}
+
+	private int createVertexArray(int shaderProgram) {
+		int vertexArray = gl().glGenVertexArrays();
+		gl().glBindVertexArray(vertexArray);
 		for (VertexBuffer vb : vertexBuffers) {
-			glBindBuffer(GL_ARRAY_BUFFER, vb.id);
+			gl().glBindBuffer(GL_ARRAY_BUFFER, vb.id);
 			int offset = 0;
 			for (int j = 0; j < vb.attributes.length; j++) {
-				int location = glGetAttribLocation(shaderProgram, vb.attributes[j].name);
+				int location = gl().glGetAttribLocation(shaderProgram, vb.attributes[j].name);
 				if (location >= 0) {// due to optimization GLSL on a graphic card
-					attribArrays.add(location);
-					glEnableVertexAttribArray(location);
-					glVertexAttribPointer(location, vb.attributes[j].dimension, GL_FLOAT,
+					gl().glEnableVertexAttribArray(location);
+					gl().glVertexAttribPointer(location, vb.attributes[j].dimension, GL_FLOAT,
 							vb.attributes[j].normalize, vb.stride,
 							vb.attributes[j].offset < 0 ? offset : vb.attributes[j].offset);
 				}
@@ -154,27 +257,32 @@ public class OGLBuffers {
 		}
 
 		if (indexBuffer !=0)
-			glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, indexBuffer);
-
+			gl().glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, indexBuffer);
+		return vertexArray;
 	}
 
 	public void unbind() {
-		if (attribArrays != null) {
-			for (Integer attrib : attribArrays)
-				glDisableVertexAttribArray(attrib);
-			attribArrays = null;
-		}
+		gl().glBindVertexArray(0);
+	}
+
+	// vertex arrays capture the buffers, they are rebuilt after any change
+	private void deleteVertexArrays() {
+		if (vertexArrays.isEmpty())
+			return;
+		gl().glBindVertexArray(0);
+		for (int vertexArray : vertexArrays.values())
+			gl().glDeleteVertexArrays(vertexArray);
+		vertexArrays.clear();
 	}
 
 	public void draw(int topology, int shaderProgram) {
 		// gl.glUseProgram(shaderProgram);
 		bind(shaderProgram);
 		if (indexBuffer == 0) {
-			glDrawArrays(topology, 0, vertexCount);
+			gl().glDrawArrays(topology, 0, vertexCount);
 		} else {
-			glDrawElements(topology, indexCount, GL_UNSIGNED_INT, 0);
+			gl().glDrawElements(topology, indexCount, indexType, 0);
 		}
-		unbind();
 	}
 
 	public void draw(int topology, int shaderProgram, int count) {
@@ -185,11 +293,71 @@ public class OGLBuffers {
 		// gl.glUseProgram(shaderProgram);
 		bind(shaderProgram);
 		if (indexBuffer == 0) {
-			glDrawArrays(topology, start, count);
+			gl().glDrawArrays(topology, start, count);
 		} else {
-			glDrawElements(topology, count, GL_UNSIGNED_INT, start * 4);
+			gl().glDrawElements(topology, count, indexType, (long) start * getIndexSize());
 		}
-		unbind();
+	}
+
+	/**
+	 * Deletes the GL buffers, the object must not be drawn afterwards
+	 */
+	public void delete() {
+		deleteVertexArrays();
+		if (indexBuffer != 0)
+			gl().glDeleteBuffers(indexBuffer);
+		for (VertexBuffer vb : vertexBuffers)
+			gl().glDeleteBuffers(vb.id);
+		indexBuffer = 0;
+		vertexBuffers.clear();
+		byteSize = 0;
+	}
+
+	/**
+	 * Returns the number of bytes uploaded to the vertex and index buffers
+	 */
+	public long getByteSize() {
+		return byteSize;
+	}
+
+	/**
+	 * Returns GL_UNSIGNED_BYTE, GL_UNSIGNED_SHORT or GL_UNSIGNED_INT
+	 */
+	public int getIndexType() {
+		return indexType;
+	}
+
+	public int getIndexSize() {
+		switch (indexType) {
+		case GL_UNSIGNED_BYTE:
+			return 1;
+		case GL_UNSIGNED_SHORT:
+			return 2;
+		default:
+			return 4;
+		}
+	}
+
+	/**
+	 * Returns the restart index matching the index type, for
+	 * glPrimitiveRestartIndex
+	 */
+	public int getPrimitiveRestartIndex() {
+		switch (indexType) {
+		case GL_UNSIGNED_BYTE:
+			return 0xFF;
+		case GL_UNSIGNED_SHORT:
+			return 0xFFFF;
+		default:
+			return PRIMITIVE_RESTART_INDEX;
+		}
+	}
+
+	/**
+	 * Returns the number of index bytes saved against 32-bit indices
+	 */
+	public long getSavedIndexBytes() {
+		return savedIndexBytes;
 	}
 
 	@Override
@@ -198,6 +366,7 @@ public class OGLBuffers {
 		text += String.format(Locale.US, 
 				 "OGLBuffers" +
 				 ", indexCount: " + indexCount +
+				 ", indexSize: " + getIndexSize() +
 				 ", vertexCount: " + vertexCount );
 		for (VertexBuffer vb: vertexBuffers){
 			text += "\n\t" + vb.toString() ;
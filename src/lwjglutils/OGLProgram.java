@@ -0,0 +1,208 @@
+package lwjglutils;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static lwjglutils.OGL.gl;
+import static org.lwjgl.opengl.GL33.*;
+
+/**
+ * Linked shader program with its active uniforms, attributes and uniform
+ * blocks, enumerated once on creation. Uniforms are addressed by int handles
+ * resolved from their names at setup, the typed setters take the handle and
+ * do no name lookup; handle -1 of a uniform missing in the program is
+ * ignored. Uniforms of blocks have no location and no handle.
+ */
+public class OGLProgram {
+	protected final int id;
+	protected final List<String> uniformNames = new ArrayList<>();
+	protected final List<Integer> uniformTypes = new ArrayList<>();
+	protected final List<Integer> uniformSizes = new ArrayList<>();
+	protected final Map<String, Integer> uniformHandles = new HashMap<>();
+	protected final Map<String, Integer> attribLocations = new HashMap<>();
+	protected final Map<String, Integer> attribTypes = new HashMap<>();
+	protected final Map<String, Integer> uniformBlockIndices = new HashMap<>();
+	protected final Map<String, Integer> uniformBlockSizes = new HashMap<>();
+	protected int[] locations = new int[0];
+
+	public OGLProgram(int id) {
+		this.id = id;
+		int[] count = new int[1], size = new int[1], type = new int[1];
+
+		gl().glGetProgramiv(id, GL_ACTIVE_UNIFORMS, count);
+		for (int i = 0; i < count[0]; i++) {
+			String name = gl().glGetActiveUniform(id, i, size, type);
+			int location = gl().glGetUniformLocation(id, name);
+			if (location >= 0)
+				addUniform(name, location, type[0], size[0]);
+		}
+
+		gl().glGetProgramiv(id, GL_ACTIVE_ATTRIBUTES, count);
+		for (int i = 0; i < count[0]; i++) {
+			String name = gl().glGetActiveAttrib(id, i, size, type);
+			attribLocations.put(name, gl().glGetAttribLocation(id, name));
+			attribTypes.put(name, type[0]);
+		}
+
+		gl().glGetProgramiv(id, GL_ACTIVE_UNIFORM_BLOCKS, count);
+		for (int i = 0; i < count[0]; i++) {
+			String name = gl().glGetActiveUniformBlockName(id, i);
+			uniformBlockIndices.put(name, i);
+			uniformBlockSizes.put(name, gl().glGetActiveUniformBlocki(id, i, GL_UNIFORM_BLOCK_DATA_SIZE));
+		}
+	}
+
+	// arrays are reported as name[0], they are found by the plain name too
+	private int addUniform(String name, int location, int type, int size) {
+		int handle = uniformNames.size();
+		uniformNames.add(name);
+		uniformTypes.add(type);
+		uniformSizes.add(size);
+		uniformHandles.put(name, handle);
+		if (name.endsWith("[0]"))
+			uniformHandles.put(name.substring(0, name.length() - 3), handle);
+		locations = Arrays.copyOf(locations, handle + 1);
+		locations[handle] = location;
+		return handle;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public void use() {
+		gl().glUseProgram(id);
+	}
+
+	/**
+	 * Returns the handle of an active uniform, -1 if the program does not
+	 * have it. Names the backend did not enumerate are resolved by their
+	 * location once.
+	 */
+	public int getUniform(String name) {
+		Integer handle = uniformHandles.get(name);
+		if (handle != null)
+			return handle;
+		int location = gl().glGetUniformLocation(id, name);
+		if (location < 0)
+			return -1;
+		return addUniform(name, location, 0, 1);
+	}
+
+	public int getUniformCount() {
+		return uniformNames.size();
+	}
+
+	public String getUniformName(int handle) {
+		return uniformNames.get(handle);
+	}
+
+	public int getUniformLocation(int handle) {
+		return handle < 0 ? -1 : locations[handle];
+	}
+
+	/**
+	 * Returns the GL type of the uniform, e.g. GL_FLOAT_MAT4, or 0 if unknown
+	 */
+	public int getUniformType(int handle) {
+		return uniformTypes.get(handle);
+	}
+
+	public int getUniformSize(int handle) {
+		return uniformSizes.get(handle);
+	}
+
+	/**
+	 * Returns the location of an active attribute, -1 if the program does not
+	 * have it
+	 */
+	public int getAttribLocation(String name) {
+		Integer location = attribLocations.get(name);
+		if (location == null) {
+			location = gl().glGetAttribLocation(id, name);
+			attribLocations.put(name, location);
+		}
+		return location;
+	}
+
+	public Map<String, Integer> getAttribTypes() {
+		return attribTypes;
+	}
+
+	/**
+	 * Returns the index of an active uniform block, -1 if the program does
+	 * not have it
+	 */
+	public int getUniformBlockIndex(String name) {
+		Integer index = uniformBlockIndices.get(name);
+		if (index == null) {
+			index = gl().glGetUniformBlockIndex(id, name);
+			if (index == GL_INVALID_INDEX)
+				index = -1;
+			uniformBlockIndices.put(name, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the data size of an active uniform block in bytes, 0 if unknown
+	 */
+	public int getUniformBlockSize(String name) {
+		return uniformBlockSizes.getOrDefault(name, 0);
+	}
+
+	/**
+	 * Binds a uniform block of the program to a uniform buffer binding point,
+	 * returns false if the program does not have the block
+	 */
+	public boolean bindUniformBlock(String name, int binding) {
+		int index = getUniformBlockIndex(name);
+		if (index < 0)
+			return false;
+		gl().glUniformBlockBinding(id, index, binding);
+		return true;
+	}
+
+	public void set1i(int handle, int v0) {
+		if (handle >= 0)
+			gl().glUniform1i(locations[handle], v0);
+	}
+
+	public void set1f(int handle, float v0) {
+		if (handle >= 0)
+			gl().glUniform1f(locations[handle], v0);
+	}
+
+	public void set3f(int handle, float v0, float v1, float v2) {
+		if (handle >= 0)
+			gl().glUniform3f(locations[handle], v0, v1, v2);
+	}
+
+	public void setMatrix3(int handle, FloatBuffer value) {
+		if (handle >= 0)
+			gl().glUniformMatrix3fv(locations[handle], false, value);
+	}
+
+	public void setMatrix4(int handle, FloatBuffer value) {
+		if (handle >= 0)
+			gl().glUniformMatrix4fv(locations[handle], false, value);
+	}
+
+	public void delete() {
+		gl().glDeleteProgram(id);
+	}
+
+	@Override
+	public String toString() {
+		String text = String.format(Locale.US, "OGLProgram ID: %d, uniforms: %d, attributes: %d, blocks: %d",
+				id, uniformNames.size(), attribLocations.size(), uniformBlockIndices.size());
+		for (int i = 0; i < uniformNames.size(); i++)
+			text += "\n\t" + uniformNames.get(i) + ": location " + locations[i];
+		return text;
+	}
+}
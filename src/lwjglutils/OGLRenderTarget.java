@@ -5,8 +5,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 
-import static org.lwjgl.opengl.GL11.glViewport;
-import static org.lwjgl.opengl.GL30.glGenFramebuffers;
+import static lwjglutils.OGL.gl;
 import static org.lwjgl.opengl.GL33.*;
 
 public class OGLRenderTarget {
@@ -61,23 +60,23 @@ public class OGLRenderTarget {
 				GL_DEPTH_COMPONENT, GL_DEPTH_COMPONENT,
 				GL_FLOAT, null);
 		
-		frameBuffer = glGenFramebuffers();
-		glBindFramebuffer(GL_FRAMEBUFFER, frameBuffer);
+		frameBuffer = gl().glGenFramebuffers();
+		gl().glBindFramebuffer(GL_FRAMEBUFFER, frameBuffer);
 		for (int i = 0; i < count; i++)
-			glFramebufferTexture2D(GL_FRAMEBUFFER, GL_COLOR_ATTACHMENT0 + i, GL_TEXTURE_2D,
+			gl().glFramebufferTexture2D(GL_FRAMEBUFFER, GL_COLOR_ATTACHMENT0 + i, GL_TEXTURE_2D,
 					colorBuffers[i].getTextureId(), 0);
-		glFramebufferTexture2D(GL_FRAMEBUFFER, GL_DEPTH_ATTACHMENT, GL_TEXTURE_2D,
+		gl().glFramebufferTexture2D(GL_FRAMEBUFFER, GL_DEPTH_ATTACHMENT, GL_TEXTURE_2D,
 				depthBuffer.getTextureId(), 0);
 		
-		if (glCheckFramebufferStatus(GL_FRAMEBUFFER) != GL_FRAMEBUFFER_COMPLETE) {
+		if (gl().glCheckFramebufferStatus(GL_FRAMEBUFFER) != GL_FRAMEBUFFER_COMPLETE) {
 			System.out.println("There is a problem with the FBO");
 		}
 	}
 
 	public void bind() {
-		glBindFramebuffer(GL_FRAMEBUFFER, frameBuffer);
-		glDrawBuffers(drawBuffers);
-		glViewport(0, 0, width, height);
+		gl().glBindFramebuffer(GL_FRAMEBUFFER, frameBuffer);
+		gl().glDrawBuffers(drawBuffers);
+		gl().glViewport(0, 0, width, height);
 	}
 
 	public void bindColorTexture(int shaderProgram, String name, int slot) {
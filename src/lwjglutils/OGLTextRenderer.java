@@ -9,13 +9,11 @@ import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.nio.ByteBuffer;
 
+import static lwjglutils.OGL.gl;
 import static org.lwjgl.opengl.GL11.*;
 import static org.lwjgl.opengl.GL12.*;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
 import static org.lwjgl.opengl.GL20.*;
-import static org.lwjgl.opengl.GL33.glPopAttrib;
-import static org.lwjgl.opengl.GL33.glPushAttrib;
 
 public class OGLTextRenderer {
 	private int width;
@@ -80,35 +78,35 @@ public class OGLTextRenderer {
 			};
 
 			this.shaderProgram = ShaderUtils.loadProgram(SHADER_VERT_SRC, SHADER_FRAG_SRC, null, null, null, null);
-			locMat = glGetUniformLocation(shaderProgram, "matTrans");
+			locMat = gl().glGetUniformLocation(shaderProgram, "matTrans");
 		}
 
 		private void view(int textureID, double x, double y, double w, double h, double rotationAngle, double scale) {
-			if (glIsProgram(shaderProgram)) {
-				glPushAttrib(GL_DEPTH_BUFFER_BIT|GL_ENABLE_BIT);
+			if (gl().glIsProgram(shaderProgram)) {
+				gl().glPushAttrib(GL_DEPTH_BUFFER_BIT|GL_ENABLE_BIT);
 				int[] sp = {'0'};
-				glGetIntegerv(GL_CURRENT_PROGRAM, sp);
-				glUseProgram(shaderProgram);
-				glActiveTexture(GL_TEXTURE0);
-				glEnable(GL_TEXTURE_2D);
-				glEnable(GL_BLEND);
-				glDisable(GL_DEPTH_TEST);
-				glDisable(GL_CULL_FACE);
-				glPolygonMode(GL_FRONT_AND_BACK, GL_FILL);
-				glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
-				glUniformMatrix4fv(locMat, false, ToFloatArray
+				gl().glGetIntegerv(GL_CURRENT_PROGRAM, sp);
+				gl().glUseProgram(shaderProgram);
+				gl().glActiveTexture(GL_TEXTURE0);
+				gl().glEnable(GL_TEXTURE_2D);
+				gl().glEnable(GL_BLEND);
+				gl().glDisable(GL_DEPTH_TEST);
+				gl().glDisable(GL_CULL_FACE);
+				gl().glPolygonMode(GL_FRONT_AND_BACK, GL_FILL);
+				gl().glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+				gl().glUniformMatrix4fv(locMat, false, ToFloatArray
 					.convert(new Mat4Scale(w, h, 1)
 									.mul(new Mat4Scale(scale))
 									.mul(new Mat4RotZ(rotationAngle))
 									.mul(new Mat4Transl(x,y,0))
 							));
-				glBindTexture(GL_TEXTURE_2D, textureID);
-				glUniform1i(glGetUniformLocation(shaderProgram, "drawTexture"), 0);
+				gl().glBindTexture(GL_TEXTURE_2D, textureID);
+				gl().glUniform1i(gl().glGetUniformLocation(shaderProgram, "drawTexture"), 0);
 				buffers.draw(GL_TRIANGLE_STRIP, shaderProgram);
-				glDisable(GL_TEXTURE_2D);
-				glDisable(GL_BLEND);
-				glUseProgram(sp[0]);
-				glPopAttrib();
+				gl().glDisable(GL_TEXTURE_2D);
+				gl().glDisable(GL_BLEND);
+				gl().glUseProgram(sp[0]);
+				gl().glPopAttrib();
 
 			}
 		}
@@ -170,15 +168,15 @@ public class OGLTextRenderer {
 			return;
 		this.width = width;
 		this.height = height;
-		if (glIsTexture(textureID))
-			glDeleteTextures(textureID);
-		textureID = glGenTextures();
-		glBindTexture(GL_TEXTURE_2D, textureID);
+		if (gl().glIsTexture(textureID))
+			gl().glDeleteTextures(textureID);
+		textureID = gl().glGenTextures();
+		gl().glBindTexture(GL_TEXTURE_2D, textureID);
 		//glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, width, height, 0, GL_RGBA, GL_UNSIGNED_BYTE, (ByteBuffer) null);
-		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
-		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
-		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
-		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+		gl().glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+		gl().glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+		gl().glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
+		gl().glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
 		img = new BufferedImage(width, height, BufferedImage.TYPE_4BYTE_ABGR_PRE);
 	}
 	/**
@@ -250,14 +248,14 @@ public class OGLTextRenderer {
 				gr.setColor(color);
 				gr.drawString(s, x, y);
 
-				glBindTexture(GL_TEXTURE_2D, textureID);
+				gl().glBindTexture(GL_TEXTURE_2D, textureID);
 				int[] array = new int[w * h];
 				img.getRGB(x1, y1, w, h, array, 0, w);
-				glBindTexture(GL_TEXTURE_2D, textureID);
-				glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, w, h, 0, GL_RGBA, GL_UNSIGNED_BYTE, (ByteBuffer) null);
+				gl().glBindTexture(GL_TEXTURE_2D, textureID);
+				gl().glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, w, h, 0, GL_RGBA, GL_UNSIGNED_BYTE, (ByteBuffer) null);
 
-				glTexSubImage2D(GL_TEXTURE_2D, 0, 0, 0, w, h, GL_BGRA, GL_UNSIGNED_INT_8_8_8_8_REV, array);
-				glViewport(-width, -height, 2*width, 2*height);
+				gl().glTexSubImage2D(GL_TEXTURE_2D, 0, 0, 0, w, h, GL_BGRA, GL_UNSIGNED_INT_8_8_8_8_REV, array);
+				gl().glViewport(-width, -height, 2*width, 2*height);
 
 				viewer.view(textureID, x/(double)width, 1-y/(double)height,w/(double)width, h/(double)height, rotationAngle, scale);
 			}
@@ -21,5 +21,6 @@ public interface OGLTexture {
 	}
 	void bind(int shaderProgram, String name, int slot);
 	void bind(int shaderProgram, String name);
+	void bind(OGLProgram program, int uniform, int slot);
 	int getTextureId();
 }
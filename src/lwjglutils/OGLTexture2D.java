@@ -16,6 +16,7 @@ import java.nio.IntBuffer;
 import java.nio.channels.FileChannel;
 import java.util.Locale;
 
+import static lwjglutils.OGL.gl;
 import static org.lwjgl.opengl.GL11.*;
 import static org.lwjgl.opengl.GL20.*;
 import static org.lwjgl.stb.STBImage.*;
@@ -77,8 +78,8 @@ public class OGLTexture2D implements OGLTexture {
 		protected Viewer(int shaderProgram) {
 			buffers = createBuffers();
 			this.shaderProgram = shaderProgram; 
-			locMat = glGetUniformLocation(shaderProgram, "matTrans");
-			locLevel = glGetUniformLocation(shaderProgram, "level");
+			locMat = gl().glGetUniformLocation(shaderProgram, "matTrans");
+			locLevel = gl().glGetUniformLocation(shaderProgram, "level");
 		}
 
 		@Override
@@ -107,22 +108,22 @@ public class OGLTexture2D implements OGLTexture {
 
         @Override
         public void view(int textureID, Vec2D xy, Vec2D scale, int level) {
-            if (glIsProgram(shaderProgram)) {
-                glPushAttrib(GL_DEPTH_BUFFER_BIT|GL_ENABLE_BIT);
+            if (gl().glIsProgram(shaderProgram)) {
+                gl().glPushAttrib(GL_DEPTH_BUFFER_BIT|GL_ENABLE_BIT);
                 int[] sp = {'0'};
-                glGetIntegerv(GL_CURRENT_PROGRAM, sp);
-                glUseProgram(shaderProgram);
-                glActiveTexture(GL_TEXTURE0);
-                glEnable(GL_TEXTURE_2D);
-                glUniformMatrix4fv(locMat, false, ToFloatArray
+                gl().glGetIntegerv(GL_CURRENT_PROGRAM, sp);
+                gl().glUseProgram(shaderProgram);
+                gl().glActiveTexture(GL_TEXTURE0);
+                gl().glEnable(GL_TEXTURE_2D);
+                gl().glUniformMatrix4fv(locMat, false, ToFloatArray
                         .convert(new Mat4Scale(scale.getX(), scale.getY(), 1).mul(new Mat4Transl(xy.getX(), xy.getY(), 0))));
-                glUniform1i(locLevel, level);
-                glBindTexture(GL_TEXTURE_2D, textureID);
-                glUniform1i(glGetUniformLocation(shaderProgram, "drawTexture"), 0);
+                gl().glUniform1i(locLevel, level);
+                gl().glBindTexture(GL_TEXTURE_2D, textureID);
+                gl().glUniform1i(gl().glGetUniformLocation(shaderProgram, "drawTexture"), 0);
                 buffers.draw(GL_TRIANGLE_STRIP, shaderProgram);
-                glDisable(GL_TEXTURE_2D);
-                glUseProgram(sp[0]);
-                glPopAttrib();
+                gl().glDisable(GL_TEXTURE_2D);
+                gl().glUseProgram(sp[0]);
+                gl().glPopAttrib();
             }
         }
 
@@ -195,20 +196,20 @@ public class OGLTexture2D implements OGLTexture {
 	public OGLTexture2D(int width, int height, int internalFormat, int pixelFormat, int pixelType, Buffer buffer) {
 		this.width = width;
 		this.height = height;
-		textureID = glGenTextures();
-		glBindTexture(GL_TEXTURE_2D, textureID);
+		textureID = gl().glGenTextures();
+		gl().glBindTexture(GL_TEXTURE_2D, textureID);
 		if (pixelType == GL_FLOAT) {
-			glTexImage2D(GL_TEXTURE_2D, 0, internalFormat, 
+			gl().glTexImage2D(GL_TEXTURE_2D, 0, internalFormat, 
 					width, height, 0, 
 					pixelFormat, pixelType, (FloatBuffer) buffer);}
     	if (pixelType == GL_UNSIGNED_BYTE) {
-			glTexImage2D(GL_TEXTURE_2D, 0, internalFormat, 
+			gl().glTexImage2D(GL_TEXTURE_2D, 0, internalFormat, 
 				width, height, 0, 
 				pixelFormat, pixelType, (ByteBuffer) buffer);}	
-		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
-		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
-		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
-		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+		gl().glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+		gl().glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+		gl().glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
+		gl().glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
 	}
 
 	public <OGLTexImageType extends OGLTexImage<OGLTexImageType>>
@@ -245,16 +246,16 @@ public class OGLTexture2D implements OGLTexture {
 
         this.width =  width.get(0);
 		this.height = height.get(0);
-        textureID = glGenTextures();
+        textureID = gl().glGenTextures();
 		
-		glBindTexture(GL_TEXTURE_2D, textureID);
-		glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, 
+		gl().glBindTexture(GL_TEXTURE_2D, textureID);
+		gl().glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, 
 				this.width, this.height, 0, 
 				GL_RGBA, GL_UNSIGNED_BYTE, data);
-		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
-		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
-		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
-		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+		gl().glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+		gl().glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+		gl().glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
+		gl().glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
         stbi_image_free(data);
 	}
 
@@ -288,11 +289,11 @@ public class OGLTexture2D implements OGLTexture {
 		bind();
 		buffer.rewind();
 		if (format instanceof OGLTexImageFloat.Format) {
-			glTexSubImage2D(GL_TEXTURE_2D, level, 0, 0, 
+			gl().glTexSubImage2D(GL_TEXTURE_2D, level, 0, 0, 
 				getWidth() >> level, getHeight() >> level, 
 				format.getPixelFormat(), format.getPixelType(), (FloatBuffer) buffer);}
 		if (format instanceof OGLTexImageByte.Format) {
-			glTexSubImage2D(GL_TEXTURE_2D, level, 0, 0, 
+			gl().glTexSubImage2D(GL_TEXTURE_2D, level, 0, 0, 
 				getWidth() >> level, getHeight() >> level, 
 				format.getPixelFormat(), format.getPixelType(), (ByteBuffer) buffer);}
 		
@@ -303,14 +304,14 @@ public class OGLTexture2D implements OGLTexture {
 		bind();
 		if (format instanceof OGLTexImageFloat.Format) {
 	    	FloatBuffer buffer = format.newBuffer(getWidth() >> level, getHeight() >> level);
-			glGetTexImage(GL_TEXTURE_2D, level, format.getPixelFormat(), format.getPixelType(), buffer);
+			gl().glGetTexImage(GL_TEXTURE_2D, level, format.getPixelFormat(), format.getPixelType(), buffer);
 			buffer.rewind();
 			
 			return buffer;
 		}
 	    if (format instanceof OGLTexImageByte.Format) {
 			ByteBuffer buffer = format.newBuffer(getWidth() >> level, getHeight() >> level);
-			glGetTexImage(GL_TEXTURE_2D, level,  format.getPixelFormat(), format.getPixelType(), buffer);
+			gl().glGetTexImage(GL_TEXTURE_2D, level,  format.getPixelFormat(), format.getPixelType(), buffer);
 			buffer.rewind();
 			return buffer;
 		}
@@ -340,14 +341,21 @@ public class OGLTexture2D implements OGLTexture {
 	}
 
 	public void bind() {
-		glBindTexture(GL_TEXTURE_2D, textureID);
+		gl().glBindTexture(GL_TEXTURE_2D, textureID);
 	}
 
 	@Override
 	public void bind(int shaderProgram, String name, int slot) {
-		glActiveTexture(GL_TEXTURE0 + slot);
+		gl().glActiveTexture(GL_TEXTURE0 + slot);
 		bind();
-		glUniform1i(glGetUniformLocation(shaderProgram, name), slot);
+		gl().glUniform1i(gl().glGetUniformLocation(shaderProgram, name), slot);
+	}
+
+	@Override
+	public void bind(OGLProgram program, int uniform, int slot) {
+		gl().glActiveTexture(GL_TEXTURE0 + slot);
+		bind();
+		program.set1i(uniform, slot);
 	}
 
 	@Override
@@ -382,7 +390,7 @@ public class OGLTexture2D implements OGLTexture {
 		bind();
 		int[] array = new int[getWidth() * getHeight()];
 		img.getRGB(0, 0, getWidth(), getHeight(), array, 0, getWidth());
-		glTexSubImage2D(GL_TEXTURE_2D, 0, 0, 0, getWidth(), getHeight(), GL_BGRA,
+		gl().glTexSubImage2D(GL_TEXTURE_2D, 0, 0, 0, getWidth(), getHeight(), GL_BGRA,
 				GL_UNSIGNED_INT_8_8_8_8_REV, array);
 	}
 
@@ -13,10 +13,10 @@ import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.Locale;
 
+import static lwjglutils.OGL.gl;
 import static org.lwjgl.opengl.GL11.*;
 import static org.lwjgl.opengl.GL12.GL_CLAMP_TO_EDGE;
 import static org.lwjgl.opengl.GL20.*;
-import static org.lwjgl.opengl.GL30.glGenerateMipmap;
 import static org.lwjgl.stb.STBImage.*;
 
 public class OGLTextureCube implements OGLTexture {
@@ -134,22 +134,22 @@ public class OGLTextureCube implements OGLTexture {
 
 		@Override
 		public void view(int textureID, Vec2D xy, Vec2D scale, int level){
-			if (glIsProgram(shaderProgram)) {
-				glPushAttrib(GL_DEPTH_BUFFER_BIT|GL_ENABLE_BIT);
+			if (gl().glIsProgram(shaderProgram)) {
+				gl().glPushAttrib(GL_DEPTH_BUFFER_BIT|GL_ENABLE_BIT);
 				int[] sp = {'0'};
-				glGetIntegerv(GL_CURRENT_PROGRAM, sp);
-				glUseProgram(shaderProgram);
-				glActiveTexture(GL_TEXTURE0);
-				glEnable(GL_TEXTURE_CUBE_MAP);
-				glUniformMatrix4fv(locMat, false, ToFloatArray
+				gl().glGetIntegerv(GL_CURRENT_PROGRAM, sp);
+				gl().glUseProgram(shaderProgram);
+				gl().glActiveTexture(GL_TEXTURE0);
+				gl().glEnable(GL_TEXTURE_CUBE_MAP);
+				gl().glUniformMatrix4fv(locMat, false, ToFloatArray
 						.convert(new Mat4Scale(scale.getX(), scale.getY(), 1).mul(new Mat4Transl(xy.getX(), xy.getY(), 0))));
-				glUniform1i(locLevel, level);
-				glBindTexture(GL_TEXTURE_CUBE_MAP, textureID);
-				glUniform1i(glGetUniformLocation(shaderProgram, "drawTexture"), 0);
+				gl().glUniform1i(locLevel, level);
+				gl().glBindTexture(GL_TEXTURE_CUBE_MAP, textureID);
+				gl().glUniform1i(gl().glGetUniformLocation(shaderProgram, "drawTexture"), 0);
 				buffers.draw(GL_TRIANGLE_STRIP, shaderProgram);
-				glDisable(GL_TEXTURE_CUBE_MAP);
-				glUseProgram(sp[0]);
-				glPopAttrib();
+				gl().glDisable(GL_TEXTURE_CUBE_MAP);
+				gl().glUseProgram(sp[0]);
+				gl().glPopAttrib();
 			}
 		}
 		
@@ -163,7 +163,7 @@ public class OGLTextureCube implements OGLTexture {
 	
 	private OGLTextureCube() {
 		targetSize = new TargetSize[6];
-		textureID = glGenTextures();
+		textureID = gl().glGenTextures();
 		bind();
 	}
 		
@@ -189,8 +189,8 @@ public class OGLTextureCube implements OGLTexture {
         data.rewind();
 
         targetSize[target] = new TargetSize(width.get(0), height.get(0));
-        glBindTexture(GL_TEXTURE_CUBE_MAP, textureID);
-        glTexImage2D(TARGETS[target], 0, GL_RGBA, 
+        gl().glBindTexture(GL_TEXTURE_CUBE_MAP, textureID);
+        gl().glTexImage2D(TARGETS[target], 0, GL_RGBA, 
 				width.get(0), height.get(0), 0, 
 				GL_RGBA, GL_UNSIGNED_BYTE, data);
 		stbi_image_free(data);
@@ -200,13 +200,13 @@ public class OGLTextureCube implements OGLTexture {
 		for (int i = 0; i < fileNames.length; i++) {
 			read(fileNames[i],i);
 		}
-		glTexParameteri(GL_TEXTURE_CUBE_MAP, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
-		glTexParameteri(GL_TEXTURE_CUBE_MAP, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
-		glTexParameteri(GL_TEXTURE_CUBE_MAP, GL_TEXTURE_WRAP_R, GL_CLAMP_TO_EDGE);
-		glTexParameteri(GL_TEXTURE_CUBE_MAP, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+		gl().glTexParameteri(GL_TEXTURE_CUBE_MAP, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+		gl().glTexParameteri(GL_TEXTURE_CUBE_MAP, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+		gl().glTexParameteri(GL_TEXTURE_CUBE_MAP, GL_TEXTURE_WRAP_R, GL_CLAMP_TO_EDGE);
+		gl().glTexParameteri(GL_TEXTURE_CUBE_MAP, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
 		//glTexParameteri(GL_TEXTURE_CUBE_MAP, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
-		glGenerateMipmap(GL_TEXTURE_CUBE_MAP);
-		glTexParameteri(GL_TEXTURE_CUBE_MAP, GL_TEXTURE_MIN_FILTER, GL_LINEAR_MIPMAP_LINEAR);
+		gl().glGenerateMipmap(GL_TEXTURE_CUBE_MAP);
+		gl().glTexParameteri(GL_TEXTURE_CUBE_MAP, GL_TEXTURE_MIN_FILTER, GL_LINEAR_MIPMAP_LINEAR);
 
 	}
 
@@ -227,14 +227,21 @@ public class OGLTextureCube implements OGLTexture {
 	}
 
 	public void bind() {
-		glBindTexture(GL_TEXTURE_CUBE_MAP, textureID);
+		gl().glBindTexture(GL_TEXTURE_CUBE_MAP, textureID);
 	}
 
 	@Override
 	public void bind(int shaderProgram, String name, int slot) {
 		bind();
-		glActiveTexture(GL_TEXTURE0 + slot);
-		glUniform1i(glGetUniformLocation(shaderProgram, name), slot);
+		gl().glActiveTexture(GL_TEXTURE0 + slot);
+		gl().glUniform1i(gl().glGetUniformLocation(shaderProgram, name), slot);
+	}
+
+	@Override
+	public void bind(OGLProgram program, int uniform, int slot) {
+		gl().glActiveTexture(GL_TEXTURE0 + slot);
+		bind();
+		program.set1i(uniform, slot);
 	}
 
 	@Override
@@ -251,12 +258,12 @@ public class OGLTextureCube implements OGLTexture {
 			OGLTexImage.Format<OGLTexImageType> format, Buffer buffer, int cubeFaceIndex) {
 		bind();
 		if (format instanceof OGLTexImageFloat.Format)
-			glTexSubImage2D(TARGETS[cubeFaceIndex], 0, 0, 0, 
+			gl().glTexSubImage2D(TARGETS[cubeFaceIndex], 0, 0, 0, 
 				targetSize[cubeFaceIndex].getWidth(),targetSize[cubeFaceIndex].getHeight(), 
 				format.getPixelFormat(), format.getPixelType(), (ByteBuffer) buffer);
 
 		if (format instanceof OGLTexImageByte.Format)
-			glTexSubImage2D(TARGETS[cubeFaceIndex], 0, 0, 0, 
+			gl().glTexSubImage2D(TARGETS[cubeFaceIndex], 0, 0, 0, 
 				targetSize[cubeFaceIndex].getWidth(),targetSize[cubeFaceIndex].getHeight(), 
 				format.getPixelFormat(), format.getPixelType(), (FloatBuffer) buffer);
 	}
@@ -267,13 +274,13 @@ public class OGLTextureCube implements OGLTexture {
 		if (format instanceof OGLTexImageFloat.Format) {
 			FloatBuffer buffer = format.newBuffer(targetSize[cubeFaceIndex].getWidth(),
 					targetSize[cubeFaceIndex].getHeight());
-			glGetTexImage(TARGETS[cubeFaceIndex], 0, format.getPixelFormat(), format.getPixelType(), buffer);
+			gl().glGetTexImage(TARGETS[cubeFaceIndex], 0, format.getPixelFormat(), format.getPixelType(), buffer);
 			return buffer;
 		}
 		if (format instanceof OGLTexImageByte.Format) {
 			ByteBuffer buffer = format.newBuffer(targetSize[cubeFaceIndex].getWidth(),
 					targetSize[cubeFaceIndex].getHeight());
-			glGetTexImage(TARGETS[cubeFaceIndex], 0, format.getPixelFormat(), format.getPixelType(), buffer);
+			gl().glGetTexImage(TARGETS[cubeFaceIndex], 0, format.getPixelFormat(), format.getPixelType(), buffer);
 			return buffer;
 		}
 		return null;
@@ -10,6 +10,7 @@ import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.util.Locale;
 
+import static lwjglutils.OGL.gl;
 import static org.lwjgl.opengl.GL11.*;
 import static org.lwjgl.opengl.GL20.*;
 import static org.lwjgl.opengl.GL30.*;
@@ -60,22 +61,22 @@ public class OGLTextureVolume implements OGLTexture {
 
 		@Override
 		public void view(int textureID, Vec2D xy, Vec2D scale, int level) {
-			if (glIsProgram(shaderProgram)) {
-				glPushAttrib(GL_DEPTH_BUFFER_BIT|GL_ENABLE_BIT);
+			if (gl().glIsProgram(shaderProgram)) {
+				gl().glPushAttrib(GL_DEPTH_BUFFER_BIT|GL_ENABLE_BIT);
 				int[] sp = {'0'};
-				glGetIntegerv(GL_CURRENT_PROGRAM, sp);
-				glUseProgram(shaderProgram);
-				glActiveTexture(GL_TEXTURE0);
-				glEnable(GL_TEXTURE_3D);
-				glUniformMatrix4fv(locMat, false, ToFloatArray
+				gl().glGetIntegerv(GL_CURRENT_PROGRAM, sp);
+				gl().glUseProgram(shaderProgram);
+				gl().glActiveTexture(GL_TEXTURE0);
+				gl().glEnable(GL_TEXTURE_3D);
+				gl().glUniformMatrix4fv(locMat, false, ToFloatArray
 						.convert(new Mat4Scale(scale.getX(), scale.getY(), 1).mul(new Mat4Transl(xy.getX(), xy.getY(), 0))));
-				glUniform1i(locLevel, level);
-				glBindTexture(GL_TEXTURE_3D, textureID);
-				glUniform1i(glGetUniformLocation(shaderProgram, "drawTexture"), 0);
+				gl().glUniform1i(locLevel, level);
+				gl().glBindTexture(GL_TEXTURE_3D, textureID);
+				gl().glUniform1i(gl().glGetUniformLocation(shaderProgram, "drawTexture"), 0);
 				buffers.draw(GL_TRIANGLE_STRIP, shaderProgram);
-				glDisable(GL_TEXTURE_3D);
-				glUseProgram(sp[0]);
-				glPopAttrib();
+				gl().glDisable(GL_TEXTURE_3D);
+				gl().glUseProgram(sp[0]);
+				gl().glPopAttrib();
 			}
 		}
 		
@@ -92,45 +93,45 @@ public class OGLTextureVolume implements OGLTexture {
 		this.height = volume.getHeight();
 		this.depth = volume.getDepth();
 		Buffer buffer = volume.getDataBuffer();
-		volumeTextureID = glGenTextures();
-		glBindTexture(GL_TEXTURE_3D, volumeTextureID);
-		glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
+		volumeTextureID = gl().glGenTextures();
+		gl().glBindTexture(GL_TEXTURE_3D, volumeTextureID);
+		gl().glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
 
 		if (volume.getFormat() instanceof OGLTexImageByte.Format) {
-			glTexImage3D(GL_TEXTURE_3D, 0, volume.getFormat().getInternalFormat(), volume.getWidth(),
+			gl().glTexImage3D(GL_TEXTURE_3D, 0, volume.getFormat().getInternalFormat(), volume.getWidth(),
 					volume.getHeight(), volume.getDepth(), 0, volume.getFormat().getPixelFormat(),
 					volume.getFormat().getPixelType(), (ByteBuffer) buffer);
 		}
 		
 		if (volume.getFormat() instanceof OGLTexImageFloat.Format) {
-			glTexImage3D(GL_TEXTURE_3D, 0, volume.getFormat().getInternalFormat(), volume.getWidth(),
+			gl().glTexImage3D(GL_TEXTURE_3D, 0, volume.getFormat().getInternalFormat(), volume.getWidth(),
 					volume.getHeight(), volume.getDepth(), 0, volume.getFormat().getPixelFormat(),
 					volume.getFormat().getPixelType(), (FloatBuffer) buffer);
 		}
 
-		glGenerateMipmap(GL_TEXTURE_3D);
-		glTexParameteri(GL_TEXTURE_3D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+		gl().glGenerateMipmap(GL_TEXTURE_3D);
+		gl().glTexParameteri(GL_TEXTURE_3D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
 		//glTexParameteri(GL_TEXTURE_3D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
-		glTexParameteri(GL_TEXTURE_3D, GL_TEXTURE_MIN_FILTER, GL_LINEAR_MIPMAP_LINEAR);
-		glTexParameteri(GL_TEXTURE_3D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
-		glTexParameteri(GL_TEXTURE_3D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
-		glTexParameteri(GL_TEXTURE_3D, GL_TEXTURE_WRAP_R, GL_CLAMP_TO_EDGE);
+		gl().glTexParameteri(GL_TEXTURE_3D, GL_TEXTURE_MIN_FILTER, GL_LINEAR_MIPMAP_LINEAR);
+		gl().glTexParameteri(GL_TEXTURE_3D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+		gl().glTexParameteri(GL_TEXTURE_3D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+		gl().glTexParameteri(GL_TEXTURE_3D, GL_TEXTURE_WRAP_R, GL_CLAMP_TO_EDGE);
 	}
 
 
 	public <OGLTexImageType extends OGLTexImage<OGLTexImageType>> void setTextureBuffer(
 			OGLTexImage.Format<OGLTexImageType> format, Buffer buffer) {
-		glBindTexture(GL_TEXTURE_3D, volumeTextureID);
-		glTexSubImage3D(GL_TEXTURE_3D, 0, 0, 0, 0, 
+		gl().glBindTexture(GL_TEXTURE_3D, volumeTextureID);
+		gl().glTexSubImage3D(GL_TEXTURE_3D, 0, 0, 0, 0, 
 				width, height, depth, 
 				format.getPixelFormat(), format.getPixelType(), (ByteBuffer) buffer);
 	}
 
 	public <OGLTexImageType extends OGLTexImage<OGLTexImageType>> Buffer getTextureBuffer(
 			OGLTexImage.Format<OGLTexImageType> format) {
-		glBindTexture(GL_TEXTURE_3D, volumeTextureID);
+		gl().glBindTexture(GL_TEXTURE_3D, volumeTextureID);
 		Buffer buffer = format.newBuffer(width, height, depth);
-		glGetTexImage(GL_TEXTURE_3D, 0, format.getPixelFormat(), format.getPixelType(), (ByteBuffer) buffer);
+		gl().glGetTexImage(GL_TEXTURE_3D, 0, format.getPixelFormat(), format.getPixelType(), (ByteBuffer) buffer);
 		return buffer;
 	}
 
@@ -147,9 +148,16 @@ public class OGLTextureVolume implements OGLTexture {
 	
 	@Override
 	public void bind(int shaderProgram, String name, int slot) {
-		glActiveTexture(GL_TEXTURE0 + slot);
-		glBindTexture(GL_TEXTURE_3D, volumeTextureID);
-		glUniform1i(glGetUniformLocation(shaderProgram, name), slot);
+		gl().glActiveTexture(GL_TEXTURE0 + slot);
+		gl().glBindTexture(GL_TEXTURE_3D, volumeTextureID);
+		gl().glUniform1i(gl().glGetUniformLocation(shaderProgram, name), slot);
+	}
+
+	@Override
+	public void bind(OGLProgram program, int uniform, int slot) {
+		gl().glActiveTexture(GL_TEXTURE0 + slot);
+		gl().glBindTexture(GL_TEXTURE_3D, volumeTextureID);
+		program.set1i(uniform, slot);
 	}
 	
 	@Override
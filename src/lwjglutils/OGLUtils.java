@@ -4,6 +4,7 @@ import org.lwjgl.Version;
 import org.lwjgl.opengl.GL;
 import org.lwjgl.opengl.GLCapabilities;
 
+import static lwjglutils.OGL.gl;
 import static lwjglutils.ShaderUtils.*;
 import static org.lwjgl.opengl.GL11.*;
 import static org.lwjgl.opengl.GL20.*;
@@ -17,10 +18,10 @@ public class OGLUtils {
 	 * 
 	 */
 	public static void printOGLparameters() {
-		System.out.println("GL vendor: " + glGetString(GL_VENDOR));
-		System.out.println("GL renderer: " + glGetString(GL_RENDERER));
-		System.out.println("GL version: " + glGetString(GL_VERSION));
-		System.out.println("GL shading language version: " + glGetString(GL_SHADING_LANGUAGE_VERSION)
+		System.out.println("GL vendor: " + gl().glGetString(GL_VENDOR));
+		System.out.println("GL renderer: " + gl().glGetString(GL_RENDERER));
+		System.out.println("GL version: " + gl().glGetString(GL_VERSION));
+		System.out.println("GL shading language version: " + gl().glGetString(GL_SHADING_LANGUAGE_VERSION)
 				+ " (#version " + getVersionGLSL() + ")");
 		System.out.println("GL extensions: " + getExtensions());
 		System.out.println("GLSL version: " + getVersionGLSL());
@@ -36,13 +37,13 @@ public class OGLUtils {
 		String extensions;
 		if (getVersionGLSL() < getVersionOpenGL()) {
 			// Deprecated in newer versions
-			extensions = glGetString(GL_EXTENSIONS);
+			extensions = gl().glGetString(GL_EXTENSIONS);
 		} else {
 			int[] numberExtensions = new int[1];
-			glGetIntegerv(GL_NUM_EXTENSIONS, numberExtensions);
-			extensions = glGetStringi(GL_EXTENSIONS, 1);
+			gl().glGetIntegerv(GL_NUM_EXTENSIONS, numberExtensions);
+			extensions = gl().glGetStringi(GL_EXTENSIONS, 1);
 			for (int i = 1; i < numberExtensions[0]; i++) {
-				extensions = extensions + " " + glGetStringi(GL_EXTENSIONS, i);
+				extensions = extensions + " " + gl().glGetStringi(GL_EXTENSIONS, i);
 			}
 		}
 		return extensions;
@@ -55,7 +56,7 @@ public class OGLUtils {
 	 *         140, for GLSL 4.5 return 450, ...
 	 */
 	public static int getVersionGLSL() {
-		String version = new String(glGetString(GL_SHADING_LANGUAGE_VERSION));
+		String version = new String(gl().glGetString(GL_SHADING_LANGUAGE_VERSION));
 		String[] parts = version.split(" ");
 		parts = parts[0].split("\\.");
 		int versionNumber = Integer.parseInt(parts[0]) * 100 + Integer.parseInt(parts[1]);
@@ -69,7 +70,7 @@ public class OGLUtils {
 	 *         return 330, ...
 	 */
 	public static int getVersionOpenGL() {
-		String version = new String(glGetString(GL_VERSION));
+		String version = new String(gl().glGetString(GL_VERSION));
 		String[] parts = version.split(" ");
 		parts = parts[0].split("\\.");
 		return Integer.parseInt(parts[0]) * 100 + Integer.parseInt(parts[1]) * 10;
@@ -118,7 +119,7 @@ public class OGLUtils {
 	 * 
 	 */
 	public static void shaderCheck() {
-		String extensions = glGetString(GL_EXTENSIONS);
+		String extensions = gl().glGetString(GL_EXTENSIONS);
 
 		if ((OGLUtils.getVersionGLSL() < getVersionOpenGL()) && (extensions.indexOf("GL_ARB_vertex_shader") == -1
 				|| extensions.indexOf("GL_ARB_fragment_shader") == -1)) {
@@ -147,7 +148,7 @@ public class OGLUtils {
 	 *            type of report
 	 */
 	static public void checkGLError(String text, boolean longReport) {
-		int err = glGetError();
+		int err = gl().glGetError();
 		String errorName, errorDesc;
 
 		while (err != GL_NO_ERROR) {
@@ -180,7 +181,7 @@ public class OGLUtils {
 				System.err.println(text + " GL error: " + err + " " + errorName + ": " + errorDesc);
 			else
 				System.err.println(text + " GL error: " + errorName);
-			err = glGetError();
+			err = gl().glGetError();
 		}
 	}
 
@@ -189,9 +190,9 @@ public class OGLUtils {
 	 * 
 	 */
 	static public void emptyGLError() {
-		int err = glGetError();
+		int err = gl().glGetError();
 		while (err != GL_NO_ERROR) {
-			err = glGetError();
+			err = gl().glGetError();
 		}
 	}
 
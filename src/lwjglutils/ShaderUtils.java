@@ -4,6 +4,7 @@ import java.io.*;
 import java.util.ArrayList;
 import java.util.function.IntConsumer;
 
+import static lwjglutils.OGL.gl;
 import static org.lwjgl.opengl.GL20.*;
 import static org.lwjgl.opengl.GL33.*;
 import static org.lwjgl.opengl.GL43.*;
@@ -111,6 +112,32 @@ public final class ShaderUtils {
 				computeShaderFileName, (shaderProgram)->{});
 	}
 
+	/**
+	 * Load, create, compile, attach and link shader sources defined as files
+	 * and enumerate the active uniforms, attributes and uniform blocks
+	 * 
+	 * @param shaderFileName
+	 *            full path name of shader file without file extension
+	 * @return new shader program
+	 */
+	public static OGLProgram loadReflectedProgram(String shaderFileName) {
+		return new OGLProgram(loadProgram(shaderFileName));
+	}
+
+	/**
+	 * Load, create, compile, attach and link shader sources defined as files
+	 * and enumerate the active uniforms, attributes and uniform blocks, see
+	 * {@link #loadProgram(String, String, String, String, String, String)}
+	 * 
+	 * @return new shader program
+	 */
+	public static OGLProgram loadReflectedProgram(String vertexShaderFileName, String fragmentShaderFileName,
+			String geometryShaderFileName, String tessControlShaderFileName, String tessEvaluationShaderFileName,
+			String computeShaderFileName) {
+		return new OGLProgram(loadProgram(vertexShaderFileName, fragmentShaderFileName, geometryShaderFileName,
+				tessControlShaderFileName, tessEvaluationShaderFileName, computeShaderFileName));
+	}
+
 	/**
 	 * Load, create, compile, attach and link shader sources defined as files
 	 * 
@@ -304,7 +331,7 @@ public final class ShaderUtils {
 			return -1;
 		}
 
-		int shaderProgram = glCreateProgram();
+		int shaderProgram = gl().glCreateProgram();
 		if (shaderProgram < 0) {
 			System.err.println("Unable create new shader program ");
 			return -1;
@@ -336,12 +363,12 @@ public final class ShaderUtils {
 				System.out.print("OK, ");
 			} else {
 				// Don't leak shaders either
-				glDeleteShader(shaders[i]);
+				gl().glDeleteShader(shaders[i]);
 				return (-1);
 			}
 
 			System.out.print("Attaching '" + shaders[i] + "' to '" + shaderProgram + "' ... ");
-			glAttachShader(shaderProgram, shaders[i]);
+			gl().glAttachShader(shaderProgram, shaders[i]);
 			System.out.println("OK, ");
 		}
 		
@@ -357,16 +384,16 @@ public final class ShaderUtils {
 			System.out.println("OK");
 		} else {
 			// We don't need the program anymore
-			glDeleteProgram(shaderProgram);
+			gl().glDeleteProgram(shaderProgram);
 		}
 
 		for (int shader : shaders) {
 			if (shader > 0) {
 				// Always detach shaders after a successful link
-				glDetachShader(shaderProgram, shader);
+				gl().glDetachShader(shaderProgram, shader);
 				// Don't leak shader either
-				if (glIsShader(shader))
-					glDeleteShader(shader);
+				if (gl().glIsShader(shader))
+					gl().glDeleteShader(shader);
 			}
 		}
 
@@ -426,7 +453,7 @@ public final class ShaderUtils {
 	 * @return new id of shader
 	 */
 	static public int createShaderProgram(String[] shaderSrc, int type) {
-		int shader = glCreateShader(type);
+		int shader = gl().glCreateShader(type);
 		if (shader <= 0) {
 			return shader;
 		}
@@ -444,7 +471,7 @@ public final class ShaderUtils {
 			source += line;
 		}
 
-		glShaderSource(shader, source);
+		gl().glShaderSource(shader, source);
 
 		return shader;
 	}
@@ -461,7 +488,7 @@ public final class ShaderUtils {
 	static public int compileShaderProgram(int shader) {
 		String error;
 
-		glCompileShader(shader);
+		gl().glCompileShader(shader);
 		error = checkLogInfo(shader, GL_COMPILE_STATUS);
 		if (error == null) {
 			return shader;
@@ -469,7 +496,7 @@ public final class ShaderUtils {
 			System.err.println("failed");
 			System.err.println("\n" + error);
 			if (shader > 0)
-				glDeleteShader(shader);
+				gl().glDeleteShader(shader);
 			return -1;
 		}
 
@@ -486,7 +513,7 @@ public final class ShaderUtils {
 	 */
 	static public boolean linkProgram(int shaderProgram) {
 		String error;
-		glLinkProgram(shaderProgram);
+		gl().glLinkProgram(shaderProgram);
 		error = checkLogInfo(shaderProgram, GL_LINK_STATUS);
 		if (error == null) {
 			return true;
@@ -511,34 +538,34 @@ public final class ShaderUtils {
 
 	static private String checkLogInfoShader(int programObject, int mode) {
 		int[] error = new int[] { -1 };
-		glGetShaderiv(programObject, mode, error);
+		gl().glGetShaderiv(programObject, mode, error);
 		if (error[0] != GL_TRUE) {
 			int[] len = new int[1];
-			glGetShaderiv(programObject, GL_INFO_LOG_LENGTH, len);
+			gl().glGetShaderiv(programObject, GL_INFO_LOG_LENGTH, len);
 			if (len[0] == 0) {
 				return null;
 			}
 			/*byte[] errorMessage = new byte[len[0]];
 			glGetShaderInfoLog(programObject, len[0], len, 0, errorMessage, 0);
 			return new String(errorMessage, 0, len[0]);*/
-			return new String(glGetShaderInfoLog(programObject, 1024)); 
+			return new String(gl().glGetShaderInfoLog(programObject, 1024)); 
 		}
 		return null;
 	}
 
 	static private String checkLogInfoProgram(int programObject, int mode) {
 		int[] error = new int[] { -1 };
-		glGetProgramiv(programObject, mode, error);
+		gl().glGetProgramiv(programObject, mode, error);
 		if (error[0] != GL_TRUE) {
 			int[] len = new int[1];
-			glGetProgramiv(programObject, GL_INFO_LOG_LENGTH, len);
+			gl().glGetProgramiv(programObject, GL_INFO_LOG_LENGTH, len);
 			if (len[0] == 0) {
 				return null;
 			}
 			/*byte[] errorMessage = new byte[len[0]];
 			glGetProgramInfoLog(programObject, len[0], len, 0, errorMessage, 0);
 			return new String(errorMessage, 0, len[0]);*/
-			return new String(glGetProgramInfoLog(programObject, 1024)); 
+			return new String(gl().glGetProgramInfoLog(programObject, 1024)); 
 		}
 		return null;
 	}
@@ -0,0 +1,176 @@
+package transforms;
+
+import java.nio.FloatBuffer;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Transformation of large point sets by a 4x4 matrix without allocating a
+ * {@link Point3D} per point. Points are given as structure-of-arrays
+ * coordinates, the result equals {@link Point3D#mul(Mat4)} of the affine point
+ * (x, y, z, 1) followed by dehomogenization (a no-op for affine matrices).
+ * Uses SIMD lanes of the jdk.incubator.vector module when it is present at
+ * runtime and a scalar loop otherwise; inputs of at least
+ * {@link #PARALLEL_THRESHOLD} points are split across the common ForkJoin pool.
+ *
+ * @author PGRF FIM UHK
+ * @version 2025
+ */
+public final class BatchTransform {
+
+	/**
+	 * Minimal number of points processed in parallel
+	 */
+	public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+	static final boolean SIMD = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+	private BatchTransform() {
+	}
+
+	/**
+	 * Returns whether the SIMD kernels are in use
+	 *
+	 * @return true if jdk.incubator.vector is available
+	 */
+	public static boolean isSimdEnabled() {
+		return SIMD;
+	}
+
+	/**
+	 * Transforms count points given by coordinate arrays, output arrays may
+	 * be the input arrays
+	 *
+	 * @param m
+	 *            4x4 transformation matrix
+	 * @param x
+	 *            x coordinates
+	 * @param y
+	 *            y coordinates
+	 * @param z
+	 *            z coordinates
+	 * @param outX
+	 *            transformed x coordinates
+	 * @param outY
+	 *            transformed y coordinates
+	 * @param outZ
+	 *            transformed z coordinates
+	 * @param count
+	 *            number of points
+	 */
+	public static void transformPoints(final Mat4 m, final double[] x, final double[] y, final double[] z,
+			final double[] outX, final double[] outY, final double[] outZ, final int count) {
+		final double[] a = m.mat;
+		final boolean affine = m.isAffine();
+		Parallel.forRange(ForkJoinPool.commonPool(), count, PARALLEL_THRESHOLD,
+				(from, to) -> transformRange(a, affine, x, y, z, outX, outY, outZ, from, to));
+	}
+
+	/**
+	 * Transforms count points given by single-precision coordinate arrays,
+	 * output arrays may be the input arrays
+	 *
+	 * @param m
+	 *            4x4 transformation matrix
+	 * @param x
+	 *            x coordinates
+	 * @param y
+	 *            y coordinates
+	 * @param z
+	 *            z coordinates
+	 * @param outX
+	 *            transformed x coordinates
+	 * @param outY
+	 *            transformed y coordinates
+	 * @param outZ
+	 *            transformed z coordinates
+	 * @param count
+	 *            number of points
+	 */
+	public static void transformPoints(final Mat4 m, final float[] x, final float[] y, final float[] z,
+			final float[] outX, final float[] outY, final float[] outZ, final int count) {
+		final float[] a = new Mat4f(m).mat;
+		final boolean affine = m.isAffine();
+		Parallel.forRange(ForkJoinPool.commonPool(), count, PARALLEL_THRESHOLD,
+				(from, to) -> transformRange(a, affine, x, y, z, outX, outY, outZ, from, to));
+	}
+
+	/**
+	 * Transforms count points stored interleaved as (x, y, z) triples, e.g. a
+	 * vertex buffer, starting at the absolute index 0 of both buffers; the
+	 * buffer positions are left unchanged, dst may be src
+	 *
+	 * @param m
+	 *            4x4 transformation matrix
+	 * @param src
+	 *            source coordinates, at least 3 * count elements
+	 * @param dst
+	 *            destination coordinates, at least 3 * count elements
+	 * @param count
+	 *            number of points
+	 */
+	public static void transformPoints(final Mat4 m, final FloatBuffer src, final FloatBuffer dst, final int count) {
+		final float[] a = new Mat4f(m).mat;
+		final boolean affine = m.isAffine();
+		for (int i = 0, n = 3 * count; i < n; i += 3) {
+			final float px = src.get(i), py = src.get(i + 1), pz = src.get(i + 2);
+			float rx = a[0] * px + a[4] * py + a[8] * pz + a[12];
+			float ry = a[1] * px + a[5] * py + a[9] * pz + a[13];
+			float rz = a[2] * px + a[6] * py + a[10] * pz + a[14];
+			if (!affine) {
+				final float rw = a[3] * px + a[7] * py + a[11] * pz + a[15];
+				rx /= rw;
+				ry /= rw;
+				rz /= rw;
+			}
+			dst.put(i, rx).put(i + 1, ry).put(i + 2, rz);
+		}
+	}
+
+	private static void transformRange(final double[] a, final boolean affine,
+			final double[] x, final double[] y, final double[] z,
+			final double[] outX, final double[] outY, final double[] outZ, final int from, final int to) {
+		int i = from;
+		if (SIMD)
+			i = BatchTransformSimd.transformRange(a, affine, x, y, z, outX, outY, outZ, from, to);
+		for (; i < to; i++) {
+			final double px = x[i], py = y[i], pz = z[i];
+			final double rx = a[0] * px + a[4] * py + a[8] * pz + a[12];
+			final double ry = a[1] * px + a[5] * py + a[9] * pz + a[13];
+			final double rz = a[2] * px + a[6] * py + a[10] * pz + a[14];
+			if (affine) {
+				outX[i] = rx;
+				outY[i] = ry;
+				outZ[i] = rz;
+			} else {
+				final double rw = a[3] * px + a[7] * py + a[11] * pz + a[15];
+				outX[i] = rx / rw;
+				outY[i] = ry / rw;
+				outZ[i] = rz / rw;
+			}
+		}
+	}
+
+	private static void transformRange(final float[] a, final boolean affine,
+			final float[] x, final float[] y, final float[] z,
+			final float[] outX, final float[] outY, final float[] outZ, final int from, final int to) {
+		int i = from;
+		if (SIMD)
+			i = BatchTransformSimd.transformRange(a, affine, x, y, z, outX, outY, outZ, from, to);
+		for (; i < to; i++) {
+			final float px = x[i], py = y[i], pz = z[i];
+			final float rx = a[0] * px + a[4] * py + a[8] * pz + a[12];
+			final float ry = a[1] * px + a[5] * py + a[9] * pz + a[13];
+			final float rz = a[2] * px + a[6] * py + a[10] * pz + a[14];
+			if (affine) {
+				outX[i] = rx;
+				outY[i] = ry;
+				outZ[i] = rz;
+			} else {
+				final float rw = a[3] * px + a[7] * py + a[11] * pz + a[15];
+				outX[i] = rx / rw;
+				outY[i] = ry / rw;
+				outZ[i] = rz / rw;
+			}
+		}
+	}
+}
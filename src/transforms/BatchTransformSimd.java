@@ -0,0 +1,82 @@
+package transforms;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD kernels of {@link BatchTransform}, loaded only when the
+ * jdk.incubator.vector module is present
+ *
+ * @author PGRF FIM UHK
+ * @version 2025
+ */
+final class BatchTransformSimd {
+	private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+
+	private BatchTransformSimd() {
+	}
+
+	/**
+	 * Transforms whole vectors of points from the given range
+	 *
+	 * @return index of the first point left for the scalar tail loop
+	 */
+	static int transformRange(final double[] a, final boolean affine,
+			final double[] x, final double[] y, final double[] z,
+			final double[] outX, final double[] outY, final double[] outZ, final int from, final int to) {
+		final int step = DOUBLES.length();
+		final int bound = from + (to - from) / step * step;
+		int i = from;
+		for (; i < bound; i += step) {
+			final DoubleVector px = DoubleVector.fromArray(DOUBLES, x, i);
+			final DoubleVector py = DoubleVector.fromArray(DOUBLES, y, i);
+			final DoubleVector pz = DoubleVector.fromArray(DOUBLES, z, i);
+			DoubleVector rx = px.mul(a[0]).add(py.mul(a[4])).add(pz.mul(a[8])).add(a[12]);
+			DoubleVector ry = px.mul(a[1]).add(py.mul(a[5])).add(pz.mul(a[9])).add(a[13]);
+			DoubleVector rz = px.mul(a[2]).add(py.mul(a[6])).add(pz.mul(a[10])).add(a[14]);
+			if (!affine) {
+				final DoubleVector rw = px.mul(a[3]).add(py.mul(a[7])).add(pz.mul(a[11])).add(a[15]);
+				rx = rx.div(rw);
+				ry = ry.div(rw);
+				rz = rz.div(rw);
+			}
+			rx.intoArray(outX, i);
+			ry.intoArray(outY, i);
+			rz.intoArray(outZ, i);
+		}
+		return i;
+	}
+
+	/**
+	 * Transforms whole vectors of points from the given range
+	 *
+	 * @return index of the first point left for the scalar tail loop
+	 */
+	static int transformRange(final float[] a, final boolean affine,
+			final float[] x, final float[] y, final float[] z,
+			final float[] outX, final float[] outY, final float[] outZ, final int from, final int to) {
+		final int step = FLOATS.length();
+		final int bound = from + (to - from) / step * step;
+		int i = from;
+		for (; i < bound; i += step) {
+			final FloatVector px = FloatVector.fromArray(FLOATS, x, i);
+			final FloatVector py = FloatVector.fromArray(FLOATS, y, i);
+			final FloatVector pz = FloatVector.fromArray(FLOATS, z, i);
+			FloatVector rx = px.mul(a[0]).add(py.mul(a[4])).add(pz.mul(a[8])).add(a[12]);
+			FloatVector ry = px.mul(a[1]).add(py.mul(a[5])).add(pz.mul(a[9])).add(a[13]);
+			FloatVector rz = px.mul(a[2]).add(py.mul(a[6])).add(pz.mul(a[10])).add(a[14]);
+			if (!affine) {
+				final FloatVector rw = px.mul(a[3]).add(py.mul(a[7])).add(pz.mul(a[11])).add(a[15]);
+				rx = rx.div(rw);
+				ry = ry.div(rw);
+				rz = rz.div(rw);
+			}
+			rx.intoArray(outX, i);
+			ry.intoArray(outY, i);
+			rz.intoArray(outZ, i);
+		}
+		return i;
+	}
+}
@@ -0,0 +1,297 @@
+package transforms;
+
+import java.util.Locale;
+
+/**
+ * Axis-aligned bounding box, immutable
+ *
+ * @author PGRF FIM UHK
+ * @version 2025
+ */
+public class BoundingBox {
+	final double minX, minY, minZ, maxX, maxY, maxZ;
+
+	/**
+	 * Creates a box from its minimal and maximal coordinates
+	 *
+	 * @param minX
+	 *            minimal x coordinate
+	 * @param minY
+	 *            minimal y coordinate
+	 * @param minZ
+	 *            minimal z coordinate
+	 * @param maxX
+	 *            maximal x coordinate
+	 * @param maxY
+	 *            maximal y coordinate
+	 * @param maxZ
+	 *            maximal z coordinate
+	 */
+	public BoundingBox(final double minX, final double minY, final double minZ,
+			final double maxX, final double maxY, final double maxZ) {
+		this.minX = minX;
+		this.minY = minY;
+		this.minZ = minZ;
+		this.maxX = maxX;
+		this.maxY = maxY;
+		this.maxZ = maxZ;
+	}
+
+	/**
+	 * Creates a box from two corners
+	 *
+	 * @param min
+	 *            corner with minimal coordinates
+	 * @param max
+	 *            corner with maximal coordinates
+	 */
+	public BoundingBox(final Vec3D min, final Vec3D max) {
+		this(min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ());
+	}
+
+	/**
+	 * Returns the minimal x coordinate
+	 *
+	 * @return the minimal x coordinate
+	 */
+	public double getMinX() {
+		return minX;
+	}
+
+	/**
+	 * Returns the minimal y coordinate
+	 *
+	 * @return the minimal y coordinate
+	 */
+	public double getMinY() {
+		return minY;
+	}
+
+	/**
+	 * Returns the minimal z coordinate
+	 *
+	 * @return the minimal z coordinate
+	 */
+	public double getMinZ() {
+		return minZ;
+	}
+
+	/**
+	 * Returns the maximal x coordinate
+	 *
+	 * @return the maximal x coordinate
+	 */
+	public double getMaxX() {
+		return maxX;
+	}
+
+	/**
+	 * Returns the maximal y coordinate
+	 *
+	 * @return the maximal y coordinate
+	 */
+	public double getMaxY() {
+		return maxY;
+	}
+
+	/**
+	 * Returns the maximal z coordinate
+	 *
+	 * @return the maximal z coordinate
+	 */
+	public double getMaxZ() {
+		return maxZ;
+	}
+
+	/**
+	 * Returns the corner with minimal coordinates
+	 *
+	 * @return new Vec3D instance
+	 */
+	public Vec3D getMin() {
+		return new Vec3D(minX, minY, minZ);
+	}
+
+	/**
+	 * Returns the corner with maximal coordinates
+	 *
+	 * @return new Vec3D instance
+	 */
+	public Vec3D getMax() {
+		return new Vec3D(maxX, maxY, maxZ);
+	}
+
+	/**
+	 * Returns the center of this box
+	 *
+	 * @return new Vec3D instance
+	 */
+	public Vec3D getCenter() {
+		return new Vec3D((minX + maxX) / 2, (minY + maxY) / 2, (minZ + maxZ) / 2);
+	}
+
+	/**
+	 * Returns the half sizes of this box along the axes
+	 *
+	 * @return new Vec3D instance
+	 */
+	public Vec3D getExtent() {
+		return new Vec3D((maxX - minX) / 2, (maxY - minY) / 2, (maxZ - minZ) / 2);
+	}
+
+	/**
+	 * Returns the surface area of this box
+	 *
+	 * @return double-precision floating point value
+	 */
+	public double surfaceArea() {
+		final double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+		return 2 * (dx * dy + dy * dz + dz * dx);
+	}
+
+	/**
+	 * Returns the smallest box containing this and the given box
+	 *
+	 * @param b
+	 *            bounding box
+	 * @return new BoundingBox instance
+	 */
+	public BoundingBox union(final BoundingBox b) {
+		return new BoundingBox(Math.min(minX, b.minX), Math.min(minY, b.minY), Math.min(minZ, b.minZ),
+				Math.max(maxX, b.maxX), Math.max(maxY, b.maxY), Math.max(maxZ, b.maxZ));
+	}
+
+	/**
+	 * Tests whether this box overlaps the given box
+	 *
+	 * @param b
+	 *            bounding box
+	 * @return true if the boxes overlap or touch
+	 */
+	public boolean intersects(final BoundingBox b) {
+		return minX <= b.maxX && b.minX <= maxX
+				&& minY <= b.maxY && b.minY <= maxY
+				&& minZ <= b.maxZ && b.minZ <= maxZ;
+	}
+
+	/**
+	 * Tests whether this box contains the given point
+	 *
+	 * @param x
+	 *            x coordinate
+	 * @param y
+	 *            y coordinate
+	 * @param z
+	 *            z coordinate
+	 * @return true if the point is inside or on the boundary
+	 */
+	public boolean contains(final double x, final double y, final double z) {
+		return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+	}
+
+	/**
+	 * Returns the smallest axis-aligned box containing this box transformed by
+	 * the given matrix. Affine matrices are handled per axis from the
+	 * elements of the upper 3x3 submatrix, projective ones by transforming all
+	 * corners.
+	 *
+	 * @param m
+	 *            4x4 transformation matrix
+	 * @return new BoundingBox instance
+	 */
+	public BoundingBox mul(final Mat4 m) {
+		final double[] a = m.mat;
+		if (!m.isAffine())
+			return mulProjective(a);
+		final double x0 = a[0] * minX, x1 = a[0] * maxX, y0 = a[4] * minY, y1 = a[4] * maxY;
+		final double z0 = a[8] * minZ, z1 = a[8] * maxZ;
+		final double u0 = a[1] * minX, u1 = a[1] * maxX, v0 = a[5] * minY, v1 = a[5] * maxY;
+		final double w0 = a[9] * minZ, w1 = a[9] * maxZ;
+		final double p0 = a[2] * minX, p1 = a[2] * maxX, q0 = a[6] * minY, q1 = a[6] * maxY;
+		final double r0 = a[10] * minZ, r1 = a[10] * maxZ;
+		// per output axis, each input axis contributes its smaller and larger product
+		return new BoundingBox(
+				a[12] + Math.min(x0, x1) + Math.min(y0, y1) + Math.min(z0, z1),
+				a[13] + Math.min(u0, u1) + Math.min(v0, v1) + Math.min(w0, w1),
+				a[14] + Math.min(p0, p1) + Math.min(q0, q1) + Math.min(r0, r1),
+				a[12] + Math.max(x0, x1) + Math.max(y0, y1) + Math.max(z0, z1),
+				a[13] + Math.max(u0, u1) + Math.max(v0, v1) + Math.max(w0, w1),
+				a[14] + Math.max(p0, p1) + Math.max(q0, q1) + Math.max(r0, r1));
+	}
+
+	private BoundingBox mulProjective(final double[] a) {
+		double x0 = Double.POSITIVE_INFINITY, y0 = x0, z0 = x0;
+		double x1 = Double.NEGATIVE_INFINITY, y1 = x1, z1 = x1;
+		for (int c = 0; c < 8; c++) {
+			final double x = (c & 1) == 0 ? minX : maxX;
+			final double y = (c & 2) == 0 ? minY : maxY;
+			final double z = (c & 4) == 0 ? minZ : maxZ;
+			final double w = a[3] * x + a[7] * y + a[11] * z + a[15];
+			final double rx = (a[0] * x + a[4] * y + a[8] * z + a[12]) / w;
+			final double ry = (a[1] * x + a[5] * y + a[9] * z + a[13]) / w;
+			final double rz = (a[2] * x + a[6] * y + a[10] * z + a[14]) / w;
+			x0 = Math.min(x0, rx);
+			y0 = Math.min(y0, ry);
+			z0 = Math.min(z0, rz);
+			x1 = Math.max(x1, rx);
+			y1 = Math.max(y1, ry);
+			z1 = Math.max(z1, rz);
+		}
+		return new BoundingBox(x0, y0, z0, x1, y1, z1);
+	}
+
+	/**
+	 * Returns the sphere circumscribed to this box
+	 *
+	 * @return new BoundingSphere instance
+	 */
+	public BoundingSphere getBoundingSphere() {
+		final double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+		return new BoundingSphere((minX + maxX) / 2, (minY + maxY) / 2, (minZ + maxZ) / 2,
+				Math.sqrt(dx * dx + dy * dy + dz * dz) / 2);
+	}
+
+	/**
+	 * Compares this object against the specified object.
+	 * @param   obj   the object to compare with.
+	 * @return  {@code true} if the objects are the same;
+	 *          {@code false} otherwise.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof BoundingBox))
+			return false;
+		final BoundingBox b = (BoundingBox) obj;
+		return Double.compare(minX, b.minX) == 0 && Double.compare(minY, b.minY) == 0
+				&& Double.compare(minZ, b.minZ) == 0 && Double.compare(maxX, b.maxX) == 0
+				&& Double.compare(maxY, b.maxY) == 0 && Double.compare(maxZ, b.maxZ) == 0;
+	}
+
+	/**
+	 * Returns a hash code value for the object.
+	 *
+	 * @return  a hash code value for this object.
+	 */
+	@Override
+	public int hashCode() {
+		int h = Double.hashCode(minX);
+		h = 31 * h + Double.hashCode(minY);
+		h = 31 * h + Double.hashCode(minZ);
+		h = 31 * h + Double.hashCode(maxX);
+		h = 31 * h + Double.hashCode(maxY);
+		return 31 * h + Double.hashCode(maxZ);
+	}
+
+	/**
+	 * Returns String representation of this box
+	 *
+	 * @return the minimal and maximal corners in square brackets
+	 */
+	@Override
+	public String toString() {
+		return String.format(Locale.US, "[(%4.1f,%4.1f,%4.1f),(%4.1f,%4.1f,%4.1f)]",
+				minX, minY, minZ, maxX, maxY, maxZ);
+	}
+}
@@ -0,0 +1,189 @@
+package transforms;
+
+import java.util.Locale;
+
+/**
+ * Bounding sphere given by its center and radius, immutable
+ *
+ * @author PGRF FIM UHK
+ * @version 2025
+ */
+public class BoundingSphere {
+	final double x, y, z, radius;
+
+	/**
+	 * Creates a sphere from its center coordinates and radius
+	 *
+	 * @param x
+	 *            x coordinate of the center
+	 * @param y
+	 *            y coordinate of the center
+	 * @param z
+	 *            z coordinate of the center
+	 * @param radius
+	 *            sphere radius
+	 */
+	public BoundingSphere(final double x, final double y, final double z, final double radius) {
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		this.radius = radius;
+	}
+
+	/**
+	 * Creates a sphere from its center and radius
+	 *
+	 * @param center
+	 *            center of the sphere
+	 * @param radius
+	 *            sphere radius
+	 */
+	public BoundingSphere(final Vec3D center, final double radius) {
+		this(center.getX(), center.getY(), center.getZ(), radius);
+	}
+
+	/**
+	 * Returns the x coordinate of the center
+	 *
+	 * @return the x
+	 */
+	public double getX() {
+		return x;
+	}
+
+	/**
+	 * Returns the y coordinate of the center
+	 *
+	 * @return the y
+	 */
+	public double getY() {
+		return y;
+	}
+
+	/**
+	 * Returns the z coordinate of the center
+	 *
+	 * @return the z
+	 */
+	public double getZ() {
+		return z;
+	}
+
+	/**
+	 * Returns the radius
+	 *
+	 * @return the radius
+	 */
+	public double getRadius() {
+		return radius;
+	}
+
+	/**
+	 * Returns the center of this sphere
+	 *
+	 * @return new Vec3D instance
+	 */
+	public Vec3D getCenter() {
+		return new Vec3D(x, y, z);
+	}
+
+	/**
+	 * Tests whether this sphere overlaps the given sphere
+	 *
+	 * @param s
+	 *            bounding sphere
+	 * @return true if the spheres overlap or touch
+	 */
+	public boolean intersects(final BoundingSphere s) {
+		final double dx = s.x - x, dy = s.y - y, dz = s.z - z, r = radius + s.radius;
+		return dx * dx + dy * dy + dz * dz <= r * r;
+	}
+
+	/**
+	 * Tests whether this sphere contains the given point
+	 *
+	 * @param px
+	 *            x coordinate
+	 * @param py
+	 *            y coordinate
+	 * @param pz
+	 *            z coordinate
+	 * @return true if the point is inside or on the boundary
+	 */
+	public boolean contains(final double px, final double py, final double pz) {
+		final double dx = px - x, dy = py - y, dz = pz - z;
+		return dx * dx + dy * dy + dz * dz <= radius * radius;
+	}
+
+	/**
+	 * Returns a sphere containing this sphere transformed by the given affine
+	 * matrix, the radius is scaled by the largest row length of the upper 3x3
+	 * submatrix; projective matrices are handled through the bounding box
+	 *
+	 * @param m
+	 *            4x4 transformation matrix
+	 * @return new BoundingSphere instance
+	 */
+	public BoundingSphere mul(final Mat4 m) {
+		if (!m.isAffine())
+			return getBoundingBox().mul(m).getBoundingSphere();
+		final double[] a = m.mat;
+		final double s0 = a[0] * a[0] + a[1] * a[1] + a[2] * a[2];
+		final double s1 = a[4] * a[4] + a[5] * a[5] + a[6] * a[6];
+		final double s2 = a[8] * a[8] + a[9] * a[9] + a[10] * a[10];
+		return new BoundingSphere(
+				a[0] * x + a[4] * y + a[8] * z + a[12],
+				a[1] * x + a[5] * y + a[9] * z + a[13],
+				a[2] * x + a[6] * y + a[10] * z + a[14],
+				radius * Math.sqrt(Math.max(s0, Math.max(s1, s2))));
+	}
+
+	/**
+	 * Returns the axis-aligned box circumscribed to this sphere
+	 *
+	 * @return new BoundingBox instance
+	 */
+	public BoundingBox getBoundingBox() {
+		return new BoundingBox(x - radius, y - radius, z - radius, x + radius, y + radius, z + radius);
+	}
+
+	/**
+	 * Compares this object against the specified object.
+	 * @param   obj   the object to compare with.
+	 * @return  {@code true} if the objects are the same;
+	 *          {@code false} otherwise.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof BoundingSphere))
+			return false;
+		final BoundingSphere s = (BoundingSphere) obj;
+		return Double.compare(x, s.x) == 0 && Double.compare(y, s.y) == 0
+				&& Double.compare(z, s.z) == 0 && Double.compare(radius, s.radius) == 0;
+	}
+
+	/**
+	 * Returns a hash code value for the object.
+	 *
+	 * @return  a hash code value for this object.
+	 */
+	@Override
+	public int hashCode() {
+		int h = Double.hashCode(x);
+		h = 31 * h + Double.hashCode(y);
+		h = 31 * h + Double.hashCode(z);
+		return 31 * h + Double.hashCode(radius);
+	}
+
+	/**
+	 * Returns String representation of this sphere
+	 *
+	 * @return center coordinates and radius in parentheses
+	 */
+	@Override
+	public String toString() {
+		return String.format(Locale.US, "(%4.1f,%4.1f,%4.1f;%4.1f)", x, y, z, radius);
+	}
+}
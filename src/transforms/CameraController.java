@@ -0,0 +1,468 @@
+package transforms;
+
+import java.util.Locale;
+
+/**
+ * Mutable counterpart of {@link Camera} intended for interactive control.
+ * The observer position and orientation quaternion are updated in place;
+ * azimuth and zenith changes are accumulated and folded into the orientation
+ * when the camera is next moved or queried, and the view matrix is rebuilt
+ * only when it is requested after a change, i.e. at most once per frame
+ * however many input events arrived. The orientation maps the x-axis to the
+ * view vector and the z-axis to the up vector, the camera never rolls.
+ * Behaves as the immutable camera with the same parameters, see
+ * {@link #toCamera()}.
+ *
+ * @author PGRF FIM UHK
+ * @version 2025
+ */
+public class CameraController {
+	private double px, py, pz;
+	private final QuatMutable orientation = new QuatMutable();
+	private final QuatMutable delta = new QuatMutable();
+	// zenith of the orientation and the zenith requested since, clamped per change
+	private double zenith, targetZenith;
+	private double pendingAzimuth;
+	private double radius = 1.0;
+	private boolean firstPerson = true;
+	// view, right and up vectors, the rows of the orientation rotation matrix
+	private double vx = 1, vy, vz, rx, ry = -1, rz, ux, uy, uz = 1;
+	private Mat4 view;
+	private Camera camera;
+
+	/**
+	 * Creates a 1st person camera with observer positioned in the origin and
+	 * looking along the x-axis in positive direction, as {@link Camera#Camera()}
+	 */
+	public CameraController() {
+	}
+
+	/**
+	 * Creates a controller with the parameters of the given camera
+	 *
+	 * @param cam
+	 *            camera to be copied
+	 */
+	public CameraController(final Camera cam) {
+		set(cam);
+	}
+
+	/**
+	 * Sets all parameters to those of the given camera
+	 *
+	 * @param cam
+	 *            camera to be copied
+	 * @return this controller
+	 */
+	public CameraController set(final Camera cam) {
+		final Vec3D pos = cam.getPosition();
+		px = pos.getX();
+		py = pos.getY();
+		pz = pos.getZ();
+		radius = cam.getRadius();
+		firstPerson = cam.getFirstPerson();
+		zenith = 0;
+		pendingAzimuth = cam.getAzimuth();
+		targetZenith = cam.getZenith();
+		orientation.setIdentity();
+		changed();
+		return this;
+	}
+
+	/**
+	 * Sets all parameters to those of the given controller
+	 *
+	 * @param c
+	 *            controller to be copied
+	 * @return this controller
+	 */
+	public CameraController set(final CameraController c) {
+		c.applyRotation();
+		px = c.px;
+		py = c.py;
+		pz = c.pz;
+		orientation.set(c.orientation);
+		zenith = targetZenith = c.zenith;
+		pendingAzimuth = 0;
+		radius = c.radius;
+		firstPerson = c.firstPerson;
+		vx = c.vx;
+		vy = c.vy;
+		vz = c.vz;
+		rx = c.rx;
+		ry = c.ry;
+		rz = c.rz;
+		ux = c.ux;
+		uy = c.uy;
+		uz = c.uz;
+		changed();
+		return this;
+	}
+
+	private void changed() {
+		view = null;
+		camera = null;
+	}
+
+	/**
+	 * Folds the accumulated azimuth and zenith changes into the orientation
+	 * and refreshes the cached basis vectors
+	 */
+	private void applyRotation() {
+		if (pendingAzimuth == 0 && targetZenith == zenith)
+			return;
+		// pitch about the camera's own right axis, applied before the current orientation
+		if (targetZenith != zenith)
+			orientation.mul(delta.setAxisAngle(zenith - targetZenith, 0, 1, 0));
+		// yaw about the world z-axis, applied after it
+		if (pendingAzimuth != 0)
+			orientation.mulL(delta.setAxisAngle(pendingAzimuth, 0, 0, 1));
+		orientation.normalize();
+		zenith = targetZenith;
+		pendingAzimuth = 0;
+
+		final double r = orientation.r, i = orientation.i, j = orientation.j, k = orientation.k;
+		vx = 1 - 2 * (j * j + k * k);
+		vy = 2 * (i * j + r * k);
+		vz = 2 * (i * k - r * j);
+		rx = -2 * (i * j - r * k);
+		ry = -(1 - 2 * (i * i + k * k));
+		rz = -2 * (k * j + i * r);
+		ux = 2 * (r * j + i * k);
+		uy = 2 * (k * j - i * r);
+		uz = 1 - 2 * (i * i + j * j);
+	}
+
+	/**
+	 * Adds the given value to azimuth
+	 *
+	 * @param ang
+	 *            azimuth change in radians
+	 * @return this controller
+	 */
+	public CameraController addAzimuth(final double ang) {
+		pendingAzimuth += ang;
+		changed();
+		return this;
+	}
+
+	/**
+	 * Adds the given value to zenith, zenith is kept in [-pi/2, pi/2]
+	 *
+	 * @param ang
+	 *            zenith change in radians
+	 * @return this controller
+	 */
+	public CameraController addZenith(final double ang) {
+		targetZenith = Math.max(-Math.PI / 2, Math.min(targetZenith + ang, Math.PI / 2));
+		changed();
+		return this;
+	}
+
+	/**
+	 * Adds the given value to radius, radius is kept &gt;= 0.1
+	 *
+	 * @param dist
+	 *            radius change amount
+	 * @return this controller
+	 */
+	public CameraController addRadius(final double dist) {
+		return setRadius(Math.max(radius + dist, 0.1));
+	}
+
+	/**
+	 * Multiplies radius by the given coefficient, radius is kept &gt;= 0.1
+	 *
+	 * @param scale
+	 *            radius scale coefficient
+	 * @return this controller
+	 */
+	public CameraController mulRadius(final double scale) {
+		return setRadius(Math.max(radius * scale, 0.1));
+	}
+
+	/**
+	 * Sets radius, the distance between the eye and the observer position in
+	 * the 3rd person camera mode
+	 *
+	 * @param radius
+	 *            new radius value
+	 * @return this controller
+	 */
+	public CameraController setRadius(final double radius) {
+		this.radius = radius;
+		changed();
+		return this;
+	}
+
+	/**
+	 * Sets the 1st/3rd person camera mode flag
+	 *
+	 * @param firstPerson
+	 *            true for 1st person, false for 3rd person camera mode
+	 * @return this controller
+	 */
+	public CameraController setFirstPerson(final boolean firstPerson) {
+		this.firstPerson = firstPerson;
+		changed();
+		return this;
+	}
+
+	/**
+	 * Sets the observer position
+	 *
+	 * @param pos
+	 *            new position
+	 * @return this controller
+	 */
+	public CameraController setPosition(final Vec3D pos) {
+		px = pos.getX();
+		py = pos.getY();
+		pz = pos.getZ();
+		changed();
+		return this;
+	}
+
+	/**
+	 * Moves the observer by the given vector
+	 *
+	 * @param x
+	 *            movement along x-axis
+	 * @param y
+	 *            movement along y-axis
+	 * @param z
+	 *            movement along z-axis
+	 * @return this controller
+	 */
+	public CameraController move(final double x, final double y, final double z) {
+		px += x;
+		py += y;
+		pz += z;
+		changed();
+		return this;
+	}
+
+	/**
+	 * Moves the observer by the given vector
+	 *
+	 * @param dir
+	 *            vector to move by
+	 * @return this controller
+	 */
+	public CameraController move(final Vec3D dir) {
+		return move(dir.getX(), dir.getY(), dir.getZ());
+	}
+
+	/**
+	 * Moves the observer in the direction of the view vector by the given
+	 * distance
+	 *
+	 * @param speed
+	 *            distance to move by
+	 * @return this controller
+	 */
+	public CameraController forward(final double speed) {
+		applyRotation();
+		return move(vx * speed, vy * speed, vz * speed);
+	}
+
+	/**
+	 * Moves the observer in the opposite direction of the view vector by the
+	 * given distance
+	 *
+	 * @param speed
+	 *            distance to move by
+	 * @return this controller
+	 */
+	public CameraController backward(final double speed) {
+		return forward(-speed);
+	}
+
+	/**
+	 * Moves the observer to the right from its perspective by the given
+	 * distance, parallel to the xy plane
+	 *
+	 * @param speed
+	 *            distance to move by
+	 * @return this controller
+	 */
+	public CameraController right(final double speed) {
+		applyRotation();
+		return move(rx * speed, ry * speed, rz * speed);
+	}
+
+	/**
+	 * Moves the observer to the left from its perspective by the given
+	 * distance, parallel to the xy plane
+	 *
+	 * @param speed
+	 *            distance to move by
+	 * @return this controller
+	 */
+	public CameraController left(final double speed) {
+		return right(-speed);
+	}
+
+	/**
+	 * Moves the observer in the direction of z-axis by the given distance
+	 *
+	 * @param speed
+	 *            distance to move by
+	 * @return this controller
+	 */
+	public CameraController up(final double speed) {
+		return move(0, 0, speed);
+	}
+
+	/**
+	 * Moves the observer in the negative direction of z-axis by the given
+	 * distance
+	 *
+	 * @param speed
+	 *            distance to move by
+	 * @return this controller
+	 */
+	public CameraController down(final double speed) {
+		return up(-speed);
+	}
+
+	/**
+	 * Returns the orientation, maps the x-axis to the view vector and the
+	 * z-axis to the up vector
+	 *
+	 * @return new Quat instance
+	 */
+	public Quat getOrientation() {
+		applyRotation();
+		return orientation.toQuat();
+	}
+
+	/**
+	 * Returns azimuth in radians, in (-pi, pi]
+	 *
+	 * @return azimuth
+	 */
+	public double getAzimuth() {
+		applyRotation();
+		// the right vector (sin(azimuth), -cos(azimuth), 0) is defined for any zenith
+		return Math.atan2(rx, -ry);
+	}
+
+	/**
+	 * Returns zenith in radians
+	 *
+	 * @return zenith
+	 */
+	public double getZenith() {
+		return targetZenith;
+	}
+
+	/**
+	 * Returns radius
+	 *
+	 * @return radius
+	 */
+	public double getRadius() {
+		return radius;
+	}
+
+	/**
+	 * Returns the value of 1st/3rd person camera mode flag
+	 *
+	 * @return true -&gt; 1st person mode, false -&gt; 3rd person mode
+	 */
+	public boolean getFirstPerson() {
+		return firstPerson;
+	}
+
+	/**
+	 * Returns the observer position
+	 *
+	 * @return new Vec3D instance
+	 */
+	public Vec3D getPosition() {
+		return new Vec3D(px, py, pz);
+	}
+
+	/**
+	 * Returns the view direction
+	 *
+	 * @return new Vec3D instance
+	 */
+	public Vec3D getViewVector() {
+		applyRotation();
+		return new Vec3D(vx, vy, vz);
+	}
+
+	/**
+	 * Returns the eye (camera) position, depends on the 1st/3rd person camera
+	 * mode
+	 *
+	 * @return new Vec3D instance
+	 */
+	public Vec3D getEye() {
+		if (firstPerson)
+			return getPosition();
+		applyRotation();
+		return new Vec3D(px - vx * radius, py - vy * radius, pz - vz * radius);
+	}
+
+	/**
+	 * Returns the view matrix, rebuilt only if the camera changed since the
+	 * last call
+	 *
+	 * @return Mat4 instance shared until the next change
+	 */
+	public Mat4 getViewMatrix() {
+		Mat4 m = view;
+		if (m == null) {
+			applyRotation();
+			double ex = px, ey = py, ez = pz;
+			if (!firstPerson) {
+				ex -= vx * radius;
+				ey -= vy * radius;
+				ez -= vz * radius;
+			}
+			m = new Mat4Identity();
+			final double[] a = m.mat;
+			a[0] = rx;
+			a[4] = ry;
+			a[8] = rz;
+			a[12] = -(ex * rx + ey * ry + ez * rz);
+			a[1] = ux;
+			a[5] = uy;
+			a[9] = uz;
+			a[13] = -(ex * ux + ey * uy + ez * uz);
+			a[2] = -vx;
+			a[6] = -vy;
+			a[10] = -vz;
+			a[14] = ex * vx + ey * vy + ez * vz;
+			m.kind = Mat4.Kind.RIGID;
+			view = m;
+		}
+		return m;
+	}
+
+	/**
+	 * Returns the immutable camera with the current parameters
+	 *
+	 * @return Camera instance shared until the next change
+	 */
+	public Camera toCamera() {
+		Camera c = camera;
+		if (c == null)
+			camera = c = new Camera(getPosition(), getAzimuth(), getZenith(), radius, firstPerson);
+		return c;
+	}
+
+	/**
+	 * Returns String representation of this controller
+	 *
+	 * @return String
+	 */
+	@Override
+	public String toString() {
+		return String.format(Locale.US, "CameraController(%s, azimuth %4.2f, zenith %4.2f, radius %4.2f, %s)",
+				getPosition(), getAzimuth(), getZenith(), radius, firstPerson ? "1st person" : "3rd person");
+	}
+}
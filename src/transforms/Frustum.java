@@ -0,0 +1,309 @@
+package transforms;
+
+import java.util.Locale;
+
+/**
+ * View frustum given by six planes extracted from a view-projection matrix,
+ * immutable. The planes bound the OpenGL clip volume -w &lt;= x, y, z &lt;= w
+ * of points transformed as p * viewProjection, i.e. for the row-vector
+ * convention of {@link Point3D#mul(Mat4)}, e.g.
+ * {@code new Frustum(camera.getViewMatrix().mul(projection))}. Plane normals
+ * point inside and are normalized, so the plane equation gives the signed
+ * distance in world units (in the space the view-projection matrix maps
+ * from).
+ * <p>
+ * All tests are conservative: bounds reported outside are guaranteed not to
+ * intersect the frustum, bounds near a frustum corner may be reported inside.
+ *
+ * @author PGRF FIM UHK
+ * @version 2025
+ */
+public class Frustum {
+	public static final int LEFT = 0;
+	public static final int RIGHT = 1;
+	public static final int BOTTOM = 2;
+	public static final int TOP = 3;
+	public static final int NEAR = 4;
+	public static final int FAR = 5;
+
+	/**
+	 * Plane coefficients (a, b, c, d) stored plane after plane, a point is
+	 * inside a plane if a * x + b * y + c * z + d &gt;= 0
+	 */
+	final double[] planes = new double[24];
+
+	/**
+	 * Creates a frustum from the given view-projection matrix
+	 *
+	 * @param viewProjection
+	 *            view-projection matrix, e.g. view.mul(projection)
+	 */
+	public Frustum(final Mat4 viewProjection) {
+		final double[] m = viewProjection.mat;
+		// clip coordinate j is the dot product of (x, y, z, 1) and column j
+		for (int p = 0; p < 6; p++) {
+			final int axis = p >> 1;
+			final double sign = (p & 1) == 0 ? 1 : -1;
+			final double a = m[3] + sign * m[axis];
+			final double b = m[7] + sign * m[4 + axis];
+			final double c = m[11] + sign * m[8 + axis];
+			final double d = m[15] + sign * m[12 + axis];
+			final double len = Math.sqrt(a * a + b * b + c * c);
+			final double iLen = len > 0 ? 1 / len : 0;
+			planes[p * 4] = a * iLen;
+			planes[p * 4 + 1] = b * iLen;
+			planes[p * 4 + 2] = c * iLen;
+			planes[p * 4 + 3] = d * iLen;
+		}
+	}
+
+	/**
+	 * Returns the inward unit normal of a frustum plane
+	 *
+	 * @param plane
+	 *            plane index, {@link #LEFT} to {@link #FAR}
+	 * @return new Vec3D instance
+	 */
+	public Vec3D getNormal(final int plane) {
+		assert(plane >= 0 && plane < 6);
+		return new Vec3D(planes[plane * 4], planes[plane * 4 + 1], planes[plane * 4 + 2]);
+	}
+
+	/**
+	 * Returns the signed distance of a frustum plane from the origin, the d
+	 * coefficient of the plane equation
+	 *
+	 * @param plane
+	 *            plane index, {@link #LEFT} to {@link #FAR}
+	 * @return double-precision floating point value
+	 */
+	public double getDistance(final int plane) {
+		assert(plane >= 0 && plane < 6);
+		return planes[plane * 4 + 3];
+	}
+
+	/**
+	 * Returns the signed distance of a point from a frustum plane, positive on
+	 * the inner side
+	 *
+	 * @param plane
+	 *            plane index, {@link #LEFT} to {@link #FAR}
+	 * @param x
+	 *            x coordinate
+	 * @param y
+	 *            y coordinate
+	 * @param z
+	 *            z coordinate
+	 * @return double-precision floating point value
+	 */
+	public double distance(final int plane, final double x, final double y, final double z) {
+		final int i = plane * 4;
+		return planes[i] * x + planes[i + 1] * y + planes[i + 2] * z + planes[i + 3];
+	}
+
+	/**
+	 * Tests whether a point lies inside the frustum
+	 *
+	 * @param x
+	 *            x coordinate
+	 * @param y
+	 *            y coordinate
+	 * @param z
+	 *            z coordinate
+	 * @return true if the point is inside or on the boundary
+	 */
+	public boolean testPoint(final double x, final double y, final double z) {
+		return testSphere(x, y, z, 0);
+	}
+
+	/**
+	 * Tests whether a sphere may intersect the frustum
+	 *
+	 * @param x
+	 *            x coordinate of the center
+	 * @param y
+	 *            y coordinate of the center
+	 * @param z
+	 *            z coordinate of the center
+	 * @param radius
+	 *            sphere radius
+	 * @return false if the sphere is certainly outside
+	 */
+	public boolean testSphere(final double x, final double y, final double z, final double radius) {
+		for (int i = 0; i < 24; i += 4)
+			if (planes[i] * x + planes[i + 1] * y + planes[i + 2] * z + planes[i + 3] < -radius)
+				return false;
+		return true;
+	}
+
+	/**
+	 * Tests whether a sphere may intersect the frustum
+	 *
+	 * @param center
+	 *            center of the sphere
+	 * @param radius
+	 *            sphere radius
+	 * @return false if the sphere is certainly outside
+	 */
+	public boolean testSphere(final Vec3D center, final double radius) {
+		return testSphere(center.getX(), center.getY(), center.getZ(), radius);
+	}
+
+	/**
+	 * Tests whether a sphere may intersect the frustum
+	 *
+	 * @param sphere
+	 *            bounding sphere
+	 * @return false if the sphere is certainly outside
+	 */
+	public boolean testSphere(final BoundingSphere sphere) {
+		return testSphere(sphere.x, sphere.y, sphere.z, sphere.radius);
+	}
+
+	/**
+	 * Tests whether an axis-aligned box may intersect the frustum, the corner
+	 * farthest along each plane normal is tested against the plane
+	 *
+	 * @param minX
+	 *            minimal x coordinate
+	 * @param minY
+	 *            minimal y coordinate
+	 * @param minZ
+	 *            minimal z coordinate
+	 * @param maxX
+	 *            maximal x coordinate
+	 * @param maxY
+	 *            maximal y coordinate
+	 * @param maxZ
+	 *            maximal z coordinate
+	 * @return false if the box is certainly outside
+	 */
+	public boolean testAabb(final double minX, final double minY, final double minZ,
+			final double maxX, final double maxY, final double maxZ) {
+		for (int i = 0; i < 24; i += 4) {
+			final double a = planes[i], b = planes[i + 1], c = planes[i + 2];
+			if (a * (a >= 0 ? maxX : minX) + b * (b >= 0 ? maxY : minY) + c * (c >= 0 ? maxZ : minZ)
+					+ planes[i + 3] < 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Tests whether an axis-aligned box may intersect the frustum
+	 *
+	 * @param min
+	 *            corner with minimal coordinates
+	 * @param max
+	 *            corner with maximal coordinates
+	 * @return false if the box is certainly outside
+	 */
+	public boolean testAabb(final Vec3D min, final Vec3D max) {
+		return testAabb(min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ());
+	}
+
+	/**
+	 * Tests whether an axis-aligned box may intersect the frustum
+	 *
+	 * @param box
+	 *            bounding box
+	 * @return false if the box is certainly outside
+	 */
+	public boolean testAabb(final BoundingBox box) {
+		return testAabb(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ);
+	}
+
+	/**
+	 * Tests count spheres given by coordinate arrays against the frustum,
+	 * plane after plane so that the inner loop runs over the spheres
+	 *
+	 * @param x
+	 *            x coordinates of the centers
+	 * @param y
+	 *            y coordinates of the centers
+	 * @param z
+	 *            z coordinates of the centers
+	 * @param radius
+	 *            sphere radii
+	 * @param visible
+	 *            results, false for spheres certainly outside
+	 * @param count
+	 *            number of spheres
+	 * @return number of spheres that may intersect the frustum
+	 */
+	public int testSpheres(final double[] x, final double[] y, final double[] z, final double[] radius,
+			final boolean[] visible, final int count) {
+		for (int i = 0; i < count; i++)
+			visible[i] = true;
+		for (int p = 0; p < 24; p += 4) {
+			final double a = planes[p], b = planes[p + 1], c = planes[p + 2], d = planes[p + 3];
+			for (int i = 0; i < count; i++)
+				visible[i] &= a * x[i] + b * y[i] + c * z[i] + d >= -radius[i];
+		}
+		return countVisible(visible, count);
+	}
+
+	/**
+	 * Tests count axis-aligned boxes given by coordinate arrays against the
+	 * frustum, plane after plane so that the inner loop runs over the boxes
+	 *
+	 * @param minX
+	 *            minimal x coordinates
+	 * @param minY
+	 *            minimal y coordinates
+	 * @param minZ
+	 *            minimal z coordinates
+	 * @param maxX
+	 *            maximal x coordinates
+	 * @param maxY
+	 *            maximal y coordinates
+	 * @param maxZ
+	 *            maximal z coordinates
+	 * @param visible
+	 *            results, false for boxes certainly outside
+	 * @param count
+	 *            number of boxes
+	 * @return number of boxes that may intersect the frustum
+	 */
+	public int testAabbs(final double[] minX, final double[] minY, final double[] minZ,
+			final double[] maxX, final double[] maxY, final double[] maxZ,
+			final boolean[] visible, final int count) {
+		for (int i = 0; i < count; i++)
+			visible[i] = true;
+		for (int p = 0; p < 24; p += 4) {
+			final double a = planes[p], b = planes[p + 1], c = planes[p + 2], d = planes[p + 3];
+			// the corner farthest along the normal is chosen once per plane
+			final double[] px = a >= 0 ? maxX : minX;
+			final double[] py = b >= 0 ? maxY : minY;
+			final double[] pz = c >= 0 ? maxZ : minZ;
+			for (int i = 0; i < count; i++)
+				visible[i] &= a * px[i] + b * py[i] + c * pz[i] + d >= 0;
+		}
+		return countVisible(visible, count);
+	}
+
+	private static int countVisible(final boolean[] visible, final int count) {
+		int n = 0;
+		for (int i = 0; i < count; i++)
+			if (visible[i])
+				n++;
+		return n;
+	}
+
+	/**
+	 * Returns String representation of this frustum
+	 *
+	 * @return plane equations (a, b, c, d), comma separated in curly brackets
+	 */
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder("{");
+		for (int i = 0; i < 24; i += 4) {
+			if (i > 0)
+				sb.append(",\n ");
+			sb.append(String.format(Locale.US, "(%4.1f,%4.1f,%4.1f,%4.1f)",
+					planes[i], planes[i + 1], planes[i + 2], planes[i + 3]));
+		}
+		return sb.append('}').toString();
+	}
+}
@@ -11,7 +11,18 @@ import java.util.Optional;
  * @version 2016
  */
 public class Mat3 {
-	protected final double mat[][] = new double[3][3];
+	/**
+	 * Elements stored row-wise, element (row, column) at index row * 3 + column
+	 */
+	protected final double mat[] = new double[9];
+
+	/**
+	 * Lazily computed results of {@link #det()} and {@link #inverse()},
+	 * published through volatile fields; concurrent first calls may compute
+	 * the same immutable value more than once
+	 */
+	private volatile double det = Double.NaN;
+	private volatile Optional<Mat3> inverse;
 
 	/**
 	 * Creates a zero 3x3 matrix
@@ -27,9 +38,8 @@ public class Mat3 {
 	 *            value of all elements of matrix
 	 */
 	public Mat3(final double value) {
-		for (int i = 0; i < 3; i++)
-			for (int j = 0; j < 3; j++)
-				mat[i][j] = value;
+		if (value != 0.0)
+			Arrays.fill(mat, value);
 	}
 
 	/**
@@ -43,15 +53,15 @@ public class Mat3 {
 	 *            row 2 vector (M20, M21, M22)
 	 */
 	public Mat3(final Vec3D v1, final Vec3D v2, final Vec3D v3) {
-		mat[0][0] = v1.getX();
-		mat[0][1] = v1.getY();
-		mat[0][2] = v1.getZ();
-		mat[1][0] = v2.getX();
-		mat[1][1] = v2.getY();
-		mat[1][2] = v2.getZ();
-		mat[2][0] = v3.getX();
-		mat[2][1] = v3.getY();
-		mat[2][2] = v3.getZ();
+		mat[0] = v1.getX();
+		mat[1] = v1.getY();
+		mat[2] = v1.getZ();
+		mat[3] = v2.getX();
+		mat[4] = v2.getY();
+		mat[5] = v2.getZ();
+		mat[6] = v3.getX();
+		mat[7] = v3.getY();
+		mat[8] = v3.getZ();
 	}
 
 
@@ -62,9 +72,7 @@ public class Mat3 {
 	 *            3x3 matrix to be cloned
 	 */
 	public Mat3(final Mat3 m) {
-		for (int i = 0; i < 3; i++)
-			for (int j = 0; j < 3; j++)
-				mat[i][j] = m.mat[i][j];
+		System.arraycopy(m.mat, 0, mat, 0, 9);
 	}
 
 	/**
@@ -75,9 +83,7 @@ public class Mat3 {
 	 */
 	public Mat3(final double[] m) {
 		assert(m.length >= 9);
-		for (int i = 0; i < 3; i++)
-			for (int j = 0; j < 3; j++)
-				mat[i][j] = m[i * 3 + j];
+		System.arraycopy(m, 0, mat, 0, 9);
 	}
 
 	/**
@@ -90,8 +96,7 @@ public class Mat3 {
 		assert(m.length >= 3);
 		for (int i = 0; i < 3; i++) {
 			assert(m[i].length >= 3);
-			for (int j = 0; j < 3; j++)
-				mat[i][j] = m[i][j];
+			System.arraycopy(m[i], 0, mat, i * 3, 3);
 		}
 	}
 	
@@ -102,9 +107,9 @@ public class Mat3 {
 	 *            4x4 matrix
 	 */
 	public Mat3(final Mat4 m) {
-		for (int i = 0; i < 3; i++)
-			for (int j = 0; j < 3; j++)
-				mat[i][j] = m.mat[i][j];
+		System.arraycopy(m.mat, 0, mat, 0, 3);
+		System.arraycopy(m.mat, 4, mat, 3, 3);
+		System.arraycopy(m.mat, 8, mat, 6, 3);
 	}
 	
 	
@@ -117,9 +122,8 @@ public class Mat3 {
 	 */
 	public Mat3 add(final Mat3 m) {
 		final Mat3 result = new Mat3();
-		for (int i = 0; i < 3; i++)
-			for (int j = 0; j < 3; j++)
-				result.mat[i][j] = mat[i][j] + m.mat[i][j];
+		for (int i = 0; i < 9; i++)
+			result.mat[i] = mat[i] + m.mat[i];
 		return result;
 	}
 
@@ -132,9 +136,8 @@ public class Mat3 {
 	 */
 	public Mat3 mul(final double d) {
 		final Mat3 result = new Mat3();
-		for (int i = 0; i < 3; i++)
-			for (int j = 0; j < 3; j++)
-				result.mat[i][j] = mat[i][j] * d;
+		for (int i = 0; i < 9; i++)
+			result.mat[i] = mat[i] * d;
 		return result;
 	}
 
@@ -147,17 +150,26 @@ public class Mat3 {
 	 */
 	public Mat3 mul(final Mat3 m) {
 		final Mat3 result = new Mat3();
-		double sum;
-		for (int i = 0; i < 3; i++)
-			for (int j = 0; j < 3; j++) {
-				sum = 0.0;
-				for (int k = 0; k < 3; k++)
-					sum += mat[i][k] * m.mat[k][j];
-				result.mat[i][j] = sum;
-			}
+		mul(mat, m.mat, result.mat);
 		return result;
 	}
 
+	/**
+	 * Multiplies two row-wise stored 3x3 matrices, a * b, into res; res may
+	 * alias a or b
+	 */
+	static void mul(final double[] a, final double[] b, final double[] res) {
+		final double b00 = b[0], b01 = b[1], b02 = b[2];
+		final double b10 = b[3], b11 = b[4], b12 = b[5];
+		final double b20 = b[6], b21 = b[7], b22 = b[8];
+		for (int i = 0; i < 9; i += 3) {
+			final double a0 = a[i], a1 = a[i + 1], a2 = a[i + 2];
+			res[i] = a0 * b00 + a1 * b10 + a2 * b20;
+			res[i + 1] = a0 * b01 + a1 * b11 + a2 * b21;
+			res[i + 2] = a0 * b02 + a1 * b12 + a2 * b22;
+		}
+	}
+
 	/**
 	 * Returns a clone of this matrix with the given element replaced by the
 	 * given value
@@ -173,7 +185,7 @@ public class Mat3 {
 	public Mat3 withElement(final int row, final int column, final double element) {
 		assert(row >= 0 && row < 3 && column >= 0 && column < 3);
 		final Mat3 result = new Mat3(this);
-		result.mat[row][column] = element;
+		result.mat[row * 3 + column] = element;
 		return result;
 	}
 
@@ -190,9 +202,9 @@ public class Mat3 {
 	public Mat3 withRow(final int index, final Vec3D row) {
 		assert(index >= 0 && index < 3);
 		final Mat3 result = new Mat3(this);
-		result.mat[index][0] = row.getX();
-		result.mat[index][1] = row.getY();
-		result.mat[index][2] = row.getZ();
+		result.mat[index * 3 + 0] = row.getX();
+		result.mat[index * 3 + 1] = row.getY();
+		result.mat[index * 3 + 2] = row.getZ();
 		return result;
 	}
 
@@ -209,9 +221,9 @@ public class Mat3 {
 	public Mat3 withColumn(final int index, final Vec3D column) {
 		assert(index >= 0 && index < 3);
 		final Mat3 result = new Mat3(this);
-		result.mat[0][index] = column.getX();
-		result.mat[1][index] = column.getY();
-		result.mat[2][index] = column.getZ();
+		result.mat[0 + index] = column.getX();
+		result.mat[3 + index] = column.getY();
+		result.mat[6 + index] = column.getZ();
 		return result;
 	}
 
@@ -226,7 +238,7 @@ public class Mat3 {
 	 */
 	public double get(final int row, final int column) {
 		assert(row >= 0 && row < 3 && column >= 0 && column < 3);
-		return mat[row][column];
+		return mat[row * 3 + column];
 	}
 
 	/**
@@ -238,7 +250,8 @@ public class Mat3 {
 	 */
 	public Vec3D getRow(final int row) {
 		assert(row >= 0 && row < 3);
-		return new Vec3D(mat[row][0], mat[row][1], mat[row][2]);
+		final int i = row * 3;
+		return new Vec3D(mat[i], mat[i + 1], mat[i + 2]);
 	}
 
 	/**
@@ -250,7 +263,7 @@ public class Mat3 {
 	 */
 	public Vec3D getColumn(final int column) {
 		assert(column >= 0 && column < 3);
-		return new Vec3D(mat[0][column], mat[1][column], mat[2][column]);
+		return new Vec3D(mat[column], mat[3 + column], mat[6 + column]);
 	}	
 
 	/**
@@ -260,9 +273,10 @@ public class Mat3 {
 	 */
 	public Mat3 transpose() {
 		final Mat3 result = new Mat3();
-		for (int i = 0; i < 3; i++)
-			for (int j = 0; j < 3; j++)
-				result.mat[i][j] = mat[j][i];
+		final double[] r = result.mat;
+		r[0] = mat[0]; r[1] = mat[3]; r[2] = mat[6];
+		r[3] = mat[1]; r[4] = mat[4]; r[5] = mat[7];
+		r[6] = mat[2]; r[7] = mat[5]; r[8] = mat[8];
 		return result;
 	}
 
@@ -272,9 +286,19 @@ public class Mat3 {
 	 * @return determinant value of type double
 	 */
 	public double det() {
-		return mat[0][0] * (mat[1][1] * mat[2][2] - mat[2][1] * mat[1][2])
-				- mat[0][1] * (mat[1][0] * mat[2][2] - mat[2][0] * mat[1][2])
-				+ mat[0][2] * (mat[1][0] * mat[2][1] - mat[2][0] * mat[1][1]);
+		double d = det;
+		if (Double.isNaN(d))
+			det = d = computeDet();
+		return d;
+	}
+
+	private double computeDet() {
+		final double m00 = mat[0], m01 = mat[1], m02 = mat[2];
+		final double m10 = mat[3], m11 = mat[4], m12 = mat[5];
+		final double m20 = mat[6], m21 = mat[7], m22 = mat[8];
+		return m00 * (m11 * m22 - m21 * m12)
+				- m01 * (m10 * m22 - m20 * m12)
+				+ m02 * (m10 * m21 - m20 * m11);
 	}
 
 	/**
@@ -283,23 +307,37 @@ public class Mat3 {
 	 * @return new Optional<Mat3> instance
 	 */
 	public Optional<Mat3> inverse() {
-		final double det = det();
+		Optional<Mat3> inv = inverse;
+		if (inv == null)
+			inverse = inv = computeInverse();
+		return inv;
+	}
+
+	private Optional<Mat3> computeInverse() {
+		final double m00 = mat[0], m01 = mat[1], m02 = mat[2];
+		final double m10 = mat[3], m11 = mat[4], m12 = mat[5];
+		final double m20 = mat[6], m21 = mat[7], m22 = mat[8];
+		final double c00 = m11 * m22 - m12 * m21;
+		final double c10 = m12 * m20 - m10 * m22;
+		final double c20 = m10 * m21 - m11 * m20;
+		final double det = m00 * c00 + m01 * c10 + m02 * c20;
 		if (det == 0)
 			return Optional.empty();
+		final double iDet = 1 / det;
 		final Mat3 res = new Mat3();
 
-		res.mat[0][0] = (mat[1][1] * mat[2][2] - mat[1][2] * mat[2][1]) / det;
-		res.mat[0][1] = (mat[0][2] * mat[2][1] - mat[0][1] * mat[2][2]) / det;
-		res.mat[0][2] = (mat[0][1] * mat[1][2] - mat[0][2] * mat[1][1]) / det;
-
-		res.mat[1][0] = (mat[1][2] * mat[2][0] - mat[1][0] * mat[2][2]) / det;
-		res.mat[1][1] = (mat[0][0] * mat[2][2] - mat[0][2] * mat[2][0]) / det;
-		res.mat[1][2] = (mat[0][2] * mat[1][0] - mat[0][0] * mat[1][2]) / det;
+		res.mat[0] = c00 * iDet;
+		res.mat[1] = (m02 * m21 - m01 * m22) * iDet;
+		res.mat[2] = (m01 * m12 - m02 * m11) * iDet;
 
-		res.mat[2][0] = (mat[1][0] * mat[2][1] - mat[1][1] * mat[2][0]) / det;
-		res.mat[2][1] = (mat[0][1] * mat[2][0] - mat[0][0] * mat[2][1]) / det;
-		res.mat[2][2] = (mat[0][0] * mat[1][1] - mat[0][1] * mat[1][0]) / det;
+		res.mat[3] = c10 * iDet;
+		res.mat[4] = (m00 * m22 - m02 * m20) * iDet;
+		res.mat[5] = (m02 * m10 - m00 * m12) * iDet;
 
+		res.mat[6] = c20 * iDet;
+		res.mat[7] = (m01 * m20 - m00 * m21) * iDet;
+		res.mat[8] = (m00 * m11 - m01 * m10) * iDet;
+		res.inverse = Optional.of(this);
 		return Optional.of(res);
 	}
 	
@@ -310,9 +348,8 @@ public class Mat3 {
 	 */
 	public float[] floatArray() {
 		final float[] result = new float[9];
-		for (int i = 0; i < 3; i++)
-			for (int j = 0; j < 3; j++)
-				result[i * 3 + j] = ((float) mat[i][j]);
+		for (int i = 0; i < 9; i++)
+			result[i] = (float) mat[i];
 		return result;
 	}
 
@@ -325,10 +362,15 @@ public class Mat3 {
      */
 	@Override
 	public boolean equals(Object obj) {
-		return (this == obj) || (obj != null) && (obj instanceof Mat3) 
-			&& (((Mat3) obj).getRow(0)).equals(getRow(0))
-			&& (((Mat3) obj).getRow(1)).equals(getRow(1))
-			&& (((Mat3) obj).getRow(2)).equals(getRow(2));
+		if (this == obj)
+			return true;
+		if (!(obj instanceof Mat3))
+			return false;
+		final double[] other = ((Mat3) obj).mat;
+		for (int i = 0; i < 9; i++)
+			if (Double.compare(mat[i], other[i]) != 0)
+				return false;
+		return true;
 	}
 	
 
@@ -354,10 +396,14 @@ public class Mat3 {
 	 *         otherwise.
 	 */
 	public boolean eEquals(Mat3 mat, double epsilon) {
-		return (this == mat) || (mat != null) 
-				&& getRow(0).eEquals( mat.getRow(0), epsilon) 
-				&& getRow(1).eEquals( mat.getRow(1), epsilon)
-				&& getRow(2).eEquals( mat.getRow(2), epsilon);
+		if (this == mat)
+			return true;
+		if (mat == null)
+			return false;
+		for (int i = 0; i < 9; i++)
+			if (!Compare.eEquals(this.mat[i], mat.mat[i], epsilon))
+				return false;
+		return true;
 	}
 
 	/**
@@ -397,8 +443,8 @@ public class Mat3 {
 		return String.format(Locale.US, "{{"+format+","+format+","+format+"},"+
 				"{"+format+","+format+","+format+"},\n"+
 				"{"+format+","+format+","+format+"}\n",
-				mat[0][0], mat[0][1], mat[0][2],
-				mat[1][0], mat[1][1], mat[1][2],
-				mat[2][0], mat[2][1], mat[2][2]);
+				mat[0], mat[1], mat[2],
+				mat[3], mat[4], mat[5],
+				mat[6], mat[7], mat[8]);
 	}
 }
@@ -13,6 +13,6 @@ public class Mat3Identity extends Mat3 {
 	 */
 	public Mat3Identity() {
 		for (int i = 0; i < 3; i++)
-			mat[i][i] = 1.0f;
+			mat[i * 4] = 1.0f;
 	}
 }
@@ -15,9 +15,9 @@ package transforms;
 	 *            rotation angle in radians
 	 */
 	public Mat3Rot2D(final double alpha) {
-		mat[0][0] = Math.cos(alpha);
-		mat[1][1] = Math.cos(alpha);
-		mat[1][0] = -Math.sin(alpha);
-		mat[0][1] = Math.sin(alpha);
+		mat[0] = Math.cos(alpha);
+		mat[4] = Math.cos(alpha);
+		mat[3] = -Math.sin(alpha);
+		mat[1] = Math.sin(alpha);
 	}
 }
\ No newline at end of file
@@ -16,9 +16,9 @@ public class Mat3RotX extends Mat3Identity {
 	 *            rotation angle in radians
 	 */
 	public Mat3RotX(final double alpha) {
-		mat[1][1] = Math.cos(alpha);
-		mat[2][2] = Math.cos(alpha);
-		mat[2][1] = -Math.sin(alpha);
-		mat[1][2] = Math.sin(alpha);
+		mat[4] = Math.cos(alpha);
+		mat[8] = Math.cos(alpha);
+		mat[7] = -Math.sin(alpha);
+		mat[5] = Math.sin(alpha);
 	}
 }
\ No newline at end of file
@@ -16,9 +16,9 @@ public class Mat3RotY extends Mat3Identity {
 	 *            rotation angle in radians
 	 */
 	public Mat3RotY(final double alpha) {
-		mat[0][0] = Math.cos(alpha);
-		mat[2][2] = Math.cos(alpha);
-		mat[2][0] = Math.sin(alpha);
-		mat[0][2] = -Math.sin(alpha);
+		mat[0] = Math.cos(alpha);
+		mat[8] = Math.cos(alpha);
+		mat[6] = Math.sin(alpha);
+		mat[2] = -Math.sin(alpha);
 	}
 }
\ No newline at end of file
@@ -16,9 +16,9 @@ public class Mat3RotZ extends Mat3Identity {
 	 *            rotation angle in radians
 	 */
 	public Mat3RotZ(final double alpha) {
-		mat[0][0] = Math.cos(alpha);
-		mat[1][1] = Math.cos(alpha);
-		mat[1][0] = -Math.sin(alpha);
-		mat[0][1] = Math.sin(alpha);
+		mat[0] = Math.cos(alpha);
+		mat[4] = Math.cos(alpha);
+		mat[3] = -Math.sin(alpha);
+		mat[1] = Math.sin(alpha);
 	}
 }
\ No newline at end of file
@@ -17,8 +17,8 @@ public class Mat3Scale2D extends Mat3Identity {
 	 *            y-axis scale factor
 	 */
 	public Mat3Scale2D(final double x, final double y) {
-		mat[0][0] = x;
-		mat[1][1] = y;
+		mat[0] = x;
+		mat[4] = y;
 	}
 
 	/**
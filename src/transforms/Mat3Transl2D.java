@@ -17,8 +17,8 @@ public class Mat3Transl2D extends Mat3Identity {
 	 *            translation along y-axis
 	 */
 	public Mat3Transl2D(final double x, final double y) {
-		mat[2][0] = x;
-		mat[2][1] = y;
+		mat[6] = x;
+		mat[7] = y;
 	}
 	
 	/**
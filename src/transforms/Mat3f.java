@@ -0,0 +1,169 @@
+package transforms;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * A single-precision 3x3 matrix, immutable. Stored row-wise in the same
+ * layout as {@link Mat3#floatArray()}, intended for shader uniform uploads
+ * without per-upload conversions from double.
+ *
+ * @author PGRF FIM UHK
+ * @version 2025
+ */
+public class Mat3f {
+	/**
+	 * Elements stored row-wise, element (row, column) at index row * 3 + column
+	 */
+	final float mat[] = new float[9];
+
+	/**
+	 * Creates a zero 3x3 matrix
+	 */
+	public Mat3f() {
+	}
+
+	/**
+	 * Creates a single-precision copy of the given 3x3 matrix
+	 *
+	 * @param m
+	 *            3x3 matrix to be converted
+	 */
+	public Mat3f(final Mat3 m) {
+		for (int i = 0; i < 9; i++)
+			mat[i] = (float) m.mat[i];
+	}
+
+	/**
+	 * Creates a 3x3 matrix row-wise from a 9-element array of floats
+	 *
+	 * @param m
+	 *            float array of length 9 (asserted)
+	 */
+	public Mat3f(final float[] m) {
+		assert(m.length >= 9);
+		System.arraycopy(m, 0, mat, 0, 9);
+	}
+
+	/**
+	 * Returns a matrix element
+	 *
+	 * @param row
+	 *            0-based row index of the element
+	 * @param column
+	 *            0-based column index of the element
+	 * @return element value
+	 */
+	public float get(final int row, final int column) {
+		assert(row >= 0 && row < 3 && column >= 0 && column < 3);
+		return mat[row * 3 + column];
+	}
+
+	/**
+	 * Writes this matrix into the buffer starting at the given absolute
+	 * index, row-wise, i.e. in the order of {@link Mat3#floatArray()} as
+	 * expected by glUniformMatrix3fv with transpose set to false; the buffer
+	 * position is left unchanged
+	 *
+	 * @param buffer
+	 *            destination buffer with at least offset + 9 elements
+	 * @param offset
+	 *            absolute index of the first element
+	 * @return the buffer
+	 */
+	public FloatBuffer writeTo(final FloatBuffer buffer, final int offset) {
+		return writeRowMajorTo(buffer, offset);
+	}
+
+	/**
+	 * Writes this matrix into the buffer starting at the given absolute
+	 * index, row after row; the buffer position is left unchanged
+	 *
+	 * @param buffer
+	 *            destination buffer with at least offset + 9 elements
+	 * @param offset
+	 *            absolute index of the first element
+	 * @return the buffer
+	 */
+	public FloatBuffer writeRowMajorTo(final FloatBuffer buffer, final int offset) {
+		return buffer.put(offset, mat);
+	}
+
+	/**
+	 * Writes this matrix into the buffer starting at the given absolute
+	 * index, column after column; the buffer position is left unchanged
+	 *
+	 * @param buffer
+	 *            destination buffer with at least offset + 9 elements
+	 * @param offset
+	 *            absolute index of the first element
+	 * @return the buffer
+	 */
+	public FloatBuffer writeColumnMajorTo(final FloatBuffer buffer, final int offset) {
+		for (int j = 0; j < 3; j++) {
+			buffer.put(offset + j * 3, mat[j]);
+			buffer.put(offset + j * 3 + 1, mat[3 + j]);
+			buffer.put(offset + j * 3 + 2, mat[6 + j]);
+		}
+		return buffer;
+	}
+
+	/**
+	 * Returns a double-precision copy of this matrix
+	 *
+	 * @return new Mat3 instance
+	 */
+	public Mat3 toMat3() {
+		final Mat3 result = new Mat3();
+		for (int i = 0; i < 9; i++)
+			result.mat[i] = mat[i];
+		return result;
+	}
+
+	/**
+	 * Returns this matrix stored row-wise in a float array
+	 *
+	 * @return new float array
+	 */
+	public float[] floatArray() {
+		return mat.clone();
+	}
+
+	/**
+	 * Compares this object against the specified object.
+	 * @param   obj   the object to compare with.
+	 * @return  {@code true} if the objects are the same;
+	 *          {@code false} otherwise.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		return (this == obj) || (obj instanceof Mat3f) && Arrays.equals(mat, ((Mat3f) obj).mat);
+	}
+
+	/**
+	 * Returns a hash code value for the object.
+	 *
+	 * @return  a hash code value for this object.
+	 */
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(mat);
+	}
+
+	/**
+	 * Returns String representation of this matrix
+	 *
+	 * @return comma separated floating-point values per row, rows comma
+	 *         separated in curly brackets
+	 */
+	@Override
+	public String toString() {
+		return String.format(Locale.US, "{{%4.1f,%4.1f,%4.1f},\n" +
+				" {%4.1f,%4.1f,%4.1f},\n" +
+				" {%4.1f,%4.1f,%4.1f}}",
+				mat[0], mat[1], mat[2],
+				mat[3], mat[4], mat[5],
+				mat[6], mat[7], mat[8]);
+	}
+}
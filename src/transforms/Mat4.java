@@ -12,7 +12,62 @@ import java.util.Optional;
  */
 
 public class Mat4 {
-	protected final double mat[][] = new double[4][4];
+
+	/**
+	 * Structural kind of a matrix, from the most specific to the most general;
+	 * in the row-vector convention used here an affine matrix has the last
+	 * column (0, 0, 0, 1) and the translation in the last row
+	 */
+	public enum Kind {
+		/** identity matrix */
+		IDENTITY,
+		/** affine, identity upper 3x3 submatrix */
+		TRANSLATION,
+		/** affine, diagonal upper 3x3 submatrix, no translation */
+		SCALE,
+		/** affine, orthonormal upper 3x3 submatrix */
+		RIGID,
+		/** last column (0, 0, 0, 1) */
+		AFFINE,
+		/** general matrix */
+		PROJECTIVE;
+
+		/**
+		 * Returns the kind of the product of matrices of the given kinds
+		 */
+		static Kind product(final Kind a, final Kind b) {
+			if (a == IDENTITY || a == b)
+				return b;
+			if (b == IDENTITY)
+				return a;
+			if (a == PROJECTIVE || b == PROJECTIVE)
+				return PROJECTIVE;
+			if (a == SCALE || b == SCALE)
+				return AFFINE;
+			// TRANSLATION, RIGID and AFFINE are ordered by generality
+			return a.compareTo(b) > 0 ? a : b;
+		}
+	}
+
+	/**
+	 * Elements stored row-wise, element (row, column) at index row * 4 + column
+	 */
+	protected final double mat[] = new double[16];
+
+	/**
+	 * Structural kind, null until classified from the elements; subclasses
+	 * that know their kind up front may set it in their constructor
+	 */
+	Kind kind;
+
+	/**
+	 * Lazily computed results of {@link #det()}, {@link #inverse()} and
+	 * {@link #normalMatrix()}, published through volatile fields; concurrent
+	 * first calls may compute the same immutable value more than once
+	 */
+	private volatile double det = Double.NaN;
+	private volatile Optional<Mat4> inverse;
+	private volatile Mat3 normalMatrix;
 
 	/**
 	 * Creates a zero 4x4 matrix
@@ -28,9 +83,8 @@ public class Mat4 {
 	 *            value of all elements of matrix
 	 */
 	public Mat4(final double value) {
-		for (int i = 0; i < 4; i++)
-			for (int j = 0; j < 4; j++)
-				mat[i][j] = value;
+		if (value != 0.0)
+			Arrays.fill(mat, value);
 	}
 
 	/**
@@ -46,22 +100,22 @@ public class Mat4 {
 	 *            row 3 vector (M30, M31, M32, M33)
 	 */
 	public Mat4(final Point3D p1, final Point3D p2, final Point3D p3, final Point3D p4) {
-		mat[0][0] = p1.getX();
-		mat[0][1] = p1.getY();
-		mat[0][2] = p1.getZ();
-		mat[0][3] = p1.getW();
-		mat[1][0] = p2.getX();
-		mat[1][1] = p2.getY();
-		mat[1][2] = p2.getZ();
-		mat[1][3] = p2.getW();
-		mat[2][0] = p3.getX();
-		mat[2][1] = p3.getY();
-		mat[2][2] = p3.getZ();
-		mat[2][3] = p3.getW();
-		mat[3][0] = p4.getX();
-		mat[3][1] = p4.getY();
-		mat[3][2] = p4.getZ();
-		mat[3][3] = p4.getW();
+		mat[0] = p1.getX();
+		mat[1] = p1.getY();
+		mat[2] = p1.getZ();
+		mat[3] = p1.getW();
+		mat[4] = p2.getX();
+		mat[5] = p2.getY();
+		mat[6] = p2.getZ();
+		mat[7] = p2.getW();
+		mat[8] = p3.getX();
+		mat[9] = p3.getY();
+		mat[10] = p3.getZ();
+		mat[11] = p3.getW();
+		mat[12] = p4.getX();
+		mat[13] = p4.getY();
+		mat[14] = p4.getZ();
+		mat[15] = p4.getW();
 	}
 
 	/**
@@ -71,9 +125,8 @@ public class Mat4 {
 	 *            4x4 matrix to be cloned
 	 */
 	public Mat4(final Mat4 m) {
-		for (int i = 0; i < 4; i++)
-			for (int j = 0; j < 4; j++)
-				mat[i][j] = m.mat[i][j];
+		System.arraycopy(m.mat, 0, mat, 0, 16);
+		kind = m.kind;
 	}
 
 	/**
@@ -84,14 +137,16 @@ public class Mat4 {
 	 *            3x3 matrix to be copied to submatrix
 	 */
 	public Mat4(final Mat3 m) {
-		for (int i = 0; i < 3; i++)
-			for (int j = 0; j < 3 ; j++)
-				mat[i][j] = m.mat[i][j];
-		for (int i = 0; i < 3; i++){
-			mat[i][3] = 0;
-			mat[3][i] = 0;
-		}
-		mat[3][3] = 1;
+		mat[0] = m.mat[0];
+		mat[1] = m.mat[1];
+		mat[2] = m.mat[2];
+		mat[4] = m.mat[3];
+		mat[5] = m.mat[4];
+		mat[6] = m.mat[5];
+		mat[8] = m.mat[6];
+		mat[9] = m.mat[7];
+		mat[10] = m.mat[8];
+		mat[15] = 1;
 	}
 
 
@@ -103,9 +158,7 @@ public class Mat4 {
 	 */
 	public Mat4(final double[] m) {
 		assert(m.length >= 16);
-		for (int i = 0; i < 4; i++)
-			for (int j = 0; j < 4; j++)
-				mat[i][j] = m[i * 4 + j];
+		System.arraycopy(m, 0, mat, 0, 16);
 	}
 
 	/**
@@ -118,8 +171,7 @@ public class Mat4 {
 		assert(m.length >= 4);
 		for (int i = 0; i < 4; i++){
 			assert(m[i].length >= 4);
-			for (int j = 0; j < 4; j++)
-				mat[i][j] = m[i][j];
+			System.arraycopy(m[i], 0, mat, i * 4, 4);
 		}
 	}
 
@@ -132,9 +184,8 @@ public class Mat4 {
 	 */
 	public Mat4 add(final Mat4 m) {
 		final Mat4 result = new Mat4();
-		for (int i = 0; i < 4; i++)
-			for (int j = 0; j < 4; j++)
-				result.mat[i][j] = mat[i][j] + m.mat[i][j];
+		for (int i = 0; i < 16; i++)
+			result.mat[i] = mat[i] + m.mat[i];
 		return result;
 	}
 
@@ -147,9 +198,8 @@ public class Mat4 {
 	 */
 	public Mat4 mul(final double d) {
 		final Mat4 result = new Mat4();
-		for (int i = 0; i < 4; i++)
-			for (int j = 0; j < 4; j++)
-				result.mat[i][j] = mat[i][j] * d;
+		for (int i = 0; i < 16; i++)
+			result.mat[i] = mat[i] * d;
 		return result;
 	}
 
@@ -161,18 +211,73 @@ public class Mat4 {
 	 * @return new Mat4 instance
 	 */
 	public Mat4 mul(final Mat4 m) {
+		final Kind a = getKind(), b = m.getKind();
+		// immutable, the other operand is the product itself
+		if (a == Kind.IDENTITY)
+			return m;
+		if (b == Kind.IDENTITY)
+			return this;
 		final Mat4 result = new Mat4();
-		double sum;
-		for (int i = 0; i < 4; i++)
-			for (int j = 0; j < 4; j++) {
-				sum = 0.0;
-				for (int k = 0; k < 4; k++)
-					sum += mat[i][k] * m.mat[k][j];
-				result.mat[i][j] = sum;
-			}
+		result.kind = Kind.product(a, b);
+		final double[] r = result.mat;
+		if (result.kind == Kind.PROJECTIVE) {
+			mul(mat, m.mat, r);
+		} else if (result.kind == Kind.TRANSLATION) {
+			r[0] = r[5] = r[10] = r[15] = 1;
+			r[12] = mat[12] + m.mat[12];
+			r[13] = mat[13] + m.mat[13];
+			r[14] = mat[14] + m.mat[14];
+		} else if (result.kind == Kind.SCALE) {
+			r[0] = mat[0] * m.mat[0];
+			r[5] = mat[5] * m.mat[5];
+			r[10] = mat[10] * m.mat[10];
+			r[15] = 1;
+		} else {
+			mulAffine(mat, m.mat, r);
+		}
 		return result;
 	}
 
+	/**
+	 * Multiplies two row-wise stored affine 4x4 matrices, a * b, into res;
+	 * res may alias a or b
+	 */
+	static void mulAffine(final double[] a, final double[] b, final double[] res) {
+		final double b00 = b[0], b01 = b[1], b02 = b[2];
+		final double b10 = b[4], b11 = b[5], b12 = b[6];
+		final double b20 = b[8], b21 = b[9], b22 = b[10];
+		final double b30 = b[12], b31 = b[13], b32 = b[14];
+		for (int i = 0; i < 16; i += 4) {
+			final double a0 = a[i], a1 = a[i + 1], a2 = a[i + 2];
+			res[i] = a0 * b00 + a1 * b10 + a2 * b20;
+			res[i + 1] = a0 * b01 + a1 * b11 + a2 * b21;
+			res[i + 2] = a0 * b02 + a1 * b12 + a2 * b22;
+			res[i + 3] = 0;
+		}
+		res[12] += b30;
+		res[13] += b31;
+		res[14] += b32;
+		res[15] = 1;
+	}
+
+	/**
+	 * Multiplies two row-wise stored 4x4 matrices, a * b, into res; res may
+	 * alias a or b
+	 */
+	static void mul(final double[] a, final double[] b, final double[] res) {
+		final double b00 = b[0], b01 = b[1], b02 = b[2], b03 = b[3];
+		final double b10 = b[4], b11 = b[5], b12 = b[6], b13 = b[7];
+		final double b20 = b[8], b21 = b[9], b22 = b[10], b23 = b[11];
+		final double b30 = b[12], b31 = b[13], b32 = b[14], b33 = b[15];
+		for (int i = 0; i < 16; i += 4) {
+			final double a0 = a[i], a1 = a[i + 1], a2 = a[i + 2], a3 = a[i + 3];
+			res[i] = a0 * b00 + a1 * b10 + a2 * b20 + a3 * b30;
+			res[i + 1] = a0 * b01 + a1 * b11 + a2 * b21 + a3 * b31;
+			res[i + 2] = a0 * b02 + a1 * b12 + a2 * b22 + a3 * b32;
+			res[i + 3] = a0 * b03 + a1 * b13 + a2 * b23 + a3 * b33;
+		}
+	}
+
 	/**
 	 * Returns a clone of this matrix with the given element replaced by the
 	 * given value
@@ -188,7 +293,8 @@ public class Mat4 {
 	public Mat4 withElement(final int row, final int column, final double element) {
 		assert(row >= 0 && row < 4 && column >= 0 && column < 4);
 		final Mat4 result = new Mat4(this);
-		result.mat[row][column] = element;
+		result.mat[row * 4 + column] = element;
+		result.kind = null;
 		return result;
 	}
 
@@ -205,10 +311,11 @@ public class Mat4 {
 	public Mat4 withRow(final int index, final Point3D row) {
 		assert(index >= 0 && index < 4);
 		final Mat4 result = new Mat4(this);
-		result.mat[index][0] = row.getX();
-		result.mat[index][1] = row.getY();
-		result.mat[index][2] = row.getZ();
-		result.mat[index][3] = row.getW();
+		result.mat[index * 4 + 0] = row.getX();
+		result.mat[index * 4 + 1] = row.getY();
+		result.mat[index * 4 + 2] = row.getZ();
+		result.mat[index * 4 + 3] = row.getW();
+		result.kind = null;
 		return result;
 	}
 
@@ -225,10 +332,11 @@ public class Mat4 {
 	public Mat4 withColumn(final int index, final Point3D column) {
 		assert(index >= 0 && index < 4);
 		final Mat4 result = new Mat4(this);
-		result.mat[0][index] = column.getX();
-		result.mat[1][index] = column.getY();
-		result.mat[2][index] = column.getZ();
-		result.mat[3][index] = column.getW();
+		result.mat[0 + index] = column.getX();
+		result.mat[4 + index] = column.getY();
+		result.mat[8 + index] = column.getZ();
+		result.mat[12 + index] = column.getW();
+		result.kind = null;
 		return result;
 	}
 
@@ -243,7 +351,7 @@ public class Mat4 {
 	 */
 	public double get(final int row, final int column) {
 		assert(row >= 0 && row < 4 && column >= 0 && column < 4);
-		return mat[row][column];
+		return mat[row * 4 + column];
 	}
 
 	/**
@@ -255,7 +363,8 @@ public class Mat4 {
 	 */
 	public Point3D getRow(final int row) {
 		assert(row >= 0 && row < 4);
-		return new Point3D(mat[row][0], mat[row][1], mat[row][2], mat[row][3]);
+		final int i = row * 4;
+		return new Point3D(mat[i], mat[i + 1], mat[i + 2], mat[i + 3]);
 	}
 
 	/**
@@ -267,7 +376,7 @@ public class Mat4 {
 	 */
 	public Point3D getColumn(final int column) {
 		assert(column >= 0 && column < 4);
-		return new Point3D(mat[0][column], mat[1][column], mat[2][column], mat[3][column]);
+		return new Point3D(mat[column], mat[4 + column], mat[8 + column], mat[12 + column]);
 	}
 
 	/**
@@ -276,7 +385,43 @@ public class Mat4 {
 	 * @return matrix column as a new Point3D instance
 	 */
 	public Vec3D getTranslate() {
-		return new Vec3D(mat[3][0], mat[3][1], mat[3][2]);
+		return new Vec3D(mat[12], mat[13], mat[14]);
+	}
+
+	/**
+	 * Returns the structural kind of this matrix, classified from the
+	 * elements on first use unless already known from construction
+	 *
+	 * @return kind of this matrix
+	 */
+	public Kind getKind() {
+		Kind k = kind;
+		if (k == null)
+			kind = k = classify(mat);
+		return k;
+	}
+
+	/**
+	 * Returns whether this matrix is affine, i.e. its last column is
+	 * (0, 0, 0, 1)
+	 *
+	 * @return true if this matrix is not projective
+	 */
+	public boolean isAffine() {
+		return getKind() != Kind.PROJECTIVE;
+	}
+
+	private static Kind classify(final double[] m) {
+		if (m[3] != 0 || m[7] != 0 || m[11] != 0 || m[15] != 1)
+			return Kind.PROJECTIVE;
+		final boolean diagonal = m[1] == 0 && m[2] == 0 && m[4] == 0 && m[6] == 0 && m[8] == 0 && m[9] == 0;
+		if (!diagonal)
+			return Kind.AFFINE;
+		final boolean unit = m[0] == 1 && m[5] == 1 && m[10] == 1;
+		final boolean translated = m[12] != 0 || m[13] != 0 || m[14] != 0;
+		if (unit)
+			return translated ? Kind.TRANSLATION : Kind.IDENTITY;
+		return translated ? Kind.AFFINE : Kind.SCALE;
 	}
 
 	/**
@@ -286,10 +431,11 @@ public class Mat4 {
 	 */
 	public Mat4 transpose() {
 		final Mat4 result = new Mat4();
-		for (int i = 0; i < 4; i++)
-			for (int j = 0; j < 4; j++) {
-				result.mat[i][j] = mat[j][i];
-			}
+		final double[] r = result.mat;
+		r[0] = mat[0];  r[1] = mat[4];  r[2] = mat[8];   r[3] = mat[12];
+		r[4] = mat[1];  r[5] = mat[5];  r[6] = mat[9];   r[7] = mat[13];
+		r[8] = mat[2];  r[9] = mat[6];  r[10] = mat[10]; r[11] = mat[14];
+		r[12] = mat[3]; r[13] = mat[7]; r[14] = mat[11]; r[15] = mat[15];
 		return result;
 	}
 
@@ -299,19 +445,30 @@ public class Mat4 {
 	 * @return determinant value of type double
 	 */
 	public double det() {
-	    final double s0 = mat[0][0] * mat[1][1] - mat[1][0] * mat[0][1];
-	    final double s1 = mat[0][0] * mat[1][2] - mat[1][0] * mat[0][2];
-	    final double s2 = mat[0][0] * mat[1][3] - mat[1][0] * mat[0][3];
-	    final double s3 = mat[0][1] * mat[1][2] - mat[1][1] * mat[0][2];
-	    final double s4 = mat[0][1] * mat[1][3] - mat[1][1] * mat[0][3];
-	    final double s5 = mat[0][2] * mat[1][3] - mat[1][2] * mat[0][3];
-
-	    final double c5 = mat[2][2] * mat[3][3] - mat[3][2] * mat[2][3];
-	    final double c4 = mat[2][1] * mat[3][3] - mat[3][1] * mat[2][3];
-	    final double c3 = mat[2][1] * mat[3][2] - mat[3][1] * mat[2][2];
-	    final double c2 = mat[2][0] * mat[3][3] - mat[3][0] * mat[2][3];
-	    final double c1 = mat[2][0] * mat[3][2] - mat[3][0] * mat[2][2];
-	    final double c0 = mat[2][0] * mat[3][1] - mat[3][0] * mat[2][1];
+		double d = det;
+		if (Double.isNaN(d))
+			det = d = computeDet();
+		return d;
+	}
+
+	private double computeDet() {
+		final double m00 = mat[0], m01 = mat[1], m02 = mat[2], m03 = mat[3];
+		final double m10 = mat[4], m11 = mat[5], m12 = mat[6], m13 = mat[7];
+		final double m20 = mat[8], m21 = mat[9], m22 = mat[10], m23 = mat[11];
+		final double m30 = mat[12], m31 = mat[13], m32 = mat[14], m33 = mat[15];
+	    final double s0 = m00 * m11 - m10 * m01;
+	    final double s1 = m00 * m12 - m10 * m02;
+	    final double s2 = m00 * m13 - m10 * m03;
+	    final double s3 = m01 * m12 - m11 * m02;
+	    final double s4 = m01 * m13 - m11 * m03;
+	    final double s5 = m02 * m13 - m12 * m03;
+
+	    final double c5 = m22 * m33 - m32 * m23;
+	    final double c4 = m21 * m33 - m31 * m23;
+	    final double c3 = m21 * m32 - m31 * m22;
+	    final double c2 = m20 * m33 - m30 * m23;
+	    final double c1 = m20 * m32 - m30 * m22;
+	    final double c0 = m20 * m31 - m30 * m21;
 	    return s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
 	}
 
@@ -321,46 +478,163 @@ public class Mat4 {
 	 * @return new Optional<Mat4> instance
 	 */
 	public Optional<Mat4> inverse() {
-	    final double s0 = mat[0][0] * mat[1][1] - mat[1][0] * mat[0][1];
-	    final double s1 = mat[0][0] * mat[1][2] - mat[1][0] * mat[0][2];
-	    final double s2 = mat[0][0] * mat[1][3] - mat[1][0] * mat[0][3];
-	    final double s3 = mat[0][1] * mat[1][2] - mat[1][1] * mat[0][2];
-	    final double s4 = mat[0][1] * mat[1][3] - mat[1][1] * mat[0][3];
-	    final double s5 = mat[0][2] * mat[1][3] - mat[1][2] * mat[0][3];
-
-	    final double c5 = mat[2][2] * mat[3][3] - mat[3][2] * mat[2][3];
-	    final double c4 = mat[2][1] * mat[3][3] - mat[3][1] * mat[2][3];
-	    final double c3 = mat[2][1] * mat[3][2] - mat[3][1] * mat[2][2];
-	    final double c2 = mat[2][0] * mat[3][3] - mat[3][0] * mat[2][3];
-	    final double c1 = mat[2][0] * mat[3][2] - mat[3][0] * mat[2][2];
-	    final double c0 = mat[2][0] * mat[3][1] - mat[3][0] * mat[2][1];
+		Optional<Mat4> inv = inverse;
+		if (inv == null)
+			inverse = inv = computeInverse();
+		return inv;
+	}
+
+	/**
+	 * Returns the matrix transforming normal vectors along with this matrix,
+	 * i.e. the transposition of the inverse of the upper 3x3 submatrix; for
+	 * rigid and singular matrices the upper 3x3 submatrix itself
+	 * 
+	 * @return Mat3 instance
+	 */
+	public Mat3 normalMatrix() {
+		Mat3 n = normalMatrix;
+		if (n == null) {
+			final Kind k = getKind();
+			n = new Mat3(this);
+			if (k != Kind.IDENTITY && k != Kind.TRANSLATION && k != Kind.RIGID)
+				n = n.inverse().map(Mat3::transpose).orElse(n);
+			normalMatrix = n;
+		}
+		return n;
+	}
+
+	private Optional<Mat4> computeInverse() {
+		final Kind k = getKind();
+		if (k == Kind.IDENTITY)
+			return Optional.of(this);
+		final Mat4 res = new Mat4();
+		final double[] r = res.mat;
+		switch (k) {
+		case TRANSLATION:
+			r[0] = r[5] = r[10] = r[15] = 1;
+			r[12] = -mat[12];
+			r[13] = -mat[13];
+			r[14] = -mat[14];
+			break;
+		case SCALE:
+			if (mat[0] == 0 || mat[5] == 0 || mat[10] == 0)
+				return Optional.empty();
+			r[0] = 1 / mat[0];
+			r[5] = 1 / mat[5];
+			r[10] = 1 / mat[10];
+			r[15] = 1;
+			break;
+		case RIGID:
+			// transposed rotation, translation -t * R^T
+			r[0] = mat[0]; r[1] = mat[4]; r[2] = mat[8];
+			r[4] = mat[1]; r[5] = mat[5]; r[6] = mat[9];
+			r[8] = mat[2]; r[9] = mat[6]; r[10] = mat[10];
+			r[12] = -(mat[12] * mat[0] + mat[13] * mat[1] + mat[14] * mat[2]);
+			r[13] = -(mat[12] * mat[4] + mat[13] * mat[5] + mat[14] * mat[6]);
+			r[14] = -(mat[12] * mat[8] + mat[13] * mat[9] + mat[14] * mat[10]);
+			r[15] = 1;
+			break;
+		case AFFINE:
+			if (!inverseAffine(mat, r))
+				return Optional.empty();
+			break;
+		default:
+			if (!inverse(mat, r))
+				return Optional.empty();
+		}
+		res.kind = k;
+		res.inverse = Optional.of(this);
+		return Optional.of(res);
+	}
+
+	/**
+	 * Inverts a row-wise stored affine 4x4 matrix into res if the inverse
+	 * exists; res may alias mat
+	 *
+	 * @return false if mat is singular, res is left unchanged then
+	 */
+	static boolean inverseAffine(final double[] mat, final double[] res) {
+		final double m00 = mat[0], m01 = mat[1], m02 = mat[2];
+		final double m10 = mat[4], m11 = mat[5], m12 = mat[6];
+		final double m20 = mat[8], m21 = mat[9], m22 = mat[10];
+		final double tx = mat[12], ty = mat[13], tz = mat[14];
+		final double c00 = m11 * m22 - m12 * m21;
+		final double c10 = m12 * m20 - m10 * m22;
+		final double c20 = m10 * m21 - m11 * m20;
+		final double det = m00 * c00 + m01 * c10 + m02 * c20;
+		if (det == 0)
+			return false;
+		final double iDet = 1 / det;
+		final double i00 = c00 * iDet;
+		final double i01 = (m02 * m21 - m01 * m22) * iDet;
+		final double i02 = (m01 * m12 - m02 * m11) * iDet;
+		final double i10 = c10 * iDet;
+		final double i11 = (m00 * m22 - m02 * m20) * iDet;
+		final double i12 = (m02 * m10 - m00 * m12) * iDet;
+		final double i20 = c20 * iDet;
+		final double i21 = (m01 * m20 - m00 * m21) * iDet;
+		final double i22 = (m00 * m11 - m01 * m10) * iDet;
+		res[0] = i00; res[1] = i01; res[2] = i02; res[3] = 0;
+		res[4] = i10; res[5] = i11; res[6] = i12; res[7] = 0;
+		res[8] = i20; res[9] = i21; res[10] = i22; res[11] = 0;
+		// -t * A^-1
+		res[12] = -(tx * i00 + ty * i10 + tz * i20);
+		res[13] = -(tx * i01 + ty * i11 + tz * i21);
+		res[14] = -(tx * i02 + ty * i12 + tz * i22);
+		res[15] = 1;
+		return true;
+	}
+
+	/**
+	 * Inverts a row-wise stored 4x4 matrix into res if the inverse exists;
+	 * res may alias mat
+	 *
+	 * @return false if mat is singular, res is left unchanged then
+	 */
+	static boolean inverse(final double[] mat, final double[] res) {
+		final double m00 = mat[0], m01 = mat[1], m02 = mat[2], m03 = mat[3];
+		final double m10 = mat[4], m11 = mat[5], m12 = mat[6], m13 = mat[7];
+		final double m20 = mat[8], m21 = mat[9], m22 = mat[10], m23 = mat[11];
+		final double m30 = mat[12], m31 = mat[13], m32 = mat[14], m33 = mat[15];
+	    final double s0 = m00 * m11 - m10 * m01;
+	    final double s1 = m00 * m12 - m10 * m02;
+	    final double s2 = m00 * m13 - m10 * m03;
+	    final double s3 = m01 * m12 - m11 * m02;
+	    final double s4 = m01 * m13 - m11 * m03;
+	    final double s5 = m02 * m13 - m12 * m03;
+
+	    final double c5 = m22 * m33 - m32 * m23;
+	    final double c4 = m21 * m33 - m31 * m23;
+	    final double c3 = m21 * m32 - m31 * m22;
+	    final double c2 = m20 * m33 - m30 * m23;
+	    final double c1 = m20 * m32 - m30 * m22;
+	    final double c0 = m20 * m31 - m30 * m21;
 	    final double det = s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
 
 	    if (det == 0)
-			return Optional.empty();
+			return false;
 
 	    final double iDet = 1 / det;
-		final Mat4 res = new Mat4();
-	    res.mat[0][0] = ( mat[1][1] * c5 - mat[1][2] * c4 + mat[1][3] * c3) * iDet;
-	    res.mat[0][1] = (-mat[0][1] * c5 + mat[0][2] * c4 - mat[0][3] * c3) * iDet;
-	    res.mat[0][2] = ( mat[3][1] * s5 - mat[3][2] * s4 + mat[3][3] * s3) * iDet;
-	    res.mat[0][3] = (-mat[2][1] * s5 + mat[2][2] * s4 - mat[2][3] * s3) * iDet;
-
-	    res.mat[1][0] = (-mat[1][0] * c5 + mat[1][2] * c2 - mat[1][3] * c1) * iDet;
-	    res.mat[1][1] = ( mat[0][0] * c5 - mat[0][2] * c2 + mat[0][3] * c1) * iDet;
-	    res.mat[1][2] = (-mat[3][0] * s5 + mat[3][2] * s2 - mat[3][3] * s1) * iDet;
-	    res.mat[1][3] = ( mat[2][0] * s5 - mat[2][2] * s2 + mat[2][3] * s1) * iDet;
-
-	    res.mat[2][0] = ( mat[1][0] * c4 - mat[1][1] * c2 + mat[1][3] * c0) * iDet;
-	    res.mat[2][1] = (-mat[0][0] * c4 + mat[0][1] * c2 - mat[0][3] * c0) * iDet;
-	    res.mat[2][2] = ( mat[3][0] * s4 - mat[3][1] * s2 + mat[3][3] * s0) * iDet;
-	    res.mat[2][3] = (-mat[2][0] * s4 + mat[2][1] * s2 - mat[2][3] * s0) * iDet;
-
-	    res.mat[3][0] = (-mat[1][0] * c3 + mat[1][1] * c1 - mat[1][2] * c0) * iDet;
-	    res.mat[3][1] = ( mat[0][0] * c3 - mat[0][1] * c1 + mat[0][2] * c0) * iDet;
-	    res.mat[3][2] = (-mat[3][0] * s3 + mat[3][1] * s1 - mat[3][2] * s0) * iDet;
-	    res.mat[3][3] = ( mat[2][0] * s3 - mat[2][1] * s1 + mat[2][2] * s0) * iDet;
-		return Optional.of(res);
+	    res[0] = ( m11 * c5 - m12 * c4 + m13 * c3) * iDet;
+	    res[1] = (-m01 * c5 + m02 * c4 - m03 * c3) * iDet;
+	    res[2] = ( m31 * s5 - m32 * s4 + m33 * s3) * iDet;
+	    res[3] = (-m21 * s5 + m22 * s4 - m23 * s3) * iDet;
+
+	    res[4] = (-m10 * c5 + m12 * c2 - m13 * c1) * iDet;
+	    res[5] = ( m00 * c5 - m02 * c2 + m03 * c1) * iDet;
+	    res[6] = (-m30 * s5 + m32 * s2 - m33 * s1) * iDet;
+	    res[7] = ( m20 * s5 - m22 * s2 + m23 * s1) * iDet;
+
+	    res[8] = ( m10 * c4 - m11 * c2 + m13 * c0) * iDet;
+	    res[9] = (-m00 * c4 + m01 * c2 - m03 * c0) * iDet;
+	    res[10] = ( m30 * s4 - m31 * s2 + m33 * s0) * iDet;
+	    res[11] = (-m20 * s4 + m21 * s2 - m23 * s0) * iDet;
+
+	    res[12] = (-m10 * c3 + m11 * c1 - m12 * c0) * iDet;
+	    res[13] = ( m00 * c3 - m01 * c1 + m02 * c0) * iDet;
+	    res[14] = (-m30 * s3 + m31 * s1 - m32 * s0) * iDet;
+	    res[15] = ( m20 * s3 - m21 * s1 + m22 * s0) * iDet;
+		return true;
 	}
 	
 
@@ -371,9 +645,8 @@ public class Mat4 {
 	 */
 	public float[] floatArray() {
 		final float[] result = new float[16];
-		for (int i = 0; i < 4; i++)
-			for (int j = 0; j < 4; j++)
-				result[i * 4 + j] = ((float) mat[i][j]);
+		for (int i = 0; i < 16; i++)
+			result[i] = (float) mat[i];
 		return result;
 	}
 	
@@ -385,11 +658,15 @@ public class Mat4 {
      */
 	@Override
 	public boolean equals(Object obj) {
-		return (this == obj) || (obj != null) && (obj instanceof Mat4) 
-			&& (((Mat4) obj).getRow(0)).equals(getRow(0))
-			&& (((Mat4) obj).getRow(1)).equals(getRow(1))
-			&& (((Mat4) obj).getRow(2)).equals(getRow(2))
-			&& (((Mat4) obj).getRow(3)).equals(getRow(3));
+		if (this == obj)
+			return true;
+		if (!(obj instanceof Mat4))
+			return false;
+		final double[] other = ((Mat4) obj).mat;
+		for (int i = 0; i < 16; i++)
+			if (Double.compare(mat[i], other[i]) != 0)
+				return false;
+		return true;
 	}
 
 	/**
@@ -414,11 +691,14 @@ public class Mat4 {
 	 *         otherwise.
 	 */
 	public boolean eEquals(Mat4 mat, double epsilon) {
-		return (this == mat) || (mat != null) 
-				&& getRow(0).eEquals( mat.getRow(0), epsilon) 
-				&& getRow(1).eEquals( mat.getRow(1), epsilon)
-				&& getRow(2).eEquals( mat.getRow(2), epsilon) 
-				&& getRow(3).eEquals( mat.getRow(3), epsilon);
+		if (this == mat)
+			return true;
+		if (mat == null)
+			return false;
+		for (int i = 0; i < 16; i++)
+			if (!Compare.eEquals(this.mat[i], mat.mat[i], epsilon))
+				return false;
+		return true;
 	}
 
 	/**
@@ -459,10 +739,10 @@ public class Mat4 {
 				" {"+format+","+format+","+format+","+format+"},\n"+
 				" {"+format+","+format+","+format+","+format+"},\n"+
 				" {"+format+","+format+","+format+","+format+"}}",
-				mat[0][0], mat[0][1], mat[0][2], mat[0][3],
-				mat[1][0], mat[1][1], mat[1][2], mat[1][3],
-				mat[2][0], mat[2][1], mat[2][2], mat[2][3],
-				mat[3][0], mat[3][1], mat[3][2], mat[3][3]);
+				mat[0], mat[1], mat[2], mat[3],
+				mat[4], mat[5], mat[6], mat[7],
+				mat[8], mat[9], mat[10], mat[11],
+				mat[12], mat[13], mat[14], mat[15]);
 	}
 	
 }
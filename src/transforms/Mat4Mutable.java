@@ -0,0 +1,521 @@
+package transforms;
+
+/**
+ * A 4x4 matrix, mutable companion of {@link Mat4} intended as a reusable
+ * workspace in per-frame code. Uses the same row-wise storage and row-vector
+ * convention as {@link Mat4} (translation in the last row). All operations
+ * modify this matrix in place and return it for chaining.
+ *
+ * @author PGRF FIM UHK
+ * @version 2025
+ */
+public class Mat4Mutable {
+	/**
+	 * Elements stored row-wise, element (row, column) at index row * 4 + column
+	 */
+	final double mat[] = new double[16];
+
+	/**
+	 * Creates an identity 4x4 matrix
+	 */
+	public Mat4Mutable() {
+		setIdentity();
+	}
+
+	/**
+	 * Creates a 4x4 matrix as a copy of the given immutable matrix
+	 *
+	 * @param m
+	 *            4x4 matrix to be copied
+	 */
+	public Mat4Mutable(final Mat4 m) {
+		set(m);
+	}
+
+	/**
+	 * Sets this matrix to a copy of the given immutable matrix
+	 *
+	 * @param m
+	 *            4x4 matrix to be copied
+	 * @return this matrix
+	 */
+	public Mat4Mutable set(final Mat4 m) {
+		System.arraycopy(m.mat, 0, mat, 0, 16);
+		return this;
+	}
+
+	/**
+	 * Sets this matrix to a copy of the given mutable matrix
+	 *
+	 * @param m
+	 *            4x4 matrix to be copied
+	 * @return this matrix
+	 */
+	public Mat4Mutable set(final Mat4Mutable m) {
+		System.arraycopy(m.mat, 0, mat, 0, 16);
+		return this;
+	}
+
+	/**
+	 * Sets a matrix element
+	 *
+	 * @param row
+	 *            0-based row index of the element
+	 * @param column
+	 *            0-based column index of the element
+	 * @param element
+	 *            new element value
+	 * @return this matrix
+	 */
+	public Mat4Mutable set(final int row, final int column, final double element) {
+		assert(row >= 0 && row < 4 && column >= 0 && column < 4);
+		mat[row * 4 + column] = element;
+		return this;
+	}
+
+	/**
+	 * Returns a matrix element
+	 *
+	 * @param row
+	 *            0-based row index of the element
+	 * @param column
+	 *            0-based column index of the element
+	 * @return element value
+	 */
+	public double get(final int row, final int column) {
+		assert(row >= 0 && row < 4 && column >= 0 && column < 4);
+		return mat[row * 4 + column];
+	}
+
+	/**
+	 * Stores the translation part of this matrix (the last row) into the given
+	 * vector
+	 *
+	 * @param dest
+	 *            destination vector
+	 * @return the destination vector
+	 */
+	public Vec3DMutable getTranslation(final Vec3DMutable dest) {
+		return dest.set(mat[12], mat[13], mat[14]);
+	}
+
+	/**
+	 * Sets this matrix to identity
+	 *
+	 * @return this matrix
+	 */
+	public Mat4Mutable setIdentity() {
+		for (int i = 0; i < 16; i++)
+			mat[i] = 0.0;
+		mat[0] = mat[5] = mat[10] = mat[15] = 1.0;
+		return this;
+	}
+
+	/**
+	 * Sets this matrix to translation, see {@link Mat4Transl}
+	 *
+	 * @param x
+	 *            translation along x-axis
+	 * @param y
+	 *            translation along y-axis
+	 * @param z
+	 *            translation along z-axis
+	 * @return this matrix
+	 */
+	public Mat4Mutable setTranslation(final double x, final double y, final double z) {
+		setIdentity();
+		mat[12] = x;
+		mat[13] = y;
+		mat[14] = z;
+		return this;
+	}
+
+	/**
+	 * Sets this matrix to scaling, see {@link Mat4Scale}
+	 *
+	 * @param x
+	 *            x-axis scale factor
+	 * @param y
+	 *            y-axis scale factor
+	 * @param z
+	 *            z-axis scale factor
+	 * @return this matrix
+	 */
+	public Mat4Mutable setScale(final double x, final double y, final double z) {
+		setIdentity();
+		mat[0] = x;
+		mat[5] = y;
+		mat[10] = z;
+		return this;
+	}
+
+	/**
+	 * Sets this matrix to the rotation defined by the given unit quaternion,
+	 * see {@link Quat#toRotationMatrix()}
+	 *
+	 * @param q
+	 *            unit quaternion
+	 * @return this matrix
+	 */
+	public Mat4Mutable setRotation(final QuatMutable q) {
+		return setRotationQuat(q.r, q.i, q.j, q.k);
+	}
+
+	/**
+	 * Sets this matrix to the rotation defined by the given unit quaternion,
+	 * see {@link Quat#toRotationMatrix()}
+	 *
+	 * @param q
+	 *            unit quaternion
+	 * @return this matrix
+	 */
+	public Mat4Mutable setRotation(final Quat q) {
+		return setRotationQuat(q.r, q.i, q.j, q.k);
+	}
+
+	private Mat4Mutable setRotationQuat(final double r, final double i, final double j, final double k) {
+		mat[0] = 1 - 2 * (j * j + k * k);
+		mat[1] = 2 * (i * j + r * k);
+		mat[2] = 2 * (i * k - r * j);
+		mat[3] = 0;
+		mat[4] = 2 * (i * j - r * k);
+		mat[5] = 1 - 2 * (i * i + k * k);
+		mat[6] = 2 * (k * j + i * r);
+		mat[7] = 0;
+		mat[8] = 2 * (r * j + i * k);
+		mat[9] = 2 * (k * j - i * r);
+		mat[10] = 1 - 2 * (i * i + j * j);
+		mat[11] = 0;
+		mat[12] = mat[13] = mat[14] = 0;
+		mat[15] = 1;
+		return this;
+	}
+
+	/**
+	 * Sets this matrix to right-handed rotation about general axis, see
+	 * {@link Mat4Rot}
+	 *
+	 * @param alpha
+	 *            rotation angle in radians
+	 * @param x
+	 *            x coordinate of rotation axis
+	 * @param y
+	 *            y coordinate of rotation axis
+	 * @param z
+	 *            z coordinate of rotation axis
+	 * @return this matrix
+	 */
+	public Mat4Mutable setRotation(final double alpha, final double x, final double y, final double z) {
+		setIdentity();
+		final double len = Math.sqrt(x * x + y * y + z * z);
+		if (len == 0.0)
+			return this;
+		final double ax = x / len, ay = y / len, az = z / len;
+		final double s = Math.sin(alpha), c = Math.cos(alpha), ac = 1.0 - c;
+		mat[0] = ax * ax * ac + c;
+		mat[1] = ax * ay * ac + az * s;
+		mat[2] = ax * az * ac - ay * s;
+		mat[4] = ay * ax * ac - az * s;
+		mat[5] = ay * ay * ac + c;
+		mat[6] = ay * az * ac + ax * s;
+		mat[8] = az * ax * ac + ay * s;
+		mat[9] = az * ay * ac - ax * s;
+		mat[10] = az * az * ac + c;
+		return this;
+	}
+
+	/**
+	 * Sets this matrix to the right-handed view transformation, see
+	 * {@link Mat4ViewRH}
+	 *
+	 * @param e
+	 *            eye, position of the observer
+	 * @param v
+	 *            view vector
+	 * @param u
+	 *            up vector
+	 * @return this matrix
+	 */
+	public Mat4Mutable setViewRH(final Vec3DMutable e, final Vec3DMutable v, final Vec3DMutable u) {
+		return setViewRH(e.x, e.y, e.z, v.x, v.y, v.z, u.x, u.y, u.z);
+	}
+
+	/**
+	 * Sets this matrix to the right-handed view transformation, see
+	 * {@link Mat4ViewRH}
+	 *
+	 * @return this matrix
+	 */
+	public Mat4Mutable setViewRH(final double ex, final double ey, final double ez,
+			final double vx, final double vy, final double vz,
+			final double ux, final double uy, final double uz) {
+		// z = normalize(-v)
+		double zx = -vx, zy = -vy, zz = -vz;
+		double len = Math.sqrt(zx * zx + zy * zy + zz * zz);
+		if (len == 0.0) {
+			zx = 1; zy = 0; zz = 0;
+		} else {
+			zx /= len; zy /= len; zz /= len;
+		}
+		// x = normalize(u cross z)
+		double xx = uy * zz - uz * zy, xy = uz * zx - ux * zz, xz = ux * zy - uy * zx;
+		len = Math.sqrt(xx * xx + xy * xy + xz * xz);
+		if (len == 0.0) {
+			xx = 1; xy = 0; xz = 0;
+		} else {
+			xx /= len; xy /= len; xz /= len;
+		}
+		// y = z cross x
+		final double yx = zy * xz - zz * xy, yy = zz * xx - zx * xz, yz = zx * xy - zy * xx;
+		mat[0] = xx; mat[1] = yx; mat[2] = zx; mat[3] = 0;
+		mat[4] = xy; mat[5] = yy; mat[6] = zy; mat[7] = 0;
+		mat[8] = xz; mat[9] = yz; mat[10] = zz; mat[11] = 0;
+		mat[12] = -(ex * xx + ey * xy + ez * xz);
+		mat[13] = -(ex * yx + ey * yy + ez * yz);
+		mat[14] = -(ex * zx + ey * zy + ez * zz);
+		mat[15] = 1;
+		return this;
+	}
+
+	/**
+	 * Sets this matrix to the right-handed perspective projection, see
+	 * {@link Mat4PerspRH}
+	 *
+	 * @param alpha
+	 *            vertical field of view angle in radians
+	 * @param k
+	 *            volume height/width ratio
+	 * @param zn
+	 *            distance to the near clipping plane along z-axis
+	 * @param zf
+	 *            distance to the far clipping plane along z-axis
+	 * @return this matrix
+	 */
+	public Mat4Mutable setPerspRH(final double alpha, final double k, final double zn, final double zf) {
+		setIdentity();
+		final double h = 1.0 / Math.tan(alpha / 2.0);
+		mat[0] = k * h;
+		mat[5] = h;
+		mat[10] = zf / (zn - zf);
+		mat[14] = zn * zf / (zn - zf);
+		mat[11] = -1.0;
+		mat[15] = 0.0;
+		return this;
+	}
+
+	/**
+	 * Sets this matrix to the right-handed orthogonal projection, see
+	 * {@link Mat4OrthoRH}
+	 *
+	 * @param w
+	 *            visibility cuboid width
+	 * @param h
+	 *            visibility cuboid height
+	 * @param zn
+	 *            distance to the near clipping plane along z-axis
+	 * @param zf
+	 *            distance to the far clipping plane along z-axis
+	 * @return this matrix
+	 */
+	public Mat4Mutable setOrthoRH(final double w, final double h, final double zn, final double zf) {
+		setIdentity();
+		mat[0] = 2.0 / w;
+		mat[5] = 2.0 / h;
+		mat[10] = 1.0 / (zn - zf);
+		mat[14] = zn / (zn - zf);
+		return this;
+	}
+
+	/**
+	 * Replaces this matrix by the product this * m
+	 *
+	 * @param m
+	 *            4x4 matrix
+	 * @return this matrix
+	 */
+	public Mat4Mutable mul(final Mat4Mutable m) {
+		Mat4.mul(mat, m.mat, mat);
+		return this;
+	}
+
+	/**
+	 * Replaces this matrix by the product this * m
+	 *
+	 * @param m
+	 *            4x4 matrix
+	 * @return this matrix
+	 */
+	public Mat4Mutable mul(final Mat4 m) {
+		Mat4.mul(mat, m.mat, mat);
+		return this;
+	}
+
+	/**
+	 * Stores the product this * m into the given destination matrix, this
+	 * matrix is left unchanged unless it is the destination
+	 *
+	 * @param m
+	 *            right side 4x4 matrix
+	 * @param dest
+	 *            destination matrix, may be this or m
+	 * @return the destination matrix
+	 */
+	public Mat4Mutable mulInto(final Mat4Mutable m, final Mat4Mutable dest) {
+		Mat4.mul(mat, m.mat, dest.mat);
+		return dest;
+	}
+
+	/**
+	 * Replaces this matrix by the product this * T where T is the translation
+	 * by the given vector, i.e. translates after the current transformation
+	 *
+	 * @param x
+	 *            translation along x-axis
+	 * @param y
+	 *            translation along y-axis
+	 * @param z
+	 *            translation along z-axis
+	 * @return this matrix
+	 */
+	public Mat4Mutable translate(final double x, final double y, final double z) {
+		for (int i = 0; i < 16; i += 4) {
+			final double w = mat[i + 3];
+			mat[i] += w * x;
+			mat[i + 1] += w * y;
+			mat[i + 2] += w * z;
+		}
+		return this;
+	}
+
+	/**
+	 * Replaces this matrix by the product this * S where S is the scaling by
+	 * the given factors, i.e. scales after the current transformation
+	 *
+	 * @param x
+	 *            x-axis scale factor
+	 * @param y
+	 *            y-axis scale factor
+	 * @param z
+	 *            z-axis scale factor
+	 * @return this matrix
+	 */
+	public Mat4Mutable scale(final double x, final double y, final double z) {
+		for (int i = 0; i < 16; i += 4) {
+			mat[i] *= x;
+			mat[i + 1] *= y;
+			mat[i + 2] *= z;
+		}
+		return this;
+	}
+
+	/**
+	 * Replaces this matrix by the product this * R where R is the right-handed
+	 * rotation about general axis, i.e. rotates after the current
+	 * transformation, see {@link Mat4Rot}
+	 *
+	 * @param alpha
+	 *            rotation angle in radians
+	 * @param x
+	 *            x coordinate of rotation axis
+	 * @param y
+	 *            y coordinate of rotation axis
+	 * @param z
+	 *            z coordinate of rotation axis
+	 * @return this matrix
+	 */
+	public Mat4Mutable rotate(final double alpha, final double x, final double y, final double z) {
+		final double len = Math.sqrt(x * x + y * y + z * z);
+		if (len == 0.0)
+			return this;
+		final double ax = x / len, ay = y / len, az = z / len;
+		final double s = Math.sin(alpha), c = Math.cos(alpha), ac = 1.0 - c;
+		final double r00 = ax * ax * ac + c, r01 = ax * ay * ac + az * s, r02 = ax * az * ac - ay * s;
+		final double r10 = ay * ax * ac - az * s, r11 = ay * ay * ac + c, r12 = ay * az * ac + ax * s;
+		final double r20 = az * ax * ac + ay * s, r21 = az * ay * ac - ax * s, r22 = az * az * ac + c;
+		for (int i = 0; i < 16; i += 4) {
+			final double a0 = mat[i], a1 = mat[i + 1], a2 = mat[i + 2];
+			mat[i] = a0 * r00 + a1 * r10 + a2 * r20;
+			mat[i + 1] = a0 * r01 + a1 * r11 + a2 * r21;
+			mat[i + 2] = a0 * r02 + a1 * r12 + a2 * r22;
+		}
+		return this;
+	}
+
+	/**
+	 * Replaces this matrix by its transposition
+	 *
+	 * @return this matrix
+	 */
+	public Mat4Mutable transpose() {
+		double t;
+		for (int i = 0; i < 4; i++)
+			for (int j = i + 1; j < 4; j++) {
+				t = mat[i * 4 + j];
+				mat[i * 4 + j] = mat[j * 4 + i];
+				mat[j * 4 + i] = t;
+			}
+		return this;
+	}
+
+	/**
+	 * Stores the inverse of this matrix into the given destination matrix if
+	 * it exists, see {@link Mat4#inverse()}
+	 *
+	 * @param dest
+	 *            destination matrix, may be this
+	 * @return true if the inverse exists, false otherwise (dest is left
+	 *         unchanged then)
+	 */
+	public boolean invertInto(final Mat4Mutable dest) {
+		return Mat4.inverse(mat, dest.mat);
+	}
+
+	/**
+	 * Stores the inverse of this matrix into the given destination matrix if
+	 * it exists, assuming this matrix is affine, i.e. its last column is
+	 * (0, 0, 0, 1); cheaper than {@link #invertInto(Mat4Mutable)}
+	 *
+	 * @param dest
+	 *            destination matrix, may be this
+	 * @return true if the inverse exists, false otherwise (dest is left
+	 *         unchanged then)
+	 */
+	public boolean invertAffineInto(final Mat4Mutable dest) {
+		assert(mat[3] == 0 && mat[7] == 0 && mat[11] == 0 && mat[15] == 1);
+		return Mat4.inverseAffine(mat, dest.mat);
+	}
+
+	/**
+	 * Returns an immutable copy of this matrix
+	 *
+	 * @return new Mat4 instance
+	 */
+	public Mat4 toMat4() {
+		return new Mat4(mat);
+	}
+
+	/**
+	 * Returns String representation of this matrix
+	 *
+	 * @return comma separated floating-point values per row, rows comma
+	 *         separated in curly brackets
+	 */
+	@Override
+	public String toString() {
+		return toMat4().toString();
+	}
+
+	/**
+	 * Returns String representation of this matrix with elements formated
+	 * according to the given format, see
+	 * {@link String#format(String, Object...)}
+	 *
+	 * @param format
+	 *            String format applied to each element
+	 * @return comma separated floating-point values per row, rows comma
+	 *         separated in curly brackets
+	 */
+	public String toString(final String format) {
+		return toMat4().toString(format);
+	}
+}
@@ -26,9 +26,9 @@ public class Mat4OrthoRH extends Mat4Identity {
 	 */
 	public Mat4OrthoRH(final double w, final double h, final double zn,
 			final double zf) {
-		mat[0][0] = 2.0 / w;
-		mat[1][1] = 2.0 / h;
-		mat[2][2] = 1.0 / (zn - zf);
-		mat[3][2] = zn / (zn - zf);
+		mat[0] = 2.0 / w;
+		mat[5] = 2.0 / h;
+		mat[10] = 1.0 / (zn - zf);
+		mat[14] = zn / (zn - zf);
 	}
 }
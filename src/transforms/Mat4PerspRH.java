@@ -28,11 +28,11 @@ public class Mat4PerspRH extends Mat4Identity {
 			final double zf) {
 		final double h = (1.0 / Math.tan(alpha / 2.0));
 		final double w = k * h;
-		mat[0][0] = w;
-		mat[1][1] = h;
-		mat[2][2] = zf / (zn - zf);
-		mat[3][2] = zn * zf / (zn - zf);
-		mat[2][3] = -1.0;
-		mat[3][3] = 0.0;
+		mat[0] = w;
+		mat[5] = h;
+		mat[10] = zf / (zn - zf);
+		mat[14] = zn * zf / (zn - zf);
+		mat[11] = -1.0;
+		mat[15] = 0.0;
 	}
 }
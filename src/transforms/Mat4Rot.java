@@ -38,17 +38,18 @@ public class Mat4Rot extends Mat4Identity {
             double ac = 1.0 - cosAlpha;
             Vec3D axis = norm.get();
 
-            mat[0][0] = axis.getX() * axis.getX() * ac + cosAlpha;
-            mat[0][1] = axis.getX() * axis.getY() * ac + axis.getZ() * sinAlpha;
-            mat[0][2] = axis.getX() * axis.getZ() * ac - axis.getY() * sinAlpha;
+            mat[0] = axis.getX() * axis.getX() * ac + cosAlpha;
+            mat[1] = axis.getX() * axis.getY() * ac + axis.getZ() * sinAlpha;
+            mat[2] = axis.getX() * axis.getZ() * ac - axis.getY() * sinAlpha;
 
-            mat[1][0] = axis.getY() * axis.getX() * ac - axis.getZ() * sinAlpha;
-            mat[1][1] = axis.getY() * axis.getY() * ac + cosAlpha;
-            mat[1][2] = axis.getY() * axis.getZ() * ac + axis.getX() * sinAlpha;
+            mat[4] = axis.getY() * axis.getX() * ac - axis.getZ() * sinAlpha;
+            mat[5] = axis.getY() * axis.getY() * ac + cosAlpha;
+            mat[6] = axis.getY() * axis.getZ() * ac + axis.getX() * sinAlpha;
 
-            mat[2][0] = axis.getZ() * axis.getX() * ac + axis.getY() * sinAlpha;
-            mat[2][1] = axis.getZ() * axis.getY() * ac - axis.getX() * sinAlpha;
-            mat[2][2] = axis.getZ() * axis.getZ() * ac + cosAlpha;
+            mat[8] = axis.getZ() * axis.getX() * ac + axis.getY() * sinAlpha;
+            mat[9] = axis.getZ() * axis.getY() * ac - axis.getX() * sinAlpha;
+            mat[10] = axis.getZ() * axis.getZ() * ac + cosAlpha;
+            kind = Kind.RIGID;
         }
     }
 
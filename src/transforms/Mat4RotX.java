@@ -15,9 +15,10 @@ public class Mat4RotX extends Mat4Identity {
      * @param alpha rotation angle in radians
      */
     public Mat4RotX(final double alpha) {
-        mat[1][1] = Math.cos(alpha);
-        mat[2][2] = Math.cos(alpha);
-        mat[2][1] = -Math.sin(alpha);
-        mat[1][2] = Math.sin(alpha);
+        mat[5] = Math.cos(alpha);
+        mat[10] = Math.cos(alpha);
+        mat[9] = -Math.sin(alpha);
+        mat[6] = Math.sin(alpha);
+        kind = Kind.RIGID;
     }
 }
\ No newline at end of file
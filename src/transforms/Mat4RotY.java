@@ -16,9 +16,10 @@ public class Mat4RotY extends Mat4Identity {
 	 *            rotation angle in radians
 	 */
 	public Mat4RotY(final double alpha) {
-		mat[0][0] = Math.cos(alpha);
-		mat[2][2] = Math.cos(alpha);
-		mat[2][0] = Math.sin(alpha);
-		mat[0][2] = -Math.sin(alpha);
+		mat[0] = Math.cos(alpha);
+		mat[10] = Math.cos(alpha);
+		mat[8] = Math.sin(alpha);
+		mat[2] = -Math.sin(alpha);
+		kind = Kind.RIGID;
 	}
 }
\ No newline at end of file
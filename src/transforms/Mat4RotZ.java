@@ -16,9 +16,10 @@ public class Mat4RotZ extends Mat4Identity {
 	 *            rotation angle in radians
 	 */
 	public Mat4RotZ(final double alpha) {
-		mat[0][0] = Math.cos(alpha);
-		mat[1][1] = Math.cos(alpha);
-		mat[1][0] = -Math.sin(alpha);
-		mat[0][1] = Math.sin(alpha);
+		mat[0] = Math.cos(alpha);
+		mat[5] = Math.cos(alpha);
+		mat[4] = -Math.sin(alpha);
+		mat[1] = Math.sin(alpha);
+		kind = Kind.RIGID;
 	}
 }
\ No newline at end of file
@@ -19,9 +19,9 @@ public class Mat4Scale extends Mat4Identity {
 	 *            z-axis scale factor
 	 */
 	public Mat4Scale(final double x, final double y, final double z) {
-		mat[0][0] = x;
-		mat[1][1] = y;
-		mat[2][2] = z;
+		mat[0] = x;
+		mat[5] = y;
+		mat[10] = z;
 	}
 
 	/**
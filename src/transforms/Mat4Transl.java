@@ -19,9 +19,9 @@ public class Mat4Transl extends Mat4Identity {
 	 *            translation along z-axis
 	 */
 	public Mat4Transl(final double x, final double y, final double z) {
-		mat[3][0] = x;
-		mat[3][1] = y;
-		mat[3][2] = z;
+		mat[12] = x;
+		mat[13] = y;
+		mat[14] = z;
 	}
 	/**
 	 * Creates a 4x4 transformation matrix equivalent to translation in 3D
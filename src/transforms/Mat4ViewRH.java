@@ -35,18 +35,20 @@ public class Mat4ViewRH extends Mat4Identity {
 		z = v.mul(-1.0).normalized().orElse(new Vec3D(1, 0, 0));
 		x = u.cross(z).normalized().orElse(new Vec3D(1, 0, 0));
 		y = z.cross(x);
-		mat[0][0] = x.getX();
-		mat[1][0] = x.getY();
-		mat[2][0] = x.getZ();
-		mat[3][0] = -e.dot(x);
-		mat[0][1] = y.getX();
-		mat[1][1] = y.getY();
-		mat[2][1] = y.getZ();
-		mat[3][1] = -e.dot(y);
-		mat[0][2] = z.getX();
-		mat[1][2] = z.getY();
-		mat[2][2] = z.getZ();
-		mat[3][2] = -e.dot(z);
-
+		mat[0] = x.getX();
+		mat[4] = x.getY();
+		mat[8] = x.getZ();
+		mat[12] = -e.dot(x);
+		mat[1] = y.getX();
+		mat[5] = y.getY();
+		mat[9] = y.getZ();
+		mat[13] = -e.dot(y);
+		mat[2] = z.getX();
+		mat[6] = z.getY();
+		mat[10] = z.getZ();
+		mat[14] = -e.dot(z);
+		// orthonormal basis unless a fallback axis was taken
+		if (Math.abs(y.length() - 1) < 1e-12)
+			kind = Kind.RIGID;
 	}
 }
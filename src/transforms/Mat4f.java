@@ -0,0 +1,216 @@
+package transforms;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * A single-precision 4x4 matrix, immutable. Stored row-wise in the same
+ * layout as {@link Mat4#floatArray()}, intended for shader uniform uploads
+ * without per-upload conversions from double.
+ *
+ * @author PGRF FIM UHK
+ * @version 2025
+ */
+public class Mat4f {
+	/**
+	 * Elements stored row-wise, element (row, column) at index row * 4 + column
+	 */
+	final float mat[] = new float[16];
+
+	/**
+	 * Creates a zero 4x4 matrix
+	 */
+	public Mat4f() {
+	}
+
+	/**
+	 * Creates a single-precision copy of the given 4x4 matrix
+	 *
+	 * @param m
+	 *            4x4 matrix to be converted
+	 */
+	public Mat4f(final Mat4 m) {
+		for (int i = 0; i < 16; i++)
+			mat[i] = (float) m.mat[i];
+	}
+
+	/**
+	 * Creates a single-precision copy of the given mutable 4x4 matrix
+	 *
+	 * @param m
+	 *            4x4 matrix to be converted
+	 */
+	public Mat4f(final Mat4Mutable m) {
+		for (int i = 0; i < 16; i++)
+			mat[i] = (float) m.mat[i];
+	}
+
+	/**
+	 * Creates a 4x4 matrix row-wise from a 16-element array of floats
+	 *
+	 * @param m
+	 *            float array of length 16 (asserted)
+	 */
+	public Mat4f(final float[] m) {
+		assert(m.length >= 16);
+		System.arraycopy(m, 0, mat, 0, 16);
+	}
+
+	/**
+	 * Returns the result of matrix multiplication by the given 4x4 matrix
+	 *
+	 * @param m
+	 *            4x4 matrix
+	 * @return new Mat4f instance
+	 */
+	public Mat4f mul(final Mat4f m) {
+		final Mat4f result = new Mat4f();
+		final float[] b = m.mat;
+		for (int i = 0; i < 16; i += 4) {
+			final float a0 = mat[i], a1 = mat[i + 1], a2 = mat[i + 2], a3 = mat[i + 3];
+			result.mat[i] = a0 * b[0] + a1 * b[4] + a2 * b[8] + a3 * b[12];
+			result.mat[i + 1] = a0 * b[1] + a1 * b[5] + a2 * b[9] + a3 * b[13];
+			result.mat[i + 2] = a0 * b[2] + a1 * b[6] + a2 * b[10] + a3 * b[14];
+			result.mat[i + 3] = a0 * b[3] + a1 * b[7] + a2 * b[11] + a3 * b[15];
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the transposition of this matrix
+	 *
+	 * @return new Mat4f instance
+	 */
+	public Mat4f transpose() {
+		final Mat4f result = new Mat4f();
+		for (int i = 0; i < 4; i++)
+			for (int j = 0; j < 4; j++)
+				result.mat[i * 4 + j] = mat[j * 4 + i];
+		return result;
+	}
+
+	/**
+	 * Returns a matrix element
+	 *
+	 * @param row
+	 *            0-based row index of the element
+	 * @param column
+	 *            0-based column index of the element
+	 * @return element value
+	 */
+	public float get(final int row, final int column) {
+		assert(row >= 0 && row < 4 && column >= 0 && column < 4);
+		return mat[row * 4 + column];
+	}
+
+	/**
+	 * Writes this matrix into the buffer starting at the given absolute
+	 * index, row-wise, i.e. in the order of {@link Mat4#floatArray()} as
+	 * expected by glUniformMatrix4fv with transpose set to false; the buffer
+	 * position is left unchanged
+	 *
+	 * @param buffer
+	 *            destination buffer with at least offset + 16 elements
+	 * @param offset
+	 *            absolute index of the first element
+	 * @return the buffer
+	 */
+	public FloatBuffer writeTo(final FloatBuffer buffer, final int offset) {
+		return writeRowMajorTo(buffer, offset);
+	}
+
+	/**
+	 * Writes this matrix into the buffer starting at the given absolute
+	 * index, row after row; the buffer position is left unchanged
+	 *
+	 * @param buffer
+	 *            destination buffer with at least offset + 16 elements
+	 * @param offset
+	 *            absolute index of the first element
+	 * @return the buffer
+	 */
+	public FloatBuffer writeRowMajorTo(final FloatBuffer buffer, final int offset) {
+		return buffer.put(offset, mat);
+	}
+
+	/**
+	 * Writes this matrix into the buffer starting at the given absolute
+	 * index, column after column; the buffer position is left unchanged
+	 *
+	 * @param buffer
+	 *            destination buffer with at least offset + 16 elements
+	 * @param offset
+	 *            absolute index of the first element
+	 * @return the buffer
+	 */
+	public FloatBuffer writeColumnMajorTo(final FloatBuffer buffer, final int offset) {
+		for (int j = 0; j < 4; j++) {
+			buffer.put(offset + j * 4, mat[j]);
+			buffer.put(offset + j * 4 + 1, mat[4 + j]);
+			buffer.put(offset + j * 4 + 2, mat[8 + j]);
+			buffer.put(offset + j * 4 + 3, mat[12 + j]);
+		}
+		return buffer;
+	}
+
+	/**
+	 * Returns a double-precision copy of this matrix
+	 *
+	 * @return new Mat4 instance
+	 */
+	public Mat4 toMat4() {
+		final Mat4 result = new Mat4();
+		for (int i = 0; i < 16; i++)
+			result.mat[i] = mat[i];
+		return result;
+	}
+
+	/**
+	 * Returns this matrix stored row-wise in a float array
+	 *
+	 * @return new float array
+	 */
+	public float[] floatArray() {
+		return mat.clone();
+	}
+
+	/**
+	 * Compares this object against the specified object.
+	 * @param   obj   the object to compare with.
+	 * @return  {@code true} if the objects are the same;
+	 *          {@code false} otherwise.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		return (this == obj) || (obj instanceof Mat4f) && Arrays.equals(mat, ((Mat4f) obj).mat);
+	}
+
+	/**
+	 * Returns a hash code value for the object.
+	 *
+	 * @return  a hash code value for this object.
+	 */
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(mat);
+	}
+
+	/**
+	 * Returns String representation of this matrix
+	 *
+	 * @return comma separated floating-point values per row, rows comma
+	 *         separated in curly brackets
+	 */
+	@Override
+	public String toString() {
+		return String.format(Locale.US, "{{%4.1f,%4.1f,%4.1f,%4.1f},\n" +
+				" {%4.1f,%4.1f,%4.1f,%4.1f},\n" +
+				" {%4.1f,%4.1f,%4.1f,%4.1f},\n" +
+				" {%4.1f,%4.1f,%4.1f,%4.1f}}",
+				mat[0], mat[1], mat[2], mat[3],
+				mat[4], mat[5], mat[6], mat[7],
+				mat[8], mat[9], mat[10], mat[11],
+				mat[12], mat[13], mat[14], mat[15]);
+	}
+}
@@ -0,0 +1,80 @@
+package transforms;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits index ranges across a ForkJoin pool, halving them down to a grain
+ *
+ * @author PGRF FIM UHK
+ * @version 2025
+ */
+public final class Parallel {
+
+	/**
+	 * Body run over a range of indices
+	 */
+	public interface Range {
+		/**
+		 * Processes the indices of [from, to)
+		 *
+		 * @param from
+		 *            first index
+		 * @param to
+		 *            index after the last one
+		 */
+		void run(int from, int to);
+	}
+
+	private Parallel() {
+	}
+
+	/**
+	 * Runs body over [0, count) in ranges of at most grain indices, in the
+	 * calling thread if there is only one range or one worker; called from a
+	 * pool worker the ranges are forked into that worker's pool
+	 *
+	 * @param pool
+	 *            pool to run the ranges in
+	 * @param count
+	 *            number of indices
+	 * @param grain
+	 *            maximal number of indices of a range
+	 * @param body
+	 *            body run over each range
+	 */
+	public static void forRange(final ForkJoinPool pool, final int count, final int grain, final Range body) {
+		if (count <= grain || pool.getParallelism() == 1) {
+			body.run(0, count);
+		} else if (ForkJoinTask.inForkJoinPool()) {
+			new RangeTask(0, count, grain, body).invoke();
+		} else {
+			pool.invoke(new RangeTask(0, count, grain, body));
+		}
+	}
+
+	private static final class RangeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int from, to, grain;
+		private final Range body;
+
+		RangeTask(final int from, final int to, final int grain, final Range body) {
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+			this.body = body;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= grain) {
+				body.run(from, to);
+				return;
+			}
+			final int mid = (from + to) >>> 1;
+			invokeAll(new RangeTask(from, mid, grain, body), new RangeTask(mid, to, grain, body));
+		}
+	}
+}
@@ -179,9 +179,9 @@ public class Point2D {
 	 */
 	public Point2D mul(final Mat3 mat) {
 		return new Point2D(
-			mat.mat[0][0] * x + mat.mat[1][0] * y + mat.mat[2][0] * w,
-			mat.mat[0][1] * x + mat.mat[1][1] * y + mat.mat[2][1] * w,
-			mat.mat[0][2] * x + mat.mat[1][2] * y + mat.mat[2][2] * w);
+			mat.mat[0] * x + mat.mat[3] * y + mat.mat[6] * w,
+			mat.mat[1] * x + mat.mat[4] * y + mat.mat[7] * w,
+			mat.mat[2] * x + mat.mat[5] * y + mat.mat[8] * w);
 	}
 	
 	/**
@@ -212,15 +212,24 @@ public class Point3D {
 	 * @return new Point3D instance
 	 */
 	public Point3D mul(final Mat4 mat) {
+		if (mat.isAffine())
+			return new Point3D(
+				mat.mat[0] * x + mat.mat[4] * y + mat.mat[8] * z
+					+ mat.mat[12] * w,
+				mat.mat[1] * x + mat.mat[5] * y + mat.mat[9] * z
+					+ mat.mat[13] * w,
+				mat.mat[2] * x + mat.mat[6] * y + mat.mat[10] * z
+					+ mat.mat[14] * w,
+				w);
 		return new Point3D(
-			mat.mat[0][0] * x + mat.mat[1][0] * y + mat.mat[2][0] * z
-				+ mat.mat[3][0] * w,
-			mat.mat[0][1] * x + mat.mat[1][1] * y + mat.mat[2][1] * z
-				+ mat.mat[3][1] * w,
-			mat.mat[0][2] * x + mat.mat[1][2] * y + mat.mat[2][2] * z
-				+ mat.mat[3][2] * w,
-			mat.mat[0][3] * x + mat.mat[1][3] * y + mat.mat[2][3] * z
-				+ mat.mat[3][3] * w);
+			mat.mat[0] * x + mat.mat[4] * y + mat.mat[8] * z
+				+ mat.mat[12] * w,
+			mat.mat[1] * x + mat.mat[5] * y + mat.mat[9] * z
+				+ mat.mat[13] * w,
+			mat.mat[2] * x + mat.mat[6] * y + mat.mat[10] * z
+				+ mat.mat[14] * w,
+			mat.mat[3] * x + mat.mat[7] * y + mat.mat[11] * z
+				+ mat.mat[15] * w);
 	}
 	
 	/**
@@ -294,17 +294,17 @@ public class Quat {
 	public Mat4 toRotationMatrix() {
 		Mat4 res = new Mat4Identity();
 		this.normalized();
-		res.mat[0][0] = 1 - 2 * (j * j + k * k);
-		res.mat[1][0] = 2 * (i * j - r * k);
-		res.mat[2][0] = 2 * (r * j + i * k);
+		res.mat[0] = 1 - 2 * (j * j + k * k);
+		res.mat[4] = 2 * (i * j - r * k);
+		res.mat[8] = 2 * (r * j + i * k);
 
-		res.mat[0][1] = 2 * (i * j + r * k);
-		res.mat[1][1] = 1 - 2 * (i * i + k * k);
-		res.mat[2][1] = 2 * (k * j - i * r);
+		res.mat[1] = 2 * (i * j + r * k);
+		res.mat[5] = 1 - 2 * (i * i + k * k);
+		res.mat[9] = 2 * (k * j - i * r);
 
-		res.mat[0][2] = 2 * (i * k - r * j);
-		res.mat[1][2] = 2 * (k * j + i * r);
-		res.mat[2][2] = 1 - 2 * (i * i + j * j);
+		res.mat[2] = 2 * (i * k - r * j);
+		res.mat[6] = 2 * (k * j + i * r);
+		res.mat[10] = 1 - 2 * (i * i + j * j);
 		return res;
 	}
 
@@ -318,31 +318,31 @@ public class Quat {
 	 */
 	public static Quat fromRotationMatrix(Mat4 mat) {
 		double r, i, j, k;
-		double diagonal = mat.mat[0][0] + mat.mat[1][1] + mat.mat[2][2];
+		double diagonal = mat.mat[0] + mat.mat[5] + mat.mat[10];
 
 		if (diagonal > 0.0f) {
-			r = (0.5f * Math.sqrt(diagonal + mat.mat[3][3]));
-			i = (mat.mat[2][1] - mat.mat[1][2]) / (4 * r);
-			j = (mat.mat[0][2] - mat.mat[2][0]) / (4 * r);
-			k = (mat.mat[1][0] - mat.mat[0][1]) / (4 * r);
+			r = (0.5f * Math.sqrt(diagonal + mat.mat[15]));
+			i = (mat.mat[9] - mat.mat[6]) / (4 * r);
+			j = (mat.mat[2] - mat.mat[8]) / (4 * r);
+			k = (mat.mat[4] - mat.mat[1]) / (4 * r);
 		} else {
 			int[] indices = { 1, 2, 0 };
 			int a = 0, b, c;
 
-			if (mat.mat[1][1] > mat.mat[0][0])
+			if (mat.mat[5] > mat.mat[0])
 				a = 1;
-			if (mat.mat[2][2] > mat.mat[a][a])
+			if (mat.mat[10] > mat.mat[a * 5])
 				a = 2;
 
 			b = indices[a];
 			c = indices[b];
 
-			diagonal = mat.mat[a][a] - mat.mat[b][b] - mat.mat[c][c]
-					+ mat.mat[3][3];
+			diagonal = mat.mat[a * 5] - mat.mat[b * 5] - mat.mat[c * 5]
+					+ mat.mat[15];
 			r = (0.5f * Math.sqrt(diagonal));
-			i = (mat.mat[a][b] + mat.mat[b][a]) / (4 * r);
-			j = (mat.mat[a][c] + mat.mat[c][a]) / (4 * r);
-			k = (mat.mat[b][c] - mat.mat[c][b]) / (4 * r);
+			i = (mat.mat[a * 4 + b] + mat.mat[b * 4 + a]) / (4 * r);
+			j = (mat.mat[a * 4 + c] + mat.mat[c * 4 + a]) / (4 * r);
+			k = (mat.mat[b * 4 + c] - mat.mat[c * 4 + b]) / (4 * r);
 		}
 		return new Quat(r, i, j, k);
 	}
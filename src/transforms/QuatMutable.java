@@ -0,0 +1,254 @@
+package transforms;
+
+import java.util.Locale;
+
+/**
+ * A quaternion, mutable companion of {@link Quat} intended as a reusable
+ * workspace in per-frame code. All operations modify this quaternion in place
+ * and return it for chaining.
+ *
+ * @author PGRF FIM UHK
+ * @version 2025
+ */
+public class QuatMutable {
+	double r = 1.0, i, j, k;
+
+	/**
+	 * Creates an identity (unit, no rotation) quaternion
+	 */
+	public QuatMutable() {
+	}
+
+	/**
+	 * Creates a quaternion with the coordinates of the given immutable
+	 * quaternion
+	 *
+	 * @param q
+	 *            quaternion to be copied
+	 */
+	public QuatMutable(final Quat q) {
+		set(q);
+	}
+
+	/**
+	 * Returns the r coordinate
+	 *
+	 * @return the r
+	 */
+	public double getR() {
+		return r;
+	}
+
+	/**
+	 * Returns the i coordinate
+	 *
+	 * @return the i
+	 */
+	public double getI() {
+		return i;
+	}
+
+	/**
+	 * Returns the j coordinate
+	 *
+	 * @return the j
+	 */
+	public double getJ() {
+		return j;
+	}
+
+	/**
+	 * Returns the k coordinate
+	 *
+	 * @return the k
+	 */
+	public double getK() {
+		return k;
+	}
+
+	/**
+	 * Sets the coordinates of this quaternion
+	 *
+	 * @param r
+	 *            r coordinate
+	 * @param i
+	 *            i coordinate
+	 * @param j
+	 *            j coordinate
+	 * @param k
+	 *            k coordinate
+	 * @return this quaternion
+	 */
+	public QuatMutable set(final double r, final double i, final double j, final double k) {
+		this.r = r;
+		this.i = i;
+		this.j = j;
+		this.k = k;
+		return this;
+	}
+
+	/**
+	 * Sets the coordinates of this quaternion from the given immutable one
+	 *
+	 * @param q
+	 *            quaternion to be copied
+	 * @return this quaternion
+	 */
+	public QuatMutable set(final Quat q) {
+		return set(q.r, q.i, q.j, q.k);
+	}
+
+	/**
+	 * Sets the coordinates of this quaternion from the given mutable one
+	 *
+	 * @param q
+	 *            quaternion to be copied
+	 * @return this quaternion
+	 */
+	public QuatMutable set(final QuatMutable q) {
+		return set(q.r, q.i, q.j, q.k);
+	}
+
+	/**
+	 * Sets this quaternion to identity (no rotation)
+	 *
+	 * @return this quaternion
+	 */
+	public QuatMutable setIdentity() {
+		return set(1, 0, 0, 0);
+	}
+
+	/**
+	 * Sets this quaternion to the rotation about the given axis, equivalent to
+	 * {@link Quat#fromEulerAngle(double, double, double, double)} with the
+	 * axis normalized
+	 *
+	 * @param angle
+	 *            rotation angle in radians
+	 * @param x
+	 *            x coordinate of rotation axis
+	 * @param y
+	 *            y coordinate of rotation axis
+	 * @param z
+	 *            z coordinate of rotation axis
+	 * @return this quaternion
+	 */
+	public QuatMutable setAxisAngle(final double angle, final double x, final double y, final double z) {
+		final double len = Math.sqrt(x * x + y * y + z * z);
+		if (len == 0.0)
+			return setIdentity();
+		final double s = Math.sin(angle / 2) / len;
+		return set(Math.cos(angle / 2), s * x, s * y, s * z);
+	}
+
+	/**
+	 * Replaces this quaternion by the result of right side quaternion
+	 * multiplication by the given quaternion, see {@link Quat#mulR(Quat)}
+	 *
+	 * @param q
+	 *            quaternion
+	 * @return this quaternion
+	 */
+	public QuatMutable mul(final QuatMutable q) {
+		return set(r * q.r - i * q.i - j * q.j - k * q.k,
+				r * q.i + i * q.r + j * q.k - k * q.j,
+				r * q.j - i * q.k + j * q.r + k * q.i,
+				r * q.k + i * q.j - j * q.i + k * q.r);
+	}
+
+	/**
+	 * Replaces this quaternion by the result of left side quaternion
+	 * multiplication by the given quaternion, see {@link Quat#mulL(Quat)}
+	 *
+	 * @param q
+	 *            quaternion
+	 * @return this quaternion
+	 */
+	public QuatMutable mulL(final QuatMutable q) {
+		return set(q.r * r - q.i * i - q.j * j - q.k * k,
+				q.r * i + q.i * r + q.j * k - q.k * j,
+				q.r * j + q.j * r + q.k * i - q.i * k,
+				q.r * k + q.k * r + q.i * j - q.j * i);
+	}
+
+	/**
+	 * Stores the product this * q into the given destination quaternion, this
+	 * quaternion is left unchanged unless it is the destination
+	 *
+	 * @param q
+	 *            right side quaternion
+	 * @param dest
+	 *            destination quaternion, may be this or q
+	 * @return the destination quaternion
+	 */
+	public QuatMutable mulInto(final QuatMutable q, final QuatMutable dest) {
+		return dest.set(r * q.r - i * q.i - j * q.j - k * q.k,
+				r * q.i + i * q.r + j * q.k - k * q.j,
+				r * q.j - i * q.k + j * q.r + k * q.i,
+				r * q.k + i * q.j - j * q.i + k * q.r);
+	}
+
+	/**
+	 * Returns the norm of this quaternion
+	 *
+	 * @return double-precision floating point value
+	 */
+	public double norm() {
+		return Math.sqrt(r * r + i * i + j * j + k * k);
+	}
+
+	/**
+	 * Scales this quaternion to unit norm, a zero quaternion is left unchanged
+	 *
+	 * @return this quaternion
+	 */
+	public QuatMutable normalize() {
+		final double norm = norm();
+		if (norm == 0.0)
+			return this;
+		final double iNorm = 1.0 / norm;
+		return set(r * iNorm, i * iNorm, j * iNorm, k * iNorm);
+	}
+
+	/**
+	 * Replaces this quaternion by its conjugate, equal to the inverse for unit
+	 * quaternions
+	 *
+	 * @return this quaternion
+	 */
+	public QuatMutable conjugate() {
+		return set(r, -i, -j, -k);
+	}
+
+	/**
+	 * Replaces this quaternion by its inverse if it exists, see
+	 * {@link Quat#inverse()}
+	 *
+	 * @return this quaternion
+	 */
+	public QuatMutable invert() {
+		final double norm2 = r * r + i * i + j * j + k * k;
+		if (norm2 > 0)
+			return set(r / norm2, -i / norm2, -j / norm2, -k / norm2);
+		return set(0, 0, 0, 0);
+	}
+
+	/**
+	 * Returns an immutable copy of this quaternion
+	 *
+	 * @return new Quat instance
+	 */
+	public Quat toQuat() {
+		return new Quat(r, i, j, k);
+	}
+
+	/**
+	 * Returns String representation of this quaternion
+	 *
+	 * @return floating-point values in parentheses
+	 */
+	@Override
+	public String toString() {
+		return String.format(Locale.US, "(%4.1f,%4.1f,%4.1f,%4.1f)", r, i, j, k);
+	}
+}
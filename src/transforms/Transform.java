@@ -0,0 +1,417 @@
+package transforms;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Affine transformation decomposed into scale, rotation and translation,
+ * applied in this order, immutable. The equivalent matrix is
+ * S * R * T for the row-vector convention of {@link Point3D#mul(Mat4)}, it is
+ * built on the first call of {@link #toMat4()} only.
+ * <p>
+ * Incremental changes cost a few multiplications instead of a 4x4 matrix
+ * product and the components do not accumulate rounding errors of each
+ * other, e.g. repeated translations only add vectors. Products with a
+ * non-uniform scale following a rotation would need shear, which the
+ * decomposed form cannot hold; such products are noted at the respective
+ * methods.
+ *
+ * @author PGRF FIM UHK
+ * @version 2025
+ */
+public class Transform {
+	private static final Quat NO_ROTATION = new Quat(1, 0, 0, 0);
+	private static final Vec3D NO_SCALE = new Vec3D(1);
+
+	private final Vec3D translation;
+	private final Quat rotation;
+	private final Vec3D scale;
+	private volatile Mat4 matrix;
+
+	/**
+	 * Creates the identity transformation
+	 */
+	public Transform() {
+		this(new Vec3D(), NO_ROTATION, NO_SCALE);
+	}
+
+	/**
+	 * Creates a translation
+	 *
+	 * @param translation
+	 *            translation vector
+	 */
+	public Transform(final Vec3D translation) {
+		this(translation, NO_ROTATION, NO_SCALE);
+	}
+
+	/**
+	 * Creates a transformation from its components
+	 *
+	 * @param translation
+	 *            translation vector
+	 * @param rotation
+	 *            rotation quaternion, normalized if it is not a unit one
+	 * @param scale
+	 *            scale factors along the axes
+	 */
+	public Transform(final Vec3D translation, final Quat rotation, final Vec3D scale) {
+		this.translation = translation;
+		final double n = rotation.dot(rotation);
+		this.rotation = Math.abs(n - 1) < 1e-12 ? rotation : rotation.normalized();
+		this.scale = scale;
+	}
+
+	/**
+	 * Decomposes the given matrix into scale, rotation and translation
+	 *
+	 * @param m
+	 *            4x4 matrix
+	 * @return new Transform instance, empty if the matrix is projective,
+	 *         singular or contains shear
+	 */
+	public static Optional<Transform> fromMat4(final Mat4 m) {
+		if (!m.isAffine())
+			return Optional.empty();
+		final double[] a = m.mat;
+		double sx = Math.sqrt(a[0] * a[0] + a[1] * a[1] + a[2] * a[2]);
+		final double sy = Math.sqrt(a[4] * a[4] + a[5] * a[5] + a[6] * a[6]);
+		final double sz = Math.sqrt(a[8] * a[8] + a[9] * a[9] + a[10] * a[10]);
+		if (sx == 0 || sy == 0 || sz == 0)
+			return Optional.empty();
+		// a reflection is moved into the x scale factor
+		if (m.det() < 0)
+			sx = -sx;
+		final double[] r = new double[9];
+		for (int i = 0; i < 3; i++) {
+			final double s = i == 0 ? sx : i == 1 ? sy : sz;
+			for (int j = 0; j < 3; j++)
+				r[i * 3 + j] = a[i * 4 + j] / s;
+		}
+		// the rows must be orthogonal
+		final double eps = 1e-9;
+		if (Math.abs(r[0] * r[3] + r[1] * r[4] + r[2] * r[5]) > eps
+				|| Math.abs(r[0] * r[6] + r[1] * r[7] + r[2] * r[8]) > eps
+				|| Math.abs(r[3] * r[6] + r[4] * r[7] + r[5] * r[8]) > eps)
+			return Optional.empty();
+		return Optional.of(new Transform(new Vec3D(a[12], a[13], a[14]), toQuat(r), new Vec3D(sx, sy, sz)));
+	}
+
+	/**
+	 * Returns the quaternion of a rotation matrix stored row-wise, the inverse
+	 * of {@link Quat#toRotationMatrix()}
+	 */
+	private static Quat toQuat(final double[] r) {
+		final double trace = r[0] + r[4] + r[8];
+		if (trace > 0) {
+			final double s = 2 * Math.sqrt(trace + 1);
+			return new Quat(s / 4, (r[5] - r[7]) / s, (r[6] - r[2]) / s, (r[1] - r[3]) / s);
+		}
+		if (r[0] >= r[4] && r[0] >= r[8]) {
+			final double s = 2 * Math.sqrt(1 + r[0] - r[4] - r[8]);
+			return new Quat((r[5] - r[7]) / s, s / 4, (r[1] + r[3]) / s, (r[2] + r[6]) / s);
+		}
+		if (r[4] >= r[8]) {
+			final double s = 2 * Math.sqrt(1 + r[4] - r[0] - r[8]);
+			return new Quat((r[6] - r[2]) / s, (r[1] + r[3]) / s, s / 4, (r[5] + r[7]) / s);
+		}
+		final double s = 2 * Math.sqrt(1 + r[8] - r[0] - r[4]);
+		return new Quat((r[1] - r[3]) / s, (r[2] + r[6]) / s, (r[5] + r[7]) / s, s / 4);
+	}
+
+	/**
+	 * Returns the translation
+	 *
+	 * @return the translation
+	 */
+	public Vec3D getTranslation() {
+		return translation;
+	}
+
+	/**
+	 * Returns the rotation
+	 *
+	 * @return the rotation, a unit quaternion
+	 */
+	public Quat getRotation() {
+		return rotation;
+	}
+
+	/**
+	 * Returns the scale factors
+	 *
+	 * @return the scale
+	 */
+	public Vec3D getScale() {
+		return scale;
+	}
+
+	/**
+	 * Tests whether this transformation rotates
+	 *
+	 * @return false if the rotation is the identity
+	 */
+	public boolean hasRotation() {
+		return rotation.i != 0 || rotation.j != 0 || rotation.k != 0;
+	}
+
+	/**
+	 * Tests whether the scale factors are equal along all axes
+	 *
+	 * @return true if the scale is uniform
+	 */
+	public boolean hasUniformScale() {
+		return scale.getX() == scale.getY() && scale.getY() == scale.getZ();
+	}
+
+	/**
+	 * Returns a transformation with the given translation
+	 *
+	 * @param translation
+	 *            translation vector
+	 * @return new Transform instance
+	 */
+	public Transform withTranslation(final Vec3D translation) {
+		return new Transform(translation, rotation, scale);
+	}
+
+	/**
+	 * Returns a transformation with the given rotation
+	 *
+	 * @param rotation
+	 *            rotation quaternion
+	 * @return new Transform instance
+	 */
+	public Transform withRotation(final Quat rotation) {
+		return new Transform(translation, rotation, scale);
+	}
+
+	/**
+	 * Returns a transformation with the given scale
+	 *
+	 * @param scale
+	 *            scale factors along the axes
+	 * @return new Transform instance
+	 */
+	public Transform withScale(final Vec3D scale) {
+		return new Transform(translation, rotation, scale);
+	}
+
+	/**
+	 * Returns this transformation followed by the translation by the given
+	 * vector, equivalent to this.toMat4().mul(new Mat4Transl(v))
+	 *
+	 * @param v
+	 *            translation vector
+	 * @return new Transform instance
+	 */
+	public Transform translate(final Vec3D v) {
+		return new Transform(translation.add(v), rotation, scale);
+	}
+
+	/**
+	 * Returns this transformation followed by the rotation about the origin
+	 * given by the unit quaternion, equivalent to
+	 * this.toMat4().mul(q.toRotationMatrix())
+	 *
+	 * @param q
+	 *            rotation quaternion
+	 * @return new Transform instance
+	 */
+	public Transform rotate(final Quat q) {
+		return new Transform(translation.mul(q), q.mul(rotation), scale);
+	}
+
+	/**
+	 * Returns this transformation followed by the rotation about the origin
+	 * by the given angle around the given axis, equivalent to
+	 * this.toMat4().mul(new Mat4Rot(alpha, axis))
+	 *
+	 * @param alpha
+	 *            rotation angle in radians
+	 * @param axis
+	 *            rotation axis, need not be normalized
+	 * @return new Transform instance
+	 */
+	public Transform rotate(final double alpha, final Vec3D axis) {
+		final double len = axis.length();
+		if (len == 0)
+			return this;
+		return rotate(Quat.fromEulerAngle(alpha, axis.mul(1 / len)));
+	}
+
+	/**
+	 * Returns this transformation followed by the scaling with the given
+	 * factors, equivalent to this.toMat4().mul(new Mat4Scale(s)) if the
+	 * factors are equal or this transformation does not rotate; otherwise the
+	 * factors are applied along the local axes and the shear of the exact
+	 * product is lost
+	 *
+	 * @param s
+	 *            scale factors along the axes
+	 * @return new Transform instance
+	 */
+	public Transform scale(final Vec3D s) {
+		return new Transform(translation.mul(s), rotation, scale.mul(s));
+	}
+
+	/**
+	 * Returns this transformation followed by the uniform scaling with the
+	 * given factor
+	 *
+	 * @param s
+	 *            scale factor
+	 * @return new Transform instance
+	 */
+	public Transform scale(final double s) {
+		return new Transform(translation.mul(s), rotation, scale.mul(s));
+	}
+
+	/**
+	 * Returns this transformation followed by the given one, equivalent to
+	 * this.toMat4().mul(t.toMat4()) if the scale of t is uniform or this
+	 * transformation does not rotate; otherwise the scale factors are
+	 * multiplied along the axes and the shear of the exact product is lost
+	 *
+	 * @param t
+	 *            transformation applied after this one
+	 * @return new Transform instance
+	 */
+	public Transform mul(final Transform t) {
+		return new Transform(translation.mul(t.scale).mul(t.rotation).add(t.translation),
+				t.rotation.mul(rotation), scale.mul(t.scale));
+	}
+
+	/**
+	 * Returns the inverse transformation if it exists and can be decomposed,
+	 * i.e. no scale factor is zero and the scale is uniform or there is no
+	 * rotation
+	 *
+	 * @return new Transform instance if possible
+	 */
+	public Optional<Transform> inverse() {
+		if (scale.getX() == 0 || scale.getY() == 0 || scale.getZ() == 0
+				|| (!hasUniformScale() && hasRotation()))
+			return Optional.empty();
+		final Vec3D s = new Vec3D(1 / scale.getX(), 1 / scale.getY(), 1 / scale.getZ());
+		final Quat q = new Quat(rotation.r, -rotation.i, -rotation.j, -rotation.k);
+		return Optional.of(new Transform(translation.mul(q).mul(s).opposite(), q, s));
+	}
+
+	/**
+	 * Returns the interpolation between this and the given transformation;
+	 * translation and scale are interpolated linearly, rotation spherically
+	 * along the shorter arc
+	 *
+	 * @param t
+	 *            transformation
+	 * @param s
+	 *            interpolation parameter, 0 gives this, 1 the given
+	 *            transformation
+	 * @return new Transform instance
+	 */
+	public Transform lerp(final Transform t, final double s) {
+		return new Transform(translation.add(t.translation.sub(translation).mul(s)),
+				slerp(rotation, t.rotation, s), scale.add(t.scale.sub(scale).mul(s)));
+	}
+
+	private static Quat slerp(final Quat a, Quat b, final double t) {
+		double c = a.dot(b);
+		if (c < 0) {
+			b = b.opposite();
+			c = -c;
+		}
+		final double wa, wb;
+		if (c > 0.9995) {
+			// nearly parallel, linear interpolation normalized by the constructor
+			wa = 1 - t;
+			wb = t;
+		} else {
+			final double angle = Math.acos(c);
+			final double iSin = 1 / Math.sin(angle);
+			wa = Math.sin((1 - t) * angle) * iSin;
+			wb = Math.sin(t * angle) * iSin;
+		}
+		return new Quat(wa * a.r + wb * b.r, wa * a.i + wb * b.i, wa * a.j + wb * b.j, wa * a.k + wb * b.k);
+	}
+
+	/**
+	 * Returns the result of applying this transformation to the given point
+	 *
+	 * @param p
+	 *            point
+	 * @return new Vec3D instance
+	 */
+	public Vec3D transformPoint(final Vec3D p) {
+		return p.mul(scale).mul(rotation).add(translation);
+	}
+
+	/**
+	 * Returns the equivalent 4x4 matrix S * R * T, built on the first call
+	 *
+	 * @return Mat4 instance shared by all calls
+	 */
+	public Mat4 toMat4() {
+		Mat4 m = matrix;
+		if (m == null) {
+			final double r = rotation.r, i = rotation.i, j = rotation.j, k = rotation.k;
+			final double sx = scale.getX(), sy = scale.getY(), sz = scale.getZ();
+			m = new Mat4Identity();
+			final double[] a = m.mat;
+			a[0] = sx * (1 - 2 * (j * j + k * k));
+			a[1] = sx * 2 * (i * j + r * k);
+			a[2] = sx * 2 * (i * k - r * j);
+			a[4] = sy * 2 * (i * j - r * k);
+			a[5] = sy * (1 - 2 * (i * i + k * k));
+			a[6] = sy * 2 * (k * j + i * r);
+			a[8] = sz * 2 * (r * j + i * k);
+			a[9] = sz * 2 * (k * j - i * r);
+			a[10] = sz * (1 - 2 * (i * i + j * j));
+			a[12] = translation.getX();
+			a[13] = translation.getY();
+			a[14] = translation.getZ();
+			matrix = m;
+		}
+		return m;
+	}
+
+	/**
+	 * Compares this object against the specified object.
+	 * @param   obj   the object to compare with.
+	 * @return  {@code true} if the objects are the same;
+	 *          {@code false} otherwise.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof Transform))
+			return false;
+		final Transform t = (Transform) obj;
+		return translation.equals(t.translation) && scale.equals(t.scale)
+				&& Double.compare(rotation.r, t.rotation.r) == 0 && Double.compare(rotation.i, t.rotation.i) == 0
+				&& Double.compare(rotation.j, t.rotation.j) == 0 && Double.compare(rotation.k, t.rotation.k) == 0;
+	}
+
+	/**
+	 * Returns a hash code value for the object.
+	 *
+	 * @return  a hash code value for this object.
+	 */
+	@Override
+	public int hashCode() {
+		int h = translation.hashCode();
+		h = 31 * h + rotation.hashCode();
+		return 31 * h + scale.hashCode();
+	}
+
+	/**
+	 * Returns String representation of this transformation
+	 *
+	 * @return translation, rotation and scale in square brackets
+	 */
+	@Override
+	public String toString() {
+		return String.format(Locale.US, "[T%s, R%s, S%s]", translation, rotation, scale);
+	}
+}
@@ -205,9 +205,9 @@ public class Vec3D {
 	 */
 	public Vec3D mul(final Mat3 m) {
 		return new Vec3D(
-			m.mat[0][0] * x + m.mat[1][0] * y + m.mat[2][0] * z,
-			m.mat[0][1] * x + m.mat[1][1] * y + m.mat[2][1] * z,
-			m.mat[0][2] * x + m.mat[1][2] * y + m.mat[2][2] * z);
+			m.mat[0] * x + m.mat[3] * y + m.mat[6] * z,
+			m.mat[1] * x + m.mat[4] * y + m.mat[7] * z,
+			m.mat[2] * x + m.mat[5] * y + m.mat[8] * z);
 	}
 
 	/**
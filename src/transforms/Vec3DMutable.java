@@ -0,0 +1,318 @@
+package transforms;
+
+import java.util.Locale;
+
+/**
+ * 3D vector over real numbers (double-precision), mutable companion of
+ * {@link Vec3D} intended as a reusable workspace in per-frame code. All
+ * operations modify this vector in place and return it for chaining.
+ *
+ * @author PGRF FIM UHK
+ * @version 2025
+ */
+public class Vec3DMutable {
+	double x, y, z;
+
+	/**
+	 * Creates a zero vector
+	 */
+	public Vec3DMutable() {
+	}
+
+	/**
+	 * Creates a vector with the given coordinates
+	 *
+	 * @param x
+	 *            x coordinate
+	 * @param y
+	 *            y coordinate
+	 * @param z
+	 *            z coordinate
+	 */
+	public Vec3DMutable(final double x, final double y, final double z) {
+		set(x, y, z);
+	}
+
+	/**
+	 * Creates a vector with the coordinates of the given immutable vector
+	 *
+	 * @param v
+	 *            vector to be copied
+	 */
+	public Vec3DMutable(final Vec3D v) {
+		set(v);
+	}
+
+	/**
+	 * Returns the x coordinate
+	 *
+	 * @return the x
+	 */
+	public double getX() {
+		return x;
+	}
+
+	/**
+	 * Returns the y coordinate
+	 *
+	 * @return the y
+	 */
+	public double getY() {
+		return y;
+	}
+
+	/**
+	 * Returns the z coordinate
+	 *
+	 * @return the z
+	 */
+	public double getZ() {
+		return z;
+	}
+
+	/**
+	 * Sets the coordinates of this vector
+	 *
+	 * @param x
+	 *            x coordinate
+	 * @param y
+	 *            y coordinate
+	 * @param z
+	 *            z coordinate
+	 * @return this vector
+	 */
+	public Vec3DMutable set(final double x, final double y, final double z) {
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		return this;
+	}
+
+	/**
+	 * Sets the coordinates of this vector from the given immutable vector
+	 *
+	 * @param v
+	 *            vector to be copied
+	 * @return this vector
+	 */
+	public Vec3DMutable set(final Vec3D v) {
+		return set(v.getX(), v.getY(), v.getZ());
+	}
+
+	/**
+	 * Sets the coordinates of this vector from the given mutable vector
+	 *
+	 * @param v
+	 *            vector to be copied
+	 * @return this vector
+	 */
+	public Vec3DMutable set(final Vec3DMutable v) {
+		return set(v.x, v.y, v.z);
+	}
+
+	/**
+	 * Adds the given vector to this vector
+	 *
+	 * @param v
+	 *            vector to add
+	 * @return this vector
+	 */
+	public Vec3DMutable add(final Vec3DMutable v) {
+		return set(x + v.x, y + v.y, z + v.z);
+	}
+
+	/**
+	 * Adds the given coordinates to this vector
+	 *
+	 * @param dx
+	 *            x coordinate to add
+	 * @param dy
+	 *            y coordinate to add
+	 * @param dz
+	 *            z coordinate to add
+	 * @return this vector
+	 */
+	public Vec3DMutable add(final double dx, final double dy, final double dz) {
+		return set(x + dx, y + dy, z + dz);
+	}
+
+	/**
+	 * Adds the given vector multiplied by the given scalar to this vector
+	 *
+	 * @param v
+	 *            vector to add
+	 * @param d
+	 *            scalar value the vector is multiplied by
+	 * @return this vector
+	 */
+	public Vec3DMutable addMul(final Vec3DMutable v, final double d) {
+		return set(x + v.x * d, y + v.y * d, z + v.z * d);
+	}
+
+	/**
+	 * Subtracts the given vector from this vector
+	 *
+	 * @param v
+	 *            vector to subtract
+	 * @return this vector
+	 */
+	public Vec3DMutable sub(final Vec3DMutable v) {
+		return set(x - v.x, y - v.y, z - v.z);
+	}
+
+	/**
+	 * Multiplies this vector by the given scalar value
+	 *
+	 * @param d
+	 *            scalar value of type double
+	 * @return this vector
+	 */
+	public Vec3DMutable mul(final double d) {
+		return set(x * d, y * d, z * d);
+	}
+
+	/**
+	 * Multiplies this vector element-wise by the given vector
+	 *
+	 * @param v
+	 *            3D vector
+	 * @return this vector
+	 */
+	public Vec3DMutable mul(final Vec3DMutable v) {
+		return set(x * v.x, y * v.y, z * v.z);
+	}
+
+	/**
+	 * Replaces this vector by its cross-product with the given vector
+	 *
+	 * @param v
+	 *            3D vector
+	 * @return this vector
+	 */
+	public Vec3DMutable cross(final Vec3DMutable v) {
+		return set(y * v.z - z * v.y, z * v.x - x * v.z, x * v.y - y * v.x);
+	}
+
+	/**
+	 * Returns the result of dot-product with the given vector
+	 *
+	 * @param v
+	 *            3D vector
+	 * @return double-precision floating point value
+	 */
+	public double dot(final Vec3DMutable v) {
+		return x * v.x + y * v.y + z * v.z;
+	}
+
+	/**
+	 * Returns the length of this vector
+	 *
+	 * @return double-precision floating point value
+	 */
+	public double length() {
+		return Math.sqrt(x * x + y * y + z * z);
+	}
+
+	/**
+	 * Scales this vector to unit length, a zero vector is left unchanged
+	 *
+	 * @return this vector
+	 */
+	public Vec3DMutable normalize() {
+		final double len = length();
+		if (len == 0.0)
+			return this;
+		return mul(1.0 / len);
+	}
+
+	/**
+	 * Transforms this vector as an affine point (w = 1) by the given 4x4
+	 * matrix, the result is dehomogenized if the resulting w is nonzero
+	 *
+	 * @param m
+	 *            4x4 matrix
+	 * @return this vector
+	 */
+	public Vec3DMutable mulPoint(final Mat4Mutable m) {
+		return mulPoint(m.mat);
+	}
+
+	/**
+	 * Transforms this vector as an affine point (w = 1) by the given 4x4
+	 * matrix, the result is dehomogenized if the resulting w is nonzero
+	 *
+	 * @param m
+	 *            4x4 matrix
+	 * @return this vector
+	 */
+	public Vec3DMutable mulPoint(final Mat4 m) {
+		if (m.isAffine()) {
+			final double[] a = m.mat;
+			return set(a[0] * x + a[4] * y + a[8] * z + a[12],
+					a[1] * x + a[5] * y + a[9] * z + a[13],
+					a[2] * x + a[6] * y + a[10] * z + a[14]);
+		}
+		return mulPoint(m.mat);
+	}
+
+	private Vec3DMutable mulPoint(final double[] m) {
+		final double rx = m[0] * x + m[4] * y + m[8] * z + m[12];
+		final double ry = m[1] * x + m[5] * y + m[9] * z + m[13];
+		final double rz = m[2] * x + m[6] * y + m[10] * z + m[14];
+		final double rw = m[3] * x + m[7] * y + m[11] * z + m[15];
+		if (rw == 1.0 || rw == 0.0)
+			return set(rx, ry, rz);
+		return set(rx / rw, ry / rw, rz / rw);
+	}
+
+	/**
+	 * Transforms this vector as a direction (w = 0) by the given 4x4 matrix,
+	 * i.e. by its upper 3x3 submatrix
+	 *
+	 * @param m
+	 *            4x4 matrix
+	 * @return this vector
+	 */
+	public Vec3DMutable mulDirection(final Mat4Mutable m) {
+		final double[] a = m.mat;
+		return set(a[0] * x + a[4] * y + a[8] * z,
+				a[1] * x + a[5] * y + a[9] * z,
+				a[2] * x + a[6] * y + a[10] * z);
+	}
+
+	/**
+	 * Rotates this vector by the given unit quaternion
+	 *
+	 * @param q
+	 *            unit quaternion
+	 * @return this vector
+	 */
+	public Vec3DMutable mul(final QuatMutable q) {
+		// t = 2 * (ijk x v); v' = v + r * t + ijk x t
+		final double tx = 2 * (q.j * z - q.k * y);
+		final double ty = 2 * (q.k * x - q.i * z);
+		final double tz = 2 * (q.i * y - q.j * x);
+		return set(x + q.r * tx + (q.j * tz - q.k * ty),
+				y + q.r * ty + (q.k * tx - q.i * tz),
+				z + q.r * tz + (q.i * ty - q.j * tx));
+	}
+
+	/**
+	 * Returns an immutable copy of this vector
+	 *
+	 * @return new Vec3D instance
+	 */
+	public Vec3D toVec3D() {
+		return new Vec3D(x, y, z);
+	}
+
+	/**
+	 * Returns String representation of this vector
+	 *
+	 * @return comma separated floating-point values in brackets
+	 */
+	@Override
+	public String toString() {
+		return String.format(Locale.US, "(%4.1f,%4.1f,%4.1f)", x, y, z);
+	}
+}
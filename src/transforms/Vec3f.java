@@ -0,0 +1,237 @@
+package transforms;
+
+import java.nio.FloatBuffer;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * 3D vector over single-precision floats, immutable. Intended for shader
+ * uniform uploads without per-upload conversions from double.
+ *
+ * @author PGRF FIM UHK
+ * @version 2025
+ */
+public class Vec3f {
+	private final float x, y, z;
+
+	/**
+	 * Creates a zero vector
+	 */
+	public Vec3f() {
+		x = y = z = 0.0f;
+	}
+
+	/**
+	 * Creates a vector with the given coordinates
+	 *
+	 * @param x
+	 *            x coordinate
+	 * @param y
+	 *            y coordinate
+	 * @param z
+	 *            z coordinate
+	 */
+	public Vec3f(final float x, final float y, final float z) {
+		this.x = x;
+		this.y = y;
+		this.z = z;
+	}
+
+	/**
+	 * Creates a single-precision copy of the given vector
+	 *
+	 * @param v
+	 *            vector to be converted
+	 */
+	public Vec3f(final Vec3D v) {
+		this((float) v.getX(), (float) v.getY(), (float) v.getZ());
+	}
+
+	/**
+	 * Creates a vector by extracting coordinates from the given array of
+	 * floats
+	 *
+	 * @param array
+	 *            float array of size 3 (asserted)
+	 */
+	public Vec3f(final float[] array) {
+		assert(array.length >= 3);
+		x = array[0];
+		y = array[1];
+		z = array[2];
+	}
+
+	/**
+	 * Returns the x coordinate
+	 *
+	 * @return the x
+	 */
+	public float getX() {
+		return x;
+	}
+
+	/**
+	 * Returns the y coordinate
+	 *
+	 * @return the y
+	 */
+	public float getY() {
+		return y;
+	}
+
+	/**
+	 * Returns the z coordinate
+	 *
+	 * @return the z
+	 */
+	public float getZ() {
+		return z;
+	}
+
+	/**
+	 * Returns the result of vector addition of the given vector
+	 *
+	 * @param v
+	 *            vector to add
+	 * @return new Vec3f instance
+	 */
+	public Vec3f add(final Vec3f v) {
+		return new Vec3f(x + v.x, y + v.y, z + v.z);
+	}
+
+	/**
+	 * Returns the result of vector subtraction of the given vector
+	 *
+	 * @param v
+	 *            vector to subtract
+	 * @return new Vec3f instance
+	 */
+	public Vec3f sub(final Vec3f v) {
+		return new Vec3f(x - v.x, y - v.y, z - v.z);
+	}
+
+	/**
+	 * Returns the result of scalar multiplication
+	 *
+	 * @param d
+	 *            scalar value of type float
+	 * @return new Vec3f instance
+	 */
+	public Vec3f mul(final float d) {
+		return new Vec3f(x * d, y * d, z * d);
+	}
+
+	/**
+	 * Returns the result of dot-product with the given vector
+	 *
+	 * @param v
+	 *            3D vector
+	 * @return single-precision floating point value
+	 */
+	public float dot(final Vec3f v) {
+		return x * v.x + y * v.y + z * v.z;
+	}
+
+	/**
+	 * Returns the result of cross-product with the given vector, the
+	 * direction is right-handed
+	 *
+	 * @param v
+	 *            3D vector
+	 * @return new Vec3f instance
+	 */
+	public Vec3f cross(final Vec3f v) {
+		return new Vec3f(y * v.z - z * v.y, z * v.x - x * v.z, x * v.y - y * v.x);
+	}
+
+	/**
+	 * Returns the length of this vector
+	 *
+	 * @return single-precision floating point value
+	 */
+	public float length() {
+		return (float) Math.sqrt(x * x + y * y + z * z);
+	}
+
+	/**
+	 * Returns a collinear unit vector if possible (nonzero length), empty
+	 * Optional otherwise
+	 *
+	 * @return new Optional<Vec3f> instance
+	 */
+	public Optional<Vec3f> normalized() {
+		final float len = length();
+		if (len == 0.0f)
+			return Optional.empty();
+		return Optional.of(new Vec3f(x / len, y / len, z / len));
+	}
+
+	/**
+	 * Writes this vector into the buffer starting at the given absolute
+	 * index; the buffer position is left unchanged
+	 *
+	 * @param buffer
+	 *            destination buffer with at least offset + 3 elements
+	 * @param offset
+	 *            absolute index of the first element
+	 * @return the buffer
+	 */
+	public FloatBuffer writeTo(final FloatBuffer buffer, final int offset) {
+		return buffer.put(offset, x).put(offset + 1, y).put(offset + 2, z);
+	}
+
+	/**
+	 * Returns a double-precision copy of this vector
+	 *
+	 * @return new Vec3D instance
+	 */
+	public Vec3D toVec3D() {
+		return new Vec3D(x, y, z);
+	}
+
+	/**
+	 * Returns this vector in a float array
+	 *
+	 * @return new float array
+	 */
+	public float[] floatArray() {
+		return new float[] {x, y, z};
+	}
+
+	/**
+	 * Compares this object against the specified object.
+	 *
+	 * @param obj
+	 *            the object to compare with.
+	 * @return {@code true} if the objects are the same; {@code false}
+	 *         otherwise.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		return (this == obj) || (obj instanceof Vec3f)
+				&& Float.compare(((Vec3f) obj).x, x) == 0
+				&& Float.compare(((Vec3f) obj).y, y) == 0
+				&& Float.compare(((Vec3f) obj).z, z) == 0;
+	}
+
+	/**
+	 * Returns a hash code value for the object.
+	 *
+	 * @return  a hash code value for this object.
+	 */
+	@Override
+	public int hashCode() {
+		return Objects.hash(x, y, z);
+	}
+
+	/**
+	 * Returns String representation of this vector
+	 *
+	 * @return comma separated floating-point values in brackets
+	 */
+	@Override
+	public String toString() {
+		return String.format(Locale.US, "(%4.1f,%4.1f,%4.1f)", x, y, z);
+	}
+}